@@ -25,4 +25,12 @@ public interface BoltProtocol
     void install();
     /** Used for version negotiation */
     BoltProtocolVersion version();
+    /**
+     * Used for compression negotiation, called before {@link #install()} when the client asked for compression.
+     * @return {@code true} if the installed protocol will compress its traffic.
+     */
+    default boolean acceptCompression()
+    {
+        return false;
+    }
 }
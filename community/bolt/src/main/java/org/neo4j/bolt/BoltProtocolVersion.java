@@ -27,6 +27,12 @@ public class BoltProtocolVersion
 {
     public static final long SHALLOW_SIZE = HeapEstimator.shallowSizeOfInstance( BoltProtocolVersion.class );
 
+    /**
+     * Set in the otherwise reserved highest byte of a version suggested during the handshake when the client can compress its traffic,
+     * and echoed back in the selected version when the server agrees to do so.
+     */
+    public static final int COMPRESSION_FLAG = 0x01000000;
+
     private int majorVersion;
     private int minorVersion;
 
@@ -56,6 +62,11 @@ public class BoltProtocolVersion
         return ( rawVersion >> 16 ) & 0x000000FF;
     }
 
+    public static boolean isCompressionRequested( int rawVersion )
+    {
+        return ( rawVersion & COMPRESSION_FLAG ) != 0;
+    }
+
     public long getMinorVersion()
     {
         return minorVersion;
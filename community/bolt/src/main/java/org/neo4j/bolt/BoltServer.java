@@ -156,7 +156,7 @@ public class BoltServer extends LifecycleAdapter
 
         BoltSchedulerProvider boltSchedulerProvider =
                 life.setLast( new ExecutorBoltSchedulerProvider( config, new CachedThreadPoolExecutorFactory(),
-                        jobScheduler, logService ) );
+                        jobScheduler, logService, clock, monitors ) );
         BoltConnectionFactory boltConnectionFactory = createConnectionFactory( config, boltSchedulerProvider, logService, clock );
 
         var externalBoltStateMachineFactory = createBoltStateMachineFactory( createAuthentication( externalAuthManager ), clock, transactionManager );
@@ -20,11 +20,13 @@
 package org.neo4j.bolt.packstream;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 
 import org.neo4j.bolt.messaging.BoltIOException;
 import org.neo4j.bolt.messaging.StructType;
@@ -466,6 +468,20 @@ public class Neo4jPackV1 implements Neo4jPack
 
     protected static class UnpackerV1 extends PackStream.Unpacker implements Neo4jPack.Unpacker
     {
+        /**
+         * Keys of the metadata maps sent with nearly every request. Map keys that match one of them are returned as the shared
+         * instance instead of being decoded into a new string every time.
+         */
+        private static final String[] WELL_KNOWN_KEYS =
+                {"n", "qid", "db", "mode", "bookmarks", "tx_timeout", "tx_metadata", "imp_user", "user_agent", "scheme", "principal", "credentials",
+                 "routing"};
+        private static final byte[][] WELL_KNOWN_KEY_BYTES = Arrays.stream( WELL_KNOWN_KEYS )
+                                                                   .map( key -> key.getBytes( StandardCharsets.UTF_8 ) )
+                                                                   .toArray( byte[][]::new );
+        private static final int KEY_BUFFER_SIZE = 64;
+
+        private final byte[] keyBuffer = new byte[KEY_BUFFER_SIZE];
+
         protected UnpackerV1( PackInput input )
         {
             super( input );
@@ -563,7 +579,7 @@ public class Neo4jPackV1 implements Neo4jPack
                 case NULL:
                     throw new BoltIOException( Status.Request.Invalid, "Value `null` is not supported as key in maps, must be a non-nullable string." );
                 case STRING:
-                    key = unpackString();
+                    key = unpackMapKey();
                     break;
                 default:
                     throw new BoltIOException( Status.Request.InvalidFormat, "Bad key type: " + keyType );
@@ -577,5 +593,30 @@ public class Neo4jPackV1 implements Neo4jPack
             }
             return map.build();
         }
+
+        private String unpackMapKey() throws IOException
+        {
+            int size = unpackStringHeader();
+            if ( size > keyBuffer.length )
+            {
+                byte[] bytes = new byte[size];
+                in.readBytes( bytes, 0, size );
+                return new String( bytes, StandardCharsets.UTF_8 );
+            }
+
+            if ( size > 0 )
+            {
+                in.readBytes( keyBuffer, 0, size );
+            }
+            for ( int i = 0; i < WELL_KNOWN_KEY_BYTES.length; i++ )
+            {
+                byte[] candidate = WELL_KNOWN_KEY_BYTES[i];
+                if ( Arrays.equals( keyBuffer, 0, size, candidate, 0, candidate.length ) )
+                {
+                    return WELL_KNOWN_KEYS[i];
+                }
+            }
+            return new String( keyBuffer, 0, size, StandardCharsets.UTF_8 );
+        }
     }
 }
@@ -29,6 +29,7 @@ import org.neo4j.graphdb.Notification;
 import org.neo4j.graphdb.QueryExecutionType;
 import org.neo4j.graphdb.QueryStatistics;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.util.Preconditions;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.TextValue;
@@ -60,6 +61,8 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     private final String[] fieldNames;
     protected final Clock clock;
     private final BoltAdapterSubscriber querySubscriber;
+    private PrefetchBuffer prefetchBuffer;
+    private long prefetchDepth;
 
     private static final Long STREAM_UNLIMITED_BATCH_SIZE = Long.MAX_VALUE;
 
@@ -75,6 +78,7 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
     @Override
     public void close()
     {
+        closePrefetchBuffer();
         queryExecution.cancel();
     }
 
@@ -91,7 +95,32 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         this.querySubscriber.setRecordConsumer( recordConsumer );
 
         boolean hasMore = true;
-        if ( size == STREAM_LIMIT_UNLIMITED )
+        long toPull = size;
+        if ( prefetchBuffer != null )
+        {
+            int prefetched = prefetchBuffer.size();
+            long replayed = prefetchBuffer.replay( recordConsumer, size == STREAM_LIMIT_UNLIMITED ? Long.MAX_VALUE : size );
+            adaptPrefetchDepth( size, prefetched );
+            if ( prefetchBuffer.size() > 0 )
+            {
+                toPull = 0;
+            }
+            else if ( prefetchBuffer.isExhausted() )
+            {
+                hasMore = false;
+                toPull = 0;
+            }
+            else if ( size != STREAM_LIMIT_UNLIMITED )
+            {
+                toPull = size - replayed;
+            }
+        }
+        else if ( size != STREAM_LIMIT_UNLIMITED )
+        {
+            prefetchDepth = size;
+        }
+
+        if ( toPull == STREAM_LIMIT_UNLIMITED )
         {
             while ( hasMore )
             {
@@ -100,9 +129,9 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
                 hasMore = queryExecution.await();
             }
         }
-        else
+        else if ( toPull > 0 )
         {
-            queryExecution.request( size );
+            queryExecution.request( toPull );
             hasMore = queryExecution.await();
         }
 
@@ -125,6 +154,7 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         if ( queryExecution.executionType().queryType() == QueryExecutionType.QueryType.READ_ONLY )
         {
             long start = clock.millis();
+            closePrefetchBuffer();
             queryExecution.cancel();
             queryExecution.await();
             addRecordStreamingTime( clock.millis() - start, consumer );
@@ -140,6 +170,69 @@ public abstract class AbstractCypherAdapterStream implements BoltResult
         }
     }
 
+    /**
+     * Pulls up to the current prefetch depth of records into a buffer. The depth starts out at the size of the first request and then follows how
+     * the client consumes records: it doubles when a request takes all prefetched records and asks for more, and halves, though never below the
+     * request size, when a request leaves prefetched records behind.
+     * <p>
+     * Only read-only results are prefetched. Records of other queries might never be asked for, in which case they must not have been produced.
+     */
+    @Override
+    public void prefetchRecords( int maxRecords, MemoryTracker memoryTracker )
+    {
+        if ( prefetchDepth <= 0 || queryExecution.executionType().queryType() != QueryExecutionType.QueryType.READ_ONLY )
+        {
+            return;
+        }
+        if ( prefetchBuffer == null )
+        {
+            prefetchBuffer = new PrefetchBuffer( memoryTracker );
+        }
+
+        long missing = Math.min( prefetchDepth, maxRecords ) - prefetchBuffer.size();
+        if ( missing > 0 && prefetchBuffer.canPrefetch() )
+        {
+            querySubscriber.setRecordConsumer( prefetchBuffer );
+            try
+            {
+                queryExecution.request( missing );
+                if ( !queryExecution.await() )
+                {
+                    prefetchBuffer.markExhausted();
+                }
+            }
+            catch ( Throwable t )
+            {
+                prefetchBuffer.fail( t );
+            }
+        }
+    }
+
+    private void adaptPrefetchDepth( long size, int prefetched )
+    {
+        if ( size == STREAM_LIMIT_UNLIMITED )
+        {
+            return;
+        }
+        if ( prefetched > 0 && size > prefetched )
+        {
+            prefetchDepth = Math.min( prefetchDepth * 2, Integer.MAX_VALUE );
+        }
+        else if ( size < prefetched )
+        {
+            prefetchDepth = Math.max( prefetchDepth / 2, size );
+        }
+    }
+
+    private void closePrefetchBuffer()
+    {
+        if ( prefetchBuffer != null )
+        {
+            prefetchBuffer.close();
+            prefetchBuffer = null;
+        }
+    }
+
     protected abstract void addDatabaseName( RecordConsumer recordConsumer );
 
     protected abstract void addRecordStreamingTime( long time, RecordConsumer recordConsumer );
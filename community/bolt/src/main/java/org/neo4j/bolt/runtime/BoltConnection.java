@@ -55,6 +55,20 @@ public interface BoltConnection
      */
     SocketAddress remoteAddress();
 
+    /**
+     * Returns the name of the user this connection is authenticated as.
+     *
+     * @return user name, or {@code null} when the connection is not authenticated yet
+     */
+    String username();
+
+    /**
+     * Returns the database transactions of this connection run against unless they name a database explicitly.
+     *
+     * @return database name, or {@code null} when it is not resolved yet
+     */
+    String defaultDatabase();
+
     /**
      * Returns the underlying raw netty channel
      *
@@ -91,7 +105,8 @@ public interface BoltConnection
     /**
      * Invoked when an exception is caught during the scheduling of the pending jobs. The caught exception would mostly
      * be {@link RejectedExecutionException} which is thrown by the thread pool executor when it fails to accept
-     * submitted jobs
+     * submitted jobs. The connection is closed afterwards, unless the jobs were only refused by admission control,
+     * see {@link org.neo4j.bolt.runtime.scheduling.BoltAdmissionRejectedException}.
      *
      * @param t the exception occurred during scheduling
      */
@@ -20,6 +20,7 @@
 package org.neo4j.bolt.runtime;
 
 import org.neo4j.bolt.messaging.BoltRecordConsumer;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.AnyValue;
 
 /**
@@ -43,6 +44,17 @@ public interface BoltResult extends AutoCloseable
      */
     boolean discardRecords( DiscardingRecordConsumer recordConsumer, long size ) throws Throwable;
 
+    /**
+     * Pull records ahead of the next call to {@link #handleRecords(RecordConsumer, long)}, which will then hand them out before pulling any more.
+     * Failures are kept and reported by that next call.
+     *
+     * @param maxRecords the maximum number of records to hold on to.
+     * @param memoryTracker the tracker to account the held records to.
+     */
+    default void prefetchRecords( int maxRecords, MemoryTracker memoryTracker )
+    {
+    }
+
     @Override
     void close();
 
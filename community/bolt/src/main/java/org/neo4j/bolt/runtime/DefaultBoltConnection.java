@@ -32,6 +32,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.BoltServer;
 import org.neo4j.bolt.messaging.BoltResponseMessageWriter;
+import org.neo4j.bolt.runtime.scheduling.BoltAdmissionRejectedException;
 import org.neo4j.bolt.runtime.scheduling.BoltConnectionLifetimeListener;
 import org.neo4j.bolt.runtime.scheduling.BoltConnectionQueueMonitor;
 import org.neo4j.bolt.runtime.statemachine.BoltStateMachine;
@@ -43,6 +44,7 @@ import org.neo4j.util.FeatureToggles;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.commons.lang3.exception.ExceptionUtils.hasCause;
+import static org.apache.commons.lang3.exception.ExceptionUtils.throwableOfType;
 
 public class DefaultBoltConnection implements BoltConnection
 {
@@ -70,12 +72,13 @@ public class DefaultBoltConnection implements BoltConnection
     private final Clock clock;
     private final BoltResponseMessageWriter messageWriter;
     private final KeepAliveHandler keepAliveHandler;
+    private final int maxPrefetchRecords;
 
     DefaultBoltConnection( BoltChannel channel, BoltResponseMessageWriter messageWriter, BoltStateMachine machine,
                            LogService logService, BoltConnectionLifetimeListener listener,
                            BoltConnectionQueueMonitor queueMonitor, int maxBatchSize, KeepAliveHandler keepAliveHandler,
                            BoltConnectionMetricsMonitor metricsMonitor,
-                           Clock clock )
+                           Clock clock, int maxPrefetchRecords )
     {
         this.id = channel.id();
         this.channel = channel;
@@ -90,6 +93,7 @@ public class DefaultBoltConnection implements BoltConnection
         this.clock = clock;
         this.messageWriter = messageWriter;
         this.keepAliveHandler = keepAliveHandler;
+        this.maxPrefetchRecords = maxPrefetchRecords;
     }
 
     @Override
@@ -118,6 +122,18 @@ public class DefaultBoltConnection implements BoltConnection
         return channel.clientAddress();
     }
 
+    @Override
+    public String username()
+    {
+        return channel.username();
+    }
+
+    @Override
+    public String defaultDatabase()
+    {
+        return channel.defaultDatabase();
+    }
+
     @Override
     public Channel channel()
     {
@@ -224,6 +240,13 @@ public class DefaultBoltConnection implements BoltConnection
                     // processed), silently exit
                     if ( batch.isEmpty() && !exitIfNoJobsAvailable )
                     {
+                        // the previous response has been flushed, so while the client is reading it
+                        // use the otherwise idle time to pull the next records of open results
+                        if ( maxPrefetchRecords > 0 && !willClose() )
+                        {
+                            machine.prefetchResults( maxPrefetchRecords );
+                        }
+
                         // loop until we get a new job, if we cannot then validate
                         // transaction to check for termination condition. We'll
                         // break loop if we'll close the connection
@@ -307,6 +330,13 @@ public class DefaultBoltConnection implements BoltConnection
     @Override
     public void handleSchedulingError( Throwable t )
     {
+        var rejection = throwableOfType( t, BoltAdmissionRejectedException.class );
+        if ( rejection != null )
+        {
+            handleAdmissionRejection( rejection );
+            return;
+        }
+
         // if the connection is closing, don't output any logs
         if ( !willClose() )
         {
@@ -338,6 +368,23 @@ public class DefaultBoltConnection implements BoltConnection
         close();
     }
 
+    /**
+     * Shedding load is part of normal operation under pressure, so unlike other scheduling errors a rejection by admission control
+     * only fails the next request, with a transient status the client can retry on, and the connection stays open.
+     * Rejections are counted by the admission controller's monitor, so they are only logged at debug level here.
+     */
+    private void handleAdmissionRejection( BoltAdmissionRejectedException rejection )
+    {
+        if ( !willClose() )
+        {
+            log.debug( "Bolt session '%s' was not admitted for execution. %s", id(), rejection.getMessage() );
+            machine.markFailed( Neo4jError.from( Status.Request.Overloaded, rejection.getMessage() ) );
+        }
+
+        // answers the next request with the failure on this thread (fork-join pool), or closes the connection if closing
+        processNextBatch( 1, true );
+    }
+
     @Override
     public void interrupt()
     {
@@ -77,7 +77,7 @@ public class DefaultBoltConnectionFactory implements BoltConnectionFactory
 
         BoltConnection connection = new DefaultBoltConnection(
                 channel, messageWriter, stateMachine, logService, scheduler, connectionQueueMonitor, DEFAULT_MAX_BATCH_SIZE, keepAliveHandler, metricsMonitor,
-                clock );
+                clock, config.get( GraphDatabaseInternalSettings.bolt_result_prefetch_max_records ) );
         connection.start();
 
         return connection;
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime;
+
+import java.util.ArrayDeque;
+
+import org.neo4j.bolt.messaging.BoltRecordConsumer;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.values.AnyValue;
+
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray;
+
+/**
+ * Records of a result that were pulled before the client asked for them.
+ * <p>
+ * While prefetching, the buffer is the record consumer of the query. On the next request the held records are replayed to the actual consumer,
+ * followed by any failure that happened while prefetching. Held records are accounted to the memory tracker until they are replayed or the
+ * buffer is closed.
+ */
+class PrefetchBuffer implements BoltResult.RecordConsumer, AutoCloseable
+{
+    private final MemoryTracker memoryTracker;
+    private final ArrayDeque<AnyValue[]> records = new ArrayDeque<>();
+
+    private AnyValue[] current;
+    private int currentField;
+    private boolean exhausted;
+    private boolean failed;
+    private Throwable error;
+
+    PrefetchBuffer( MemoryTracker memoryTracker )
+    {
+        this.memoryTracker = memoryTracker;
+    }
+
+    @Override
+    public void beginRecord( int numberOfFields )
+    {
+        current = new AnyValue[numberOfFields];
+        currentField = 0;
+    }
+
+    @Override
+    public void consumeField( AnyValue value )
+    {
+        current[currentField++] = value;
+    }
+
+    @Override
+    public void endRecord()
+    {
+        memoryTracker.allocateHeap( estimatedHeapUsage( current ) );
+        records.add( current );
+        current = null;
+    }
+
+    @Override
+    public void onError()
+    {
+        failed = true;
+    }
+
+    @Override
+    public void addMetadata( String key, AnyValue value )
+    {
+        // metadata is only added once the stream is completed, which is after the buffer has been drained
+    }
+
+    int size()
+    {
+        return records.size();
+    }
+
+    /**
+     * @return {@code true} if more records can be pulled into this buffer.
+     */
+    boolean canPrefetch()
+    {
+        return !exhausted && !failed && error == null;
+    }
+
+    /**
+     * @return {@code true} if the query has no records left beyond the ones held by this buffer.
+     */
+    boolean isExhausted()
+    {
+        return exhausted;
+    }
+
+    void markExhausted()
+    {
+        exhausted = true;
+    }
+
+    void fail( Throwable error )
+    {
+        this.error = error;
+    }
+
+    /**
+     * Hands held records to the consumer, and, once all of them have been handed out, reports any failure that happened while prefetching.
+     *
+     * @return the number of records handed to the consumer.
+     */
+    long replay( BoltRecordConsumer consumer, long maxRecords ) throws Throwable
+    {
+        long replayed = 0;
+        while ( replayed < maxRecords && !records.isEmpty() )
+        {
+            AnyValue[] record = records.poll();
+            memoryTracker.releaseHeap( estimatedHeapUsage( record ) );
+            consumer.beginRecord( record.length );
+            for ( AnyValue value : record )
+            {
+                consumer.consumeField( value );
+            }
+            consumer.endRecord();
+            replayed++;
+        }
+
+        if ( records.isEmpty() )
+        {
+            reportFailure( consumer );
+        }
+        return replayed;
+    }
+
+    @Override
+    public void close()
+    {
+        for ( AnyValue[] record : records )
+        {
+            memoryTracker.releaseHeap( estimatedHeapUsage( record ) );
+        }
+        records.clear();
+    }
+
+    private void reportFailure( BoltRecordConsumer consumer ) throws Throwable
+    {
+        if ( failed )
+        {
+            failed = false;
+            consumer.onError();
+        }
+        if ( error != null )
+        {
+            Throwable toThrow = error;
+            error = null;
+            throw toThrow;
+        }
+    }
+
+    private static long estimatedHeapUsage( AnyValue[] record )
+    {
+        long size = shallowSizeOfObjectArray( record.length );
+        for ( AnyValue value : record )
+        {
+            size += value.estimatedHeapUsage();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime.scheduling;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.bolt.runtime.BoltConnection;
+import org.neo4j.time.Clocks;
+import org.neo4j.time.SystemNanoClock;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Decides whether the next batch of a connection may be scheduled on the bolt thread pool.
+ * <p>
+ * A connection only has a batch submitted to the scheduler when it is not holding on to a worker thread, which it does for as long
+ * as it has an open transaction. Every submission therefore starts a new unit of work, and refusing it never breaks up a transaction
+ * that is already running. Submissions are refused while batches have recently been waiting longer than the configured target for a
+ * thread, or while the user or default database of the connection already has the configured number of batches in flight.
+ * <p>
+ * Queue latency is tracked separately for every {@link BoltSchedulingClass}, since each of them is served by a thread pool of its own.
+ */
+public class BoltAdmissionController
+{
+    /**
+     * The weight of a new sample in the moving average of queue latency is 1 / {@value}.
+     */
+    private static final int LATENCY_SMOOTHING = 8;
+
+    private final long queueLatencyTargetNanos;
+    private final int maxConcurrentPerUser;
+    private final int maxConcurrentPerDatabase;
+    private final SystemNanoClock clock;
+    private final Monitor monitor;
+
+    // Only users and databases with batches in flight have an entry, so that the maps don't grow with every user and database ever seen
+    private final ConcurrentHashMap<String,Integer> activePerUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String,Integer> activePerDatabase = new ConcurrentHashMap<>();
+    private final EnumMap<BoltSchedulingClass,ClassState> classes = new EnumMap<>( BoltSchedulingClass.class );
+
+    public BoltAdmissionController( Duration queueLatencyTarget, int maxConcurrentPerUser, int maxConcurrentPerDatabase, SystemNanoClock clock,
+            Monitor monitor )
+    {
+        this.queueLatencyTargetNanos = queueLatencyTarget.toNanos();
+        this.maxConcurrentPerUser = maxConcurrentPerUser;
+        this.maxConcurrentPerDatabase = maxConcurrentPerDatabase;
+        this.clock = clock;
+        this.monitor = monitor;
+        for ( BoltSchedulingClass schedulingClass : BoltSchedulingClass.values() )
+        {
+            classes.put( schedulingClass, new ClassState() );
+        }
+    }
+
+    public static BoltAdmissionController unlimited()
+    {
+        return new BoltAdmissionController( Duration.ZERO, 0, 0, Clocks.nanoClock(), Monitor.EMPTY );
+    }
+
+    /**
+     * Admits the next batch of the given connection, which must later be handed to {@link #completed(Admission)}.
+     *
+     * @throws BoltAdmissionRejectedException if the batch should not be scheduled at the moment.
+     */
+    Admission admit( BoltConnection connection, BoltSchedulingClass schedulingClass )
+    {
+        long now = clock.nanos();
+        ClassState state = classes.get( schedulingClass );
+        if ( isOverloaded( state, now ) )
+        {
+            monitor.batchRejected( schedulingClass, Reason.QUEUE_LATENCY );
+            throw new BoltAdmissionRejectedException( format( "Requests are currently waiting %d ms for a thread, which exceeds the target of %d ms. " +
+                    "Retry at a later time.", NANOSECONDS.toMillis( state.queueLatencyNanos.get() ), NANOSECONDS.toMillis( queueLatencyTargetNanos ) ) );
+        }
+
+        String user = maxConcurrentPerUser > 0 ? connection.username() : null;
+        if ( !acquire( activePerUser, user, maxConcurrentPerUser ) )
+        {
+            monitor.batchRejected( schedulingClass, Reason.USER_LIMIT );
+            throw new BoltAdmissionRejectedException( format( "User '%s' already has %d requests in progress. Retry at a later time.",
+                    user, maxConcurrentPerUser ) );
+        }
+
+        String database = maxConcurrentPerDatabase > 0 ? connection.defaultDatabase() : null;
+        if ( !acquire( activePerDatabase, database, maxConcurrentPerDatabase ) )
+        {
+            release( activePerUser, user );
+            monitor.batchRejected( schedulingClass, Reason.DATABASE_LIMIT );
+            throw new BoltAdmissionRejectedException( format( "Database '%s' already has %d requests in progress. Retry at a later time.",
+                    database, maxConcurrentPerDatabase ) );
+        }
+
+        state.queued.incrementAndGet();
+        return new Admission( schedulingClass, user, database, now );
+    }
+
+    /**
+     * Invoked on the worker thread when an admitted batch starts executing.
+     */
+    void started( Admission admission )
+    {
+        long now = clock.nanos();
+        long waited = now - admission.admittedAt;
+        admission.startedAt = now;
+        admission.started = true;
+        ClassState state = classes.get( admission.schedulingClass );
+        state.queued.decrementAndGet();
+        state.queueLatencyNanos.accumulateAndGet( waited, ( average, sample ) -> average + (sample - average) / LATENCY_SMOOTHING );
+        state.lastStartNanos = now;
+        monitor.batchStarted( admission.schedulingClass, waited );
+    }
+
+    /**
+     * Invoked once an admitted batch has finished, whether it ever got to execute or not.
+     */
+    void completed( Admission admission )
+    {
+        release( activePerUser, admission.user );
+        release( activePerDatabase, admission.database );
+        if ( admission.started )
+        {
+            monitor.batchCompleted( admission.schedulingClass, clock.nanos() - admission.startedAt );
+        }
+        else
+        {
+            classes.get( admission.schedulingClass ).queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the moving average of the time admitted batches of the given class waited for a thread, in nanoseconds.
+     */
+    public long queueLatency( BoltSchedulingClass schedulingClass )
+    {
+        return classes.get( schedulingClass ).queueLatencyNanos.get();
+    }
+
+    /**
+     * @return the number of admitted batches of the given class that are waiting for a thread.
+     */
+    public int queueDepth( BoltSchedulingClass schedulingClass )
+    {
+        return classes.get( schedulingClass ).queued.get();
+    }
+
+    /**
+     * @return the number of users that have batches in flight.
+     */
+    int usersWithBatchesInFlight()
+    {
+        return activePerUser.size();
+    }
+
+    /**
+     * @return the number of databases that have batches in flight.
+     */
+    int databasesWithBatchesInFlight()
+    {
+        return activePerDatabase.size();
+    }
+
+    private boolean isOverloaded( ClassState state, long now )
+    {
+        // The average is only updated when batches start, so once nothing has started for a whole target interval it is stale and
+        // a batch is let through to probe whether threads have become available again.
+        return queueLatencyTargetNanos > 0 && state.queueLatencyNanos.get() > queueLatencyTargetNanos &&
+               now - state.lastStartNanos < queueLatencyTargetNanos;
+    }
+
+    private static boolean acquire( ConcurrentHashMap<String,Integer> active, String key, int limit )
+    {
+        if ( key == null )
+        {
+            return true;
+        }
+        if ( active.merge( key, 1, Integer::sum ) > limit )
+        {
+            release( active, key );
+            return false;
+        }
+        return true;
+    }
+
+    private static void release( ConcurrentHashMap<String,Integer> active, String key )
+    {
+        if ( key != null )
+        {
+            // Removing the entry along with the last batch in flight happens atomically with concurrent acquires of the same key
+            active.computeIfPresent( key, ( k, count ) -> count == 1 ? null : count - 1 );
+        }
+    }
+
+    private static final class ClassState
+    {
+        private final AtomicLong queueLatencyNanos = new AtomicLong();
+        private final AtomicInteger queued = new AtomicInteger();
+        private volatile long lastStartNanos;
+    }
+
+    static final class Admission
+    {
+        private final BoltSchedulingClass schedulingClass;
+        private final String user;
+        private final String database;
+        private final long admittedAt;
+        private long startedAt;
+        private volatile boolean started;
+
+        private Admission( BoltSchedulingClass schedulingClass, String user, String database, long admittedAt )
+        {
+            this.schedulingClass = schedulingClass;
+            this.user = user;
+            this.database = database;
+            this.admittedAt = admittedAt;
+        }
+    }
+
+    public enum Reason
+    {
+        QUEUE_LATENCY,
+        USER_LIMIT,
+        DATABASE_LIMIT
+    }
+
+    public interface Monitor
+    {
+        void batchStarted( BoltSchedulingClass schedulingClass, long queueTimeNanos );
+
+        void batchCompleted( BoltSchedulingClass schedulingClass, long executionTimeNanos );
+
+        void batchRejected( BoltSchedulingClass schedulingClass, Reason reason );
+
+        class Adapter implements Monitor
+        {
+            @Override
+            public void batchStarted( BoltSchedulingClass schedulingClass, long queueTimeNanos )
+            {   // no-op
+            }
+
+            @Override
+            public void batchCompleted( BoltSchedulingClass schedulingClass, long executionTimeNanos )
+            {   // no-op
+            }
+
+            @Override
+            public void batchRejected( BoltSchedulingClass schedulingClass, Reason reason )
+            {   // no-op
+            }
+        }
+
+        Monitor EMPTY = new Adapter();
+    }
+}
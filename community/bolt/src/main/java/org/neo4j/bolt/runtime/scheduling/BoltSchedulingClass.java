@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime.scheduling;
+
+/**
+ * The classes bolt connections are scheduled in. Every class is served by a thread pool of its own, so connections of one class never
+ * wait for threads that are occupied by another.
+ */
+public enum BoltSchedulingClass
+{
+    /**
+     * Latency sensitive work, served by the main thread pool of the connector.
+     */
+    INTERACTIVE,
+    /**
+     * Heavy work, such as analytics, served by a fixed number of threads where it queues up when all of them are busy.
+     */
+    BACKGROUND
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime.scheduling;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.neo4j.bolt.runtime.BoltConnection;
+
+/**
+ * Assigns connections to a {@link BoltSchedulingClass} by their user and default database. Connections that are not authenticated
+ * yet are always {@link BoltSchedulingClass#INTERACTIVE interactive}.
+ */
+public class BoltSchedulingClassifier
+{
+    public static final BoltSchedulingClassifier ALL_INTERACTIVE = new BoltSchedulingClassifier( Set.of(), Set.of(), 1 );
+
+    private final Set<String> backgroundUsers;
+    private final Set<String> backgroundDatabases;
+    private final int backgroundThreadPoolSize;
+
+    public BoltSchedulingClassifier( Collection<String> backgroundUsers, Collection<String> backgroundDatabases, int backgroundThreadPoolSize )
+    {
+        this.backgroundUsers = Set.copyOf( backgroundUsers );
+        this.backgroundDatabases = Set.copyOf( backgroundDatabases );
+        this.backgroundThreadPoolSize = backgroundThreadPoolSize;
+    }
+
+    public BoltSchedulingClass classify( BoltConnection connection )
+    {
+        String username = connection.username();
+        if ( username == null )
+        {
+            return BoltSchedulingClass.INTERACTIVE;
+        }
+        if ( backgroundUsers.contains( username ) )
+        {
+            return BoltSchedulingClass.BACKGROUND;
+        }
+        String database = connection.defaultDatabase();
+        if ( database != null && backgroundDatabases.contains( database ) )
+        {
+            return BoltSchedulingClass.BACKGROUND;
+        }
+        return BoltSchedulingClass.INTERACTIVE;
+    }
+
+    boolean hasBackgroundClass()
+    {
+        return !backgroundUsers.isEmpty() || !backgroundDatabases.isEmpty();
+    }
+
+    int backgroundThreadPoolSize()
+    {
+        return backgroundThreadPoolSize;
+    }
+}
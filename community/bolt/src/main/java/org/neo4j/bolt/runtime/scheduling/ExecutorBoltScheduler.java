@@ -57,8 +57,11 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
     private final int queueSize;
     private final ExecutorService forkJoinPool;
     private final Duration shutdownWaitTime;
+    private final BoltAdmissionController admissionController;
+    private final BoltSchedulingClassifier classifier;
 
     private ExecutorService threadPool;
+    private ExecutorService backgroundThreadPool;
 
     private final BoltConnector.KeepAliveRequestType keepAliveRequestType;
     private final Duration keepAliveSchedulingInterval;
@@ -67,7 +70,8 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
     public ExecutorBoltScheduler( String connector, ExecutorFactory executorFactory, JobScheduler scheduler,
                                   LogService logService, int corePoolSize, int maxPoolSize, Duration keepAlive, int queueSize,
                                   ExecutorService forkJoinPool, Duration shutdownWaitTime,
-                                  BoltConnector.KeepAliveRequestType keepAliveRequestType, Duration keepAliveSchedulingInterval )
+                                  BoltConnector.KeepAliveRequestType keepAliveRequestType, Duration keepAliveSchedulingInterval,
+                                  BoltAdmissionController admissionController, BoltSchedulingClassifier classifier )
     {
         this.connector = connector;
         this.executorFactory = executorFactory;
@@ -81,6 +85,8 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
         this.shutdownWaitTime = shutdownWaitTime;
         this.keepAliveRequestType = keepAliveRequestType;
         this.keepAliveSchedulingInterval = keepAliveSchedulingInterval;
+        this.admissionController = admissionController;
+        this.classifier = classifier;
     }
 
     boolean isRegistered( BoltConnection connection )
@@ -105,6 +111,15 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
         threadPool = executorFactory.create( corePoolSize, maxPoolSize, keepAlive, queueSize, true,
                 new NameAppendingThreadFactory( connector, scheduler.threadFactory( Group.BOLT_WORKER ) ) );
         log.debug( "Initialized bolt thread pool." );
+
+        if ( classifier.hasBackgroundClass() )
+        {
+            // A fixed number of threads with an unbounded queue, background work waits for its own threads rather than borrowing others
+            int poolSize = classifier.backgroundThreadPoolSize();
+            backgroundThreadPool = executorFactory.create( poolSize, poolSize, keepAlive, CachedThreadPoolExecutorFactory.UNBOUNDED_QUEUE, false,
+                    new NameAppendingThreadFactory( connector + " background", scheduler.threadFactory( Group.BOLT_WORKER ) ) );
+            log.debug( "Initialized bolt background thread pool." );
+        }
     }
 
     @Override
@@ -161,25 +176,35 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
         if ( threadPool != null )
         {
             log.debug( "Shutting down thread pool" );
-            threadPool.shutdown();
-            try
+            shutdownThreadPool( threadPool );
+        }
+        if ( backgroundThreadPool != null )
+        {
+            log.debug( "Shutting down background thread pool" );
+            shutdownThreadPool( backgroundThreadPool );
+        }
+    }
+
+    private void shutdownThreadPool( ExecutorService pool )
+    {
+        pool.shutdown();
+        try
+        {
+            var terminatedCleanly = pool.awaitTermination( shutdownWaitTime.toMillis(), MILLISECONDS );
+            if ( !terminatedCleanly )
             {
-                var terminatedCleanly = threadPool.awaitTermination( shutdownWaitTime.toMillis(), MILLISECONDS );
-                if ( !terminatedCleanly )
-                {
-                    log.warn( "Waited %s for the thread pool to shutdown cleanly, but timed out waiting for existing work to finish cleanly",
-                            shutdownWaitTime );
-                }
-                else
-                {
-                    log.debug( "Thread pool shut down" );
-                }
+                log.warn( "Waited %s for the thread pool to shutdown cleanly, but timed out waiting for existing work to finish cleanly",
+                        shutdownWaitTime );
             }
-            catch ( InterruptedException ex )
+            else
             {
-                Thread.currentThread().interrupt();
+                log.debug( "Thread pool shut down" );
             }
         }
+        catch ( InterruptedException ex )
+        {
+            Thread.currentThread().interrupt();
+        }
     }
 
     @Override
@@ -228,25 +253,34 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
             // Only init timer if the service is enabled.
             connection.initKeepAliveTimer();
         }
-        activeWorkItems.computeIfAbsent( connection.id(),
-                key -> scheduleBatchOrHandleError( connection ).whenCompleteAsync( ( result, error ) -> handleCompletion( connection, result, error ),
-                        forkJoinPool ) );
+        activeWorkItems.computeIfAbsent( connection.id(), key -> scheduleBatchOrHandleError( connection ) );
     }
 
     private CompletableFuture<Boolean> scheduleBatchOrHandleError( BoltConnection connection )
     {
+        BoltAdmissionController.Admission admission = null;
+        CompletableFuture<Boolean> batch;
         try
         {
-            return supplyAsync( () -> executeBatch( connection ), threadPool );
+            var schedulingClass = backgroundThreadPool == null ? BoltSchedulingClass.INTERACTIVE : classifier.classify( connection );
+            admission = admissionController.admit( connection, schedulingClass );
+            var admitted = admission;
+            var pool = schedulingClass == BoltSchedulingClass.BACKGROUND ? backgroundThreadPool : threadPool;
+            batch = supplyAsync( () -> executeBatch( connection, admitted ), pool );
         }
         catch ( RejectedExecutionException ex )
         {
-            return failedFuture( ex );
+            batch = failedFuture( ex );
         }
+
+        var admitted = admission;
+        return batch.whenCompleteAsync( ( result, error ) -> handleCompletion( connection, admitted, result, error ), forkJoinPool );
     }
 
-    private static boolean executeBatch( BoltConnection connection )
+    private boolean executeBatch( BoltConnection connection, BoltAdmissionController.Admission admission )
     {
+        admissionController.started( admission );
+
         Thread currentThread = Thread.currentThread();
         String originalName = currentThread.getName();
         String newName = String.format( "%s [%s] ", originalName, connection.remoteAddress() );
@@ -262,14 +296,25 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
         }
     }
 
-    private void handleCompletion( BoltConnection connection, Boolean shouldContinueScheduling, Throwable error )
+    private void handleCompletion( BoltConnection connection, BoltAdmissionController.Admission admission, Boolean shouldContinueScheduling,
+            Throwable error )
     {
+        if ( admission != null )
+        {
+            admissionController.completed( admission );
+        }
+
+        boolean notAdmitted = false;
         try
         {
             if ( error != null && hasCause( error, RejectedExecutionException.class ) )
             {
                 connection.handleSchedulingError( error );
-                return;
+                if ( !hasCause( error, BoltAdmissionRejectedException.class ) )
+                {
+                    return;
+                }
+                notAdmitted = true;
             }
         }
         finally
@@ -280,7 +325,15 @@ public class ExecutorBoltScheduler extends LifecycleAdapter implements BoltSched
             activeWorkItems.remove( connection.id() );
         }
 
-        if ( error != null )
+        if ( notAdmitted )
+        {
+            // the connection stays open after failing the request it was not admitted for, try again with what else it has queued
+            if ( connection.hasPendingJobs() )
+            {
+                handleSubmission( connection );
+            }
+        }
+        else if ( error != null )
         {
             log.error( String.format( "Unexpected error during job scheduling for session '%s'.", connection.id() ), error );
             stopConnection( connection );
@@ -24,13 +24,16 @@ import java.util.concurrent.ForkJoinPool;
 
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.connectors.BoltConnector;
 import org.neo4j.configuration.connectors.BoltConnectorInternalSettings;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.internal.LogService;
+import org.neo4j.monitoring.Monitors;
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
 
 import static org.neo4j.util.Preconditions.checkState;
 
@@ -40,18 +43,22 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
     private final ExecutorFactory executorFactory;
     private final JobScheduler scheduler;
     private final LogService logService;
+    private final SystemNanoClock clock;
+    private final Monitors monitors;
     private final Log internalLog;
     private volatile BoltScheduler boltScheduler;
 
     private ExecutorService forkJoinThreadPool;
 
     public ExecutorBoltSchedulerProvider( Config config, ExecutorFactory executorFactory, JobScheduler scheduler,
-            LogService logService )
+            LogService logService, SystemNanoClock clock, Monitors monitors )
     {
         this.config = config;
         this.executorFactory = executorFactory;
         this.scheduler = scheduler;
         this.logService = logService;
+        this.clock = clock;
+        this.monitors = monitors;
         this.internalLog = logService.getInternalLog( getClass() );
     }
 
@@ -69,11 +76,27 @@ public class ExecutorBoltSchedulerProvider extends LifecycleAdapter implements B
                                                config.get( BoltConnectorInternalSettings.unsupported_thread_pool_queue_size ), forkJoinThreadPool,
                                                config.get( BoltConnector.thread_pool_shutdown_wait_time ),
                                                config.get( BoltConnector.connection_keep_alive_type ),
-                                               config.get( BoltConnector.connection_keep_alive_streaming_scheduling_interval ) );
+                                               config.get( BoltConnector.connection_keep_alive_streaming_scheduling_interval ),
+                                               createAdmissionController(), createClassifier() );
             this.boltScheduler.init();
         }
     }
 
+    private BoltAdmissionController createAdmissionController()
+    {
+        return new BoltAdmissionController( config.get( GraphDatabaseInternalSettings.bolt_admission_queue_latency_target ),
+                                            config.get( GraphDatabaseInternalSettings.bolt_admission_max_concurrent_per_user ),
+                                            config.get( GraphDatabaseInternalSettings.bolt_admission_max_concurrent_per_database ), clock,
+                                            monitors.newMonitor( BoltAdmissionController.Monitor.class ) );
+    }
+
+    private BoltSchedulingClassifier createClassifier()
+    {
+        return new BoltSchedulingClassifier( config.get( GraphDatabaseInternalSettings.bolt_scheduling_background_users ),
+                                             config.get( GraphDatabaseInternalSettings.bolt_scheduling_background_databases ),
+                                             config.get( GraphDatabaseInternalSettings.bolt_scheduling_background_thread_pool_size ) );
+    }
+
     @Override
     public void start()
     {
@@ -33,6 +33,14 @@ public interface BoltStateMachine extends AutoCloseable
 
     void validateTransaction() throws KernelException;
 
+    /**
+     * Pull records of the open results of the current transaction ahead of the client asking for them. Only to be called by the bolt worker thread
+     * while it waits for the next message.
+     *
+     * @param maxRecords the maximum number of records to hold on to per result.
+     */
+    void prefetchResults( int maxRecords );
+
     boolean hasOpenStatement();
 
     void interrupt();
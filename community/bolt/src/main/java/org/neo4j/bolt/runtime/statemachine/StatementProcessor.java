@@ -29,6 +29,7 @@ import org.neo4j.bolt.runtime.Bookmark;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.virtual.MapValue;
 
 public interface StatementProcessor
@@ -56,6 +57,16 @@ public interface StatementProcessor
 
     Status validateTransaction() throws KernelException;
 
+    /**
+     * Pull records of the open results ahead of the client asking for them.
+     *
+     * @param maxRecords the maximum number of records to hold on to per result.
+     * @param memoryTracker the tracker to account the held records to.
+     */
+    default void prefetchResults( int maxRecords, MemoryTracker memoryTracker )
+    {
+    }
+
     String databaseName();
 
     StatementProcessor EMPTY = new StatementProcessor()
@@ -69,6 +69,7 @@ public abstract class AbstractBoltStateMachine implements BoltStateMachine
     protected DefaultDatabaseResolver defaultDatabaseResolver;
     protected final MutableConnectionState connectionState;
     private final StateMachineContext context;
+    private final MemoryTracker memoryTracker;
 
     private BoltStateMachineState state;
     private final BoltStateMachineState failedState;
@@ -83,6 +84,7 @@ public abstract class AbstractBoltStateMachine implements BoltStateMachine
         this.spi = spi;
         this.defaultDatabaseResolver = defaultDatabaseResolver;
         this.connectionState = new MutableConnectionState();
+        this.memoryTracker = memoryTracker;
         this.context = new BoltStateMachineContextImpl( this, boltChannel, spi, connectionState, clock,
                                                         defaultDatabaseResolver, memoryTracker, transactionManager );
 
@@ -204,6 +206,16 @@ public abstract class AbstractBoltStateMachine implements BoltStateMachine
         }
     }
 
+    @Override
+    public void prefetchResults( int maxRecords )
+    {
+        var txId = connectionState.getCurrentTransactionId();
+        if ( txId != null && connectionState.canProcessMessage() )
+        {
+            transactionManager().prefetchData( txId, maxRecords, memoryTracker );
+        }
+    }
+
     @Override
     public void handleExternalFailure( Neo4jError error, BoltResponseHandler handler ) throws BoltConnectionFatality
     {
@@ -45,6 +45,7 @@ import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.impl.query.QueryExecutionKernelException;
 import org.neo4j.memory.HeapEstimator;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.virtual.MapValue;
 
 import static org.apache.commons.collections.MapUtils.isEmpty;
@@ -171,6 +172,15 @@ public class TransactionStateMachine implements StatementProcessor
         return null;
     }
 
+    @Override
+    public void prefetchResults( int maxRecords, MemoryTracker memoryTracker )
+    {
+        for ( StatementOutcome outcome : ctx.statementOutcomes.values() )
+        {
+            outcome.result.prefetchRecords( maxRecords, memoryTracker );
+        }
+    }
+
     @Override
     public String databaseName()
     {
@@ -36,6 +36,7 @@ import org.neo4j.bolt.runtime.statemachine.impl.StatementProcessorProvider;
 import org.neo4j.bolt.v4.messaging.DiscardResultConsumer;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.internal.kernel.api.security.LoginContext;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.util.VisibleForTesting;
 import org.neo4j.values.virtual.MapValue;
 
@@ -124,6 +125,16 @@ public class StatementProcessorTxManager implements TransactionManager
         discardData( txId, statementId, -1, new DiscardResultConsumer( null, -1 ) );
     }
 
+    @Override
+    public void prefetchData( String txId, int maxRecords, MemoryTracker memoryTracker )
+    {
+        var statementProcessor = statementProcessors.get( txId );
+        if ( statementProcessor != null )
+        {
+            statementProcessor.prefetchResults( maxRecords, memoryTracker );
+        }
+    }
+
     @Override
     public void interrupt( String txReference )
     {
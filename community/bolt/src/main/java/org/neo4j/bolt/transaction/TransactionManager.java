@@ -29,6 +29,7 @@ import org.neo4j.bolt.runtime.statemachine.StatementMetadata;
 import org.neo4j.exceptions.KernelException;
 import org.neo4j.graphdb.security.AuthorizationExpiredException;
 import org.neo4j.internal.kernel.api.security.LoginContext;
+import org.neo4j.memory.MemoryTracker;
 import org.neo4j.values.virtual.MapValue;
 
 /**
@@ -170,6 +171,18 @@ public interface TransactionManager
      */
     void cancelData( String txId, int statementId ) throws ResultNotFoundException, TransactionNotFoundException;
 
+    /**
+     * Pull records from the open results of a transaction ahead of the client asking for them, so that they can be sent as soon as the next
+     * {@link #pullData(String, int, long, ResultConsumer) pull} arrives. Errors are not thrown here but reported by that next pull.
+     *
+     * @param txId the transaction identifier to prefetch the data of.
+     * @param maxRecords the maximum number of records to hold on to per result.
+     * @param memoryTracker the tracker to account the held records to.
+     */
+    default void prefetchData( String txId, int maxRecords, MemoryTracker memoryTracker )
+    {
+    }
+
     /**
      * Mark a transaction for termination.
      *
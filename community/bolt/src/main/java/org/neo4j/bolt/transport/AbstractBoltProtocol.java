@@ -19,6 +19,10 @@
  */
 package org.neo4j.bolt.transport;
 
+import io.netty.channel.ChannelHandler;
+
+import java.util.ArrayList;
+
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.BoltProtocol;
 import org.neo4j.bolt.messaging.BoltRequestMessageReader;
@@ -34,11 +38,13 @@ import org.neo4j.bolt.runtime.statemachine.BoltStateMachine;
 import org.neo4j.bolt.runtime.statemachine.BoltStateMachineFactory;
 import org.neo4j.bolt.transport.pipeline.ChannelProtector;
 import org.neo4j.bolt.transport.pipeline.ChunkDecoder;
+import org.neo4j.bolt.transport.pipeline.CompressionCodec;
 import org.neo4j.bolt.transport.pipeline.HouseKeeper;
 import org.neo4j.bolt.transport.pipeline.MessageAccumulator;
 import org.neo4j.bolt.transport.pipeline.MessageDecoder;
 import org.neo4j.bolt.v3.runtime.bookmarking.BookmarksParserV3;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.configuration.connectors.BoltConnector;
 import org.neo4j.logging.internal.LogService;
 import org.neo4j.memory.MemoryTracker;
@@ -62,6 +68,7 @@ public abstract class AbstractBoltProtocol implements BoltProtocol
     private final BoltConnectionFactory connectionFactory;
     private final BookmarksParser bookmarksParser;
     private final MapValue connectionHints;
+    private boolean compressed;
 
     public AbstractBoltProtocol( BoltChannel channel, BoltConnectionFactory connectionFactory,
                                  BoltStateMachineFactory stateMachineFactory, Config config, LogService logging, TransportThrottleGroup throttleGroup,
@@ -95,6 +102,13 @@ public abstract class AbstractBoltProtocol implements BoltProtocol
         this.connectionHints = hintBuilder.build();
     }
 
+    @Override
+    public boolean acceptCompression()
+    {
+        compressed = config.get( GraphDatabaseInternalSettings.bolt_compression_enabled );
+        return compressed;
+    }
+
     /**
      * Install chunker, packstream, message reader, message handler, message encoder for protocol v1
      */
@@ -111,11 +125,18 @@ public abstract class AbstractBoltProtocol implements BoltProtocol
         memoryTracker.allocateHeap(
                 ChunkDecoder.SHALLOW_SIZE + MessageAccumulator.SHALLOW_SIZE + MessageDecoder.SHALLOW_SIZE + HouseKeeper.SHALLOW_SIZE );
 
-        channel.installBoltProtocol(
-                new ChunkDecoder(),
-                new MessageAccumulator( config ),
-                new MessageDecoder( neo4jPack, messageReader, logging ),
-                new HouseKeeper( connection, logging.getInternalLog( HouseKeeper.class ) ) );
+        var handlers = new ArrayList<ChannelHandler>( 5 );
+        if ( compressed )
+        {
+            memoryTracker.allocateHeap( CompressionCodec.SHALLOW_SIZE );
+            handlers.add( new CompressionCodec( config.get( GraphDatabaseInternalSettings.bolt_compression_threshold ) ) );
+        }
+        handlers.add( new ChunkDecoder() );
+        handlers.add( new MessageAccumulator( config ) );
+        handlers.add( new MessageDecoder( neo4jPack, messageReader, logging ) );
+        handlers.add( new HouseKeeper( connection, logging.getInternalLog( HouseKeeper.class ) ) );
+
+        channel.installBoltProtocol( handlers.toArray( ChannelHandler[]::new ) );
     }
 
     protected PackOutput createPackOutput( MemoryTracker memoryTracker )
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.transport.pipeline;
+
+import com.github.luben.zstd.Zstd;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageCodec;
+import io.netty.handler.codec.DecoderException;
+
+import java.util.List;
+
+import org.neo4j.memory.HeapEstimator;
+
+import static org.neo4j.io.ByteUnit.mebiBytes;
+
+/**
+ * Compresses all traffic of a bolt connection for which compression was negotiated during the handshake.
+ * <p>
+ * Data is sent in frames, each of which is a 4 byte length of the rest of the frame, a 1 byte method and the payload. The payload of a
+ * {@link #RAW} frame is the data itself. The payload of a {@link #ZSTD} frame is the 4 byte length of the data followed by the data compressed
+ * with zstd. Outbound data smaller than the threshold, or that does not get smaller when compressed, is sent raw.
+ */
+public class CompressionCodec extends ByteToMessageCodec<ByteBuf>
+{
+    public static final long SHALLOW_SIZE = HeapEstimator.shallowSizeOfInstance( CompressionCodec.class );
+
+    static final byte RAW = 0;
+    static final byte ZSTD = 1;
+
+    static final int MAX_FRAME_DATA_SIZE = (int) mebiBytes( 1 );
+
+    private static final int LENGTH_SIZE = Integer.BYTES;
+    private static final int METHOD_SIZE = Byte.BYTES;
+    private static final int COMPRESSION_LEVEL = 1;
+
+    private final int threshold;
+
+    public CompressionCodec( int threshold )
+    {
+        super( ByteBuf.class );
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void encode( ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out )
+    {
+        while ( msg.isReadable() )
+        {
+            int length = Math.min( msg.readableBytes(), MAX_FRAME_DATA_SIZE );
+            if ( length < threshold || !writeCompressed( msg, length, out ) )
+            {
+                out.writeInt( METHOD_SIZE + length );
+                out.writeByte( RAW );
+                out.writeBytes( msg, length );
+            }
+        }
+    }
+
+    @Override
+    protected void decode( ChannelHandlerContext ctx, ByteBuf in, List<Object> out )
+    {
+        while ( in.readableBytes() >= LENGTH_SIZE )
+        {
+            int frameLength = in.getInt( in.readerIndex() );
+            if ( frameLength < METHOD_SIZE || frameLength > METHOD_SIZE + LENGTH_SIZE + Zstd.compressBound( MAX_FRAME_DATA_SIZE ) )
+            {
+                throw new DecoderException( "Invalid compressed frame length: " + frameLength );
+            }
+            if ( in.readableBytes() < LENGTH_SIZE + frameLength )
+            {
+                return;
+            }
+
+            in.skipBytes( LENGTH_SIZE );
+            byte method = in.readByte();
+            int payloadLength = frameLength - METHOD_SIZE;
+            switch ( method )
+            {
+            case RAW:
+                out.add( in.readRetainedSlice( payloadLength ) );
+                break;
+            case ZSTD:
+                out.add( readCompressed( in, payloadLength ) );
+                break;
+            default:
+                throw new DecoderException( "Unknown compression method: " + method );
+            }
+        }
+    }
+
+    private static boolean writeCompressed( ByteBuf msg, int length, ByteBuf out )
+    {
+        byte[] compressed = Zstd.compress( ByteBufUtil.getBytes( msg, msg.readerIndex(), length, false ), COMPRESSION_LEVEL );
+        if ( compressed.length + LENGTH_SIZE >= length )
+        {
+            return false;
+        }
+
+        out.writeInt( METHOD_SIZE + LENGTH_SIZE + compressed.length );
+        out.writeByte( ZSTD );
+        out.writeInt( length );
+        out.writeBytes( compressed );
+        msg.skipBytes( length );
+        return true;
+    }
+
+    private static ByteBuf readCompressed( ByteBuf in, int payloadLength )
+    {
+        if ( payloadLength <= LENGTH_SIZE )
+        {
+            throw new DecoderException( "Invalid compressed frame length: " + (METHOD_SIZE + payloadLength) );
+        }
+        int length = in.readInt();
+        if ( length <= 0 || length > MAX_FRAME_DATA_SIZE )
+        {
+            throw new DecoderException( "Invalid decompressed frame length: " + length );
+        }
+
+        byte[] compressed = ByteBufUtil.getBytes( in, in.readerIndex(), payloadLength - LENGTH_SIZE, false );
+        in.skipBytes( compressed.length );
+        byte[] data = Zstd.decompress( compressed, length );
+        if ( data.length != length )
+        {
+            throw new DecoderException( "Compressed frame decompressed to " + data.length + " bytes, expected " + length );
+        }
+        return Unpooled.wrappedBuffer( data );
+    }
+}
@@ -54,6 +54,7 @@ public class ProtocolHandshaker extends ChannelInboundHandlerAdapter
 
     private ByteBuf handshakeBuffer;
     private BoltProtocol protocol;
+    private boolean compressionRequested;
 
     public ProtocolHandshaker( BoltProtocolFactory boltProtocolFactory, BoltChannel boltChannel, LogProvider logging,
                                boolean encryptionRequired, boolean encrypted, ChannelProtector channelProtector, MemoryTracker memoryTracker )
@@ -109,8 +110,13 @@ public class ProtocolHandshaker extends ChannelInboundHandlerAdapter
                     // let's handshake
                     if ( performHandshake() )
                     {
-                        // announce selected protocol to the client
-                        ctx.writeAndFlush( ctx.alloc().buffer( 4 ).writeInt( protocol.version().toInt() ) );
+                        // announce selected protocol, and whether its traffic is compressed, to the client
+                        int selectedVersion = protocol.version().toInt();
+                        if ( compressionRequested && protocol.acceptCompression() )
+                        {
+                            selectedVersion |= BoltProtocolVersion.COMPRESSION_FLAG;
+                        }
+                        ctx.writeAndFlush( ctx.alloc().buffer( 4 ).writeInt( selectedVersion ) );
 
                         // install related protocol handlers into the pipeline
                         protocol.install();
@@ -195,6 +201,7 @@ public class ProtocolHandshaker extends ChannelInboundHandlerAdapter
                     protocol = boltProtocolFactory.create( suggestion, boltChannel, channelProtector, memoryTracker );
                     if ( protocol != null )
                     {
+                        compressionRequested = BoltProtocolVersion.isCompressionRequested( rawBytes );
                         break;
                     }
                     suggestions.add( suggestion );
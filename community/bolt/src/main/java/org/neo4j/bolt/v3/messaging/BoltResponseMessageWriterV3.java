@@ -30,6 +30,7 @@ import org.neo4j.bolt.messaging.ResponseMessageEncoder;
 import org.neo4j.bolt.packstream.Neo4jPack;
 import org.neo4j.bolt.packstream.PackOutput;
 import org.neo4j.bolt.packstream.PackProvider;
+import org.neo4j.bolt.packstream.PackStream;
 import org.neo4j.bolt.v3.messaging.encoder.FailureMessageEncoder;
 import org.neo4j.bolt.v3.messaging.encoder.IgnoredMessageEncoder;
 import org.neo4j.bolt.v3.messaging.encoder.RecordMessageEncoder;
@@ -46,6 +47,7 @@ import org.neo4j.memory.HeapEstimator;
 import org.neo4j.values.AnyValue;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Writer for Bolt request messages to be sent to a {@link Neo4jPack.Packer}.
@@ -55,6 +57,10 @@ public class BoltResponseMessageWriterV3 implements BoltResponseMessageWriter
     public static final long SHALLOW_SIZE = HeapEstimator.shallowSizeOfInstance( BoltResponseMessageWriterV3.class );
     private static final int MAX_LOG_COMPONENT_LENGTH = 4096;
 
+    // The shared success responses are sent for nearly every request, so they are encoded once instead of being packed from a map each time
+    private static final byte[] EMPTY_SUCCESS = encodeSuccess();
+    private static final byte[] HAS_MORE_SUCCESS = encodeSuccess( SuccessMessage.HAS_MORE_KEY );
+
     private final PackOutput output;
     private final Neo4jPack.Packer packer;
     private final Log log;
@@ -82,6 +88,17 @@ public class BoltResponseMessageWriterV3 implements BoltResponseMessageWriter
     @Override
     public void write( ResponseMessage message ) throws IOException
     {
+        if ( message == SuccessMessage.EMPTY )
+        {
+            writeEncodedMessage( message, EMPTY_SUCCESS );
+            return;
+        }
+        if ( message == SuccessMessage.HAS_MORE )
+        {
+            writeEncodedMessage( message, HAS_MORE_SUCCESS );
+            return;
+        }
+
         packCompleteMessageOrFail( message );
         if ( message instanceof FatalFailureMessage )
         {
@@ -105,6 +122,51 @@ public class BoltResponseMessageWriterV3 implements BoltResponseMessageWriter
         return this.log;
     }
 
+    private void writeEncodedMessage( ResponseMessage message, byte[] encoded ) throws IOException
+    {
+        output.beginMessage();
+        try
+        {
+            output.writeBytes( encoded, 0, encoded.length );
+            output.messageSucceeded();
+        }
+        catch ( Throwable error )
+        {
+            output.messageFailed();
+            log.error( "Failed to write full %s message because: %s", message, error.getMessage() );
+            throw error;
+        }
+    }
+
+    /**
+     * Encodes a SUCCESS message whose metadata maps each of the given keys to {@code true}.
+     */
+    private static byte[] encodeSuccess( String... trueKeys )
+    {
+        int length = 3;
+        byte[][] keys = new byte[trueKeys.length][];
+        for ( int i = 0; i < trueKeys.length; i++ )
+        {
+            keys[i] = trueKeys[i].getBytes( UTF_8 );
+            assert keys[i].length < 0x10 : "Only tiny strings are supported";
+            length += 2 + keys[i].length;
+        }
+
+        byte[] encoded = new byte[length];
+        int position = 0;
+        encoded[position++] = (byte) (PackStream.TINY_STRUCT | 1);
+        encoded[position++] = SuccessMessage.SIGNATURE;
+        encoded[position++] = (byte) (PackStream.TINY_MAP | keys.length);
+        for ( byte[] key : keys )
+        {
+            encoded[position++] = (byte) (PackStream.TINY_STRING | key.length);
+            System.arraycopy( key, 0, encoded, position, key.length );
+            position += key.length;
+            encoded[position++] = PackStream.TRUE;
+        }
+        return encoded;
+    }
+
     private void packCompleteMessageOrFail( ResponseMessage message ) throws IOException
     {
         boolean packingFailed = true;
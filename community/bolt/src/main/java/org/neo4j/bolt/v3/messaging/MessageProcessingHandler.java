@@ -35,7 +35,7 @@ import org.neo4j.bolt.v3.messaging.response.SuccessMessage;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.logging.Log;
 import org.neo4j.values.AnyValue;
-import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.storable.BooleanValue;
 import org.neo4j.values.virtual.MapValueBuilder;
 
 import static org.neo4j.bolt.v3.messaging.response.IgnoredMessage.IGNORED_MESSAGE;
@@ -51,6 +51,8 @@ public class MessageProcessingHandler implements BoltResponseHandler
     protected final BoltConnection connection;
     protected final BoltResponseMessageWriter messageWriter;
 
+    private int metadataEntries;
+    private boolean hasMore;
     private Neo4jError error;
     private boolean ignored;
 
@@ -76,7 +78,19 @@ public class MessageProcessingHandler implements BoltResponseHandler
     @Override
     public void onMetadata( String key, AnyValue value )
     {
-        metadata.add( key, value );
+        if ( metadata.add( key, value ) == null )
+        {
+            metadataEntries++;
+        }
+    }
+
+    /**
+     * Marks that the result has more records to be pulled, which is reported as {@code has_more} in the metadata of the response.
+     */
+    protected void onHasMore()
+    {
+        onMetadata( SuccessMessage.HAS_MORE_KEY, BooleanValue.TRUE );
+        hasMore = true;
     }
 
     @Override
@@ -106,7 +120,7 @@ public class MessageProcessingHandler implements BoltResponseHandler
             }
             else
             {
-                messageWriter.write( new SuccessMessage( getMetadata() ) );
+                messageWriter.write( successMessage() );
             }
         }
         catch ( Throwable e )
@@ -120,15 +134,26 @@ public class MessageProcessingHandler implements BoltResponseHandler
         }
     }
 
-    private MapValue getMetadata()
+    private SuccessMessage successMessage()
     {
-        return metadata.build();
+        // Most responses carry no metadata at all or nothing but has_more, those are sent as the shared instances
+        if ( metadataEntries == 0 )
+        {
+            return SuccessMessage.EMPTY;
+        }
+        if ( metadataEntries == 1 && hasMore )
+        {
+            return SuccessMessage.HAS_MORE;
+        }
+        return new SuccessMessage( metadata.build() );
     }
 
     private void clearState()
     {
         error = null;
         ignored = false;
+        hasMore = false;
+        metadataEntries = 0;
         metadata.clear();
     }
 
@@ -26,7 +26,6 @@ import org.neo4j.bolt.runtime.BoltConnection;
 import org.neo4j.bolt.runtime.BoltResult;
 import org.neo4j.logging.Log;
 import org.neo4j.values.AnyValue;
-import org.neo4j.values.storable.BooleanValue;
 
 public class ResultHandler extends MessageProcessingHandler
 {
@@ -93,7 +92,7 @@ public class ResultHandler extends MessageProcessingHandler
     {
         if ( hasMore )
         {
-            onMetadata( "has_more", BooleanValue.TRUE );
+            onHasMore();
         }
         return hasMore;
     }
@@ -20,11 +20,21 @@
 package org.neo4j.bolt.v3.messaging.response;
 
 import org.neo4j.bolt.messaging.ResponseMessage;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.BooleanValue;
 import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
 
 public class SuccessMessage implements ResponseMessage
 {
     public static final byte SIGNATURE = 0x70;
+    public static final String HAS_MORE_KEY = "has_more";
+
+    /**
+     * Shared instances of the most frequently sent responses, which writers may encode once up front.
+     */
+    public static final SuccessMessage EMPTY = new SuccessMessage( VirtualValues.EMPTY_MAP );
+    public static final SuccessMessage HAS_MORE = new SuccessMessage( VirtualValues.map( new String[]{HAS_MORE_KEY}, new AnyValue[]{BooleanValue.TRUE} ) );
     private final MapValue metadata;
 
     public SuccessMessage( MapValue metadata )
@@ -128,6 +128,34 @@ public class Neo4jPackV1Test
         assertThat( unpackedMap ).isEqualTo( ALICE.properties() );
     }
 
+    @Test
+    void shouldUnpackWellKnownMapKeysAsSharedStrings() throws IOException
+    {
+        // Given
+        MapValue map = ValueUtils.asMapValue( MapUtil.map( "n", 1000L, "qid", 7L, "someParameter", "x" ) );
+        byte[] bytes = packed( map );
+
+        // When
+        MapValue first = (MapValue) unpacked( bytes );
+        MapValue second = (MapValue) unpacked( bytes );
+
+        // Then
+        assertThat( first ).isEqualTo( map );
+        assertThat( second ).isEqualTo( map );
+        List<String> firstKeys = new ArrayList<>();
+        first.foreach( ( key, value ) -> firstKeys.add( key ) );
+        List<String> secondKeys = new ArrayList<>();
+        second.foreach( ( key, value ) -> secondKeys.add( key ) );
+        for ( int i = 0; i < firstKeys.size(); i++ )
+        {
+            String key = firstKeys.get( i );
+            if ( key.equals( "n" ) || key.equals( "qid" ) )
+            {
+                assertThat( secondKeys.get( i ) ).isSameAs( key );
+            }
+        }
+    }
+
     @Test
     void shouldFailWhenTryingToPackAndUnpackMapContainingNullKeys() throws IOException
     {
@@ -35,6 +35,7 @@ import org.neo4j.graphdb.InputPosition;
 import org.neo4j.graphdb.QueryStatistics;
 import org.neo4j.graphdb.impl.notification.NotificationCode;
 import org.neo4j.kernel.impl.query.QueryExecution;
+import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.DoubleValue;
 import org.neo4j.values.virtual.MapValue;
@@ -45,6 +46,8 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.data.Offset.offset;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -172,6 +175,69 @@ public class AbstractCypherAdapterStreamTest
         verify( queryExecution, times( 1 ) ).await();
     }
 
+    @Test
+    void shouldReplayPrefetchedRecordsBeforePullingMore() throws Throwable
+    {
+        // Given
+        QueryExecution queryExecution = mock( QueryExecution.class );
+        when( queryExecution.fieldNames() ).thenReturn( new String[]{ "foo" } );
+        when( queryExecution.executionType() ).thenReturn( query( READ_ONLY ) );
+        when( queryExecution.await() ).thenReturn( true );
+
+        BoltAdapterSubscriber subscriber = new BoltAdapterSubscriber();
+        subscriber.onResult( 1 );
+        doAnswer( invocation ->
+        {
+            long records = invocation.getArgument( 0 );
+            for ( long i = 0; i < records; i++ )
+            {
+                subscriber.onRecord();
+                subscriber.onField( 0, longValue( i ) );
+                subscriber.onRecordCompleted();
+            }
+            return null;
+        } ).when( queryExecution ).request( anyLong() );
+
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, subscriber, Clock.systemUTC() );
+        var memoryTracker = new LocalMemoryTracker();
+        var recordConsumer = mock( BoltResult.RecordConsumer.class );
+
+        // When
+        stream.handleRecords( recordConsumer, 10 );
+        stream.prefetchRecords( 100, memoryTracker );
+
+        // Then
+        assertThat( memoryTracker.estimatedHeapMemory() ).isGreaterThan( 0 );
+
+        // When
+        boolean hasMore = stream.handleRecords( recordConsumer, 10 );
+
+        // Then
+        assertThat( hasMore ).isTrue();
+        verify( queryExecution, times( 2 ) ).request( 10 );
+        verify( recordConsumer, times( 20 ) ).endRecord();
+        assertThat( memoryTracker.estimatedHeapMemory() ).isZero();
+    }
+
+    @Test
+    void shouldNotPrefetchRecordsOfWritingQueries() throws Throwable
+    {
+        // Given
+        QueryExecution queryExecution = mock( QueryExecution.class );
+        when( queryExecution.fieldNames() ).thenReturn( new String[]{ "foo" } );
+        when( queryExecution.executionType() ).thenReturn( query( READ_WRITE ) );
+        when( queryExecution.await() ).thenReturn( true );
+
+        var stream = new TestAbstractCypherAdapterStream( queryExecution, new BoltAdapterSubscriber(), Clock.systemUTC() );
+
+        // When
+        stream.handleRecords( mock( BoltResult.RecordConsumer.class ), 10 );
+        stream.prefetchRecords( 100, new LocalMemoryTracker() );
+
+        // Then
+        verify( queryExecution, times( 1 ) ).request( anyLong() );
+    }
+
     @Test
     void shouldIncludeBasicMetadata() throws Throwable
     {
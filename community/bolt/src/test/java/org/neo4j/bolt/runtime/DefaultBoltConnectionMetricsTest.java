@@ -172,6 +172,6 @@ class DefaultBoltConnectionMetricsTest
         return new DefaultBoltConnection(
                 channel, mock( BoltResponseMessageWriter.class ), mock( BoltStateMachine.class ), NullLogService.getInstance(),
                 mock( BoltConnectionLifetimeListener.class ), mock( BoltConnectionQueueMonitor.class ), DEFAULT_MAX_BATCH_SIZE, null,
-                metricsMonitor, Clocks.systemClock() );
+                metricsMonitor, Clocks.systemClock(), 0 );
     }
 }
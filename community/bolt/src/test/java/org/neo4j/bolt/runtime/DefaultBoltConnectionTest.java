@@ -28,12 +28,14 @@ import org.mockito.ArgumentMatchers;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.neo4j.bolt.BoltChannel;
 import org.neo4j.bolt.messaging.BoltResponseMessageWriter;
+import org.neo4j.bolt.runtime.scheduling.BoltAdmissionRejectedException;
 import org.neo4j.bolt.runtime.scheduling.BoltConnectionLifetimeListener;
 import org.neo4j.bolt.runtime.scheduling.BoltConnectionQueueMonitor;
 import org.neo4j.bolt.runtime.statemachine.BoltStateMachine;
@@ -418,6 +420,24 @@ class DefaultBoltConnectionTest
         verify( writer ).flush();
     }
 
+    @Test
+    void shouldFailWithOverloadedStatusAndStayOpenIfNotAdmitted() throws Throwable
+    {
+        // Given
+        BoltConnection connection = newConnection();
+
+        // When
+        connection.handleSchedulingError( new CompletionException( new BoltAdmissionRejectedException( "Too busy" ) ) );
+
+        // Then
+        verify( stateMachine ).markFailed( argThat( e -> e.status().equals( Status.Request.Overloaded ) && e.message().equals( "Too busy" ) ) );
+        verify( stateMachine, never() ).close();
+        verify( writer ).flush();
+        verify( connectionListener, never() ).closed( connection );
+        assertThat( logProvider ).forLevel( ERROR ).doesNotHaveAnyLogs();
+        assertThat( logProvider ).forLevel( WARN ).doesNotHaveAnyLogs();
+    }
+
     private DefaultBoltConnection newConnection()
     {
         return newConnection( 10 );
@@ -426,6 +446,6 @@ class DefaultBoltConnectionTest
     private DefaultBoltConnection newConnection( int maxBatchSize )
     {
         return new DefaultBoltConnection( boltChannel, writer, stateMachine, logService, connectionListener, queueMonitor, maxBatchSize, null,
-                                          mock( BoltConnectionMetricsMonitor.class ), Clock.systemUTC() );
+                                          mock( BoltConnectionMetricsMonitor.class ), Clock.systemUTC(), 0 );
     }
 }
@@ -70,6 +70,18 @@ public class SynchronousBoltConnection implements BoltConnection
         return channel.remoteAddress();
     }
 
+    @Override
+    public String username()
+    {
+        return null;
+    }
+
+    @Override
+    public String defaultDatabase()
+    {
+        return null;
+    }
+
     @Override
     public Channel channel()
     {
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import org.neo4j.bolt.runtime.BoltConnection;
+import org.neo4j.time.FakeClock;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.bolt.runtime.scheduling.BoltSchedulingClass.BACKGROUND;
+import static org.neo4j.bolt.runtime.scheduling.BoltSchedulingClass.INTERACTIVE;
+
+class BoltAdmissionControllerTest
+{
+    private final FakeClock clock = new FakeClock();
+    private final BoltAdmissionController.Monitor monitor = mock( BoltAdmissionController.Monitor.class );
+
+    @Test
+    void shouldLimitConcurrentBatchesPerUser()
+    {
+        var controller = new BoltAdmissionController( Duration.ZERO, 2, 0, clock, monitor );
+        var alice = newConnection( "alice", "neo4j" );
+        var bob = newConnection( "bob", "neo4j" );
+
+        var first = controller.admit( alice, INTERACTIVE );
+        controller.admit( alice, INTERACTIVE );
+        controller.admit( bob, INTERACTIVE );
+        assertThrows( BoltAdmissionRejectedException.class, () -> controller.admit( alice, INTERACTIVE ) );
+        verify( monitor ).batchRejected( INTERACTIVE, BoltAdmissionController.Reason.USER_LIMIT );
+
+        controller.completed( first );
+        controller.admit( alice, INTERACTIVE );
+    }
+
+    @Test
+    void shouldLimitConcurrentBatchesPerDatabaseWithoutHoldingOnToUserSlot()
+    {
+        var controller = new BoltAdmissionController( Duration.ZERO, 1, 1, clock, monitor );
+        var alice = newConnection( "alice", "neo4j" );
+        var bob = newConnection( "bob", "neo4j" );
+
+        var admission = controller.admit( alice, INTERACTIVE );
+        assertThrows( BoltAdmissionRejectedException.class, () -> controller.admit( bob, INTERACTIVE ) );
+        verify( monitor ).batchRejected( INTERACTIVE, BoltAdmissionController.Reason.DATABASE_LIMIT );
+
+        controller.completed( admission );
+        controller.completed( controller.admit( bob, INTERACTIVE ) );
+        controller.admit( bob, INTERACTIVE );
+    }
+
+    @Test
+    void shouldForgetUsersAndDatabasesWithoutBatchesInFlight()
+    {
+        var controller = new BoltAdmissionController( Duration.ZERO, 2, 2, clock, monitor );
+        var alice = newConnection( "alice", "neo4j" );
+        var bob = newConnection( "bob", "other" );
+
+        var first = controller.admit( alice, INTERACTIVE );
+        var second = controller.admit( alice, INTERACTIVE );
+        var third = controller.admit( bob, INTERACTIVE );
+        assertThrows( BoltAdmissionRejectedException.class, () -> controller.admit( alice, INTERACTIVE ) );
+        assertThat( controller.usersWithBatchesInFlight() ).isEqualTo( 2 );
+        assertThat( controller.databasesWithBatchesInFlight() ).isEqualTo( 2 );
+
+        controller.completed( first );
+        controller.completed( third );
+        assertThat( controller.usersWithBatchesInFlight() ).isEqualTo( 1 );
+        assertThat( controller.databasesWithBatchesInFlight() ).isEqualTo( 1 );
+
+        controller.completed( second );
+        assertThat( controller.usersWithBatchesInFlight() ).isZero();
+        assertThat( controller.databasesWithBatchesInFlight() ).isZero();
+    }
+
+    @Test
+    void shouldNotLimitConnectionsThatAreNotAuthenticatedYet()
+    {
+        var controller = new BoltAdmissionController( Duration.ZERO, 1, 1, clock, monitor );
+        var anonymous = newConnection( null, null );
+
+        controller.admit( anonymous, INTERACTIVE );
+        controller.admit( anonymous, INTERACTIVE );
+    }
+
+    @Test
+    void shouldShedWhileQueueLatencyExceedsTargetAndProbeOnceStale()
+    {
+        var controller = new BoltAdmissionController( Duration.ofMillis( 100 ), 0, 0, clock, monitor );
+        var connection = newConnection( "alice", "neo4j" );
+
+        // Enough slow starts to pull the moving average above the target
+        var admissions = new ArrayList<BoltAdmissionController.Admission>();
+        for ( int i = 0; i < 20; i++ )
+        {
+            admissions.add( controller.admit( connection, INTERACTIVE ) );
+        }
+        clock.forward( 500, MILLISECONDS );
+        for ( var admission : admissions )
+        {
+            controller.started( admission );
+            controller.completed( admission );
+        }
+        assertThat( controller.queueLatency( INTERACTIVE ) ).isGreaterThan( MILLISECONDS.toNanos( 100 ) );
+
+        assertThrows( BoltAdmissionRejectedException.class, () -> controller.admit( connection, INTERACTIVE ) );
+        verify( monitor ).batchRejected( INTERACTIVE, BoltAdmissionController.Reason.QUEUE_LATENCY );
+
+        // Nothing has started for a whole target interval, so a batch is let through to measure again
+        clock.forward( 100, MILLISECONDS );
+        var probe = controller.admit( connection, INTERACTIVE );
+        controller.started( probe );
+        verify( monitor ).batchStarted( INTERACTIVE, 0 );
+    }
+
+    @Test
+    void shouldTrackQueueLatencyAndDepthPerSchedulingClass()
+    {
+        var controller = new BoltAdmissionController( Duration.ofMillis( 100 ), 0, 0, clock, monitor );
+        var connection = newConnection( "alice", "neo4j" );
+
+        var admissions = new ArrayList<BoltAdmissionController.Admission>();
+        for ( int i = 0; i < 20; i++ )
+        {
+            admissions.add( controller.admit( connection, BACKGROUND ) );
+        }
+        assertThat( controller.queueDepth( BACKGROUND ) ).isEqualTo( 20 );
+        assertThat( controller.queueDepth( INTERACTIVE ) ).isZero();
+
+        clock.forward( 500, MILLISECONDS );
+        for ( var admission : admissions )
+        {
+            controller.started( admission );
+        }
+        assertThat( controller.queueDepth( BACKGROUND ) ).isZero();
+
+        // A backlog of background work does not hold up interactive work
+        assertThrows( BoltAdmissionRejectedException.class, () -> controller.admit( connection, BACKGROUND ) );
+        controller.admit( connection, INTERACTIVE );
+        assertThat( controller.queueLatency( INTERACTIVE ) ).isZero();
+    }
+
+    private static BoltConnection newConnection( String username, String database )
+    {
+        var connection = mock( BoltConnection.class );
+        when( connection.username() ).thenReturn( username );
+        when( connection.defaultDatabase() ).thenReturn( database );
+        return connection;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.runtime.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import org.neo4j.bolt.runtime.BoltConnection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.bolt.runtime.scheduling.BoltSchedulingClass.BACKGROUND;
+import static org.neo4j.bolt.runtime.scheduling.BoltSchedulingClass.INTERACTIVE;
+
+class BoltSchedulingClassifierTest
+{
+    private final BoltSchedulingClassifier classifier = new BoltSchedulingClassifier( List.of( "analyst" ), List.of( "warehouse" ), 2 );
+
+    @Test
+    void shouldClassifyByUser()
+    {
+        assertThat( classifier.classify( newConnection( "analyst", "neo4j" ) ) ).isEqualTo( BACKGROUND );
+        assertThat( classifier.classify( newConnection( "alice", "neo4j" ) ) ).isEqualTo( INTERACTIVE );
+    }
+
+    @Test
+    void shouldClassifyByDefaultDatabase()
+    {
+        assertThat( classifier.classify( newConnection( "alice", "warehouse" ) ) ).isEqualTo( BACKGROUND );
+        assertThat( classifier.classify( newConnection( "alice", null ) ) ).isEqualTo( INTERACTIVE );
+    }
+
+    @Test
+    void shouldKeepConnectionsThatAreNotAuthenticatedInteractive()
+    {
+        assertThat( classifier.classify( newConnection( null, "warehouse" ) ) ).isEqualTo( INTERACTIVE );
+    }
+
+    @Test
+    void shouldOnlyHaveBackgroundClassWhenConfigured()
+    {
+        assertThat( classifier.hasBackgroundClass() ).isTrue();
+        assertThat( BoltSchedulingClassifier.ALL_INTERACTIVE.hasBackgroundClass() ).isFalse();
+    }
+
+    private static BoltConnection newConnection( String username, String database )
+    {
+        var connection = mock( BoltConnection.class );
+        when( connection.username() ).thenReturn( username );
+        when( connection.defaultDatabase() ).thenReturn( database );
+        return connection;
+    }
+}
@@ -74,7 +74,8 @@ class ExecutorBoltSchedulerConcurrencyTest
     private final JobScheduler jobScheduler = mock( JobScheduler.class );
     private final ExecutorBoltScheduler boltScheduler =
             new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, maxPoolSize, maxPoolSize, Duration.ofMinutes( 1 ), 0,
-                                       ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO );
+                                       ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO,
+                                       BoltAdmissionController.unlimited(), BoltSchedulingClassifier.ALL_INTERACTIVE );
 
     @BeforeEach
     void setup() throws Throwable
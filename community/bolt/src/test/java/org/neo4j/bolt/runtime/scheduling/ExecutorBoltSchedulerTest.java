@@ -43,6 +43,7 @@ import org.neo4j.logging.internal.LogService;
 import org.neo4j.logging.internal.SimpleLogService;
 import org.neo4j.scheduler.Group;
 import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.Clocks;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -74,7 +75,7 @@ class ExecutorBoltSchedulerTest
     private final ExecutorBoltScheduler boltScheduler =
             new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10,
                                        Duration.ofMinutes( 1 ), 0, ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF,
-                                       Duration.ZERO );
+                                       Duration.ZERO, BoltAdmissionController.unlimited(), BoltSchedulingClassifier.ALL_INTERACTIVE );
 
     @BeforeEach
     void setup()
@@ -107,7 +108,8 @@ class ExecutorBoltSchedulerTest
 
         var boltScheduler = new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10,
                                                        Duration.ofMinutes( 1 ), 0, ForkJoinPool.commonPool(), Duration.ZERO,
-                                                       BoltConnector.KeepAliveRequestType.STREAMING, Duration.ofMillis( 10 ) );
+                                                       BoltConnector.KeepAliveRequestType.STREAMING, Duration.ofMillis( 10 ),
+                                                       BoltAdmissionController.unlimited(), BoltSchedulingClassifier.ALL_INTERACTIVE );
         boltScheduler.init();
         boltScheduler.created( connection );
 
@@ -158,7 +160,8 @@ class ExecutorBoltSchedulerTest
         when( mockExecutorFactory.create( anyInt(), anyInt(), any(), anyInt(), anyBoolean(), any() ) ).thenReturn( Executors.newCachedThreadPool() );
         ExecutorBoltScheduler scheduler =
                 new ExecutorBoltScheduler( CONNECTOR_KEY, mockExecutorFactory, jobScheduler, logService, 0, 10, Duration.ofMinutes( 1 ), 0,
-                                           ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO );
+                                           ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO,
+                                           BoltAdmissionController.unlimited(), BoltSchedulingClassifier.ALL_INTERACTIVE );
 
         scheduler.init();
 
@@ -174,7 +177,8 @@ class ExecutorBoltSchedulerTest
         when( mockExecutorFactory.create( anyInt(), anyInt(), any(), anyInt(), anyBoolean(), any() ) ).thenReturn( cachedThreadPool );
         ExecutorBoltScheduler scheduler =
                 new ExecutorBoltScheduler( CONNECTOR_KEY, mockExecutorFactory, jobScheduler, logService, 0, 10, Duration.ofMinutes( 1 ), 0,
-                                           ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO );
+                                           ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO,
+                                           BoltAdmissionController.unlimited(), BoltSchedulingClassifier.ALL_INTERACTIVE );
 
         scheduler.init();
         scheduler.shutdown();
@@ -296,6 +300,51 @@ class ExecutorBoltSchedulerTest
         verify( connection, times( 2 ) ).processNextBatch();
     }
 
+    @Test
+    void notAdmittedConnectionShouldStayOpenAndHavePendingJobsScheduled() throws Throwable
+    {
+        var admissionController = new BoltAdmissionController( Duration.ZERO, 1, 0, Clocks.nanoClock(), BoltAdmissionController.Monitor.EMPTY );
+        var boltScheduler = new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, 0, 10,
+                                                       Duration.ofMinutes( 1 ), 0, ForkJoinPool.commonPool(), Duration.ZERO,
+                                                       BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO,
+                                                       admissionController, BoltSchedulingClassifier.ALL_INTERACTIVE );
+        var exitCondition = new AtomicBoolean();
+        var busyConnection = newConnection( UUID.randomUUID().toString() );
+        when( busyConnection.username() ).thenReturn( "user" );
+        when( busyConnection.processNextBatch() ).thenAnswer( inv -> awaitExit( exitCondition ) );
+        var connection = newConnection( UUID.randomUUID().toString() );
+        when( connection.username() ).thenReturn( "user" );
+        when( connection.hasPendingJobs() ).thenReturn( true ).thenReturn( false );
+        var schedulingErrors = new AtomicInteger();
+        doAnswer( inv -> schedulingErrors.incrementAndGet() ).when( connection ).handleSchedulingError( any() );
+
+        try
+        {
+            boltScheduler.init();
+            boltScheduler.start();
+            boltScheduler.created( busyConnection );
+            boltScheduler.created( connection );
+            boltScheduler.enqueued( busyConnection, Jobs.noop() );
+            Predicates.await( () -> boltScheduler.isActive( busyConnection ), 1, MINUTES );
+
+            // When
+            boltScheduler.enqueued( connection, Jobs.noop() );
+
+            // Then the rejected connection fails its request and has its pending one scheduled, without being stopped
+            Predicates.await( () -> schedulingErrors.get() == 2, 1, MINUTES );
+            Predicates.await( () -> !boltScheduler.isActive( connection ), 1, MINUTES );
+            verify( connection, never() ).stop();
+            verify( connection, never() ).processNextBatch();
+            assertThat( logProvider ).forClass( ExecutorBoltScheduler.class ).forLevel( ERROR ).doesNotHaveAnyLogs();
+        }
+        finally
+        {
+            exitCondition.set( true );
+            boltScheduler.stop();
+            boltScheduler.shutdown();
+        }
+    }
+
     @Test
     void destroyedShouldCancelActiveWorkItem() throws Throwable
     {
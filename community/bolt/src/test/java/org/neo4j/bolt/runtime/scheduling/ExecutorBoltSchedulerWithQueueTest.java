@@ -76,7 +76,8 @@ public class ExecutorBoltSchedulerWithQueueTest
     private final JobScheduler jobScheduler = mock( JobScheduler.class );
     private final ExecutorBoltScheduler boltSchedulerWithQueue =
             new ExecutorBoltScheduler( CONNECTOR_KEY, executorFactory, jobScheduler, logService, threadPoolSize, threadPoolSize, Duration.ofMinutes( 1 ),
-                                       queueSize, ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO );
+                                       queueSize, ForkJoinPool.commonPool(), Duration.ZERO, BoltConnector.KeepAliveRequestType.OFF, Duration.ZERO,
+                                       BoltAdmissionController.unlimited(), BoltSchedulingClassifier.ALL_INTERACTIVE );
 
     @BeforeEach
     void setup() throws Throwable
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.bolt.transport.pipeline;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static io.netty.buffer.Unpooled.buffer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.bolt.testing.BoltTestUtil.assertByteBufEquals;
+
+public class CompressionCodecTest
+{
+    private final EmbeddedChannel channel = new EmbeddedChannel( new CompressionCodec( 1024 ) );
+
+    @AfterEach
+    public void cleanup()
+    {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void shouldSendSmallDataRaw()
+    {
+        ByteBuf data = repetitiveData( 100 );
+
+        assertTrue( channel.writeOutbound( data.retainedDuplicate() ) );
+        ByteBuf frame = channel.readOutbound();
+
+        assertEquals( 1 + 100, frame.readInt() );
+        assertEquals( CompressionCodec.RAW, frame.readByte() );
+        assertByteBufEquals( data, frame );
+    }
+
+    @Test
+    void shouldCompressLargeData()
+    {
+        ByteBuf data = repetitiveData( 64 * 1024 );
+
+        assertTrue( channel.writeOutbound( data.retainedDuplicate() ) );
+        ByteBuf frame = channel.readOutbound();
+
+        int frameLength = frame.getInt( 0 );
+        assertTrue( frameLength < data.readableBytes() );
+        assertEquals( CompressionCodec.ZSTD, frame.getByte( Integer.BYTES ) );
+
+        assertTrue( channel.writeInbound( frame ) );
+        assertByteBufEquals( data, channel.readInbound() );
+    }
+
+    @Test
+    void shouldDecodeFramesSplitAcrossReads()
+    {
+        ByteBuf data = repetitiveData( 2 * CompressionCodec.MAX_FRAME_DATA_SIZE + 17 );
+
+        channel.writeOutbound( data.retainedDuplicate() );
+        ByteBuf frames = channel.readOutbound();
+
+        ByteBuf decoded = buffer();
+        while ( frames.isReadable() )
+        {
+            channel.writeInbound( frames.readRetainedSlice( Math.min( 1000, frames.readableBytes() ) ) );
+            ByteBuf inbound;
+            while ( (inbound = channel.readInbound()) != null )
+            {
+                decoded.writeBytes( inbound );
+                inbound.release();
+            }
+        }
+        frames.release();
+
+        assertByteBufEquals( data, decoded );
+    }
+
+    @Test
+    void shouldRejectUnknownMethod()
+    {
+        ByteBuf frame = buffer();
+        frame.writeInt( 2 );
+        frame.writeByte( 42 );
+        frame.writeByte( 0 );
+
+        assertThrows( DecoderException.class, () -> channel.writeInbound( frame ) );
+    }
+
+    private static ByteBuf repetitiveData( int size )
+    {
+        ByteBuf data = buffer( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            data.writeByte( i % 7 );
+        }
+        return data;
+    }
+}
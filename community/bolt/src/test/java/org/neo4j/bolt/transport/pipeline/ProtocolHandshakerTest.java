@@ -117,6 +117,33 @@ class ProtocolHandshakerTest
         verify( protocol ).install();
     }
 
+    @Test
+    void shouldAnnounceCompressionWhenRequestedAndAccepted()
+    {
+        // Given
+        BoltProtocol protocol = newBoltProtocol( 1, 0 );
+        when( protocol.acceptCompression() ).thenReturn( true );
+        BoltProtocolFactory handlerFactory = newProtocolFactory( 1, 0, protocol );
+        var memoryTracker = mock( MemoryTracker.class, RETURNS_MOCKS );
+
+        EmbeddedChannel channel = new EmbeddedChannel(
+                new ProtocolHandshaker( handlerFactory, boltChannel, logProvider, false, true, mock( ChannelProtector.class ), memoryTracker ) );
+
+        // When
+        ByteBuf input = Unpooled.wrappedBuffer( // create handshake data
+                                                new byte[]{(byte) 0x60, (byte) 0x60, (byte) 0xB0, (byte) 0x17}, // preamble
+                                                new byte[]{1, 0, 0, 1}, // first choice - protocol 1, compressed
+                                                new byte[]{0, 0, 0, 0}, // second choice - no protocol
+                                                new byte[]{0, 0, 0, 0}, // third choice - no protocol
+                                                new byte[]{0, 0, 0, 0} ); // fourth choice - no protocol
+        channel.writeInbound( input );
+
+        // Then
+        assertByteBufEquals( Unpooled.buffer().writeInt( BoltProtocolVersion.COMPRESSION_FLAG | 1 ), channel.readOutbound() );
+        verify( protocol ).acceptCompression();
+        verify( protocol ).install();
+    }
+
     @ParameterizedTest
     @MethodSource( "protocolVersionProviderInRange" )
     void shouldHandleProtocolRanges( int major, int minor )
@@ -27,7 +27,9 @@ import java.io.IOException;
 
 import org.neo4j.bolt.messaging.BoltResponseMessageWriter;
 import org.neo4j.bolt.packstream.Neo4jPack;
+import org.neo4j.bolt.packstream.Neo4jPackV2;
 import org.neo4j.bolt.packstream.PackOutput;
+import org.neo4j.bolt.packstream.PackedOutputArray;
 import org.neo4j.bolt.v3.messaging.response.FailureMessage;
 import org.neo4j.bolt.v3.messaging.response.IgnoredMessage;
 import org.neo4j.bolt.v3.messaging.response.RecordMessage;
@@ -40,6 +42,7 @@ import org.neo4j.values.AnyValue;
 import org.neo4j.values.virtual.MapValue;
 import org.neo4j.values.virtual.VirtualValues;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -92,6 +95,21 @@ public class BoltResponseMessageWriterV3Test
         inOrder.verify( output ).messageSucceeded();
     }
 
+    @Test
+    void shouldWriteSharedSuccessMessagesAsTheyWouldBePacked() throws Exception
+    {
+        for ( SuccessMessage shared : new SuccessMessage[]{SuccessMessage.EMPTY, SuccessMessage.HAS_MORE} )
+        {
+            PackedOutputArray expected = new PackedOutputArray();
+            new BoltResponseMessageWriterV3( new Neo4jPackV2(), expected, NullLogService.getInstance() ).write( new SuccessMessage( shared.meta() ) );
+
+            PackedOutputArray actual = new PackedOutputArray();
+            new BoltResponseMessageWriterV3( new Neo4jPackV2(), actual, NullLogService.getInstance() ).write( shared );
+
+            assertArrayEquals( expected.bytes(), actual.bytes() );
+        }
+    }
+
     @Test
     void shouldWriteFailureMessage() throws Exception
     {
@@ -20,6 +20,7 @@
 package org.neo4j.bolt.v3.messaging;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 import org.neo4j.bolt.messaging.BoltResponseMessageWriter;
 import org.neo4j.bolt.packstream.PackOutputClosedException;
@@ -31,14 +32,20 @@ import org.neo4j.graphdb.TransactionTerminatedException;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.logging.Log;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.BooleanValue;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.neo4j.logging.AssertableLogProvider.Level.ERROR;
 import static org.neo4j.logging.AssertableLogProvider.Level.WARN;
 import static org.neo4j.logging.LogAssertions.assertThat;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.virtual.VirtualValues.map;
 
 public class MessageProcessingHandlerTest
 {
@@ -61,6 +68,29 @@ public class MessageProcessingHandlerTest
         verify( connection ).stop();
     }
 
+    @Test
+    void shouldWriteSharedSuccessMessagesForCommonResponses() throws Exception
+    {
+        // Given
+        BoltResponseMessageWriter msgWriter = newResponseHandlerMock();
+        MessageProcessingHandler handler = new MessageProcessingHandler( msgWriter, mock( BoltConnection.class ), mock( Log.class ) );
+
+        // When
+        handler.onFinish();
+        handler.onHasMore();
+        handler.onFinish();
+        handler.onHasMore();
+        handler.onMetadata( "t_last", longValue( 1 ) );
+        handler.onFinish();
+
+        // Then
+        InOrder inOrder = inOrder( msgWriter );
+        inOrder.verify( msgWriter ).write( same( SuccessMessage.EMPTY ) );
+        inOrder.verify( msgWriter ).write( same( SuccessMessage.HAS_MORE ) );
+        inOrder.verify( msgWriter ).write( new SuccessMessage(
+                map( new String[]{SuccessMessage.HAS_MORE_KEY, "t_last"}, new AnyValue[]{BooleanValue.TRUE, longValue( 1 )} ) ) );
+    }
+
     @Test
     void shouldLogOriginalErrorWhenOutputIsClosed() throws Exception
     {
@@ -83,6 +83,8 @@ public enum Group
     /** Thread pool for parallel Cypher query execution. */
     CYPHER_WORKER( "CypherWorker", ExecutorServiceFactory.workStealing() ),
     CYPHER_CACHE( "CypherCache", ExecutorServiceFactory.workStealing() ),
+    /** Thread pool for parsing LOAD CSV input on several threads. */
+    CYPHER_CSV_PARSER( "CypherCsvParser" ),
 
     // DATA COLLECTOR
     DATA_COLLECTOR( "DataCollector" ),
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.path;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import org.neo4j.graphalgo.Neo4jAlgoTestCase;
+import org.neo4j.graphalgo.impl.path.BidirectionalShortestPath.FoundPath;
+import org.neo4j.graphalgo.impl.path.BidirectionalShortestPath.RelationshipFilter;
+import org.neo4j.graphalgo.impl.util.PathImpl;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+class TestBidirectionalShortestPath extends Neo4jAlgoTestCase
+{
+    private final LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+
+    @Test
+    void shouldFindShortestPathAmongLongerOnes()
+    {
+        try ( Transaction transaction = graphDb.beginTx() )
+        {
+            graph.makeEdgeChain( transaction, "a,b,c,g" );
+            graph.makeEdgeChain( transaction, "a,d,e,f,g" );
+            graph.makeEdgeChain( transaction, "a,h,i,j,k,g" );
+
+            assertPaths( findAll( transaction, "a", "g", RelationshipSelection.selection( BOTH ), Integer.MAX_VALUE ), "a,b,c,g" );
+            assertPathDef( findSingle( transaction, "a", "g", RelationshipSelection.selection( BOTH ), Integer.MAX_VALUE ), "a", "b", "c", "g" );
+            transaction.commit();
+        }
+    }
+
+    @Test
+    void shouldFindAllShortestPaths()
+    {
+        try ( Transaction transaction = graphDb.beginTx() )
+        {
+            graph.makeEdgeChain( transaction, "s,a,b,t" );
+            graph.makeEdgeChain( transaction, "s,c,d,t" );
+            graph.makeEdge( transaction, "a", "d" );
+            graph.makeEdgeChain( transaction, "s,e,f,g,t" );
+
+            assertPaths( findAll( transaction, "s", "t", RelationshipSelection.selection( BOTH ), Integer.MAX_VALUE ),
+                    "s,a,b,t", "s,c,d,t", "s,a,d,t" );
+            transaction.commit();
+        }
+    }
+
+    @Test
+    void shouldFollowDirection()
+    {
+        try ( Transaction transaction = graphDb.beginTx() )
+        {
+            graph.makeEdgeChain( transaction, "a,b,c" );
+            graph.makeEdgeChain( transaction, "c,d,a" );
+
+            assertPaths( findAll( transaction, "a", "c", RelationshipSelection.selection( OUTGOING ), Integer.MAX_VALUE ), "a,b,c" );
+            assertPaths( findAll( transaction, "a", "c", RelationshipSelection.selection( INCOMING ), Integer.MAX_VALUE ), "a,d,c" );
+            assertPaths( findAll( transaction, "a", "c", RelationshipSelection.selection( BOTH ), Integer.MAX_VALUE ), "a,b,c", "a,d,c" );
+            transaction.commit();
+        }
+    }
+
+    @Test
+    void shouldRespectMaxDepth()
+    {
+        try ( Transaction transaction = graphDb.beginTx() )
+        {
+            graph.makeEdgeChain( transaction, "a,b,c,d" );
+
+            assertNull( findSingle( transaction, "a", "d", RelationshipSelection.selection( BOTH ), 2 ) );
+            assertPathDef( findSingle( transaction, "a", "d", RelationshipSelection.selection( BOTH ), 3 ), "a", "b", "c", "d" );
+            transaction.commit();
+        }
+    }
+
+    @Test
+    void shouldFindZeroLengthPathBetweenSameNode()
+    {
+        try ( Transaction transaction = graphDb.beginTx() )
+        {
+            graph.makeEdgeChain( transaction, "a,b" );
+
+            assertPathDef( findSingle( transaction, "a", "a", RelationshipSelection.selection( BOTH ), Integer.MAX_VALUE ), "a" );
+            transaction.commit();
+        }
+    }
+
+    @Test
+    void shouldApplyFiltersWhileExpanding()
+    {
+        try ( Transaction transaction = graphDb.beginTx() )
+        {
+            graph.makeEdgeChain( transaction, "s,a,t" );
+            graph.makeEdgeChain( transaction, "s,b,c,t" );
+            graph.makeEdgeChain( transaction, "s,d,e,f,t" );
+            long a = graph.getNode( transaction, "a" ).getId();
+            long bc = graph.getRelationship( transaction, "b", "c" ).getId();
+
+            LongPredicate notA = node -> node != a;
+            RelationshipFilter notBc = ( relationship, type, source, target ) -> relationship != bc;
+            assertPaths( findAll( transaction, "s", "t", notA, null ), "s,b,c,t" );
+            assertPaths( findAll( transaction, "s", "t", notA, notBc ), "s,d,e,f,t" );
+            assertPaths( findAll( transaction, "s", "t", node -> node != graph.getNode( transaction, "t" ).getId(), null ) );
+            transaction.commit();
+        }
+    }
+
+    @Test
+    void shouldReleaseTrackedMemoryOnClose()
+    {
+        try ( Transaction transaction = graphDb.beginTx() )
+        {
+            graph.makeEdgeChain( transaction, "a,b,c,d,e" );
+            graph.makeEdgeChain( transaction, "a,f,g,e" );
+
+            KernelTransaction ktx = ((InternalTransaction) transaction).kernelTransaction();
+            try ( BidirectionalShortestPath search = new BidirectionalShortestPath( ktx.dataRead(), ktx.cursors(), ktx.cursorContext(), memoryTracker,
+                    RelationshipSelection.selection( BOTH ), Integer.MAX_VALUE, null, null ) )
+            {
+                FoundPath path = search.findSinglePath( graph.getNode( transaction, "a" ).getId(), graph.getNode( transaction, "e" ).getId() );
+                assertEquals( 3, path.length() );
+            }
+            assertEquals( 0, memoryTracker.estimatedHeapMemory() );
+            transaction.commit();
+        }
+    }
+
+    @Test
+    void shouldExpandTheSideWithTheSmallerFrontier()
+    {
+        try ( Transaction transaction = graphDb.beginTx() )
+        {
+            graph.makeEdgeChain( transaction, "s,a0,b,t" );
+            for ( int i = 1; i < 20; i++ )
+            {
+                graph.makeEdgeChain( transaction, "s,a" + i );
+            }
+            for ( int i = 0; i < 20; i++ )
+            {
+                graph.makeEdgeChain( transaction, "a" + i + ",x" + i );
+                graph.makeEdgeChain( transaction, "a" + i + ",y" + i );
+            }
+
+            // s has 20 neighbours and t has one, so after the first step from s all further steps are taken from t
+            MutableInt traversed = new MutableInt();
+            RelationshipFilter countingFilter = ( relationship, type, source, target ) ->
+            {
+                traversed.increment();
+                return true;
+            };
+            assertPaths( findAll( transaction, "s", "t", RelationshipSelection.selection( OUTGOING ), Integer.MAX_VALUE, null, countingFilter ),
+                    "s,a0,b,t" );
+            assertEquals( 22, traversed.intValue() );
+            transaction.commit();
+        }
+    }
+
+    private Path findSingle( Transaction transaction, String start, String end, RelationshipSelection selection, int maxDepth )
+    {
+        KernelTransaction ktx = ((InternalTransaction) transaction).kernelTransaction();
+        try ( BidirectionalShortestPath search = new BidirectionalShortestPath( ktx.dataRead(), ktx.cursors(), ktx.cursorContext(), memoryTracker,
+                selection, maxDepth, null, null ) )
+        {
+            FoundPath path = search.findSinglePath( graph.getNode( transaction, start ).getId(), graph.getNode( transaction, end ).getId() );
+            return path == null ? null : toPath( transaction, path );
+        }
+    }
+
+    private List<Path> findAll( Transaction transaction, String start, String end, RelationshipSelection selection, int maxDepth )
+    {
+        return findAll( transaction, start, end, selection, maxDepth, null, null );
+    }
+
+    private List<Path> findAll( Transaction transaction, String start, String end, LongPredicate nodeFilter, RelationshipFilter relationshipFilter )
+    {
+        return findAll( transaction, start, end, RelationshipSelection.selection( BOTH ), Integer.MAX_VALUE, nodeFilter, relationshipFilter );
+    }
+
+    private List<Path> findAll( Transaction transaction, String start, String end, RelationshipSelection selection, int maxDepth,
+            LongPredicate nodeFilter, RelationshipFilter relationshipFilter )
+    {
+        KernelTransaction ktx = ((InternalTransaction) transaction).kernelTransaction();
+        try ( BidirectionalShortestPath search = new BidirectionalShortestPath( ktx.dataRead(), ktx.cursors(), ktx.cursorContext(), memoryTracker,
+                selection, maxDepth, nodeFilter, relationshipFilter ) )
+        {
+            return toPaths( transaction, search.findAllPaths( graph.getNode( transaction, start ).getId(), graph.getNode( transaction, end ).getId() ) );
+        }
+    }
+
+    private static List<Path> toPaths( Transaction transaction, List<FoundPath> found )
+    {
+        List<Path> paths = new ArrayList<>();
+        for ( FoundPath path : found )
+        {
+            paths.add( toPath( transaction, path ) );
+        }
+        return paths;
+    }
+
+    private static Path toPath( Transaction transaction, FoundPath found )
+    {
+        Node start = transaction.getNodeById( found.nodes()[0] );
+        PathImpl.Builder builder = new PathImpl.Builder( start );
+        for ( long relationship : found.relationships() )
+        {
+            builder = builder.push( transaction.getRelationshipById( relationship ) );
+        }
+        return builder.build();
+    }
+}
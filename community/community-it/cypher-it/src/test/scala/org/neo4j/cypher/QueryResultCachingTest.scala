@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.config.Setting
+
+import java.util.Collections.singletonList
+import java.util.Collections.singletonMap
+
+class QueryResultCachingTest extends CypherFunSuite with GraphDatabaseTestSupport {
+
+  override def databaseConfig(): Map[Setting[_], Object] = super.databaseConfig() ++ Map(
+    GraphDatabaseInternalSettings.cypher_result_cache_size -> java.lang.Long.valueOf(1024 * 1024)
+  )
+
+  private var monitor: PlanCacheMetricsMonitor = _
+
+  override protected def initTest(): Unit = {
+    super.initTest()
+    monitor = new PlanCacheMetricsMonitor
+    kernelMonitors.addMonitorListener(monitor)
+  }
+
+  test("should serve repeated queries from the result cache") {
+    execute("CREATE (:A {prop: 1})")
+
+    single("MATCH (n:A) RETURN n.prop AS x") should equal(1L)
+    single("MATCH (n:A) RETURN n.prop AS x") should equal(1L)
+
+    monitor.numberOfResultCacheHits should be(1)
+  }
+
+  test("should invalidate a result when a commit changes a label it depends on") {
+    execute("CREATE (:A)")
+    single("MATCH (n:A) RETURN count(n) AS x") should equal(1L)
+
+    execute("CREATE (:B)")
+    single("MATCH (n:A) RETURN count(n) AS x") should equal(1L)
+    monitor.numberOfResultCacheHits should be(1)
+
+    execute("MATCH (n:B) SET n:A")
+    single("MATCH (n:A) RETURN count(n) AS x") should equal(2L)
+    monitor.numberOfInvalidatedResults should be(1)
+  }
+
+  test("should invalidate a result when a commit changes a relationship type it depends on") {
+    execute("CREATE (:A)-[:R]->(:A)")
+    single("MATCH ()-[r:R]->() RETURN count(r) AS x") should equal(1L)
+
+    execute("CREATE (:A)-[:T]->(:A)")
+    single("MATCH ()-[r:R]->() RETURN count(r) AS x") should equal(1L)
+    monitor.numberOfResultCacheHits should be(1)
+
+    execute("MATCH (a)-[:T]->(b) CREATE (a)-[:R]->(b)")
+    single("MATCH ()-[r:R]->() RETURN count(r) AS x") should equal(2L)
+    monitor.numberOfInvalidatedResults should be(1)
+  }
+
+  test("should invalidate a result when a commit changes a property key it depends on") {
+    execute("CREATE (:A {prop: 1, other: 1})")
+    single("MATCH (n:A) RETURN n.prop AS x") should equal(1L)
+
+    execute("MATCH (n:A) SET n.other = 2")
+    single("MATCH (n:A) RETURN n.prop AS x") should equal(1L)
+    monitor.numberOfResultCacheHits should be(1)
+
+    execute("MATCH (n:A) SET n.prop = 2")
+    single("MATCH (n:A) RETURN n.prop AS x") should equal(2L)
+    monitor.numberOfInvalidatedResults should be(1)
+  }
+
+  test("should not answer a parameter of one type with the result for an equal parameter of another type") {
+    single("RETURN $x AS x", "x" -> java.lang.Long.valueOf(1)) should equal(1L)
+    single("RETURN $x AS x", "x" -> java.lang.Double.valueOf(1.0)) should equal(1.0)
+    single("RETURN $x AS x", "x" -> singletonList(java.lang.Long.valueOf(1))) should equal(singletonList(java.lang.Long.valueOf(1)))
+    single("RETURN $x AS x", "x" -> singletonList(java.lang.Double.valueOf(1.0))) should equal(singletonList(java.lang.Double.valueOf(1.0)))
+
+    monitor.numberOfResultCacheHits should be(0)
+  }
+
+  private def execute(query: String): Unit = graph.withTx(tx => tx.execute(query).close())
+
+  private def single(query: String, parameter: (String, AnyRef) = "unused" -> "unused"): Any =
+    graph.withTx(tx => tx.execute(query, singletonMap(parameter._1, parameter._2)).columnAs[Any]("x").next())
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME
+import org.neo4j.cypher.PlanCacheMetricsMonitor
+import org.neo4j.graphdb.config.Setting
+import org.neo4j.monitoring.Monitors
+import org.neo4j.test.TestDatabaseManagementServiceBuilder
+import org.scalatest.concurrent.Eventually.PatienceConfig
+import org.scalatest.concurrent.Eventually.eventually
+import org.scalatest.time.Millis
+import org.scalatest.time.Seconds
+import org.scalatest.time.Span
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class QueryCacheWarmupAcceptanceTest extends DataCollectorTestSupport {
+
+  private val monitors = new Monitors
+  private val monitor = new PlanCacheMetricsMonitor
+  monitors.addMonitorListener(monitor)
+
+  private implicit val patience: PatienceConfig = PatienceConfig(Span(30, Seconds), Span(50, Millis))
+
+  private lazy val databaseDirectory = Files.createTempDirectory("query-cache-warmup")
+
+  override def externalDatabase: Option[(String, String)] = Some((databaseDirectory.toString, DEFAULT_DATABASE_NAME))
+
+  override def databaseConfig(): Map[Setting[_], Object] = super.databaseConfig() ++ Map(
+    GraphDatabaseInternalSettings.data_collector_query_cache_warmup_count -> Integer.valueOf(10)
+  )
+
+  override protected def createDatabaseFactory(databaseRootDir: Path): TestDatabaseManagementServiceBuilder =
+    super.createDatabaseFactory(databaseRootDir).setMonitors(monitors)
+
+  test("should warm up the query caches with queries executed while the query collector was not running") {
+    // given
+    execute("CALL db.stats.stop('QUERIES')")
+    assertIdle("QUERIES")
+    execute("CREATE (:A)")
+    (1 to 3).foreach(_ => execute("MATCH (n:A) RETURN n"))
+
+    // when
+    restartWithConfig()
+
+    // then
+    eventually {
+      monitor.numberOfWarmedUpQueries should be > 0L
+      monitor.isPlanCacheWarm should be(true)
+    }
+  }
+}
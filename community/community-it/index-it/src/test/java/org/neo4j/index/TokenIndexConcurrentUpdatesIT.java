@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.AnyTokens;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.graphdb.schema.IndexType;
+import org.neo4j.internal.helpers.collection.Iterators;
+import org.neo4j.test.Race;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Token index updates of committing transactions are applied by the committing threads concurrently. These tests make
+ * sure that this holds up while the label index is populating and while it is dropped.
+ */
+@DbmsExtension
+class TokenIndexConcurrentUpdatesIT
+{
+    private static final Label[] LABELS = {Label.label( "A" ), Label.label( "B" ), Label.label( "C" )};
+    private static final int WRITERS = 4;
+    private static final int TRANSACTIONS_PER_WRITER = 100;
+
+    @Inject
+    private GraphDatabaseService db;
+
+    @BeforeEach
+    void createNodes()
+    {
+        for ( int batch = 0; batch < 10; batch++ )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                for ( int i = 0; i < 1_000; i++ )
+                {
+                    tx.createNode( LABELS[i % LABELS.length] );
+                }
+                tx.commit();
+            }
+        }
+    }
+
+    @Test
+    void shouldKeepLabelIndexCorrectWhenUpdatedConcurrentlyWhilePopulating() throws Throwable
+    {
+        // given
+        dropLabelIndex();
+
+        // when
+        Race race = new Race();
+        race.addContestants( WRITERS, Race.throwing( this::changeLabels ) );
+        race.addContestant( Race.throwing( () ->
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                tx.schema().indexFor( AnyTokens.ANY_LABELS ).withName( "labels" ).create();
+                tx.commit();
+            }
+        } ) );
+        race.go();
+
+        // then
+        awaitIndexesOnline();
+        assertLabelIndexMatchesStore();
+    }
+
+    @Test
+    void shouldApplyUpdatesConcurrentlyWithDropOfLabelIndex() throws Throwable
+    {
+        // when
+        Race race = new Race();
+        race.addContestants( WRITERS, Race.throwing( this::changeLabels ) );
+        race.addContestant( Race.throwing( this::dropLabelIndex ) );
+        race.go();
+
+        // then
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.schema().indexFor( AnyTokens.ANY_LABELS ).withName( "labels" ).create();
+            tx.commit();
+        }
+        awaitIndexesOnline();
+        assertLabelIndexMatchesStore();
+    }
+
+    private void changeLabels()
+    {
+        List<Long> created = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for ( int i = 0; i < TRANSACTIONS_PER_WRITER; i++ )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                // Only change nodes created by this writer, so that writers don't deadlock on each other
+                if ( !created.isEmpty() )
+                {
+                    Node node = tx.getNodeById( created.get( random.nextInt( created.size() ) ) );
+                    node.removeLabel( LABELS[random.nextInt( LABELS.length )] );
+                    node.addLabel( LABELS[random.nextInt( LABELS.length )] );
+                }
+                created.add( tx.createNode( LABELS[random.nextInt( LABELS.length )], LABELS[random.nextInt( LABELS.length )] ).getId() );
+                tx.commit();
+            }
+        }
+    }
+
+    private void dropLabelIndex()
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( IndexDefinition index : tx.schema().getIndexes() )
+            {
+                if ( index.getIndexType() == IndexType.LOOKUP && index.isNodeIndex() )
+                {
+                    index.drop();
+                }
+            }
+            tx.commit();
+        }
+    }
+
+    private void awaitIndexesOnline()
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            tx.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            tx.commit();
+        }
+    }
+
+    private void assertLabelIndexMatchesStore()
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( Label label : LABELS )
+            {
+                long inStore = tx.getAllNodes().stream().filter( node -> node.hasLabel( label ) ).count();
+                assertThat( Iterators.count( tx.findNodes( label ) ) ).as( "nodes with label %s", label ).isEqualTo( inStore );
+            }
+            tx.commit();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.api.Kernel;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.neo4j.internal.kernel.api.security.LoginContext.AUTH_DISABLED;
+import static org.neo4j.resources.HeapAllocation.HEAP_ALLOCATION;
+
+/**
+ * Guards against allocation regressions on the begin/commit path of small transactions, which are pooled and recycled.
+ * The bound is deliberately loose; it is meant to catch new per-transaction object graphs, not individual objects.
+ */
+@DbmsExtension
+class KernelTransactionAllocationIT
+{
+    private static final int WARMUP_TRANSACTIONS = 20_000;
+    private static final int MEASURED_TRANSACTIONS = 10_000;
+    private static final long MAX_BYTES_PER_TRANSACTION = 8 * 1024;
+
+    @Inject
+    private GraphDatabaseAPI database;
+    @Inject
+    private Kernel kernel;
+
+    @Test
+    void shouldBoundAllocationOfEmptyReadTransactions() throws TransactionFailureException
+    {
+        assumeTrue( HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() ) >= 0 );
+
+        runEmptyTransactions( WARMUP_TRANSACTIONS );
+        long before = HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() );
+        runEmptyTransactions( MEASURED_TRANSACTIONS );
+        long allocated = HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() ) - before;
+
+        assertThat( allocated / MEASURED_TRANSACTIONS ).isLessThanOrEqualTo( MAX_BYTES_PER_TRANSACTION );
+    }
+
+    @Test
+    void shouldBoundAllocationOfTinyReadTransactions() throws TransactionFailureException
+    {
+        assumeTrue( HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() ) >= 0 );
+        long nodeId;
+        try ( var tx = database.beginTx() )
+        {
+            nodeId = tx.createNode().getId();
+            tx.commit();
+        }
+
+        runSingleNodeReads( nodeId, WARMUP_TRANSACTIONS );
+        long before = HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() );
+        runSingleNodeReads( nodeId, MEASURED_TRANSACTIONS );
+        long allocated = HEAP_ALLOCATION.allocatedBytes( Thread.currentThread() ) - before;
+
+        assertThat( allocated / MEASURED_TRANSACTIONS ).isLessThanOrEqualTo( MAX_BYTES_PER_TRANSACTION );
+    }
+
+    private void runEmptyTransactions( int count ) throws TransactionFailureException
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            try ( KernelTransaction tx = kernel.beginTransaction( KernelTransaction.Type.IMPLICIT, AUTH_DISABLED ) )
+            {
+                tx.commit();
+            }
+        }
+    }
+
+    private void runSingleNodeReads( long nodeId, int count ) throws TransactionFailureException
+    {
+        for ( int i = 0; i < count; i++ )
+        {
+            try ( KernelTransaction tx = kernel.beginTransaction( KernelTransaction.Type.IMPLICIT, AUTH_DISABLED );
+                  NodeCursor nodes = tx.cursors().allocateNodeCursor( tx.cursorContext() ) )
+            {
+                tx.dataRead().singleNode( nodeId, nodes );
+                assertThat( nodes.next() ).isTrue();
+                tx.commit();
+            }
+        }
+    }
+}
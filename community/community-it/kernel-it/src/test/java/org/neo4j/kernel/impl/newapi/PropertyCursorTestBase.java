@@ -444,6 +444,48 @@ public abstract class PropertyCursorTestBase<G extends KernelAPIReadTestSupport>
         }
     }
 
+    @Test
+    void shouldReadNodePropertiesInBatch()
+    {
+        // given
+        long[] nodes = {allPropsNodeId, intPropNodeId, bareNodeId, 1_000_000L, shortStringPropNodeId, intPropNodeId};
+        int[] keys = {token.propertyKey( INT_PROP ), token.propertyKey( SHORT_STRING_PROP ), token.propertyKey( "noSuchProp" )};
+        Value[][] values = new Value[keys.length][nodes.length];
+
+        try ( NodeCursor node = cursors.allocateNodeCursor( NULL );
+              PropertyCursor props = cursors.allocatePropertyCursor( NULL, INSTANCE ) )
+        {
+            // when
+            read.nodesProperties( nodes, keys, node, props, values );
+        }
+
+        // then
+        assertThat( values[0] ).containsExactly( Values.of( 13 ), Values.of( 13 ), Values.NO_VALUE, Values.NO_VALUE, Values.NO_VALUE, Values.of( 13 ) );
+        assertThat( values[1] ).containsExactly( Values.of( "hello" ), Values.NO_VALUE, Values.NO_VALUE, Values.NO_VALUE, Values.of( "hello" ),
+                Values.NO_VALUE );
+        assertThat( values[2] ).containsOnly( Values.NO_VALUE );
+    }
+
+    @Test
+    void shouldReadRelationshipPropertiesInBatch()
+    {
+        // given
+        long[] relationships = {datePropRelId, allPropsRelId, bareRelId, 1_000_000L};
+        int[] keys = {token.propertyKey( DATE_PROP ), token.propertyKey( LONG_PROP )};
+        Value[][] values = new Value[keys.length][relationships.length];
+
+        try ( RelationshipScanCursor relationship = cursors.allocateRelationshipScanCursor( NULL );
+              PropertyCursor props = cursors.allocatePropertyCursor( NULL, INSTANCE ) )
+        {
+            // when
+            read.relationshipsProperties( relationships, keys, relationship, props, values );
+        }
+
+        // then
+        assertThat( values[0] ).containsExactly( DATE_VALUE, DATE_VALUE, Values.NO_VALUE, Values.NO_VALUE );
+        assertThat( values[1] ).containsExactly( Values.NO_VALUE, Values.of( Long.MAX_VALUE ), Values.NO_VALUE, Values.NO_VALUE );
+    }
+
     private void assertAccessSingleNodeProperty( long nodeId, Object expectedValue, ValueGroup expectedValueType )
     {
         // given
@@ -199,6 +199,61 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> cypher_enable_runtime_monitors =
             newBuilder( "unsupported.cypher.enable_runtime_monitors", BOOL, false ).build();
 
+    @Internal
+    @Description( "Set this to let the interpreted runtime store rows in arrays with slots assigned at plan time, instead of in hash maps." )
+    public static final Setting<Boolean> cypher_interpreted_array_rows =
+            newBuilder( "unsupported.cypher.interpreted_array_rows", BOOL, false ).build();
+
+    @Internal
+    @Description( "The tracked heap usage of a single sort, aggregation, distinct or hash join operator in the interpreted runtime, above which " +
+                  "the operator moves its rows to temporary files instead of failing when the memory limit is reached. " +
+                  "Requires `dbms.track_query_allocation=true`. The value 0 disables spilling to disk." )
+    public static final Setting<Long> cypher_spill_threshold =
+            newBuilder( "unsupported.cypher.spill_threshold", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "The directory that operators of the interpreted runtime move their rows to once they exceed `unsupported.cypher.spill_threshold`. " +
+                  "A relative path is resolved against the data directory." )
+    public static final Setting<Path> cypher_spill_directory =
+            newBuilder( "unsupported.cypher.spill_directory", PATH, Path.of( "cypher-spill" ) )
+                    .setDependency( GraphDatabaseSettings.data_directory ).build();
+
+    @Internal
+    @Description( "The number of additional plans the query caches may hold for a query whose plan depends on the selectivity of its parameter values. " +
+                  "Parameter values are grouped in buckets of similar selectivity, estimated from the value histograms of the indexes, " +
+                  "and each bucket gets its own plan until this limit is reached. The value 0 disables plans per selectivity bucket." )
+    public static final Setting<Integer> cypher_plan_cache_parameter_variants =
+            newBuilder( "unsupported.cypher.plan_cache_parameter_variants", INT, 3 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "The number of additional plans, for parameter values of other selectivity, that each query cache may hold for all queries together. " +
+                  "See `unsupported.cypher.plan_cache_parameter_variants`." )
+    public static final Setting<Integer> cypher_plan_cache_parameter_variants_total =
+            newBuilder( "unsupported.cypher.plan_cache_parameter_variants_total", INT, 100 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "The maximum amount of heap, per database, used to cache the results of read-only queries. Repeated executions of the same " +
+                  "query with the same parameters by a user with the same roles are then served from the cache, without planning or execution, " +
+                  "until a committed transaction changes any of the labels, relationship types or property keys the query reads. " +
+                  "Results larger than a tenth of this size are never cached. The value 0 disables the result cache." )
+    public static final Setting<Long> cypher_result_cache_size =
+            newBuilder( "unsupported.cypher.result_cache_size", BYTES, 0L ).addConstraint( min( 0L ) ).build();
+
+    @Internal
+    @Description( "Every n-th execution of a cached query counts the rows produced by each of its operators and compares them with the " +
+                  "cardinalities estimated by the planner. If several of these sampled executions in a row find an operator whose row count " +
+                  "is off by more than unsupported.cypher.cardinality_feedback_error_factor, the plan is replanned as soon as the statistics " +
+                  "have changed at all, instead of waiting for them to diverge by cypher.statistics_divergence_threshold. " +
+                  "The value 0 disables the sampling." )
+    public static final Setting<Integer> cypher_cardinality_feedback_sample_interval =
+            newBuilder( "unsupported.cypher.cardinality_feedback_sample_interval", INT, 100 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "The factor by which the row count of an operator must differ from its estimated cardinality, in either direction, " +
+                  "for a sampled execution to count as misestimated. See unsupported.cypher.cardinality_feedback_sample_interval." )
+    public static final Setting<Double> cypher_cardinality_feedback_error_factor =
+            newBuilder( "unsupported.cypher.cardinality_feedback_error_factor", DOUBLE, 100.0 ).addConstraint( min( 1.0 ) ).build();
+
     @Internal
     @Description( "Enable tracing of pipelined runtime scheduler." )
     public static final Setting<Boolean> enable_pipelined_runtime_trace =
@@ -307,6 +362,22 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Integer> data_collector_max_query_text_size =
             newBuilder( "unsupported.datacollector.max_query_text_size", INT, 10000 ).addConstraint( min( 0 ) ).build();
 
+    @Internal
+    @Description( "Sets the number of the most frequently executed queries, per database, that are persisted together with" +
+            " the types of their parameters. The queries are counted whether or not the query collection of the" +
+            " db.stats procedures is running. When the database becomes available after a restart, these" +
+            " queries are planned in the background to warm up the query caches before clients start sending them." +
+            " Setting this to 0 disables both the persistence and the warm-up." )
+    public static final Setting<Integer> data_collector_query_cache_warmup_count =
+            newBuilder( "unsupported.datacollector.query_cache_warmup_count", INT, 0 ).addConstraint( min( 0 ) ).build();
+
+    @Internal
+    @Description( "Sets how often the most frequently executed queries are persisted for the query cache warm-up." +
+            " The queries are also persisted when the database is stopped." )
+    public static final Setting<Duration> data_collector_query_cache_warmup_persist_interval =
+            newBuilder( "unsupported.datacollector.query_cache_warmup_persist_interval", DURATION, ofMinutes( 5 ) )
+                    .addConstraint( min( ofSeconds( 1 ) ) ).build();
+
     @Internal
     @Description( "Enable or disable the ability to create and drop databases." )
     public static final Setting<Boolean> block_create_drop_database =
@@ -526,6 +597,74 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
                     .addConstraint( range( 1, Integer.MAX_VALUE ) )
                     .build();
 
+    @Internal
+    @Description( "The maximum number of records of a read-only query result that bolt will pull ahead of the client while it waits for " +
+            "the next PULL message. The number of records pulled ahead adapts to how many records the client consumes per PULL, " +
+            "up to this value. Setting this to 0 disables prefetching." )
+    public static final Setting<Integer> bolt_result_prefetch_max_records =
+            newBuilder( "unsupported.dbms.bolt.result_prefetch.max_records", INT, 0 )
+                    .addConstraint( min( 0 ) )
+                    .build();
+
+    @Internal
+    @Description( "Whether bolt accepts compression of its traffic when a client asks for it during the handshake." )
+    public static final Setting<Boolean> bolt_compression_enabled =
+            newBuilder( "unsupported.dbms.bolt.compression.enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "The smallest number of bytes of a compressed bolt connection's outbound data that is compressed before being sent. " +
+            "Smaller writes are sent uncompressed." )
+    public static final Setting<Integer> bolt_compression_threshold =
+            newBuilder( "unsupported.dbms.bolt.compression.threshold", INT, (int) kibiBytes( 1 ) )
+                    .addConstraint( min( 0 ) )
+                    .build();
+
+    @Internal
+    @Description( "When the time bolt requests spend waiting for a worker thread exceeds this value, new requests that are not part of an " +
+            "open transaction are rejected with a transient error until the wait drops below it again. Setting this to 0 disables " +
+            "latency based load shedding." )
+    public static final Setting<Duration> bolt_admission_queue_latency_target =
+            newBuilder( "unsupported.dbms.bolt.admission.queue_latency_target", DURATION, Duration.ZERO )
+                    .addConstraint( any( min( ofMillis( 10 ) ), is( Duration.ZERO ) ) )
+                    .build();
+
+    @Internal
+    @Description( "The maximum number of bolt requests of a single user that are scheduled on worker threads at the same time. " +
+            "Further requests that are not part of an open transaction are rejected with a transient error. Setting this to 0 removes the limit." )
+    public static final Setting<Integer> bolt_admission_max_concurrent_per_user =
+            newBuilder( "unsupported.dbms.bolt.admission.max_concurrent_per_user", INT, 0 )
+                    .addConstraint( min( 0 ) )
+                    .build();
+
+    @Internal
+    @Description( "The maximum number of bolt requests against a single default database that are scheduled on worker threads at the same time. " +
+            "Further requests that are not part of an open transaction are rejected with a transient error. Setting this to 0 removes the limit." )
+    public static final Setting<Integer> bolt_admission_max_concurrent_per_database =
+            newBuilder( "unsupported.dbms.bolt.admission.max_concurrent_per_database", INT, 0 )
+                    .addConstraint( min( 0 ) )
+                    .build();
+
+    @Internal
+    @Description( "Users whose bolt requests are scheduled in the background class. Background requests run on a separate pool of worker " +
+            "threads, so that heavy workloads cannot occupy the threads serving everybody else." )
+    public static final Setting<List<String>> bolt_scheduling_background_users =
+            newBuilder( "unsupported.dbms.bolt.scheduling.background_users", listOf( STRING ), List.of() ).build();
+
+    @Internal
+    @Description( "Databases whose bolt requests are scheduled in the background class, based on the default database of the connection. " +
+            "Background requests run on a separate pool of worker threads, so that heavy workloads cannot occupy the threads serving " +
+            "everybody else." )
+    public static final Setting<List<String>> bolt_scheduling_background_databases =
+            newBuilder( "unsupported.dbms.bolt.scheduling.background_databases", listOf( STRING ), List.of() ).build();
+
+    @Internal
+    @Description( "The number of worker threads serving bolt requests of the background scheduling class. Background requests queue up " +
+            "when all of them are busy." )
+    public static final Setting<Integer> bolt_scheduling_background_thread_pool_size =
+            newBuilder( "unsupported.dbms.bolt.scheduling.background_thread_pool_size", INT, 10 )
+                    .addConstraint( min( 1 ) )
+                    .build();
+
     @Internal
     @Description( "Enable/disable the use of Epoll for netty" )
     public static final Setting<Boolean> netty_server_use_epoll = newBuilder( "unsupported.dbms.bolt.netty_server_use_epoll", BOOL, true ).build();
@@ -780,6 +919,16 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration
     public static final Setting<Boolean> planning_point_indexes_enabled =
             newBuilder( "unsupported.cypher.planning_point_indexes_enabled", BOOL, false ).build();
 
+    @Internal
+    @Description( "Feature flag to enable/disable planning merge joins between inputs that are ordered on their join keys." )
+    public static final Setting<Boolean> planning_merge_joins_enabled =
+            newBuilder( "unsupported.cypher.planning_merge_joins_enabled", BOOL, false ).build();
+
+    @Internal
+    @Description( "Feature flag to enable/disable planning intersection expands, which solve cyclic patterns by intersecting the neighbours of bound nodes." )
+    public static final Setting<Boolean> planning_intersection_expands_enabled =
+            newBuilder( "unsupported.cypher.planning_intersection_expands_enabled", BOOL, false ).build();
+
     @Internal
     @Description( "Limits the maximum amount of off-heap memory the consistency checker will allocate. The value is given as a factor between 0.1 .. 1 " +
             "and will be multiplied with actual available memory to get the effectively available amount of memory taken into consideration" )
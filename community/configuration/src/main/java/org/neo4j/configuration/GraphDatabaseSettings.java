@@ -334,6 +334,12 @@ public class GraphDatabaseSettings implements SettingsDeclaration
     public static final Setting<Long> csv_buffer_size =
             newBuilder( "dbms.import.csv.buffer_size", LONG, mebiBytes( 2 ) ).addConstraint( min( 1L ) ).build();
 
+    @Description( "The number of threads used by `LOAD CSV` to parse a file. With more than one thread the file is cut into " +
+            "chunks of `dbms.import.csv.buffer_size` at line breaks and the chunks are parsed in parallel, while rows are still " +
+            "produced in file order. Fields containing line breaks are not supported when parsing in parallel." )
+    public static final Setting<Integer> csv_parsing_threads =
+            newBuilder( "dbms.import.csv.parsing_threads", INT, 1 ).addConstraint( min( 1 ) ).build();
+
     @Description( "Enables or disables tracking of how much time a query spends actively executing on the CPU. " +
             "Calling `dbms.listQueries` will display the time. " +
             "This can also be logged in the query log by using `dbms.logs.query.time_logging_enabled`." )
@@ -55,7 +55,8 @@ public class ClosestNewLineChunker extends CharReadableChunker
         ChunkImpl into = (ChunkImpl) chunk;
         int offset = fillFromBackBuffer( into.buffer );
         int leftToRead = chunkSize - offset;
-        int read = reader.read( into.buffer, offset, leftToRead );
+        // The reader may be exhausted while there are still characters left from the previous chunk
+        int read = Math.max( reader.read( into.buffer, offset, leftToRead ), 0 );
         if ( read == leftToRead )
         {   // Read from reader. We read data into the whole buffer and there seems to be more data left in reader.
             // This means we're most likely not at the end so seek backwards to the last newline character and
@@ -74,7 +75,7 @@ public class ClosestNewLineChunker extends CharReadableChunker
         // else we couldn't completely fill the buffer, this means that we're at the end of a data source, we're good.
 
         boolean newSource = crossedOverToNewSource();
-        if ( read > 0 )
+        if ( offset + read > 0 )
         {
             offset += read;
             position += read;
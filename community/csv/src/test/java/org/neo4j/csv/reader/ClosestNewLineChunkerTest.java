@@ -55,6 +55,25 @@ class ClosestNewLineChunkerTest
         }
     }
 
+    @Test
+    void shouldReturnCharactersAfterLastNewlineWhenReaderEndsAtChunkBoundary() throws Exception
+    {
+        // GIVEN
+        CharReadable reader = Readables.wrap( "1234567\n8901" );
+        try ( ClosestNewLineChunker source = new ClosestNewLineChunker( reader, 12, NO_SKIP ) )
+        {
+            // WHEN
+            Chunk chunk = source.newChunk();
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "1234567\n".toCharArray(), charactersOf( chunk ) );
+            assertTrue( source.nextChunk( chunk ) );
+            assertArrayEquals( "8901".toCharArray(), charactersOf( chunk ) );
+
+            // THEN
+            assertFalse( source.nextChunk( chunk ) );
+        }
+    }
+
     @Test
     void shouldFailIfNoNewlineInChunk() throws Exception
     {
@@ -31,6 +31,7 @@ import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.options.CypherVersion
 
 import java.io.File
+import java.nio.file.Path
 import scala.collection.JavaConverters.asScalaSetConverter
 
 /**
@@ -62,6 +63,11 @@ class CypherConfiguration private (val config: Config) {
   val runtime: CypherRuntimeOption = CypherRuntimeOption.fromConfig(config)
   val queryCacheSize: Int = config.get(GraphDatabaseSettings.query_cache_size).toInt
   val executionPlanCacheSize: Int = config.get(GraphDatabaseInternalSettings.query_execution_plan_cache_size).toInt
+  val planCacheParameterVariants: Int = config.get(GraphDatabaseInternalSettings.cypher_plan_cache_parameter_variants).toInt
+  val planCacheParameterVariantsTotal: Int = config.get(GraphDatabaseInternalSettings.cypher_plan_cache_parameter_variants_total).toInt
+  val resultCacheSize: Long = config.get(GraphDatabaseInternalSettings.cypher_result_cache_size)
+  val cardinalityFeedbackSampleInterval: Int = config.get(GraphDatabaseInternalSettings.cypher_cardinality_feedback_sample_interval).toInt
+  val cardinalityFeedbackErrorFactor: Double = config.get(GraphDatabaseInternalSettings.cypher_cardinality_feedback_error_factor).toDouble
   val statsDivergenceCalculator: StatsDivergenceCalculatorConfig = statsDivergenceFromConfig(config)
   val useErrorsOverWarnings: Boolean = config.get(GraphDatabaseSettings.cypher_hints_error)
   val idpMaxTableSize: Int = config.get(GraphDatabaseInternalSettings.cypher_idp_solver_table_threshold).toInt
@@ -70,6 +76,7 @@ class CypherConfiguration private (val config: Config) {
   val errorIfShortestPathHasCommonNodesAtRuntime: Boolean = config.get(GraphDatabaseSettings.forbid_shortestpath_common_nodes)
   val legacyCsvQuoteEscaping: Boolean = config.get(GraphDatabaseSettings.csv_legacy_quote_escaping)
   val csvBufferSize: Int = config.get(GraphDatabaseSettings.csv_buffer_size).intValue()
+  val csvParsingThreads: Int = config.get(GraphDatabaseSettings.csv_parsing_threads).intValue()
   val expressionEngineOption: CypherExpressionEngineOption = CypherExpressionEngineOption.fromConfig(config)
   val lenientCreateRelationship: Boolean = config.get(GraphDatabaseSettings.cypher_lenient_create_relationship)
   val pipelinedBatchSizeSmall: Int = config.get(GraphDatabaseInternalSettings.cypher_pipelined_batch_size_small)
@@ -82,10 +89,16 @@ class CypherConfiguration private (val config: Config) {
   val operatorFusionOverPipelineLimit: Int = config.get(GraphDatabaseInternalSettings.cypher_pipelined_operator_fusion_over_pipeline_limit).intValue()
   val memoryTrackingController: MemoryTrackingController = new ConfigMemoryTrackingController(config)
   val enableMonitors: Boolean = config.get(GraphDatabaseInternalSettings.cypher_enable_runtime_monitors)
+  val interpretedArrayRows: Boolean = config.get(GraphDatabaseInternalSettings.cypher_interpreted_array_rows)
+  val spillThreshold: Long = config.get(GraphDatabaseInternalSettings.cypher_spill_threshold)
+  val spillDirectory: Path = config.get(GraphDatabaseInternalSettings.cypher_spill_directory)
+  val workers: Int = config.get(GraphDatabaseInternalSettings.cypher_worker_count)
   val useJavaCCParser: Boolean = config.get(GraphDatabaseInternalSettings.cypher_parser) != GraphDatabaseInternalSettings.CypherParser.PARBOILED
   val disallowSplittingTop: Boolean = config.get(GraphDatabaseInternalSettings.cypher_splitting_top_behavior) == GraphDatabaseInternalSettings.SplittingTopBehavior.DISALLOW
   val enableExtraSemanticFeatures: Set[String] = config.get(GraphDatabaseInternalSettings.cypher_enable_extra_semantic_features).asScala.toSet
   val planningTextIndexesEnabled: Boolean = config.get(GraphDatabaseInternalSettings.planning_text_indexes_enabled)
+  val planningMergeJoinsEnabled: Boolean = config.get(GraphDatabaseInternalSettings.planning_merge_joins_enabled)
+  val planningIntersectionExpandsEnabled: Boolean = config.get(GraphDatabaseInternalSettings.planning_intersection_expands_enabled)
 
   //dynamic configurations
   private var _obfuscateLiterals: Boolean = config.get(GraphDatabaseSettings.log_queries_obfuscate_literals)
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.logical.plans
+
+import org.neo4j.cypher.internal.expressions.RelTypeName
+import org.neo4j.cypher.internal.expressions.SemanticDirection
+import org.neo4j.cypher.internal.util.attribution.IdGen
+
+/**
+ * For every source row, find all nodes 'to' that are connected to the 'from' node of every arm by a relationship
+ * fulfilling that arm's constraints. Produce one row per such node and combination of relationships, and add the
+ * node and relationships as values on the produced rows.
+ *
+ * This solves cyclic patterns like triangles by intersecting the neighbours of the bound nodes, instead of expanding
+ * from one of them and checking the other relationships afterwards.
+ */
+case class IntersectionExpand(override val source: LogicalPlan,
+                              arms: Seq[IntersectionArm],
+                              to: String)
+                             (implicit idGen: IdGen)
+  extends LogicalUnaryPlan(idGen) {
+  override def withLhs(newLHS: LogicalPlan)(idGen: IdGen): LogicalUnaryPlan = copy(source = newLHS)(idGen)
+  override val availableSymbols: Set[String] = source.availableSymbols ++ arms.map(_.relName) + to
+}
+
+/**
+ * Relationships (from)-[relName:types]-(to) of an [[IntersectionExpand]], where 'dir' is relative to 'from'.
+ */
+case class IntersectionArm(from: String, dir: SemanticDirection, types: Seq[RelTypeName], relName: String)
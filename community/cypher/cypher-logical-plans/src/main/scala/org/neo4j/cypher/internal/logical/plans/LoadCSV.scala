@@ -29,6 +29,9 @@ import org.neo4j.cypher.internal.util.attribution.IdGen
  *
  * If the CSV file has headers, each line will represented in Cypher as a MapValue, if the file has no header, each
  * line will be a ListValue.
+ *
+ * With more than one csvParsingThreads, the CSV is parsed in chunks on several threads. Lines are still produced in
+ * the order of the CSV.
  */
 case class LoadCSV(override val source: LogicalPlan,
                    url: Expression,
@@ -36,7 +39,8 @@ case class LoadCSV(override val source: LogicalPlan,
                    format: CSVFormat,
                    fieldTerminator: Option[String],
                    legacyCsvQuoteEscaping: Boolean,
-                   csvBufferSize: Int)
+                   csvBufferSize: Int,
+                   csvParsingThreads: Int = 1)
                   (implicit idGen: IdGen) extends LogicalUnaryPlan(idGen) {
 
   override val availableSymbols: Set[String] = source.availableSymbols + variableName
@@ -213,6 +213,12 @@ object LogicalPlanToPlanBuilderString {
         val (dirStrA, dirStrB) = arrows(dir)
         val typeStr = relTypeStr(types)
         s""" "($from)$dirStrA[$relName$typeStr]$dirStrB($to)" """.trim
+      case IntersectionExpand(_, arms, to) =>
+        arms.map { arm =>
+          val (dirStrA, dirStrB) = arrows(arm.dir)
+          val typeStr = relTypeStr(arm.types)
+          s""""(${arm.from})$dirStrA[${arm.relName}$typeStr]$dirStrB($to)""""
+        }.mkString(", ")
       case VarExpand(_, from, dir, pDir, types, to, relName, length, mode, nodePredicate, relationshipPredicate) =>
         val (dirStrA, dirStrB) = arrows(dir)
         val typeStr = relTypeStr(types)
@@ -282,6 +288,8 @@ object LogicalPlanToPlanBuilderString {
         s""" "($start)$dirStrA[$relName$typeStr$lenStr]$dirStrB($end)", startInScope = $startInScope, endInScope = $endInScope """.trim
       case ValueHashJoin(_, _, join) =>
         wrapInQuotations(expressionStringifier(join))
+      case ValueMergeJoin(_, _, join) =>
+        wrapInQuotations(expressionStringifier(join))
       case NodeHashJoin(nodes, _, _) =>
         wrapInQuotationsAndMkString(nodes)
       case RightOuterHashJoin(nodes, _, _) =>
@@ -463,7 +471,7 @@ object LogicalPlanToPlanBuilderString {
       case Prober(_, _) => "Prober.NoopProbe" // We do not preserve the object reference through the string transformation
       case RemoveLabels(_, idName, labelNames) => wrapInQuotationsAndMkString(idName +: labelNames.map(_.name))
       case SetLabels(_, idName, labelNames) => wrapInQuotationsAndMkString(idName +: labelNames.map(_.name))
-      case LoadCSV(_, url, variableName, format, fieldTerminator, _, _) =>
+      case LoadCSV(_, url, variableName, format, fieldTerminator, _, _, _) =>
         val fieldTerminatorStr = fieldTerminator.fold("None")(ft => s"Some(${wrapInQuotations(ft)})")
         Seq(wrapInQuotations(expressionStringifier(url)), wrapInQuotations(variableName), format, fieldTerminatorStr).mkString(", ")
       case Apply(_, _, fromSubquery) => fromSubquery.toString
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.logical.plans
+
+import org.neo4j.cypher.internal.expressions.Equals
+import org.neo4j.cypher.internal.util.attribution.IdGen
+
+/**
+ * Joins two inputs that are both ordered ascending on their side of the join predicate,
+ * by walking them in lock-step instead of building a hash table.
+ *
+ * For each run of equal join keys on the left, the matching run of rows from the right is buffered
+ * and combined with every left row of that run. Rows are produced in the order of the left input.
+ */
+case class ValueMergeJoin(override val left: LogicalPlan, override val right: LogicalPlan, join: Equals)
+                         (implicit idGen: IdGen) extends LogicalBinaryPlan(idGen) {
+  override def withLhs(newLHS: LogicalPlan)(idGen: IdGen): LogicalBinaryPlan = copy(left = newLHS)(idGen)
+  override def withRhs(newRHS: LogicalPlan)(idGen: IdGen): LogicalBinaryPlan = copy(right = newRHS)(idGen)
+
+  override val availableSymbols: Set[String] = left.availableSymbols ++ right.availableSymbols
+}
@@ -116,7 +116,11 @@ object CypherPlannerConfiguration {
 
 class CypherPlannerConfiguration(config: CypherConfiguration, cfg: Config, val planSystemCommands: Boolean) {
   def queryCacheSize: Int = config.queryCacheSize
+  def planCacheParameterVariants: Int = config.planCacheParameterVariants
+  def planCacheParameterVariantsTotal: Int = config.planCacheParameterVariantsTotal
   def statsDivergenceCalculator: StatsDivergenceCalculator = StatsDivergenceCalculator.divergenceCalculatorFor(config.statsDivergenceCalculator)
+  def cardinalityFeedbackSampleInterval: Int = config.cardinalityFeedbackSampleInterval
+  def cardinalityFeedbackErrorFactor: Double = config.cardinalityFeedbackErrorFactor
   def useErrorsOverWarnings: Boolean = config.useErrorsOverWarnings
   def idpMaxTableSize: Int = config.idpMaxTableSize
   def idpIterationDuration: Long = config.idpIterationDuration
@@ -124,6 +128,7 @@ class CypherPlannerConfiguration(config: CypherConfiguration, cfg: Config, val p
   def errorIfShortestPathHasCommonNodesAtRuntime: Boolean = config.errorIfShortestPathHasCommonNodesAtRuntime
   def legacyCsvQuoteEscaping: Boolean = config.legacyCsvQuoteEscaping
   def csvBufferSize: Int = config.csvBufferSize
+  def csvParsingThreads: Int = config.csvParsingThreads
   def nonIndexedLabelWarningThreshold: Long = cfg.get(GraphDatabaseInternalSettings.query_non_indexed_label_warning_threshold).longValue()
   def useJavaCCParser: Boolean = config.useJavaCCParser
   def obfuscateLiterals: Boolean = config.obfuscateLiterals
@@ -131,4 +136,6 @@ class CypherPlannerConfiguration(config: CypherConfiguration, cfg: Config, val p
   def pipelinedBatchSizeBig: Int = config.pipelinedBatchSizeBig
   def enabledSemanticFeatures: Seq[SemanticFeature] = CompilationPhases.enabledSemanticFeatures(config.enableExtraSemanticFeatures)
   def planningTextIndexesEnabled: Boolean = config.planningTextIndexesEnabled
+  def planningMergeJoinsEnabled: Boolean = config.planningMergeJoinsEnabled
+  def planningIntersectionExpandsEnabled: Boolean = config.planningIntersectionExpandsEnabled
 }
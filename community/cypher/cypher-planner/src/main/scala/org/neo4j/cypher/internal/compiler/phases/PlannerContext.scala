@@ -29,6 +29,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.ExpressionEvaluator
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics
 import org.neo4j.cypher.internal.compiler.planner.logical.MetricsFactory
 import org.neo4j.cypher.internal.compiler.planner.logical.QueryGraphSolver
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.PlanningParameters
 import org.neo4j.cypher.internal.frontend.phases.BaseContext
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
 import org.neo4j.cypher.internal.frontend.phases.Monitors
@@ -75,7 +76,8 @@ class PlannerContext(cypherExceptionFactory: CypherExceptionFactory,
                      val clock: Clock,
                      val logicalPlanIdGen: IdGen,
                      val params: MapValue,
-                     val executionModel: ExecutionModel) extends BaseContextImpl(cypherExceptionFactory, tracer, notificationLogger, monitors)
+                     val executionModel: ExecutionModel,
+                     val planningParameters: PlanningParameters = PlanningParameters.empty) extends BaseContextImpl(cypherExceptionFactory, tracer, notificationLogger, monitors)
 
 object PlannerContext {
   def apply(tracer: CompilationPhaseTracer,
@@ -96,9 +98,11 @@ object PlannerContext {
             params: MapValue): PlannerContext = {
     val exceptionFactory = Neo4jCypherExceptionFactory(queryText, offset)
 
-    val metrics = metricsFactory.newMetrics(planContext, evaluator, executionModel, config.planningTextIndexesEnabled)
+    val planningParameters = new PlanningParameters(params)
+    val metrics = metricsFactory.newMetrics(planContext, evaluator, executionModel, config.planningTextIndexesEnabled, planningParameters)
 
     new PlannerContext(exceptionFactory, tracer, notificationLogger, planContext,
-      monitors, metrics, config, queryGraphSolver, updateStrategy, debugOptions, clock, logicalPlanIdGen, params, executionModel)
+      monitors, metrics, config, queryGraphSolver, updateStrategy, debugOptions, clock, logicalPlanIdGen, params, executionModel,
+      planningParameters)
   }
 }
@@ -25,6 +25,7 @@ import org.neo4j.cypher.internal.compiler.ExecutionModel.SelectedBatchSize
 import org.neo4j.cypher.internal.compiler.ExecutionModel.VolcanoBatchSize
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.EffectiveCardinalities
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.HashJoin
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.MERGE_JOIN_COST
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.PROBE_BUILD_COST
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.PROBE_SEARCH_COST
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.costPerRow
@@ -58,6 +59,7 @@ import org.neo4j.cypher.internal.logical.plans.Expand
 import org.neo4j.cypher.internal.logical.plans.ExpandInto
 import org.neo4j.cypher.internal.logical.plans.FindShortestPaths
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
+import org.neo4j.cypher.internal.logical.plans.IntersectionExpand
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.Limit
 import org.neo4j.cypher.internal.logical.plans.LimitingLogicalPlan
@@ -92,6 +94,7 @@ import org.neo4j.cypher.internal.logical.plans.UndirectedRelationshipTypeScan
 import org.neo4j.cypher.internal.logical.plans.Union
 import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
+import org.neo4j.cypher.internal.logical.plans.ValueMergeJoin
 import org.neo4j.cypher.internal.logical.plans.VarExpand
 import org.neo4j.cypher.internal.macros.AssertMacros
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.Cardinalities
@@ -182,6 +185,11 @@ case class CardinalityCostModel(executionModel: ExecutionModel) extends CostMode
         effectiveCardinalities.lhs * PROBE_BUILD_COST +
         effectiveCardinalities.rhs * PROBE_SEARCH_COST
 
+    case _: ValueMergeJoin =>
+      lhsCost + rhsCost +
+        effectiveCardinalities.lhs * MERGE_JOIN_COST +
+        effectiveCardinalities.rhs * MERGE_JOIN_COST
+
     case _ =>
       val rowCost = costPerRow(plan, effectiveCardinalities.inputCardinality, semanticTable)
       val costForThisPlan = effectiveCardinalities.inputCardinality * rowCost
@@ -193,10 +201,14 @@ object CardinalityCostModel {
   val DEFAULT_COST_PER_ROW: CostPerRow = 0.1
   val PROBE_BUILD_COST: CostPerRow = 3.1
   val PROBE_SEARCH_COST: CostPerRow = 2.4
+  // A merge join only compares each row's key with the current key of the other side
+  val MERGE_JOIN_COST: CostPerRow = 0.5
   // A property has at least 2 db hits, even though it could even have many more.
   val PROPERTY_ACCESS_DB_HITS = 2
   val LABEL_CHECK_DB_HITS = 1
   val EXPAND_INTO_COST: CostPerRow = 6.4
+  // Reading and sorting the neighbours of one node, per arm of an IntersectionExpand
+  val INTERSECTION_ARM_COST: CostPerRow = 3.0
 
   val INDEX_SCAN_COST_PER_ROW = 1.0
   val INDEX_SEEK_COST_PER_ROW = 1.9
@@ -270,6 +282,9 @@ object CardinalityCostModel {
          _: VarExpand
     => 1.5
 
+    case e: IntersectionExpand
+    => INTERSECTION_ARM_COST * e.arms.size
+
     case _: NodeUniqueIndexSeek |
          _: NodeIndexSeek |
          _: NodeIndexContainsScan |
@@ -466,6 +481,10 @@ object CardinalityCostModel {
     case HashJoin() =>
       (WorkReduction.NoReduction, parentWorkReduction)
 
+    case _: ValueMergeJoin =>
+      // Both sides are streamed, so both only need to produce rows up to the join key where the parent stops
+      (parentWorkReduction, parentWorkReduction)
+
     case _:PartialSort =>
       // Let's assume the child has to do "a little more" work.
       // This happens because PartialSort has to process at least a whole bucket of identical values.
@@ -61,6 +61,7 @@ case class LogicalPlanningContext(planContext: PlanContext,
                                   errorIfShortestPathHasCommonNodesAtRuntime: Boolean = true,
                                   legacyCsvQuoteEscaping: Boolean = DEFAULT_LEGACY_STYLE_QUOTING,
                                   csvBufferSize: Int = 2 * 1024 * 1024,
+                                  csvParsingThreads: Int = 1,
                                   config: QueryPlannerConfiguration = QueryPlannerConfiguration.default,
                                   leafPlanUpdater: LeafPlanUpdater = EmptyUpdater,
                                   costComparisonListener: CostComparisonListener,
@@ -76,6 +77,8 @@ case class LogicalPlanningContext(planContext: PlanContext,
                                   debugOptions: CypherDebugOptions,
                                   anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
                                   planningTextIndexesEnabled: Boolean = true,
+                                  planningMergeJoinsEnabled: Boolean = false,
+                                  planningIntersectionExpandsEnabled: Boolean = false,
                                  ) {
 
   def withLimitSelectivityConfig(cfg: LimitSelectivityConfig): LogicalPlanningContext =
@@ -27,6 +27,7 @@ import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.CostModel
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphCardinalityModel
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.SelectivityCalculator
 import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.CompositeExpressionSelectivityCalculator
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.PlanningParameters
 import org.neo4j.cypher.internal.compiler.planner.logical.limit.LimitSelectivityConfig
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.index.IndexCompatiblePredicatesProviderContext
 import org.neo4j.cypher.internal.evaluator.SimpleInternalExpressionEvaluator
@@ -188,11 +189,17 @@ trait MetricsFactory {
                               expressionEvaluator: ExpressionEvaluator): CardinalityModel
   def newCostModel(executionModel: ExecutionModel): CostModel
   def newQueryGraphCardinalityModel(planContext: PlanContext, calculator: SelectivityCalculator): QueryGraphCardinalityModel
-  def newSelectivityCalculator(planContext: PlanContext, planningTextIndexesEnabled: Boolean): SelectivityCalculator =
-    CompositeExpressionSelectivityCalculator(planContext, planningTextIndexesEnabled)
-
-  def newMetrics(planContext: PlanContext, expressionEvaluator: ExpressionEvaluator, executionModel: ExecutionModel, planningTextIndexesEnabled: Boolean): Metrics = {
-    val selectivityCalculator = newSelectivityCalculator(planContext, planningTextIndexesEnabled)
+  def newSelectivityCalculator(planContext: PlanContext,
+                               planningTextIndexesEnabled: Boolean,
+                               parameters: PlanningParameters = PlanningParameters.empty): SelectivityCalculator =
+    CompositeExpressionSelectivityCalculator(planContext, planningTextIndexesEnabled, parameters)
+
+  def newMetrics(planContext: PlanContext,
+                 expressionEvaluator: ExpressionEvaluator,
+                 executionModel: ExecutionModel,
+                 planningTextIndexesEnabled: Boolean,
+                 parameters: PlanningParameters = PlanningParameters.empty): Metrics = {
+    val selectivityCalculator = newSelectivityCalculator(planContext, planningTextIndexesEnabled, parameters)
     val queryGraphCardinalityModel = newQueryGraphCardinalityModel(planContext, selectivityCalculator)
     val cardinality = newCardinalityEstimator(queryGraphCardinalityModel, selectivityCalculator, expressionEvaluator)
     Metrics(newCostModel(executionModel), cardinality)
@@ -92,13 +92,16 @@ case object QueryPlanner
       config = QueryPlannerConfiguration.default.withUpdateStrategy(context.updateStrategy),
       legacyCsvQuoteEscaping = context.config.legacyCsvQuoteEscaping,
       csvBufferSize = context.config.csvBufferSize,
+      csvParsingThreads = context.config.csvParsingThreads,
       costComparisonListener = costComparisonListener,
       planningAttributes = planningAttributes,
       idGen = context.logicalPlanIdGen,
       executionModel = context.executionModel,
       debugOptions = context.debugOptions,
       anonymousVariableNameGenerator = from.anonymousVariableNameGenerator,
-      planningTextIndexesEnabled = context.config.planningTextIndexesEnabled
+      planningTextIndexesEnabled = context.config.planningTextIndexesEnabled,
+      planningMergeJoinsEnabled = context.config.planningMergeJoinsEnabled,
+      planningIntersectionExpandsEnabled = context.config.planningIntersectionExpandsEnabled
     )
   }
 
@@ -84,11 +84,13 @@ import scala.annotation.tailrec
  *
  * @see #selectivityForCompositeIndexPredicates(SelectivitiesForPredicates, SelectivityCombiner)
  */
-case class CompositeExpressionSelectivityCalculator(planContext: PlanContext, planningTextIndexesEnabled: Boolean) extends SelectivityCalculator {
+case class CompositeExpressionSelectivityCalculator(planContext: PlanContext,
+                                                    planningTextIndexesEnabled: Boolean,
+                                                    parameters: PlanningParameters = PlanningParameters.empty) extends SelectivityCalculator {
 
   private val combiner: SelectivityCombiner = IndependenceCombiner
 
-  private val singleExpressionSelectivityCalculator: ExpressionSelectivityCalculator = ExpressionSelectivityCalculator(planContext.statistics, combiner, planningTextIndexesEnabled)
+  private val singleExpressionSelectivityCalculator: ExpressionSelectivityCalculator = ExpressionSelectivityCalculator(planContext.statistics, combiner, planningTextIndexesEnabled, parameters)
 
   private val nodeIndexMatchCache = CachedFunction[QueryGraph, SemanticTable, IndexCompatiblePredicatesProviderContext, Set[IndexMatch]] {
     (a, b, c) => findNodeIndexMatches(a, b, c)
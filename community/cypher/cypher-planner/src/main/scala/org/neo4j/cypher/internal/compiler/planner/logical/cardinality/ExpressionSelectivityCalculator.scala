@@ -55,21 +55,32 @@ import org.neo4j.cypher.internal.expressions.False
 import org.neo4j.cypher.internal.expressions.GreaterThan
 import org.neo4j.cypher.internal.expressions.GreaterThanOrEqual
 import org.neo4j.cypher.internal.expressions.HasLabels
+import org.neo4j.cypher.internal.expressions.InequalityExpression
 import org.neo4j.cypher.internal.expressions.LabelName
 import org.neo4j.cypher.internal.expressions.LessThan
 import org.neo4j.cypher.internal.expressions.LessThanOrEqual
 import org.neo4j.cypher.internal.expressions.Not
 import org.neo4j.cypher.internal.expressions.Ors
+import org.neo4j.cypher.internal.expressions.Parameter
 import org.neo4j.cypher.internal.expressions.PartialPredicate
 import org.neo4j.cypher.internal.expressions.Property
 import org.neo4j.cypher.internal.expressions.PropertyKeyName
 import org.neo4j.cypher.internal.expressions.RelTypeName
 import org.neo4j.cypher.internal.expressions.StringLiteral
 import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.logical.plans.Bound
+import org.neo4j.cypher.internal.logical.plans.ExclusiveBound
+import org.neo4j.cypher.internal.logical.plans.InclusiveBound
+import org.neo4j.cypher.internal.logical.plans.ManySeekableArgs
 import org.neo4j.cypher.internal.logical.plans.PrefixRange
+import org.neo4j.cypher.internal.logical.plans.SeekableArgs
+import org.neo4j.cypher.internal.logical.plans.SingleSeekableArg
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.IndexType
+import org.neo4j.cypher.internal.planner.spi.PropertyValue
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitiveEquality
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitiveRangeBound
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.NameId
@@ -79,7 +90,10 @@ import org.neo4j.cypher.internal.util.Selectivity
 
 import scala.language.postfixOps
 
-case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner, planningTextIndexesEnabled: Boolean) {
+case class ExpressionSelectivityCalculator(stats: GraphStatistics,
+                                           combiner: SelectivityCombiner,
+                                           planningTextIndexesEnabled: Boolean,
+                                           parameters: PlanningParameters = PlanningParameters.empty) {
 
   private val indexTypesPriorityForSubstringSargable: Seq[IndexType] = Seq(
     if (planningTextIndexesEnabled) Some(IndexType.Text) else None,
@@ -106,7 +120,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
     // WHERE x.prop =/IN ...
     case AsPropertySeekable(seekable) =>
-      calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, labelInfo, relTypeInfo, seekable.propertyKey)
+      calculateSelectivityForPropertyEquality(seekable.name, seekable.args, labelInfo, relTypeInfo, seekable.propertyKey)
 
     // WHERE x.prop STARTS WITH 'prefix'
     case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(StringLiteral(prefix)), _, _, _)) =>
@@ -268,12 +282,20 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   }
 
   private def calculateSelectivityForPropertyEquality(variable: String,
-                                                      sizeHint: Option[Int],
+                                                      args: SeekableArgs,
                                                       labelInfo: LabelInfo,
                                                       relTypeInfo: RelTypeInfo,
                                                       propertyKey: PropertyKeyName)
                                                      (implicit semanticTable: SemanticTable): Selectivity = {
-    indexSelectivityWithSizeHint(sizeHint, { size =>
+    val values = args match {
+      case SingleSeekableArg(expr) => PropertyValueExtractor.single(expr, parameters).map(Seq(_))
+      case ManySeekableArgs(expr) => PropertyValueExtractor.many(expr, parameters)
+    }
+    val parameterName = args match {
+      case SingleSeekableArg(parameter: Parameter) => Some(parameter.name)
+      case _ => None
+    }
+    indexSelectivityWithSizeHint(args.sizeHint, { size =>
       val labels = labelInfo.getOrElse(variable, Set.empty)
       val relTypes = relTypeInfo.get(variable)
       val indexSelectivities = (labels ++ relTypes).toIndexedSeq.flatMap { name =>
@@ -284,7 +306,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
           case _ => None
         }
 
-        descriptor.flatMap(indexSelectivityForPropertyEquality(_, size))
+        descriptor.flatMap(indexSelectivityForPropertyEquality(_, size, values, parameterName))
       }
 
       combiner.orTogetherSelectivities(indexSelectivities)
@@ -293,8 +315,30 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     })
   }
 
-  private def indexSelectivityForPropertyEquality(descriptor: IndexDescriptor, size: Int): Option[Selectivity] =
-    selectivityForPropertyEquality(stats.indexPropertyIsNotNullSelectivity(descriptor), stats.uniqueValueSelectivity(descriptor), size)
+  private def indexSelectivityForPropertyEquality(descriptor: IndexDescriptor,
+                                                  size: Int,
+                                                  values: Option[Seq[PropertyValue]],
+                                                  parameterName: Option[String]): Option[Selectivity] = {
+    val valueSelectivity = valueSelectivityForPropertyEquality(descriptor, values)
+    if (valueSelectivity.isDefined) {
+      parameterName.foreach(name => parameters.markSelectivitySensitive(SelectivitySensitiveEquality(name, descriptor)))
+    }
+    valueSelectivity
+      .orElse(selectivityForPropertyEquality(stats.indexPropertyIsNotNullSelectivity(descriptor), stats.uniqueValueSelectivity(descriptor), size))
+  }
+
+  /**
+   * If the values are known at plan time and the index has a histogram, the selectivity of each of them can be estimated separately.
+   */
+  private def valueSelectivityForPropertyEquality(descriptor: IndexDescriptor, values: Option[Seq[PropertyValue]]): Option[Selectivity] = for {
+    knownValues <- values
+    if knownValues.nonEmpty
+    valueSelectivities = knownValues.distinct.flatMap(stats.valueSelectivity(descriptor, _))
+    if valueSelectivities.size == knownValues.distinct.size
+    propExists <- stats.indexPropertyIsNotNullSelectivity(descriptor)
+    propEqualsAnyValue = Selectivity(math.min(valueSelectivities.map(_.factor).sum, 1.0))
+    combinedSelectivity <- combiner.andTogetherSelectivities(Seq(propExists, propEqualsAnyValue))
+  } yield combinedSelectivity
 
 
   private def defaultSelectivityForPropertyEquality(size: Int): Option[Selectivity] =
@@ -340,7 +384,8 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
             propertyExistsSelectivity <- stats.indexPropertyIsNotNullSelectivity(descriptor)
             propEqValueSelectivity <- stats.uniqueValueSelectivity(descriptor)
           } yield {
-            val pRangeBounded: Selectivity = getPropertyPredicateRangeSelectivity(seekable, propEqValueSelectivity)
+            val pRangeBounded: Selectivity = valueRangeSelectivity(descriptor, seekable)
+              .getOrElse(getPropertyPredicateRangeSelectivity(seekable, propEqValueSelectivity))
             pRangeBounded * propertyExistsSelectivity
           }
 
@@ -351,6 +396,47 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     combiner.orTogetherSelectivities(indexRangeSelectivities).getOrElse(default)
   }
 
+  /**
+   * If the bounds are known at plan time and the index has a histogram, the fraction of values in the range can be estimated from it.
+   */
+  private def valueRangeSelectivity(descriptor: IndexDescriptor, seekable: InequalityRangeSeekable): Option[Selectivity] = {
+    val (lowerBounds, upperBounds) = seekable.expr.inequalities.toIndexedSeq.partition {
+      case _: GreaterThan | _: GreaterThanOrEqual => true
+      case _ => false
+    }
+    def bound(inequality: InequalityExpression): Option[Bound[PropertyValue]] =
+      PropertyValueExtractor.single(inequality.rhs, parameters).map { value =>
+        if (inequality.includeEquality) InclusiveBound(value) else ExclusiveBound(value)
+      }
+
+    // Several bounds in the same direction are rare, and which one is the tightest is only known once values can be compared
+    if (lowerBounds.size > 1 || upperBounds.size > 1) {
+      None
+    } else {
+      val lower = lowerBounds.headOption.map(bound)
+      val upper = upperBounds.headOption.map(bound)
+      if (lower.exists(_.isEmpty) || upper.exists(_.isEmpty)) {
+        None
+      } else {
+        val selectivity = stats.rangeSelectivity(descriptor, lower.flatten, upper.flatten)
+        if (selectivity.isDefined) {
+          markSelectivitySensitiveBounds(descriptor, lowerBounds, isLowerBound = true)
+          markSelectivitySensitiveBounds(descriptor, upperBounds, isLowerBound = false)
+        }
+        selectivity
+      }
+    }
+  }
+
+  private def markSelectivitySensitiveBounds(descriptor: IndexDescriptor, bounds: Seq[InequalityExpression], isLowerBound: Boolean): Unit =
+    bounds.foreach { inequality =>
+      inequality.rhs match {
+        case parameter: Parameter =>
+          parameters.markSelectivitySensitive(SelectivitySensitiveRangeBound(parameter.name, descriptor, isLowerBound, inequality.includeEquality))
+        case _ =>
+      }
+    }
+
   private def calculateSelectivityForPointDistanceSeekable(seekable: PointDistanceSeekable,
                                                            labelInfo: LabelInfo,
                                                            relTypeInfo: RelTypeInfo)
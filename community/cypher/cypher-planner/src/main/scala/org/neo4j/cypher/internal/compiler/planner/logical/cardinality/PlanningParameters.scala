@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.cardinality
+
+import org.neo4j.cypher.internal.planner.spi.PropertyValue
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitivePredicate
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.FloatingPointValue
+import org.neo4j.values.storable.IntegralValue
+import org.neo4j.values.storable.TextValue
+import org.neo4j.values.virtual.MapValue
+
+import scala.collection.mutable
+
+/**
+ * The values of the explicit parameters of the query being planned, and the predicates on parameters whose
+ * values the estimates of the planner turned out to depend on.
+ *
+ * A plan that depends on parameter values is only a good plan for parameter values of similar selectivity,
+ * which the query caches take into account when they reuse it.
+ */
+class PlanningParameters(params: MapValue) {
+
+  private val sensitivePredicates = mutable.LinkedHashSet.empty[SelectivitySensitivePredicate]
+
+  def value(name: String): Option[PropertyValue] =
+    if (params.containsKey(name)) PlanningParameters.propertyValue(params.get(name)) else None
+
+  def markSelectivitySensitive(predicate: SelectivitySensitivePredicate): Unit = sensitivePredicates += predicate
+
+  def selectivitySensitivePredicates: Seq[SelectivitySensitivePredicate] = sensitivePredicates.toIndexedSeq
+}
+
+object PlanningParameters {
+
+  def empty: PlanningParameters = new PlanningParameters(MapValue.EMPTY)
+
+  def propertyValue(value: AnyValue): Option[PropertyValue] = value match {
+    case v: IntegralValue => Some(PropertyValue.IntegerValue(v.longValue()))
+    case v: FloatingPointValue => Some(PropertyValue.FloatValue(v.doubleValue()))
+    case v: TextValue => Some(PropertyValue.TextValue(v.stringValue()))
+    case v: BooleanValue => Some(PropertyValue.BooleanValue(v.booleanValue()))
+    case _ => None
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.cardinality
+
+import org.neo4j.cypher.internal.expressions.AutoExtractedParameter
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.ListLiteral
+import org.neo4j.cypher.internal.expressions.Literal
+import org.neo4j.cypher.internal.expressions.LiteralExtractor
+import org.neo4j.cypher.internal.expressions.LiteralWriter
+import org.neo4j.cypher.internal.expressions.Parameter
+import org.neo4j.cypher.internal.planner.spi.PropertyValue
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Finds the values of predicate arguments that are known at plan time, i.e. literals and parameters,
+ * so that they can be looked up in value histograms.
+ */
+object PropertyValueExtractor {
+
+  /**
+   * The value of a single argument, such as the right hand side of `n.prop = 42`.
+   */
+  def single(expr: Expression, parameters: PlanningParameters): Option[PropertyValue] = expr match {
+    case literal: Literal => extract(literal)
+    case parameter: AutoExtractedParameter => extract(parameter.writer)
+    case parameter: Parameter => parameters.value(parameter.name)
+    case _ => None
+  }
+
+  /**
+   * The values of a list argument, such as the right hand side of `n.prop IN [1, 2, 3]`.
+   *
+   * Lists passed as parameters are not considered, since a plan made for the values of one list
+   * cannot be told apart from a plan made for the values of another when it is cached.
+   */
+  def many(expr: Expression, parameters: PlanningParameters): Option[Seq[PropertyValue]] = expr match {
+    case ListLiteral(expressions) =>
+      val values = expressions.flatMap(single(_, parameters))
+      if (values.size == expressions.size) Some(values) else None
+    case _ => None
+  }
+
+  private def extract(writer: LiteralWriter): Option[PropertyValue] = {
+    val extractor = new Extractor
+    writer.writeTo(extractor)
+    extractor.result
+  }
+
+  private class Extractor extends LiteralExtractor {
+    private val values = ArrayBuffer.empty[PropertyValue]
+    private var supported = true
+
+    def result: Option[PropertyValue] =
+      if (supported && values.size == 1) Some(values.head) else None
+
+    override def writeBoolean(value: Boolean): Unit = values += PropertyValue.BooleanValue(value)
+    override def writeString(value: String): Unit = values += PropertyValue.TextValue(value)
+    override def writeDouble(value: Double): Unit = values += PropertyValue.FloatValue(value)
+    override def writeLong(value: Long): Unit = values += PropertyValue.IntegerValue(value)
+    override def writeNull(): Unit = supported = false
+    override def writeByteArray(value: Array[Byte]): Unit = supported = false
+
+    // Lists are never in a histogram
+    override def beginList(size: Int): Unit = supported = false
+
+    override def endList(): Unit = {}
+  }
+}
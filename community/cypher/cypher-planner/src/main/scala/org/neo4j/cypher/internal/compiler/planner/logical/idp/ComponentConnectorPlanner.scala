@@ -52,6 +52,7 @@ case class ComponentConnectorPlanner(singleComponentPlanner: SingleComponentPlan
   private val joinConnectors = Seq(
     NestedIndexJoinComponentConnector(singleComponentPlanner),
     ValueHashJoinComponentConnector,
+    ValueMergeJoinComponentConnector,
   )
   private val omConnector = OptionalMatchConnector
 
@@ -29,7 +29,9 @@ import org.neo4j.cypher.internal.compiler.planner.logical.SortPlanner.orderSatis
 import org.neo4j.cypher.internal.compiler.planner.logical.ordering.InterestingOrderConfig
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.BestPlans
 import org.neo4j.cypher.internal.compiler.planner.logical.steps.planShortestPaths
+import org.neo4j.cypher.internal.expressions.Expression
 import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.ordering.InterestingOrderCandidate
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 
 trait IDPQueryGraphSolverMonitor extends IDPSolverMonitor {
@@ -107,7 +109,7 @@ case class IDPQueryGraphSolver(singleComponentSolver: SingleComponentPlannerTrai
       if (components.isEmpty)
         planEmptyComponent(queryGraph, context, kit)
       else
-        planComponents(components, interestingOrderConfig, context, kit)
+        planComponents(components, queryGraph, interestingOrderConfig, context, kit)
 
     connectComponentsAndSolveOptionalMatch(plannedComponents, queryGraph, interestingOrderConfig, context, kit)
   }
@@ -124,13 +126,36 @@ case class IDPQueryGraphSolver(singleComponentSolver: SingleComponentPlannerTrai
     }
 
   private def planComponents(components: Seq[QueryGraph],
+                             queryGraph: QueryGraph,
                              interestingOrderConfig: InterestingOrderConfig,
                              context: LogicalPlanningContext,
                              kit: QueryPlannerKit): Seq[PlannedComponent] =
     components.map { qg =>
-      PlannedComponent(qg, singleComponentSolver.planComponent(qg, context, kit, interestingOrderConfig))
+      val componentOrderConfig =
+        if (context.planningMergeJoinsEnabled && components.size > 1) withJoinKeyOrders(qg, queryGraph, interestingOrderConfig)
+        else interestingOrderConfig
+      PlannedComponent(qg, singleComponentSolver.planComponent(qg, context, kit, componentOrderConfig))
     }
 
+  /**
+   * Ascending order on the keys this component can be joined on is interesting, since it allows connecting it with a value merge join.
+   * Index leaf plans can provide that order without sorting.
+   */
+  private def withJoinKeyOrders(component: QueryGraph, queryGraph: QueryGraph, interestingOrderConfig: InterestingOrderConfig): InterestingOrderConfig = {
+    val componentIds = component.idsWithoutOptionalMatchesOrUpdates
+    def coveredByComponent(expression: Expression) = expression.dependencies.map(_.name).subsetOf(componentIds)
+
+    val joinKeys = for {
+      join <- cartesianProductsOrValueJoins.joinPredicateCandidates(queryGraph.selections.flatPredicates).toSeq
+      (key, otherKey) <- Seq((join.lhs, join.rhs), (join.rhs, join.lhs))
+      if coveredByComponent(key) && !coveredByComponent(otherKey)
+    } yield key
+
+    joinKeys.distinct.foldLeft(interestingOrderConfig) {
+      (config, key) => config.addInterestingOrderCandidate(InterestingOrderCandidate.asc(key))
+    }
+  }
+
   private def planEmptyComponent(queryGraph: QueryGraph, context: LogicalPlanningContext, kit: QueryPlannerKit): Seq[PlannedComponent] = {
     val plan = context.logicalPlanProducer.planQueryArgument(queryGraph, context)
     val result: LogicalPlan = kit.select(plan, queryGraph)
@@ -39,14 +39,14 @@ trait SingleComponentIDPSolverConfig extends IDPSolverConfig {
 /* The default settings for IDP uses a maxTableSize and a inner loop duration threshold
    to improve planning performance with minimal impact of plan quality */
 case object DefaultIDPSolverConfig extends SingleComponentIDPSolverConfig {
-  override def solvers(queryGraph: QueryGraph) = Seq(joinSolverStep(_), expandSolverStep(_))
+  override def solvers(queryGraph: QueryGraph) = Seq(joinSolverStep(_), expandSolverStep(_), intersectionExpandSolverStep(_))
 }
 
 /* The Dynamic Programming (DP) approach is IDP with no optimizations */
 case object DPSolverConfig extends SingleComponentIDPSolverConfig {
   override def maxTableSize: Int = Integer.MAX_VALUE
   override def iterationDurationLimit: Long = Long.MaxValue
-  override def solvers(queryGraph: QueryGraph) = Seq(joinSolverStep(_), expandSolverStep(_))
+  override def solvers(queryGraph: QueryGraph) = Seq(joinSolverStep(_), expandSolverStep(_), intersectionExpandSolverStep(_))
 }
 
 
@@ -54,7 +54,7 @@ case object DPSolverConfig extends SingleComponentIDPSolverConfig {
    to improve planning performance with minimal impact of plan quality */
 class ConfigurableIDPSolverConfig(override val maxTableSize: Int,
                                   override val iterationDurationLimit: Long) extends SingleComponentIDPSolverConfig {
-  override def solvers(queryGraph: QueryGraph) = Seq(joinSolverStep(_), expandSolverStep(_))
+  override def solvers(queryGraph: QueryGraph) = Seq(joinSolverStep(_), expandSolverStep(_), intersectionExpandSolverStep(_))
 
   override def toString: String = s"${this.getClass.getSimpleName}(maxTableSize = $maxTableSize, iterationDurationLimit = $iterationDurationLimit})"
 }
@@ -148,7 +148,7 @@ trait SingleComponentPlannerTrait {
 
 object SingleComponentPlanner {
   def DEFAULT_SOLVERS: Seq[QueryGraph => IDPSolverStep[PatternRelationship, LogicalPlan, LogicalPlanningContext]] =
-    Seq(joinSolverStep(_), expandSolverStep(_))
+    Seq(joinSolverStep(_), expandSolverStep(_), intersectionExpandSolverStep(_))
 
   def planSinglePattern(qg: QueryGraph,
                         pattern: PatternRelationship,
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.idp
+
+import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
+import org.neo4j.cypher.internal.compiler.planner.logical.QueryPlannerKit
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.cartesianProductsOrValueJoins.joinPredicateCandidates
+import org.neo4j.cypher.internal.compiler.planner.logical.ordering.InterestingOrderConfig
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.ordering.ColumnOrder.Asc
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+
+/**
+ * Connects components with a value merge join, if both of them already provide ascending order on their side of the join predicate.
+ * That is typically the case for index scans, which get the join keys as interesting orders (see [[IDPQueryGraphSolver]]).
+ * An index scan is only planned if the component itself has a predicate implying that the property exists,
+ * since the join predicate is not part of the component.
+ */
+case object ValueMergeJoinComponentConnector
+  extends ComponentConnector {
+
+  override def solverStep(goalBitAllocation: GoalBitAllocation,
+                          queryGraph: QueryGraph,
+                          interestingOrderConfig: InterestingOrderConfig,
+                          kit: QueryPlannerKit,
+                          context: LogicalPlanningContext): ComponentConnectorSolverStep = {
+    val predicates = joinPredicateCandidates(queryGraph.selections.flatPredicates)
+
+    if (!context.planningMergeJoinsEnabled || predicates.isEmpty) {
+      IDPSolverStep.empty[QueryGraph, LogicalPlan, LogicalPlanningContext]
+    } else {
+      (_: IdRegistry[QueryGraph], goal: Goal, table: IDPCache[LogicalPlan], context: LogicalPlanningContext) => {
+        for {
+          predicate <- predicates.toIterator
+
+          (leftGoal, rightGoal) <- goal.coveringSplits
+
+          leftPlan <- table(leftGoal).iterator
+          if leftPlan.satisfiesExpressionDependencies(predicate.lhs) && !leftPlan.satisfiesExpressionDependencies(predicate.rhs) &&
+            providesAscendingOrder(leftPlan, predicate.lhs, context)
+          rightPlan <- table(rightGoal).iterator
+          if rightPlan.satisfiesExpressionDependencies(predicate.rhs) && !rightPlan.satisfiesExpressionDependencies(predicate.lhs) &&
+            providesAscendingOrder(rightPlan, predicate.rhs, context)
+
+          plan <- Iterator(
+            context.logicalPlanProducer.planValueMergeJoin(leftPlan, rightPlan, predicate, predicate, context),
+            context.logicalPlanProducer.planValueMergeJoin(rightPlan, leftPlan, predicate.switchSides, predicate, context),
+          )
+        } yield plan
+      }
+    }
+  }
+
+  private def providesAscendingOrder(plan: LogicalPlan, joinKey: Expression, context: LogicalPlanningContext): Boolean =
+    context.planningAttributes.providedOrders.get(plan.id).columns.headOption.exists {
+      case Asc(expression, _) => expression == joinKey
+      case _ => false
+    }
+}
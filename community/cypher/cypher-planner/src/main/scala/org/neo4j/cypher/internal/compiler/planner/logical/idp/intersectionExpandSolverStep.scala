@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.idp
+
+import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
+import org.neo4j.cypher.internal.compiler.planner.logical.idp.intersectionExpandSolverStep.MAX_ARMS
+import org.neo4j.cypher.internal.ir.PatternRelationship
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.SimplePatternLength
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+
+/**
+ * Solves two or more relationships at once, when they all connect a node that is not yet bound to nodes that are.
+ * This closes cycles like triangles by intersecting the neighbours of the bound nodes, see [[org.neo4j.cypher.internal.logical.plans.IntersectionExpand]].
+ */
+case class intersectionExpandSolverStep(qg: QueryGraph) extends IDPSolverStep[PatternRelationship, LogicalPlan, LogicalPlanningContext] {
+
+  override def apply(registry: IdRegistry[PatternRelationship], goal: Goal, table: IDPCache[LogicalPlan], context: LogicalPlanningContext): Iterator[LogicalPlan] = {
+    if (!context.planningIntersectionExpandsEnabled) {
+      Iterator.empty
+    } else {
+      val patterns = for {
+        patternId <- goal.bitSet.toSeq
+        pattern <- registry.lookup(patternId)
+        if pattern.length == SimplePatternLength && pattern.left != pattern.right
+      } yield (patternId, pattern)
+
+      val patternsByNode = patterns.flatMap {
+        case idAndPattern@(_, pattern) => Seq(pattern.left -> idAndPattern, pattern.right -> idAndPattern)
+      }.groupBy(_._1).mapValues(_.map(_._2))
+
+      for {
+        (to, incident) <- patternsByNode.iterator
+        if incident.size >= 2
+        arms <- (2 to math.min(incident.size, MAX_ARMS)).iterator.flatMap(incident.combinations)
+        plan <- table(Goal(goal.bitSet -- arms.map(_._1))).iterator
+        if !plan.availableSymbols(to) && arms.forall {
+          case (_, pattern) => plan.availableSymbols(pattern.otherSide(to)) && !plan.availableSymbols(pattern.name)
+        }
+      } yield context.logicalPlanProducer.planIntersectionExpand(plan, to, arms.map(_._2), context)
+    }
+  }
+}
+
+object intersectionExpandSolverStep {
+  // Bounds the number of combinations of relationships to consider for one node
+  val MAX_ARMS = 4
+}
@@ -47,7 +47,7 @@ case class cleanUpEager(solveds: Solveds, attributes: Attributes[LogicalPlan]) e
       res
 
     // E LCSV => LCSV E
-    case eager@Eager(loadCSV@LoadCSV(source, _, _, _, _, _,_), reasons) =>
+    case eager@Eager(loadCSV@LoadCSV(source, _, _, _, _, _, _, _), reasons) =>
       val res = loadCSV.copy(source = eager.copy(source = source, reasons = reasons)(SameId(eager.id)))(attributes.copy(loadCSV.id))
       solveds.copy(eager.id, res.id)
       res
@@ -148,6 +148,8 @@ import org.neo4j.cypher.internal.logical.plans.IndexOrderDescending
 import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
 import org.neo4j.cypher.internal.logical.plans.IndexedProperty
 import org.neo4j.cypher.internal.logical.plans.Input
+import org.neo4j.cypher.internal.logical.plans.IntersectionArm
+import org.neo4j.cypher.internal.logical.plans.IntersectionExpand
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.LetAntiSemiApply
 import org.neo4j.cypher.internal.logical.plans.LetSelectOrAntiSemiApply
@@ -221,6 +223,7 @@ import org.neo4j.cypher.internal.logical.plans.Union
 import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.logical.plans.UpdatingPlan
 import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
+import org.neo4j.cypher.internal.logical.plans.ValueMergeJoin
 import org.neo4j.cypher.internal.logical.plans.VarExpand
 import org.neo4j.cypher.internal.logical.plans.VariablePredicate
 import org.neo4j.cypher.internal.macros.AssertMacros
@@ -624,6 +627,17 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, planningAttri
     annotate(Expand(left, from, dir, pattern.types, to, pattern.name, mode), solved, providedOrder, context)
   }
 
+  def planIntersectionExpand(left: LogicalPlan,
+                             to: String,
+                             patterns: Seq[PatternRelationship],
+                             context: LogicalPlanningContext): LogicalPlan = {
+    val solved = solveds.get(left.id).asSinglePlannerQuery.amendQueryGraph(_.addPatternRelationships(patterns))
+    // All rows of one source row are produced together, so the order of the source is kept
+    val providedOrder = providedOrders.get(left.id).fromLeft
+    val arms = patterns.map(pattern => IntersectionArm(pattern.otherSide(to), pattern.directionRelativeTo(pattern.otherSide(to)), pattern.types, pattern.name))
+    annotate(IntersectionExpand(left, arms, to), solved, providedOrder, context)
+  }
+
   def planVarExpand(source: LogicalPlan,
                     from: String,
                     dir: SemanticDirection,
@@ -808,6 +822,13 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, planningAttri
     annotate(ValueHashJoin(left, right, join), solved, providedOrders.get(right.id).fromRight, context)
   }
 
+  def planValueMergeJoin(left: LogicalPlan, right: LogicalPlan, join: Equals, originalPredicate: Equals, context: LogicalPlanningContext): LogicalPlan = {
+    val plannerQuery = solveds.get(left.id).asSinglePlannerQuery ++ solveds.get(right.id).asSinglePlannerQuery
+    val solved = plannerQuery.amendQueryGraph(_.addPredicates(originalPredicate))
+    // Rows are produced in the order of the LHS, and within one LHS row in the order of the RHS
+    annotate(ValueMergeJoin(left, right, join), solved, providedOrders.get(left.id).fromLeft, context)
+  }
+
   def planNodeUniqueIndexSeek(idName: String,
                               label: LabelToken,
                               properties: Seq[IndexedProperty],
@@ -1134,7 +1155,7 @@ case class LogicalPlanProducer(cardinalityModel: CardinalityModel, planningAttri
     val solved = solveds.get(inner.id).asSinglePlannerQuery.updateTailOrSelf(_.withHorizon(LoadCSVProjection(variableName, url, format, fieldTerminator)))
     val (rewrittenUrl, rewrittenInner) = PatternExpressionSolver.ForSingle.solve(inner, url, context)
     annotate(LoadCSV(rewrittenInner, rewrittenUrl, variableName, format, fieldTerminator.map(_.value), context.legacyCsvQuoteEscaping,
-      context.csvBufferSize), solved, providedOrders.get(rewrittenInner.id).fromLeft, context)
+      context.csvBufferSize, context.csvParsingThreads), solved, providedOrders.get(rewrittenInner.id).fromLeft, context)
   }
 
   def planInput(symbols: Seq[String], context: LogicalPlanningContext): LogicalPlan = {
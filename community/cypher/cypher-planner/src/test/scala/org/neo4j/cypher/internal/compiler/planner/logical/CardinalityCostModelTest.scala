@@ -28,6 +28,9 @@ import org.neo4j.cypher.internal.compiler.helpers.LogicalPlanBuilder
 import org.neo4j.cypher.internal.compiler.planner.LogicalPlanConstructionTestSupport
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.DEFAULT_COST_PER_ROW
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.LABEL_CHECK_DB_HITS
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.MERGE_JOIN_COST
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.PROBE_BUILD_COST
+import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.PROBE_SEARCH_COST
 import org.neo4j.cypher.internal.compiler.planner.logical.CardinalityCostModel.PROPERTY_ACCESS_DB_HITS
 import org.neo4j.cypher.internal.compiler.planner.logical.Metrics.QueryGraphSolverInput
 import org.neo4j.cypher.internal.compiler.planner.logical.limit.LimitSelectivityConfig
@@ -430,6 +433,25 @@ class CardinalityCostModelTest extends CypherFunSuite with AstConstructionTestSu
     unlimited should equal(limited)
   }
 
+  test("value merge join should be cheaper than value hash join over the same inputs") {
+    def costOfJoin(join: LogicalPlanBuilder => LogicalPlanBuilder): Cost = {
+      val builder = new LogicalPlanBuilder(wholePlan = false)
+      val plan = join(builder).withCardinality(100)
+        .|.nodeByLabelScan("b", "B").withCardinality(1000)
+        .nodeByLabelScan("a", "A").withCardinality(1000)
+        .build()
+      costFor(plan, QueryGraphSolverInput.empty, builder.getSemanticTable, builder.cardinalities, builder.providedOrders)
+    }
+
+    val mergeJoinCost = costOfJoin(_.valueMergeJoin("a.prop = b.prop"))
+    val hashJoinCost = costOfJoin(_.valueHashJoin("a.prop = b.prop"))
+
+    mergeJoinCost should be < hashJoinCost
+    // Both joins read the same inputs, they only differ in the work per input row
+    val expectedDifference = 1000 * (PROBE_BUILD_COST.cost - MERGE_JOIN_COST.cost) + 1000 * (PROBE_SEARCH_COST.cost - MERGE_JOIN_COST.cost)
+    (hashJoinCost.gummyBears - mergeJoinCost.gummyBears) should equal(expectedDifference +- 0.0001)
+  }
+
   test("should reduce cardinality of all semiApply variants") {
     val plans = Seq[LogicalPlanBuilder => LogicalPlan](
       _.semiApply().withCardinality(75)
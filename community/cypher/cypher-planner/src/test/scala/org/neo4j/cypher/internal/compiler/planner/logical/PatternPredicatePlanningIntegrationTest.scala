@@ -928,7 +928,7 @@ class PatternPredicatePlanningIntegrationTest extends CypherFunSuite
     planFor(q)._2 should beLike {
       case LoadCSV(
       RollUpApply(Argument(SetExtractor()), _/* <- This is the subQuery */, _, _),
-      _, _, _, _, _, _
+      _, _, _, _, _, _, _
       ) => ()
     }
   }
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical
+
+import org.neo4j.configuration.GraphDatabaseInternalSettings
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningIntegrationTestSupport
+import org.neo4j.cypher.internal.compiler.planner.StatisticsBackedLogicalPlanningConfigurationBuilder
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
+import org.neo4j.cypher.internal.logical.plans.ValueMergeJoin
+import org.neo4j.cypher.internal.planner.spi.IndexOrderCapability.BOTH
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+import java.lang
+
+class ValueMergeJoinPlanningIntegrationTest extends CypherFunSuite with LogicalPlanningIntegrationTestSupport with AstConstructionTestSupport {
+
+  private val query =
+    """MATCH (a:A), (b:B)
+      |WHERE a.prop = b.prop AND a.prop IS NOT NULL AND b.prop IS NOT NULL
+      |RETURN a, b""".stripMargin
+
+  private def planner(mergeJoinsEnabled: Boolean = true): StatisticsBackedLogicalPlanningConfigurationBuilder =
+    plannerBuilder()
+      .enableConnectComponentsPlanner()
+      .withSetting(GraphDatabaseInternalSettings.planning_merge_joins_enabled, lang.Boolean.valueOf(mergeJoinsEnabled))
+      .setAllNodesCardinality(10000)
+      .setLabelCardinality("A", 1000)
+      .setLabelCardinality("B", 1000)
+
+  private def hasValueMergeJoin(plan: LogicalPlan): Boolean = plan.treeExists { case _: ValueMergeJoin => true }
+
+  private def hasValueHashJoin(plan: LogicalPlan): Boolean = plan.treeExists { case _: ValueHashJoin => true }
+
+  test("should plan value merge join if both sides can be read in join key order from an index") {
+    val plan = planner()
+      .addNodeIndex("A", Seq("prop"), 1.0, 0.1, providesOrder = BOTH)
+      .addNodeIndex("B", Seq("prop"), 1.0, 0.1, providesOrder = BOTH)
+      .build()
+      .plan(query)
+
+    hasValueMergeJoin(plan) shouldBe true
+    hasValueHashJoin(plan) shouldBe false
+  }
+
+  test("should plan value hash join if only one side can be read in join key order") {
+    val plan = planner()
+      .addNodeIndex("A", Seq("prop"), 1.0, 0.1, providesOrder = BOTH)
+      .build()
+      .plan(query)
+
+    hasValueMergeJoin(plan) shouldBe false
+    hasValueHashJoin(plan) shouldBe true
+  }
+
+  test("should plan value hash join if the indexes do not provide order") {
+    val plan = planner()
+      .addNodeIndex("A", Seq("prop"), 1.0, 0.1)
+      .addNodeIndex("B", Seq("prop"), 1.0, 0.1)
+      .build()
+      .plan(query)
+
+    hasValueMergeJoin(plan) shouldBe false
+    hasValueHashJoin(plan) shouldBe true
+  }
+
+  test("should not plan value merge join if merge joins are disabled") {
+    val plan = planner(mergeJoinsEnabled = false)
+      .addNodeIndex("A", Seq("prop"), 1.0, 0.1, providesOrder = BOTH)
+      .addNodeIndex("B", Seq("prop"), 1.0, 0.1, providesOrder = BOTH)
+      .build()
+      .plan(query)
+
+    hasValueMergeJoin(plan) shouldBe false
+    hasValueHashJoin(plan) shouldBe true
+  }
+}
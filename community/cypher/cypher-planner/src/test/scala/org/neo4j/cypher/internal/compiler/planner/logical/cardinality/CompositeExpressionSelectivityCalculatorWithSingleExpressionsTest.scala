@@ -38,9 +38,13 @@ import org.neo4j.cypher.internal.util.Selectivity
  * Test that CompositeExpressionSelectivityCalculator returns the same results as ExpressionSelectivityCalculator for single expressions.
  */
 class CompositeExpressionSelectivityCalculatorWithSingleExpressionsTest extends ExpressionSelectivityCalculatorTest {
-  override protected def setUpCalculator(labelInfo: LabelInfo, relTypeInfo: RelTypeInfo, stats: GraphStatistics, planningTextIndexesEnabled: Boolean): Expression => Selectivity = {
+  override protected def setUpCalculator(labelInfo: LabelInfo,
+                                         relTypeInfo: RelTypeInfo,
+                                         stats: GraphStatistics,
+                                         planningTextIndexesEnabled: Boolean,
+                                         parameters: PlanningParameters): Expression => Selectivity = {
     val semanticTable = setupSemanticTable()
-    val compositeCalculator = CompositeExpressionSelectivityCalculator(mockPlanContext(stats), planningTextIndexesEnabled)
+    val compositeCalculator = CompositeExpressionSelectivityCalculator(mockPlanContext(stats), planningTextIndexesEnabled, parameters)
     exp: Expression => {
       compositeCalculator(Selections.from(exp), labelInfo, relTypeInfo, semanticTable, IndexCompatiblePredicatesProviderContext.default)
     }
@@ -46,10 +46,16 @@ import org.neo4j.cypher.internal.expressions.Property
 import org.neo4j.cypher.internal.expressions.RelTypeName
 import org.neo4j.cypher.internal.ir.Predicate
 import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.logical.plans.Bound
+import org.neo4j.cypher.internal.logical.plans.ExclusiveBound
+import org.neo4j.cypher.internal.logical.plans.InclusiveBound
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_ALL_CARDINALITY
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics.MIN_NODES_WITH_LABEL_CARDINALITY
+import org.neo4j.cypher.internal.planner.spi.PropertyValue
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitiveEquality
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitiveRangeBound
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.ListSizeBucket
@@ -62,6 +68,8 @@ import org.neo4j.cypher.internal.util.symbols.CTAny
 import org.neo4j.cypher.internal.util.symbols.CTInteger
 import org.neo4j.cypher.internal.util.symbols.CTList
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
 
 class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstructionTestSupport {
 
@@ -1402,6 +1410,77 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     calculator(inequality.expr) should equal(calculator(bbox.expr))
   }
 
+  // Histograms
+  test("equality with a known value should use the value histogram") {
+    val stats = new mockStats() {
+      override def valueSelectivity(index: IndexDescriptor, value: PropertyValue): Option[Selectivity] = value match {
+        case PropertyValue.IntegerValue(3) => Some(Selectivity(0.5))
+        case _ => Some(Selectivity(0.25))
+      }
+    }
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats)
+
+    val isNotNullSel = Selectivity(200.0 / 1000.0)
+    calculator(super.equals(nProp, literalInt(3))) should equal(isNotNullSel * Selectivity(0.5))
+    calculator(super.equals(nProp, literalInt(4))) should equal(isNotNullSel * Selectivity(0.25))
+    calculator(in(nProp, listOfInt(3, 4))) should equal(isNotNullSel * Selectivity(0.75))
+  }
+
+  test("range with known bounds should use the value histogram") {
+    val stats = new mockStats() {
+      override def rangeSelectivity(index: IndexDescriptor, lower: Option[Bound[PropertyValue]], upper: Option[Bound[PropertyValue]]): Option[Selectivity] =
+        (lower, upper) match {
+          case (Some(ExclusiveBound(PropertyValue.IntegerValue(3))), Some(InclusiveBound(PropertyValue.IntegerValue(7)))) => Some(Selectivity(0.9))
+          case _ => None
+        }
+    }
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats)
+    val inequality = nPredicate(nAnded(NonEmptyList(
+      greaterThan(nProp, literalInt(3)),
+      lessThanOrEqual(nProp, literalInt(7))
+    )))
+
+    calculator(inequality.expr) should equal(Selectivity(200.0 / 1000.0) * Selectivity(0.9))
+  }
+
+  test("equality with a parameter should use the value histogram and be selectivity sensitive") {
+    val stats = new mockStats() {
+      override def valueSelectivity(index: IndexDescriptor, value: PropertyValue): Option[Selectivity] = value match {
+        case PropertyValue.IntegerValue(3) => Some(Selectivity(0.5))
+        case _ => None
+      }
+    }
+    val parameters = new PlanningParameters(VirtualValues.map(Array("p"), Array(Values.longValue(3))))
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats, parameters = parameters)
+
+    calculator(super.equals(nProp, parameter("p", CTInteger))) should equal(Selectivity(200.0 / 1000.0) * Selectivity(0.5))
+    parameters.selectivitySensitivePredicates should equal(Seq(SelectivitySensitiveEquality("p", indexPersonBtree)))
+  }
+
+  test("range with a parameter bound should use the value histogram and be selectivity sensitive") {
+    val stats = new mockStats() {
+      override def rangeSelectivity(index: IndexDescriptor, lower: Option[Bound[PropertyValue]], upper: Option[Bound[PropertyValue]]): Option[Selectivity] =
+        (lower, upper) match {
+          case (Some(InclusiveBound(PropertyValue.IntegerValue(3))), None) => Some(Selectivity(0.5))
+          case _ => None
+        }
+    }
+    val parameters = new PlanningParameters(VirtualValues.map(Array("p"), Array(Values.longValue(3))))
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, stats = stats, parameters = parameters)
+    val inequality = nPredicate(nAnded(NonEmptyList(greaterThanOrEqual(nProp, parameter("p", CTInteger)))))
+
+    calculator(inequality.expr) should equal(Selectivity(200.0 / 1000.0) * Selectivity(0.5))
+    parameters.selectivitySensitivePredicates should equal(Seq(SelectivitySensitiveRangeBound("p", indexPersonBtree, isLowerBound = true, isInclusive = true)))
+  }
+
+  test("predicates with a parameter are not selectivity sensitive without a value histogram") {
+    val parameters = new PlanningParameters(VirtualValues.map(Array("p"), Array(Values.longValue(3))))
+    val calculator = setUpCalculator(labelInfo = nIsPersonLabelInfo, parameters = parameters)
+
+    calculator(super.equals(nProp, parameter("p", CTInteger)))
+    parameters.selectivitySensitivePredicates shouldBe empty
+  }
+
   // HELPER METHODS
 
   protected def setupSemanticTable(): SemanticTable = {
@@ -1420,11 +1499,15 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
       .addTypeInfo(literalInt(7), CTInteger)
   }
 
-  protected def setUpCalculator(labelInfo: LabelInfo = Map.empty, relTypeInfo: RelTypeInfo = Map.empty, stats: GraphStatistics = mockStats(), planningTextIndexesEnabled: Boolean = true): Expression => Selectivity = {
+  protected def setUpCalculator(labelInfo: LabelInfo = Map.empty,
+                                relTypeInfo: RelTypeInfo = Map.empty,
+                                stats: GraphStatistics = mockStats(),
+                                planningTextIndexesEnabled: Boolean = true,
+                                parameters: PlanningParameters = PlanningParameters.empty): Expression => Selectivity = {
     implicit val semanticTable: SemanticTable = setupSemanticTable()
 
     val combiner = IndependenceCombiner
-    val calculator = ExpressionSelectivityCalculator(stats, combiner, planningTextIndexesEnabled)
+    val calculator = ExpressionSelectivityCalculator(stats, combiner, planningTextIndexesEnabled, parameters)
     exp: Expression => calculator(exp, labelInfo, relTypeInfo)
   }
 
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.planner.logical.idp
+
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport2
+import org.neo4j.cypher.internal.compiler.planner.logical.LogicalPlanningContext
+import org.neo4j.cypher.internal.compiler.planner.logical.ordering.InterestingOrderConfig
+import org.neo4j.cypher.internal.ir.Predicate
+import org.neo4j.cypher.internal.ir.QueryGraph
+import org.neo4j.cypher.internal.ir.Selections
+import org.neo4j.cypher.internal.ir.ordering.ProvidedOrder
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.ValueMergeJoin
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class ValueMergeJoinComponentConnectorTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
+
+  private def register[X](registry: IdRegistry[X], elements: X*): Goal = Goal(registry.registerAll(elements))
+
+  private val joinPred = equals(prop("n", "prop"), prop("m", "prop"))
+
+  private def mergeJoinPlans(nOrder: ProvidedOrder, mOrder: ProvidedOrder, mergeJoinsEnabled: Boolean = true)
+                            (assertions: (LogicalPlan, LogicalPlan, Seq[LogicalPlan]) => Unit): Unit = {
+    val table = IDPTable.empty[LogicalPlan]
+    val registry: DefaultIdRegistry[QueryGraph] = IdRegistry[QueryGraph]
+
+    new given().withLogicalPlanningContext { (_, planningContext) =>
+      val ctx: LogicalPlanningContext = planningContext.copy(planningMergeJoinsEnabled = mergeJoinsEnabled)
+      val order = InterestingOrderConfig.empty
+      val kit = ctx.config.toKit(order, ctx)
+      val nQg = QueryGraph(patternNodes = Set("n"))
+      val mQg = QueryGraph(patternNodes = Set("m"))
+      val fullQg = (nQg ++ mQg).withSelections(Selections(Set(Predicate(Set("n", "m"), joinPred))))
+
+      val nPlan = fakeLogicalPlanFor(ctx.planningAttributes, "n")
+      val mPlan = fakeLogicalPlanFor(ctx.planningAttributes, "m")
+      ctx.planningAttributes.providedOrders.set(nPlan.id, nOrder)
+      ctx.planningAttributes.providedOrders.set(mPlan.id, mOrder)
+      table.put(register(registry, nQg), sorted = false, nPlan)
+      table.put(register(registry, mQg), sorted = false, mPlan)
+      val goal = register(registry, nQg, mQg)
+
+      val step = ValueMergeJoinComponentConnector.solverStep(GoalBitAllocation(2, 0, Seq.empty), fullQg, order, kit, ctx)
+      assertions(nPlan, mPlan, step(registry, goal, table, ctx).toSeq)
+    }
+  }
+
+  test("produces value merge join of two components ordered on their join keys") {
+    mergeJoinPlans(ProvidedOrder.asc(prop("n", "prop")), ProvidedOrder.asc(prop("m", "prop"))) { (nPlan, mPlan, plans) =>
+      plans should contain theSameElementsAs Seq(
+        ValueMergeJoin(nPlan, mPlan, joinPred),
+        ValueMergeJoin(mPlan, nPlan, joinPred.switchSides),
+      )
+    }
+  }
+
+  test("produces no value merge join if one component is not ordered") {
+    mergeJoinPlans(ProvidedOrder.asc(prop("n", "prop")), ProvidedOrder.empty) { (_, _, plans) =>
+      plans shouldBe empty
+    }
+  }
+
+  test("produces no value merge join if one component is ordered on something else than its join key") {
+    mergeJoinPlans(ProvidedOrder.asc(prop("n", "prop")), ProvidedOrder.asc(prop("m", "other"))) { (_, _, plans) =>
+      plans shouldBe empty
+    }
+  }
+
+  test("produces no value merge join if one component is ordered descending") {
+    mergeJoinPlans(ProvidedOrder.asc(prop("n", "prop")), ProvidedOrder.desc(prop("m", "prop"))) { (_, _, plans) =>
+      plans shouldBe empty
+    }
+  }
+
+  test("produces no value merge join if merge joins are disabled") {
+    mergeJoinPlans(ProvidedOrder.asc(prop("n", "prop")), ProvidedOrder.asc(prop("m", "prop")), mergeJoinsEnabled = false) { (_, _, plans) =>
+      plans shouldBe empty
+    }
+  }
+}
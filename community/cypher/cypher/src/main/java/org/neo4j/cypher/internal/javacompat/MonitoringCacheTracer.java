@@ -82,4 +82,22 @@ public class MonitoringCacheTracer implements CacheTracer<CacheKey<String>>
     {
         monitor.cacheFlushDetected( sizeOfCacheBeforeFlush );
     }
+
+    @Override
+    public void queryCacheVariantHit( CacheKey<String> queryKey, String metaData )
+    {
+        monitor.cacheVariantHit( queryKey );
+    }
+
+    @Override
+    public void queryCacheVariantMiss( CacheKey<String> queryKey, String metaData )
+    {
+        monitor.cacheVariantMiss( queryKey );
+    }
+
+    @Override
+    public void queryCacheVariantLimitReached( CacheKey<String> queryKey, String metaData )
+    {
+        monitor.cacheVariantLimitReached( queryKey );
+    }
 }
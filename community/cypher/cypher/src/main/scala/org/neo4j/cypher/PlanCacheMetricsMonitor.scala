@@ -21,19 +21,54 @@ package org.neo4j.cypher
 
 import org.neo4j.cypher.internal.ExecutionEngineQueryCacheMonitor
 import org.neo4j.cypher.internal.QueryCache.CacheKey
+import org.neo4j.cypher.internal.QueryCacheWarmupMonitor
+import org.neo4j.cypher.internal.cache.QueryResultCacheMonitor
+import org.neo4j.cypher.internal.cache.ResultCacheKey
 
 import java.util.concurrent.atomic.AtomicLong
 
-class PlanCacheMetricsMonitor extends ExecutionEngineQueryCacheMonitor {
+class PlanCacheMetricsMonitor extends ExecutionEngineQueryCacheMonitor with QueryCacheWarmupMonitor with QueryResultCacheMonitor {
   private val counter = new AtomicLong()
   private val waitTime = new AtomicLong()
+  private val warmupPending = new AtomicLong()
+  private val warmedUp = new AtomicLong()
+  private val resultHits = new AtomicLong()
+  private val resultMisses = new AtomicLong()
+  private val resultInvalidations = new AtomicLong()
 
   override def cacheDiscard(ignored1: CacheKey[String], ignored2: String, secondsSinceReplan: Int, maybeReason: Option[String]): Unit = {
     counter.incrementAndGet()
     waitTime.addAndGet(secondsSinceReplan)
   }
 
+  override def warmupStarted(numberOfQueries: Int): Unit = warmupPending.addAndGet(numberOfQueries)
+
+  override def queryWarmedUp(succeeded: Boolean): Unit = {
+    warmupPending.decrementAndGet()
+    if (succeeded) warmedUp.incrementAndGet()
+  }
+
+  override def warmupCompleted(numberOfSkippedQueries: Int): Unit = warmupPending.addAndGet(-numberOfSkippedQueries)
+
+  override def resultCacheHit(key: ResultCacheKey): Unit = resultHits.incrementAndGet()
+
+  override def resultCacheMiss(key: ResultCacheKey): Unit = resultMisses.incrementAndGet()
+
+  override def resultCacheInvalidation(numberOfInvalidatedResults: Int): Unit = resultInvalidations.addAndGet(numberOfInvalidatedResults)
+
   def numberOfReplans: Long = counter.get()
 
   def replanWaitTime: Long = waitTime.get()
+
+  def numberOfWarmedUpQueries: Long = warmedUp.get()
+
+  def numberOfQueriesPendingWarmup: Long = warmupPending.get()
+
+  def isPlanCacheWarm: Boolean = warmupPending.get() <= 0
+
+  def numberOfResultCacheHits: Long = resultHits.get()
+
+  def numberOfResultCacheMisses: Long = resultMisses.get()
+
+  def numberOfInvalidatedResults: Long = resultInvalidations.get()
 }
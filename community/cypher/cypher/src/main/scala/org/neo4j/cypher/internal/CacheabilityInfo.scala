@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal
 
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitivePredicate
 import org.neo4j.cypher.internal.util.InternalNotification
 
 /**
@@ -33,4 +34,10 @@ trait CacheabilityInfo {
   def shouldBeCached: Boolean
 
   def notifications: IndexedSeq[InternalNotification]
+
+  /**
+   * Predicates on parameters whose values the plan was made for. The plan should only be reused for
+   * parameter values of similar selectivity.
+   */
+  def selectivitySensitivePredicates: Seq[SelectivitySensitivePredicate] = Seq.empty
 }
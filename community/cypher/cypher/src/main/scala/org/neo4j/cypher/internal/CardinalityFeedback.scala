@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.CardinalityFeedback.MIN_ROWS
+import org.neo4j.cypher.internal.CardinalityFeedback.OperatorEstimate
+import org.neo4j.cypher.internal.CardinalityFeedback.REQUIRED_MISESTIMATES
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.EffectiveCardinalities
+import org.neo4j.cypher.result.QueryProfile
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Compares the row counts of sampled executions of a cached plan with the cardinalities the planner estimated.
+ *
+ * Every `sampleInterval`-th execution is run counting the rows of each operator. When [[REQUIRED_MISESTIMATES]]
+ * sampled executions in a row find an operator whose row count differs from its estimate by more than `errorFactor`,
+ * the plan fingerprint is marked as misestimated. The [[DefaultPlanStalenessCaller]] then replans as soon as the
+ * statistics have changed at all, rather than waiting for them to diverge by the configured threshold.
+ *
+ * @param fingerprint    the fingerprint of the plan, shared by all caches holding the plan
+ * @param estimates      the estimated cardinality of each operator
+ * @param sampleInterval how many executions there are per sampled execution
+ * @param errorFactor    the factor an operator row count must be off by for the execution to be misestimated
+ */
+class CardinalityFeedback(fingerprint: PlanFingerprintReference,
+                          estimates: Array[OperatorEstimate],
+                          sampleInterval: Int,
+                          errorFactor: Double) {
+
+  private val executions = new AtomicLong()
+  private val misestimates = new AtomicInteger()
+
+  /**
+   * Called once per execution of the plan, decides if that execution should count rows.
+   */
+  def shouldSample(): Boolean = executions.incrementAndGet() % sampleInterval == 0
+
+  /**
+   * Records the row counts of a sampled execution that ran to completion.
+   */
+  def record(profile: QueryProfile): Unit = {
+    worstMisestimate(profile) match {
+      case Some(misestimate) =>
+        if (misestimates.incrementAndGet() >= REQUIRED_MISESTIMATES) {
+          misestimates.set(0)
+          fingerprint.misestimate = Some(misestimate)
+        }
+      case None =>
+        misestimates.set(0)
+    }
+  }
+
+  private def worstMisestimate(profile: QueryProfile): Option[String] = {
+    var worst: Option[String] = None
+    var worstError = errorFactor
+    var i = 0
+    while (i < estimates.length) {
+      val estimate = estimates(i)
+      val rows = profile.operatorProfile(estimate.id).rows().toDouble
+      // Runtimes report operators they did not count as having no rows, so only operators with rows are compared.
+      if (rows > 0 && math.max(rows, estimate.cardinality) >= MIN_ROWS) {
+        val error = math.max(rows / estimate.cardinality, estimate.cardinality / rows)
+        if (error > worstError) {
+          worstError = error
+          worst = Some(s"${estimate.operator} produced ${rows.toLong} rows where ${estimate.cardinality.toLong} were estimated")
+        }
+      }
+      i += 1
+    }
+    worst
+  }
+}
+
+object CardinalityFeedback {
+
+  /**
+   * The number of sampled executions in a row that have to be misestimated before the plan is marked as misestimated.
+   */
+  val REQUIRED_MISESTIMATES = 3
+
+  /**
+   * Operators where neither the row count nor the estimate reach this many rows are never considered misestimated.
+   */
+  val MIN_ROWS = 1000
+
+  case class OperatorEstimate(id: Int, operator: String, cardinality: Double)
+
+  /**
+   * Creates the feedback for a plan, if the plan may be replanned and sampling is enabled.
+   */
+  def apply(reusability: ReusabilityState,
+            plan: LogicalPlan,
+            effectiveCardinalities: EffectiveCardinalities,
+            sampleInterval: Int,
+            errorFactor: Double): Option[CardinalityFeedback] = reusability match {
+    case MaybeReusable(fingerprint) if sampleInterval > 0 =>
+      val estimates = plan.flatten.collect {
+        case p if effectiveCardinalities.isDefinedAt(p.id) =>
+          OperatorEstimate(p.id.x, s"${p.getClass.getSimpleName}(${p.id.x})", math.max(effectiveCardinalities.get(p.id).amount, 1.0))
+      }
+      Some(new CardinalityFeedback(fingerprint, estimates.toArray, sampleInterval, errorFactor))
+    case _ => None
+  }
+}
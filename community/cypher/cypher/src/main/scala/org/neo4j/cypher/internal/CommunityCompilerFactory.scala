@@ -29,11 +29,19 @@ import org.neo4j.cypher.internal.options.CypherRuntimeOption
 import org.neo4j.cypher.internal.options.CypherUpdateStrategy
 import org.neo4j.cypher.internal.options.CypherVersion
 import org.neo4j.cypher.internal.planning.CypherPlanner
+import org.neo4j.cypher.internal.runtime.spill.SpillFiles
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.exceptions.SyntaxException
+import org.neo4j.io.fs.FileSystemAbstraction
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.api.Kernel
 import org.neo4j.logging.Log
 import org.neo4j.logging.LogProvider
 import org.neo4j.monitoring
+import org.neo4j.scheduler.Group
+import org.neo4j.scheduler.JobScheduler
+
+import java.util.concurrent.Executor
 
 /**
  * Factory which creates cypher compilers.
@@ -48,6 +56,33 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
 
   private val log: Log = logProvider.getLog(getClass)
 
+  private lazy val parallelExecution: Option[ParallelExecutionResources] =
+    if (runtimeConfig.workers < 0) {
+      None
+    } else {
+      val dependencies = graph.getDependencyResolver
+      val workers = if (runtimeConfig.workers == 0) Runtime.getRuntime.availableProcessors() else runtimeConfig.workers
+      Some(ParallelExecutionResources(
+        dependencies.resolveDependency(classOf[JobScheduler]).executor(Group.CYPHER_WORKER),
+        dependencies.resolveDependency(classOf[Kernel]).cursors(),
+        workers))
+    }
+
+  private lazy val csvParsingExecutor: Option[Executor] =
+    if (plannerConfig.csvParsingThreads > 1) {
+      Some(graph.getDependencyResolver.resolveDependency(classOf[JobScheduler]).executor(Group.CYPHER_CSV_PARSER))
+    } else {
+      None
+    }
+
+  private lazy val spilling: Spilling =
+    if (runtimeConfig.spillThreshold > 0) {
+      val fs = graph.getDependencyResolver.resolveDependency(classOf[FileSystemAbstraction])
+      Spilling(runtimeConfig.spillThreshold, new SpillFiles(fs, runtimeConfig.spillDirectory))
+    } else {
+      Spilling.DISABLED
+    }
+
   override def supportsAdministrativeCommands(): Boolean = plannerConfig.planSystemCommands
 
   override def createCompiler(cypherVersion: CypherVersion,
@@ -85,7 +120,8 @@ class CommunityCompilerFactory(graph: GraphDatabaseQueryService,
     CypherCurrentCompiler(
       planner,
       runtime,
-      CommunityRuntimeContextManager(log, runtimeConfig),
+      if (plannerConfig.planSystemCommands) CommunityRuntimeContextManager(log, runtimeConfig)
+      else CommunityRuntimeContextManager(log, runtimeConfig, parallelExecution, csvParsingExecutor, spilling),
       kernelMonitors)
   }
 }
@@ -20,11 +20,13 @@
 package org.neo4j.cypher.internal
 
 import java.time.Clock
+import java.util.concurrent.Executor
 
 import org.neo4j.cypher.internal.options.CypherDebugOptions
 import org.neo4j.cypher.internal.options.CypherInterpretedPipesFallbackOption
 import org.neo4j.cypher.internal.options.CypherOperatorEngineOption
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
 import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.logging.Log
@@ -37,23 +39,30 @@ case class CommunityRuntimeContext(tokenContext: ReadTokenContext,
                                    log: Log,
                                    config: CypherRuntimeConfiguration,
                                    anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
-                                  ) extends RuntimeContext {
+                                   compileExpressions: Boolean = false,
+                                   parallelExecution: Option[ParallelExecutionResources] = None,
+                                   override val csvParsingExecutor: Option[Executor] = None,
+                                   override val spilling: Spilling = Spilling.DISABLED,
+                                  ) extends RuntimeContext
 
-  override def compileExpressions: Boolean = false
-}
-
-case class CommunityRuntimeContextManager(log: Log, config: CypherRuntimeConfiguration) extends RuntimeContextManager[CommunityRuntimeContext] {
+case class CommunityRuntimeContextManager(log: Log,
+                                          config: CypherRuntimeConfiguration,
+                                          parallelExecution: Option[ParallelExecutionResources] = None,
+                                          csvParsingExecutor: Option[Executor] = None,
+                                          spilling: Spilling = Spilling.DISABLED,
+                                         ) extends RuntimeContextManager[CommunityRuntimeContext] {
   override def create(tokenContext: ReadTokenContext,
                       schemaRead: SchemaRead,
                       clock: Clock,
                       debugOptions: CypherDebugOptions,
-                      ignore: Boolean,
+                      compileExpressions: Boolean,
                       ignore2: Boolean,
                       ignore3: CypherOperatorEngineOption,
                       ignore4: CypherInterpretedPipesFallbackOption,
                       anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
                      ): CommunityRuntimeContext =
-    CommunityRuntimeContext(tokenContext, schemaRead, log, config, anonymousVariableNameGenerator)
+    CommunityRuntimeContext(tokenContext, schemaRead, log, config, anonymousVariableNameGenerator, compileExpressions, parallelExecution,
+      csvParsingExecutor, spilling)
 
   // As we rely completely on transaction bound resources in community,
   // there is no need for further assertions here.
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal
 import org.neo4j.cypher.internal.ExecutionPlanCacheTracer.NO_TRACING
 import org.neo4j.cypher.internal.NotificationWrapping.asKernelNotification
 import org.neo4j.cypher.internal.cache.LFUCache
+import org.neo4j.cypher.internal.cache.ResultCacheDependencies
 import org.neo4j.cypher.internal.compiler.phases.CachableLogicalPlanState
 import org.neo4j.cypher.internal.frontend.PlannerName
 import org.neo4j.cypher.internal.frontend.phases.CompilationPhaseTracer
@@ -41,6 +42,7 @@ import org.neo4j.cypher.internal.planner.spi.PlanningAttributes
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.EffectiveCardinalities
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributesCacheKey
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitivePredicate
 import org.neo4j.cypher.internal.planning.CypherPlanner
 import org.neo4j.cypher.internal.planning.ExceptionTranslatingQueryContext
 import org.neo4j.cypher.internal.planning.LogicalPlanResult
@@ -68,6 +70,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.internal.util.TaskCloser
 import org.neo4j.cypher.internal.util.attribution.SequentialIdGen
+import org.neo4j.cypher.result.RuntimeResult.ConsumptionState
 import org.neo4j.exceptions.InternalException
 import org.neo4j.graphdb.ExecutionPlanDescription
 import org.neo4j.graphdb.Notification
@@ -189,7 +192,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
       queryType,
       logicalPlanResult.shouldBeCached,
       contextManager.config.enableMonitors,
-      logicalPlanResult.queryObfuscator
+      logicalPlanResult.queryObfuscator,
+      logicalPlanResult.selectivitySensitivePredicates
     )
   }
 
@@ -311,7 +315,8 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
                                         internalQueryType: InternalQueryType,
                                         override val shouldBeCached: Boolean,
                                         enableMonitors: Boolean,
-                                        override val queryObfuscator: QueryObfuscator) extends ExecutableQuery {
+                                        override val queryObfuscator: QueryObfuscator,
+                                        override val selectivitySensitivePredicates: Seq[SelectivitySensitivePredicate]) extends ExecutableQuery {
 
     //Monitors are implemented via dynamic proxies which are slow compared to NOOP which is why we want to able to completely disable
     private val searchMonitor = if (enableMonitors) kernelMonitors.newMonitor(classOf[IndexSearchMonitor]) else IndexSearchMonitor.NOOP
@@ -342,8 +347,17 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
       new ExceptionTranslatingQueryContext(ctx)
     }
 
+    private val cardinalityFeedback =
+      if (shouldBeCached) {
+        CardinalityFeedback(reusabilityState, logicalPlan, effectiveCardinalities,
+          planner.config.cardinalityFeedbackSampleInterval, planner.config.cardinalityFeedbackErrorFactor)
+      } else None
+
     override def notifications: IndexedSeq[InternalNotification] = planningNotifications
 
+    override lazy val resultCacheDependencies: Option[ResultCacheDependencies] =
+      if (internalQueryType == READ_ONLY) ResultCacheDependencies.of(logicalPlan) else None
+
     override def execute(transactionalContext: TransactionalContext,
                          isOutermostQuery: Boolean,
                          queryOptions: QueryOptions,
@@ -418,12 +432,21 @@ case class CypherCurrentCompiler[CONTEXT <: RuntimeContext](planner: CypherPlann
           internalQueryType, allNotifications, subscriber)
       } else {
 
-        val runtimeResult = executionPlan.run(queryContext, innerExecutionMode, params, prePopulateResults, input, subscriber)
+        val sampledFeedback = cardinalityFeedback.filter(feedback => innerExecutionMode == NormalMode && feedback.shouldSample())
+        val runtimeResult =
+          if (sampledFeedback.isDefined) executionPlan.runCountingRows(queryContext, params, prePopulateResults, input, subscriber)
+          else executionPlan.run(queryContext, innerExecutionMode, params, prePopulateResults, input, subscriber)
 
         if (isOutermostQuery) {
           transactionalContext.executingQuery().onExecutionStarted(runtimeResult)
         }
         taskCloser.addTask(_ => runtimeResult.close())
+        sampledFeedback.foreach(feedback => taskCloser.addTask(success =>
+          // Row counts of results that were not fully consumed would look like overestimates
+          if (success && runtimeResult.consumptionState == ConsumptionState.EXHAUSTED) {
+            feedback.record(runtimeResult.queryProfile())
+          }
+        ))
 
         new StandardInternalExecutionResult(
           runtimeResult,
@@ -20,7 +20,9 @@
 package org.neo4j.cypher.internal
 
 import java.io.File
+import java.nio.file.Path
 import java.time.Clock
+import java.util.concurrent.Executor
 
 import org.neo4j.configuration.Config
 import org.neo4j.cypher.internal.ast.semantics.SemanticTable
@@ -36,6 +38,7 @@ import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.EffectiveCardina
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.LeveragedOrders
 import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.ProvidedOrders
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.internal.util.RecordingNotificationLogger
@@ -107,6 +110,17 @@ abstract class RuntimeContext {
   def compileExpressions: Boolean
   def log: Log
   def anonymousVariableNameGenerator: AnonymousVariableNameGenerator
+
+  /**
+   * Executor that LOAD CSV parses chunks of the CSV on when parsing on several threads, owned by the job scheduler.
+   * If empty, LOAD CSV parses on the thread consuming the rows.
+   */
+  def csvParsingExecutor: Option[Executor] = None
+
+  /**
+   * How sort, aggregation, distinct and hash join operators spill their rows to disk.
+   */
+  def spilling: Spilling = Spilling.DISABLED
 }
 
 /**
@@ -233,7 +247,11 @@ object CypherRuntimeConfiguration {
       lenientCreateRelationship = config.lenientCreateRelationship,
       memoryTrackingController = config.memoryTrackingController,
       enableMonitors = config.enableMonitors,
-      executionPlanCacheSize = config.executionPlanCacheSize
+      executionPlanCacheSize = config.executionPlanCacheSize,
+      interpretedArrayRows = config.interpretedArrayRows,
+      workers = config.workers,
+      spillThreshold = config.spillThreshold,
+      spillDirectory = config.spillDirectory
     )
   }
 
@@ -248,7 +266,11 @@ case class CypherRuntimeConfiguration(pipelinedBatchSizeSmall: Int,
                                       lenientCreateRelationship: Boolean,
                                       memoryTrackingController: MemoryTrackingController,
                                       enableMonitors: Boolean,
-                                      executionPlanCacheSize: Int) {
+                                      executionPlanCacheSize: Int,
+                                      interpretedArrayRows: Boolean = false,
+                                      workers: Int = 0,
+                                      spillThreshold: Long = 0L,
+                                      spillDirectory: Path = null) {
 
   Preconditions.checkArgument(pipelinedBatchSizeSmall <= pipelinedBatchSizeBig, s"pipelinedBatchSizeSmall (got $pipelinedBatchSizeSmall) must be <= pipelinedBatchSizeBig (got $pipelinedBatchSizeBig)")
 
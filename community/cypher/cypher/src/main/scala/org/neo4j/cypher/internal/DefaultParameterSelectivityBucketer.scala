@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.DefaultParameterSelectivityBucketer.UNKNOWN
+import org.neo4j.cypher.internal.compiler.planner.logical.cardinality.PlanningParameters
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitivePredicate
+import org.neo4j.cypher.internal.spi.TransactionBoundGraphStatistics
+import org.neo4j.kernel.impl.query.TransactionalContext
+import org.neo4j.logging.Log
+import org.neo4j.values.virtual.MapValue
+
+/**
+ * Puts parameter values in selectivity buckets using the value histograms of the indexes.
+ */
+class DefaultParameterSelectivityBucketer(log: Log) extends ParameterSelectivityBucketer {
+
+  override def buckets(transactionalContext: TransactionalContext,
+                       params: MapValue,
+                       predicates: Seq[SelectivitySensitivePredicate]): Seq[Int] = {
+    lazy val statistics = TransactionBoundGraphStatistics(transactionalContext, log)
+    predicates.map { predicate =>
+      PlanningParameters.propertyValue(params.get(predicate.parameterName))
+        .flatMap(predicate.selectivity(statistics, _))
+        .map(SelectivitySensitivePredicate.bucket)
+        .getOrElse(UNKNOWN)
+    }
+  }
+}
+
+object DefaultParameterSelectivityBucketer {
+  /**
+   * The bucket of a parameter value that could not be estimated, e.g. because it is missing or of an unsupported type.
+   */
+  val UNKNOWN: Int = -1
+}
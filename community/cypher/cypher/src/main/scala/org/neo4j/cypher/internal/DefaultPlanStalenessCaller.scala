@@ -59,6 +59,19 @@ class DefaultPlanStalenessCaller[EXECUTABLE_QUERY](clock: Clock,
     lazy val currentTimeMillis = clock.millis()
     lazy val lastCommittedTxId = lastCommittedTxIdProvider()
 
+    ref.misestimate match {
+      case Some(misestimate) if lastCommittedTxId != f.lastCommittedTxId =>
+        // Executions of the plan have found its estimates to be wrong, so any change in the statistics is worth a replan.
+        // The misestimate is left in place until then, so that every cache holding the plan replans it.
+        val divergence = f.snapshot.diverges(f.snapshot.recompute(statistics))
+        if (divergence.divergence > 0) {
+          return Stale(((currentTimeMillis - f.creationTimeMillis) / 1000).toInt,
+            Option(s"$misestimate, and ${divergence.key} changed from ${divergence.before} to ${divergence.after}"))
+        }
+        ref.misestimate = None
+      case _ =>
+    }
+
     if (divergenceCalculator.shouldCheck(currentTimeMillis, f.lastCheckTimeMillis) && lastCommittedTxId != f.lastCommittedTxId) {
       //check if we have diverged?
       val threshold = divergenceCalculator.decay(currentTimeMillis - f.creationTimeMillis)
@@ -22,6 +22,7 @@ package org.neo4j.cypher.internal
 import java.util.function.Supplier
 
 import org.neo4j.common.EntityType
+import org.neo4j.cypher.internal.cache.ResultCacheDependencies
 import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.graphdb.ExecutionPlanDescription
 import org.neo4j.kernel.api.query.CompilerInfo
@@ -113,4 +114,9 @@ trait ExecutableQuery extends CacheabilityInfo {
    * Obfuscator to be used on this query's raw text and parameters before logging.
    */
   def queryObfuscator: QueryObfuscator
+
+  /**
+   * What the results of this query depend on, or `None` if its results must not be cached.
+   */
+  def resultCacheDependencies: Option[ResultCacheDependencies] = None
 }
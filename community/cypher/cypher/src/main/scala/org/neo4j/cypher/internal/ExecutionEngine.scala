@@ -20,31 +20,43 @@
 package org.neo4j.cypher.internal
 
 import org.neo4j.cypher.internal.QueryCache.CacheKey
+import org.neo4j.cypher.internal.cache.CachedQueryResult
 import org.neo4j.cypher.internal.cache.CaffeineCacheFactory
+import org.neo4j.cypher.internal.cache.QueryResultCache
+import org.neo4j.cypher.internal.cache.QueryResultCacheInvalidator
+import org.neo4j.cypher.internal.cache.QueryResultCacheMonitor
+import org.neo4j.cypher.internal.cache.ResultCacheKey
 import org.neo4j.cypher.internal.compiler.StatsDivergenceCalculator
 import org.neo4j.cypher.internal.config.CypherConfiguration
 import org.neo4j.cypher.internal.expressions.FunctionTypeSignature
 import org.neo4j.cypher.internal.options.CypherExecutionMode
 import org.neo4j.cypher.internal.options.CypherReplanOption
 import org.neo4j.cypher.internal.planning.CypherCacheMonitor
+import org.neo4j.cypher.internal.result.CachedExecutionResult
+import org.neo4j.cypher.internal.result.ClosingExecutionResult
+import org.neo4j.cypher.internal.result.Success
 import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.cypher.internal.runtime.NoInput
+import org.neo4j.cypher.internal.runtime.READ_ONLY
 import org.neo4j.cypher.internal.tracing.CompilationTracer
 import org.neo4j.cypher.internal.tracing.CompilationTracer.QueryCompilationEvent
 import org.neo4j.exceptions.ParameterNotFoundException
 import org.neo4j.internal.kernel.api.security.AccessMode
 import org.neo4j.kernel.GraphDatabaseQueryService
+import org.neo4j.kernel.internal.event.DatabaseTransactionEventListeners
 import org.neo4j.kernel.impl.query.FunctionInformation
 import org.neo4j.kernel.impl.query.QueryExecution
 import org.neo4j.kernel.impl.query.QueryExecutionMonitor
 import org.neo4j.kernel.impl.query.QuerySubscriber
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.logging.LogProvider
+import org.neo4j.memory.HeapHighWaterMarkTracker
 import org.neo4j.monitoring.Monitors
 import org.neo4j.values.virtual.MapValue
 
 import java.lang
 import java.time.Clock
+import scala.collection.JavaConverters.iterableAsScalaIterableConverter
 import scala.collection.JavaConverters.mapAsJavaMapConverter
 import scala.collection.JavaConverters.seqAsJavaListConverter
 
@@ -94,7 +106,18 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
       log)
 
   private val queryCache: QueryCache[CacheKey[String], ExecutableQuery] =
-    new QueryCache[CacheKey[String], ExecutableQuery](cacheFactory, config.queryCacheSize, planStalenessCaller, cacheTracer)
+    new QueryCache[CacheKey[String], ExecutableQuery](cacheFactory, config.queryCacheSize, planStalenessCaller, cacheTracer,
+      new DefaultParameterSelectivityBucketer(log), config.planCacheParameterVariants, config.planCacheParameterVariantsTotal)
+
+  private val resultCache: Option[QueryResultCache] =
+    if (config.resultCacheSize > 0) {
+      val cache = new QueryResultCache(cacheFactory, config.resultCacheSize, kernelMonitors.newMonitor(classOf[QueryResultCacheMonitor]))
+      queryService.getDependencyResolver.resolveDependency(classOf[DatabaseTransactionEventListeners])
+        .registerTransactionEventListener(new QueryResultCacheInvalidator(cache))
+      Some(cache)
+    } else {
+      None
+    }
 
   private val masterCompiler: MasterCompiler = new MasterCompiler(compilerLibrary)
 
@@ -196,6 +219,11 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
                         tracer: QueryCompilationEvent,
                         subscriber: QuerySubscriber): QueryExecution = {
 
+    val resultCacheKey = resultCache.flatMap(_ => resultCacheKeyFor(query, params, context, isOutermostQuery, input))
+    for (key <- resultCacheKey; cache <- resultCache; cached <- cache.get(key)) {
+      return executeCached(cached, context, queryMonitor, subscriber)
+    }
+
     val executableQuery = try {
       getOrCompile(context, query, tracer, params)
     } catch {
@@ -214,7 +242,49 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
       context.executingQuery().onCompilationCompleted(executableQuery.compilerInfo, executableQuery.planDescriptionSupplier)
     }
 
-    executableQuery.execute(context, isOutermostQuery, query.options, combinedParams, prePopulate, input, queryMonitor, subscriber)
+    val recorder = for {
+      key <- resultCacheKey
+      cache <- resultCache
+      dependencies <- executableQuery.resultCacheDependencies
+    } yield cache.record(key, subscriber, (rows, execution, estimatedHeapUsage) =>
+      CachedQueryResult(execution.fieldNames(), rows, dependencies, READ_ONLY, execution.getNotifications.asScala,
+        executableQuery.compilerInfo, executableQuery.planDescriptionSupplier(), executableQuery.queryObfuscator, estimatedHeapUsage))
+
+    val execution = executableQuery.execute(context, isOutermostQuery, query.options, combinedParams, prePopulate, input, queryMonitor,
+      recorder.getOrElse(subscriber))
+    recorder.foreach(_.onExecution(execution))
+    execution
+  }
+
+  /**
+   * Results are only shared between plain executions of outermost queries, that do not see uncommitted changes of
+   * their own transaction.
+   */
+  private def resultCacheKeyFor(query: InputQuery,
+                                params: MapValue,
+                                context: TransactionalContext,
+                                isOutermostQuery: Boolean,
+                                input: InputDataStream): Option[ResultCacheKey] =
+    if (isOutermostQuery && input == NoInput &&
+        query.options.queryOptions.executionMode == CypherExecutionMode.default &&
+        !context.kernelTransaction().dataRead().transactionStateHasChanges()) {
+      ResultCacheKey.of(query.cacheKey, params, context.securityContext())
+    } else {
+      None
+    }
+
+  private def executeCached(cached: CachedQueryResult,
+                            context: TransactionalContext,
+                            queryMonitor: QueryExecutionMonitor,
+                            subscriber: QuerySubscriber): QueryExecution = {
+    val executingQuery = context.executingQuery()
+    executingQuery.onObfuscatorReady(cached.queryObfuscator)
+    executingQuery.onCompilationCompleted(cached.compilerInfo, cached.planDescriptionSupplier)
+    queryMonitor.startExecution(executingQuery)
+    executingQuery.onExecutionStarted(HeapHighWaterMarkTracker.ZERO)
+
+    val inner = new CachedExecutionResult(cached, subscriber, reason => if (reason == Success) context.close() else context.rollback())
+    ClosingExecutionResult.wrapAndInitiate(executingQuery, inner, queryMonitor, subscriber)
   }
 
   /*
@@ -284,7 +354,8 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
           tc,
           compiler,
           inputQuery.options.queryOptions.replan,
-          context.executingQuery().id())
+          context.executingQuery().id(),
+          params)
 
         val lockedEntities = schemaHelper.lockEntities(schemaToken, executableQuery, tc)
 
@@ -304,7 +375,7 @@ class ExecutionEngine(val queryService: GraphDatabaseQueryService,
   }
 
   def clearQueryCaches(): Long =
-    List(masterCompiler.clearCaches(), queryCache.clear(), preParser.clearCache()).max
+    List(masterCompiler.clearCaches(), queryCache.clear(), preParser.clearCache(), resultCache.map(_.clear()).getOrElse(0L)).max
 
   /**
    * @return { @code true} if the query is a PERIODIC COMMIT query and not an EXPLAIN query
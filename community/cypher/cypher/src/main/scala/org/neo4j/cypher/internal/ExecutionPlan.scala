@@ -24,6 +24,7 @@ import org.neo4j.cypher.internal.plandescription.Argument
 import org.neo4j.cypher.internal.plandescription.rewrite.InternalPlanDescriptionRewriter
 import org.neo4j.cypher.internal.runtime.ExecutionMode
 import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.NormalMode
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.ResourceMonitor
@@ -43,6 +44,17 @@ abstract class ExecutionPlan {
           input: InputDataStream,
           subscriber: QuerySubscriber): RuntimeResult
 
+  /**
+   * Runs the plan in [[NormalMode]] while counting the rows produced by each operator into the query profile of the
+   * result. Runtimes that cannot count rows cheaply run the plan normally.
+   */
+  def runCountingRows(queryContext: QueryContext,
+                      params: MapValue,
+                      prePopulateResults: Boolean,
+                      input: InputDataStream,
+                      subscriber: QuerySubscriber): RuntimeResult =
+    run(queryContext, NormalMode, params, prePopulateResults, input, subscriber)
+
   /**
    * @return if this ExecutionPlan needs a thread safe cursor factory and resource manager factory to be used from the TransactionBoundQueryContext,
    *         then it has to override this method and provide it here.
@@ -75,6 +87,13 @@ abstract class DelegatingExecutionPlan(inner: ExecutionPlan) extends ExecutionPl
                    subscriber: QuerySubscriber): RuntimeResult =
     inner.run(queryContext, executionMode, params, prePopulateResults, input, subscriber)
 
+  override def runCountingRows(queryContext: QueryContext,
+                               params: MapValue,
+                               prePopulateResults: Boolean,
+                               input: InputDataStream,
+                               subscriber: QuerySubscriber): RuntimeResult =
+    inner.runCountingRows(queryContext, params, prePopulateResults, input, subscriber)
+
   override def runtimeName: RuntimeName = inner.runtimeName
 
   override def metadata: Seq[Argument] = inner.metadata
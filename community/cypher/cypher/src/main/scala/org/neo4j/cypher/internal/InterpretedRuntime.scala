@@ -26,9 +26,13 @@ import org.neo4j.cypher.internal.plandescription.Argument
 import org.neo4j.cypher.internal.runtime.ExecutionMode
 import org.neo4j.cypher.internal.runtime.ExplainMode
 import org.neo4j.cypher.internal.runtime.InputDataStream
+import org.neo4j.cypher.internal.runtime.NormalMode
 import org.neo4j.cypher.internal.runtime.ProfileMode
 import org.neo4j.cypher.internal.runtime.QueryContext
 import org.neo4j.cypher.internal.runtime.QueryIndexRegistrator
+import org.neo4j.cypher.internal.runtime.ResourceManager
+import org.neo4j.cypher.internal.runtime.ResourceMonitor
+import org.neo4j.cypher.internal.runtime.ThreadSafeResourceManager
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation
 import org.neo4j.cypher.internal.runtime.expressionVariableAllocation.Result
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionResultBuilderFactory
@@ -36,16 +40,22 @@ import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionResultB
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionsCountingQueryContext
 import org.neo4j.cypher.internal.runtime.interpreted.UpdateCountingQueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CodeGenExpressionConverter
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CommunityExpressionConverter
 import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.ExpressionConverters
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ArrayRowPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NestedPipeExpressions
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelPipeMapper
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeTreeBuilder
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.InterpretedProfileInformation
 import org.neo4j.cypher.internal.runtime.interpreted.profiler.Profiler
+import org.neo4j.cypher.internal.runtime.interpreted.profiler.RowCountingPipeDecorator
+import org.neo4j.cypher.internal.runtime.rowLayoutAllocation
 import org.neo4j.cypher.internal.runtime.slottedParameters
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.result.RuntimeResult
 import org.neo4j.exceptions.PeriodicCommitInOpenTransactionException
+import org.neo4j.internal.kernel.api.CursorFactory
 import org.neo4j.kernel.impl.query.QuerySubscriber
 import org.neo4j.values.virtual.MapValue
 
@@ -54,13 +64,32 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
 
   override def correspondingRuntimeOption: Option[CypherRuntimeOption] = Some(CypherRuntimeOption.interpreted)
 
-  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = compile(query, context, None)
+
+  /**
+   * @param parallelExecution if defined, aggregations that can run in parallel will do so, see [[ParallelPipeMapper]]
+   */
+  private[internal] def compile(query: LogicalQuery, context: RuntimeContext, parallelExecution: Option[ParallelExecutionResources]): ExecutionPlan = {
     val Result(logicalPlan, nExpressionSlots, availableExpressionVars) = expressionVariableAllocation.allocate(query.logicalPlan)
     val (withSlottedParameters, parameterMapping) = slottedParameters(logicalPlan)
 
-    val converters = new ExpressionConverters(CommunityExpressionConverter(context.tokenContext, context.anonymousVariableNameGenerator))
+    val communityConverter = CommunityExpressionConverter(context.tokenContext, context.anonymousVariableNameGenerator)
+    val converters =
+      if (context.compileExpressions) new ExpressionConverters(CodeGenExpressionConverter(context.tokenContext), communityConverter)
+      else new ExpressionConverters(communityConverter)
     val queryIndexRegistrator = new QueryIndexRegistrator(context.schemaRead)
-    val pipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator, context.anonymousVariableNameGenerator)(query.semanticTable)
+    val interpretedPipeMapper = InterpretedPipeMapper(query.readOnly, converters, context.tokenContext, queryIndexRegistrator, context.anonymousVariableNameGenerator,
+      context.spilling, context.csvParsingExecutor)(query.semanticTable)
+    val parallelPipeMapper = parallelExecution match {
+      case Some(parallel) =>
+        val parallelAggregations = ParallelPipeMapper.parallelAggregations(logicalPlan)
+        ParallelPipeMapper(interpretedPipeMapper, parallelAggregations, parallel.workers, context.config.pipelinedBatchSizeBig, parallel.executor)
+      case None =>
+        interpretedPipeMapper
+    }
+    val pipeMapper =
+      if (context.config.interpretedArrayRows) ArrayRowPipeMapper(parallelPipeMapper, rowLayoutAllocation(logicalPlan))
+      else parallelPipeMapper
     val pipeTreeBuilder = PipeTreeBuilder(pipeMapper)
     val logicalPlanWithConvertedNestedPlans = NestedPipeExpressions.build(pipeTreeBuilder, withSlottedParameters, availableExpressionVars)
     val pipe = pipeTreeBuilder.build(logicalPlanWithConvertedNestedPlans)
@@ -80,11 +109,12 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
 
     new InterpretedExecutionPlan(query.periodicCommitInfo,
       resultBuilderFactory,
-      InterpretedRuntimeName,
+      if (parallelExecution.isDefined) ParallelRuntimeName else InterpretedRuntimeName,
       query.readOnly,
       startsTransactions,
       IndexedSeq.empty,
-      Set.empty)
+      Set.empty,
+      parallelExecution.map(_.cursors))
   }
 
   def doesStartTransactions(query: LogicalQuery): Boolean =
@@ -102,14 +132,34 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
                                  readOnly: Boolean,
                                  startsTransactions: Boolean,
                                  override val metadata: Seq[Argument],
-                                 warnings: Set[InternalNotification]) extends ExecutionPlan {
+                                 warnings: Set[InternalNotification],
+                                 threadSafeCursors: Option[CursorFactory] = None) extends ExecutionPlan {
+
+    override def threadSafeExecutionResources(): Option[(CursorFactory, ResourceManagerFactory)] =
+      threadSafeCursors.map(cursors => (cursors, ThreadSafeResourceManagerFactory))
 
     override def run(queryContext: QueryContext,
                      executionMode: ExecutionMode,
                      params: MapValue,
                      prePopulateResults: Boolean,
                      input: InputDataStream,
-                     subscriber: QuerySubscriber): RuntimeResult = {
+                     subscriber: QuerySubscriber): RuntimeResult =
+      execute(queryContext, executionMode, params, prePopulateResults, input, subscriber, countRows = false)
+
+    override def runCountingRows(queryContext: QueryContext,
+                                 params: MapValue,
+                                 prePopulateResults: Boolean,
+                                 input: InputDataStream,
+                                 subscriber: QuerySubscriber): RuntimeResult =
+      execute(queryContext, NormalMode, params, prePopulateResults, input, subscriber, countRows = true)
+
+    private def execute(queryContext: QueryContext,
+                        executionMode: ExecutionMode,
+                        params: MapValue,
+                        prePopulateResults: Boolean,
+                        input: InputDataStream,
+                        subscriber: QuerySubscriber,
+                        countRows: Boolean): RuntimeResult = {
       val doProfile = executionMode == ProfileMode
       val wrappedContext = if (!readOnly || doProfile) new UpdateCountingQueryContext(queryContext) else queryContext
       val builderContext = if (startsTransactions) new TransactionsCountingQueryContext(wrappedContext) else wrappedContext
@@ -125,10 +175,16 @@ object InterpretedRuntime extends CypherRuntime[RuntimeContext] {
 
       if (doProfile)
         builder.addProfileDecorator(new Profiler(queryContext.transactionalContext.dbmsInfo, profileInformation))
+      else if (countRows)
+        builder.addProfileDecorator(new RowCountingPipeDecorator(profileInformation))
 
       builder.build(params, profileInformation, prePopulateResults, input, subscriber, doProfile)
     }
 
     override def notifications: Set[InternalNotification] = warnings
   }
+
+  private object ThreadSafeResourceManagerFactory extends ResourceManagerFactory {
+    override def apply(monitor: ResourceMonitor): ResourceManager = new ThreadSafeResourceManager(monitor)
+  }
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.internal.kernel.api.CursorFactory
+
+import java.util.concurrent.Executor
+
+/**
+ * What the community runtime needs to execute parts of a query in parallel.
+ *
+ * @param executor runs the workers
+ * @param cursors  a cursor factory that is safe to use from the workers
+ * @param workers  number of workers per parallel operator
+ */
+case class ParallelExecutionResources(executor: Executor, cursors: CursorFactory, workers: Int)
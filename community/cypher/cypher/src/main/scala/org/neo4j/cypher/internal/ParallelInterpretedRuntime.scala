@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.options.CypherRuntimeOption
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ParallelPipeMapper
+import org.neo4j.exceptions.CantCompileQueryException
+
+/**
+ * The interpreted runtime, with eager aggregations over a streaming pipeline from a node scan running in several workers
+ * at once. Queries without such an aggregation are left to the other runtimes.
+ */
+object ParallelInterpretedRuntime extends CypherRuntime[RuntimeContext] {
+  override def name: String = "parallel"
+
+  override def correspondingRuntimeOption: Option[CypherRuntimeOption] = Some(CypherRuntimeOption.parallel)
+
+  override def compileToExecutable(query: LogicalQuery, context: RuntimeContext): ExecutionPlan = {
+    val parallelExecution = context match {
+      case communityContext: CommunityRuntimeContext => communityContext.parallelExecution
+      case _ => None
+    }
+    if (parallelExecution.isEmpty) {
+      throw new CantCompileQueryException("Parallel execution is disabled in this database.")
+    }
+    if (!query.readOnly) {
+      throw new CantCompileQueryException("Parallel execution only supports read-only queries.")
+    }
+    if (ParallelPipeMapper.parallelAggregations(query.logicalPlan).isEmpty) {
+      throw new CantCompileQueryException("Parallel execution is only supported for aggregations over node scans.")
+    }
+    InterpretedRuntime.compile(query, context, parallelExecution)
+  }
+}
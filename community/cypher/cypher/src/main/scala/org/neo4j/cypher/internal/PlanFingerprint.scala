@@ -45,4 +45,10 @@ object PlanFingerprint {
     PlanFingerprint(clock.millis(), lastCommittedTxIdProvider(), graphStatistics.snapshot.freeze)
 }
 
-class PlanFingerprintReference(var fingerprint: PlanFingerprint)
+class PlanFingerprintReference(var fingerprint: PlanFingerprint) {
+
+  /**
+   * Set by the [[CardinalityFeedback]] of the plan when executions have found its cardinality estimates to be wrong.
+   */
+  @volatile var misestimate: Option[String] = None
+}
@@ -20,6 +20,8 @@
 package org.neo4j.cypher.internal
 
 import com.github.benmanes.caffeine.cache.Cache
+import com.github.benmanes.caffeine.cache.RemovalCause
+import com.github.benmanes.caffeine.cache.RemovalListener
 import org.neo4j.cypher.internal.QueryCache.NOT_PRESENT
 import org.neo4j.cypher.internal.cache.CaffeineCacheFactory
 import org.neo4j.cypher.internal.compiler.MissingLabelNotification
@@ -27,12 +29,16 @@ import org.neo4j.cypher.internal.compiler.MissingPropertyNameNotification
 import org.neo4j.cypher.internal.compiler.MissingRelTypeNotification
 import org.neo4j.cypher.internal.compiler.helpers.ParameterValueTypeHelper
 import org.neo4j.cypher.internal.options.CypherReplanOption
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitivePredicate
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.cypher.internal.util.symbols.CypherType
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.values.virtual.MapValue
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
 /**
  * Tracer for cache activity.
  */
@@ -68,6 +74,24 @@ trait CacheTracer[QUERY_KEY] {
    * The query cache was flushed.
    */
   def queryCacheFlush(sizeOfCacheBeforeFlush: Long): Unit
+
+  /**
+   * The parameter values were of a different selectivity than the cached item was compiled for,
+   * and an item compiled for parameter values like them was found in the cache.
+   */
+  def queryCacheVariantHit(queryKey: QUERY_KEY, metaData: String): Unit = {}
+
+  /**
+   * The parameter values were of a different selectivity than the cached item was compiled for,
+   * and an item for parameter values like them will be compiled.
+   */
+  def queryCacheVariantMiss(queryKey: QUERY_KEY, metaData: String): Unit = {}
+
+  /**
+   * The parameter values were of a different selectivity than the cached item was compiled for,
+   * but no more items may be compiled for the key or the cache, so the cached item is used.
+   */
+  def queryCacheVariantLimitReached(queryKey: QUERY_KEY, metaData: String): Unit = {}
 }
 
 /**
@@ -112,6 +136,24 @@ trait PlanStalenessCaller[EXECUTABLE_QUERY] {
                 cachedExecutableQuery: EXECUTABLE_QUERY): Staleness
 }
 
+/**
+ * Callback interface to find out which selectivity bucket the parameter values of a query invocation fall in,
+ * for each of the predicates that a cached query is sensitive to.
+ */
+trait ParameterSelectivityBucketer {
+  def buckets(transactionalContext: TransactionalContext,
+              params: MapValue,
+              predicates: Seq[SelectivitySensitivePredicate]): Seq[Int]
+}
+
+object ParameterSelectivityBucketer {
+  val NONE: ParameterSelectivityBucketer = new ParameterSelectivityBucketer {
+    override def buckets(transactionalContext: TransactionalContext,
+                         params: MapValue,
+                         predicates: Seq[SelectivitySensitivePredicate]): Seq[Int] = Seq.empty
+  }
+}
+
 /**
  * Cache which maps query strings into CachedExecutableQueries.
  *
@@ -119,9 +161,17 @@ trait PlanStalenessCaller[EXECUTABLE_QUERY] {
  * PlanStalenessCaller to verify that CEQs are reusable before returning. A CEQ
  * which is detected in the cache, but is found to be stale
  *
+ * A query whose plan depends on the selectivity of its parameter values can have up to `maxPlanVariants` additional
+ * plans in the cache, one for each combination of selectivity buckets that the parameter values have been seen in.
+ * These plans are kept with the plan of the query key, and are discarded when it is replaced or evicted. All keys
+ * together can have up to `maxTotalPlanVariants` of them.
+ *
  * @param maximumSize Maximum size of this cache
  * @param stalenessCaller Decided whether CachedExecutionPlans are stale
  * @param tracer Traces cache activity
+ * @param bucketer Decides which selectivity buckets the parameter values of a query invocation fall in
+ * @param maxPlanVariants Maximum number of additional plans per query key, 0 disables plans per selectivity bucket
+ * @param maxTotalPlanVariants Maximum number of additional plans of all query keys together
  */
 
 class QueryCache[QUERY_KEY <: AnyRef,
@@ -129,16 +179,87 @@ class QueryCache[QUERY_KEY <: AnyRef,
                                                        val cacheFactory: CaffeineCacheFactory,
                                                        val maximumSize: Int,
                                                        val stalenessCaller: PlanStalenessCaller[EXECUTABLE_QUERY],
-                                                       val tracer: CacheTracer[QUERY_KEY]) {
+                                                       val tracer: CacheTracer[QUERY_KEY],
+                                                       val bucketer: ParameterSelectivityBucketer = ParameterSelectivityBucketer.NONE,
+                                                       val maxPlanVariants: Int = 0,
+                                                       val maxTotalPlanVariants: Int = Int.MaxValue) {
+
+  private val totalPlanVariants = new AtomicInteger()
+
+  // A replaced value either hands its variants over to the new value, or they are discarded where it is replaced
+  private val discardVariantsOnRemoval: RemovalListener[QUERY_KEY, CachedValue] =
+    (_: QUERY_KEY, cachedValue: CachedValue, cause: RemovalCause) =>
+      if (cachedValue != null && cause != RemovalCause.REPLACED) cachedValue.variants.discard()
+
+  private val inner: Cache[QUERY_KEY, CachedValue] =
+    if (maxPlanVariants > 0) cacheFactory.createCache[QUERY_KEY, CachedValue](maximumSize, discardVariantsOnRemoval)
+    else cacheFactory.createCache[QUERY_KEY, CachedValue](maximumSize)
+
+  /*
+   * The plans of a query key made for parameter values in other selectivity buckets than the plan in `inner`,
+   * by selectivity buckets. Each plan reserves a place both in this query key and in the whole cache.
+   */
+  private class PlanVariants {
+    private lazy val plans = new ConcurrentHashMap[Seq[Int], CachedValue]()
+    // -1 once discarded
+    private val reserved = new AtomicInteger()
+
+    def get(parameterBuckets: Seq[Int]): CachedValue = if (reserved.get() > 0) plans.get(parameterBuckets) else null
+
+    /**
+     * @return true if this replaced a plan for the same buckets
+     */
+    def put(cachedValue: CachedValue): Boolean = plans.put(cachedValue.parameterBuckets, cachedValue) != null
+
+    def reserve(): Boolean = {
+      if (totalPlanVariants.incrementAndGet() > maxTotalPlanVariants) {
+        totalPlanVariants.decrementAndGet()
+        return false
+      }
+      var n = reserved.get()
+      while (n >= 0 && n < maxPlanVariants) {
+        if (reserved.compareAndSet(n, n + 1)) {
+          return true
+        }
+        n = reserved.get()
+      }
+      totalPlanVariants.decrementAndGet()
+      false
+    }
 
+    /**
+     * Give back a reserved place that did not get a plan of its own.
+     */
+    def release(): Unit = {
+      var n = reserved.get()
+      while (n > 0) {
+        if (reserved.compareAndSet(n, n - 1)) {
+          totalPlanVariants.decrementAndGet()
+          return
+        }
+        n = reserved.get()
+      }
+    }
 
-  private val inner: Cache[QUERY_KEY, CachedValue] = cacheFactory.createCache[QUERY_KEY, CachedValue](maximumSize)
+    def discard(): Unit = {
+      val n = reserved.getAndSet(-1)
+      if (n > 0) {
+        totalPlanVariants.addAndGet(-n)
+        plans.clear()
+      }
+    }
+  }
 
   /*
     * The cached value wraps the value and maintains a count of how many times it has been fetched from the cache
     * and whether or not it has been recompiled with expression code generation.
+    * It also knows the selectivity buckets of the parameter values it was compiled for, and the variants
+    * that have been compiled for other buckets.
     */
-  private class CachedValue(val value: EXECUTABLE_QUERY, val recompiledWithExpressionCodeGen: Boolean) {
+  private class CachedValue(val value: EXECUTABLE_QUERY,
+                            val recompiledWithExpressionCodeGen: Boolean,
+                            val parameterBuckets: Seq[Int] = Seq.empty,
+                            val variants: PlanVariants = new PlanVariants) {
 
     @volatile private var _numberOfHits = 0
 
@@ -173,24 +294,29 @@ class QueryCache[QUERY_KEY <: AnyRef,
    * @param tc TransactionalContext in which to compile and compute staleness
    * @param compiler Compiler
    * @param metaData String which will be passed to the CacheTracer
+   * @param params the parameter values of this query invocation, used to find plans made for values of similar selectivity
    * @return A CacheLookup with an CachedExecutionPlan
    */
   def computeIfAbsentOrStale(queryKey: QUERY_KEY,
                              tc: TransactionalContext,
                              compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
                              replanStrategy: CypherReplanOption,
-                             metaData: String = ""
+                             metaData: String = "",
+                             params: MapValue = MapValue.EMPTY
                             ): EXECUTABLE_QUERY = {
     if (maximumSize == 0) {
       val result = compiler.compile()
       tracer.queryCompile(queryKey, metaData)
       result
     } else {
+      val parameterBuckets = (predicates: Seq[SelectivitySensitivePredicate]) =>
+        if (maxPlanVariants == 0 || predicates.isEmpty) Seq.empty[Int] else bucketer.buckets(tc, params, predicates)
+
       inner.getIfPresent(queryKey) match {
         case NOT_PRESENT => if (replanStrategy == CypherReplanOption.force)
-            compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
+            compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData, parameterBuckets)
           else
-            compileAndCache(queryKey, compiler, metaData)
+            compileAndCache(queryKey, compiler, metaData, parameterBuckets)
 
         case cachedValue =>
           //mark as seen from cache
@@ -198,27 +324,104 @@ class QueryCache[QUERY_KEY <: AnyRef,
 
           replanStrategy match {
             case CypherReplanOption.force =>
-              compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
+              compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData, parameterBuckets)
             case CypherReplanOption.skip =>
               hit(queryKey, cachedValue, metaData)
             case CypherReplanOption.default =>
-              stalenessCaller.staleness(tc, cachedValue.value) match {
-                case NotStale =>
-                  if(invalidNotificationExisting(cachedValue, tc)) {
-                    compileAndCache(queryKey, compiler, metaData, hitCache = true)
-                  } else {
-                    recompileOrGet(cachedValue, compiler, queryKey, metaData)
-                  }
-                case Stale(secondsSincePlan, maybeReason) =>
-                  tracer.queryCacheStale(queryKey, secondsSincePlan, metaData, maybeReason)
-                  if (cachedValue.recompiledWithExpressionCodeGen) compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData)
-                  else compileAndCache(queryKey, compiler, metaData)
+              val buckets = parameterBuckets(cachedValue.value.selectivitySensitivePredicates)
+              if (buckets != cachedValue.parameterBuckets) {
+                getOrCompileVariant(queryKey, cachedValue, buckets, tc, compiler, metaData, parameterBuckets)
+              } else {
+                getOrReplan(queryKey, cachedValue, tc, compiler, metaData, parameterBuckets)
               }
           }
       }
     }
   }
 
+  private def getOrReplan(queryKey: QUERY_KEY,
+                          cachedValue: CachedValue,
+                          tc: TransactionalContext,
+                          compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
+                          metaData: String,
+                          parameterBuckets: Seq[SelectivitySensitivePredicate] => Seq[Int]
+                         ): EXECUTABLE_QUERY = {
+    stalenessCaller.staleness(tc, cachedValue.value) match {
+      case NotStale =>
+        if(invalidNotificationExisting(cachedValue, tc)) {
+          compileAndCache(queryKey, compiler, metaData, parameterBuckets, hitCache = true)
+        } else {
+          recompileOrGet(cachedValue, compiler, queryKey, metaData)
+        }
+      case Stale(secondsSincePlan, maybeReason) =>
+        tracer.queryCacheStale(queryKey, secondsSincePlan, metaData, maybeReason)
+        if (cachedValue.recompiledWithExpressionCodeGen) compileWithExpressionCodeGenAndCache(queryKey, compiler, metaData, parameterBuckets)
+        else compileAndCache(queryKey, compiler, metaData, parameterBuckets)
+    }
+  }
+
+  /**
+   * Get the plan made for parameter values in the given selectivity buckets, or compile and cache one if the query
+   * key has not reached its maximum number of plans. Otherwise fall back to the plan in `inner`.
+   */
+  private def getOrCompileVariant(queryKey: QUERY_KEY,
+                                  baseValue: CachedValue,
+                                  buckets: Seq[Int],
+                                  tc: TransactionalContext,
+                                  compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
+                                  metaData: String,
+                                  parameterBuckets: Seq[SelectivitySensitivePredicate] => Seq[Int]
+                                 ): EXECUTABLE_QUERY = {
+    baseValue.variants.get(buckets) match {
+      case NOT_PRESENT =>
+        if (baseValue.variants.reserve()) {
+          tracer.queryCacheVariantMiss(queryKey, metaData)
+          compileVariantAndCache(queryKey, baseValue.variants, buckets, compiler, metaData, reservedPlace = true)
+        } else {
+          tracer.queryCacheVariantLimitReached(queryKey, metaData)
+          getOrReplan(queryKey, baseValue, tc, compiler, metaData, parameterBuckets)
+        }
+
+      case cachedVariant =>
+        stalenessCaller.staleness(tc, cachedVariant.value) match {
+          case NotStale =>
+            tracer.queryCacheVariantHit(queryKey, metaData)
+            hit(queryKey, cachedVariant, metaData)
+          case Stale(secondsSincePlan, maybeReason) =>
+            tracer.queryCacheStale(queryKey, secondsSincePlan, metaData, maybeReason)
+            compileVariantAndCache(queryKey, baseValue.variants, buckets, compiler, metaData, reservedPlace = false)
+        }
+    }
+  }
+
+  /**
+   * @param reservedPlace whether a place was reserved for this plan, which has to be given back unless the plan takes
+   *                      a place of its own.
+   */
+  private def compileVariantAndCache(queryKey: QUERY_KEY,
+                                     variants: PlanVariants,
+                                     buckets: Seq[Int],
+                                     compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
+                                     metaData: String,
+                                     reservedPlace: Boolean
+                                    ): EXECUTABLE_QUERY = {
+    val newExecutableQuery =
+      try {
+        compiler.compile()
+      } catch {
+        case t: Throwable =>
+          if (reservedPlace) variants.release()
+          throw t
+      }
+    // A concurrent compilation for the same buckets may have cached its plan first, then only one of them keeps the place
+    val keepsPlace = newExecutableQuery.shouldBeCached &&
+      !variants.put(new CachedValue(newExecutableQuery, recompiledWithExpressionCodeGen = false, buckets))
+    if (reservedPlace && !keepsPlace) variants.release()
+    val result = miss(queryKey, newExecutableQuery, metaData)
+    tracer.queryCompile(queryKey, metaData)
+    result
+  }
+
   /**
    * Check if certain warnings are not valid anymore.
    */
@@ -258,7 +461,7 @@ class QueryCache[QUERY_KEY <: AnyRef,
       compiler.maybeCompileWithExpressionCodeGen(cachedValue.numberOfHits) match {
         case Some(recompiledQuery) =>
           tracer.queryCompileWithExpressionCodeGen(queryKey, metaData)
-          val recompiled = new CachedValue(recompiledQuery, recompiledWithExpressionCodeGen = true)
+          val recompiled = new CachedValue(recompiledQuery, recompiledWithExpressionCodeGen = true, cachedValue.parameterBuckets, cachedValue.variants)
           inner.put(queryKey, recompiled)
           recompiled
         case None => cachedValue
@@ -271,9 +474,10 @@ class QueryCache[QUERY_KEY <: AnyRef,
   private def compileAndCache(queryKey: QUERY_KEY,
                               compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
                               metaData: String,
+                              parameterBuckets: Seq[SelectivitySensitivePredicate] => Seq[Int],
                               hitCache: Boolean = false
                              ): EXECUTABLE_QUERY = {
-    val result = compileOrCompileWithExpressionCodeGenAndCache(queryKey, () => compiler.compile(), metaData, hitCache)
+    val result = compileOrCompileWithExpressionCodeGenAndCache(queryKey, () => compiler.compile(), metaData, parameterBuckets, hitCache)
     tracer.queryCompile(queryKey, metaData)
     result
   }
@@ -281,9 +485,10 @@ class QueryCache[QUERY_KEY <: AnyRef,
   private def compileWithExpressionCodeGenAndCache(queryKey: QUERY_KEY,
                                                    compiler: CompilerWithExpressionCodeGenOption[EXECUTABLE_QUERY],
                                                    metaData: String,
+                                                   parameterBuckets: Seq[SelectivitySensitivePredicate] => Seq[Int],
                                                    hitCache: Boolean = false
                                                   ): EXECUTABLE_QUERY = {
-    val result = compileOrCompileWithExpressionCodeGenAndCache(queryKey, () => compiler.compileWithExpressionCodeGen(), metaData, hitCache)
+    val result = compileOrCompileWithExpressionCodeGenAndCache(queryKey, () => compiler.compileWithExpressionCodeGen(), metaData, parameterBuckets, hitCache)
     tracer.queryCompileWithExpressionCodeGen(queryKey, metaData)
     result
   }
@@ -295,16 +500,23 @@ class QueryCache[QUERY_KEY <: AnyRef,
    * first. Regardless of who does it, this is treated as a cache miss, because it will
    * take a long time. The only exception is if hitCache is true, which should only happen
    * when we are forced to recompile due to previously present warnings not being valid anymore
+   *
+   * The plans made for other selectivity buckets are discarded along with the plan they were variants of.
    */
   private def compileOrCompileWithExpressionCodeGenAndCache(queryKey: QUERY_KEY,
                                                             compile: () => EXECUTABLE_QUERY,
                                                             metaData: String,
+                                                            parameterBuckets: Seq[SelectivitySensitivePredicate] => Seq[Int],
                                                             hitCache: Boolean
                                                            ): EXECUTABLE_QUERY = {
     val newExecutableQuery = compile()
     if (newExecutableQuery.shouldBeCached) {
-      val cachedValue = new CachedValue(newExecutableQuery, recompiledWithExpressionCodeGen = false)
-      inner.put(queryKey, cachedValue)
+      val buckets = parameterBuckets(newExecutableQuery.selectivitySensitivePredicates)
+      val cachedValue = new CachedValue(newExecutableQuery, recompiledWithExpressionCodeGen = false, buckets)
+      val replaced = inner.asMap().put(queryKey, cachedValue)
+      if (replaced != null) {
+        replaced.variants.discard()
+      }
       if (hitCache)
         hit(queryKey, cachedValue, metaData)
       else
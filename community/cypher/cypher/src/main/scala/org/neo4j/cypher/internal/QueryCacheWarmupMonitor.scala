@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+/**
+ * Monitors the background warm-up of the query caches that is performed when a database becomes available.
+ */
+trait QueryCacheWarmupMonitor {
+
+  /**
+   * The warm-up started and will plan the given number of queries.
+   */
+  def warmupStarted(numberOfQueries: Int): Unit = {}
+
+  /**
+   * One query has been planned, or failed to plan, as part of the warm-up.
+   */
+  def queryWarmedUp(succeeded: Boolean): Unit = {}
+
+  /**
+   * The warm-up is done. If it was aborted, the given number of queries were never planned.
+   */
+  def warmupCompleted(numberOfSkippedQueries: Int): Unit = {}
+}
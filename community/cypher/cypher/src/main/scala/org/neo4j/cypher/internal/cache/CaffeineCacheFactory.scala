@@ -24,12 +24,16 @@ import java.util.concurrent.TimeUnit
 
 import com.github.benmanes.caffeine.cache.Cache
 import com.github.benmanes.caffeine.cache.Caffeine
+import com.github.benmanes.caffeine.cache.RemovalListener
 import com.github.benmanes.caffeine.cache.Ticker
+import com.github.benmanes.caffeine.cache.Weigher
 
 trait CaffeineCacheFactory {
   def createCache[K <: AnyRef, V <: AnyRef](size: Int): Cache[K, V]
   def createCache[K <: AnyRef, V <: AnyRef](size: Int, ttlAfterAccess: Long): Cache[K, V]
+  def createCache[K <: AnyRef, V <: AnyRef](size: Int, removalListener: RemovalListener[K, V]): Cache[K, V]
   def createCache[K <: AnyRef, V <: AnyRef](ticker: Ticker, ttlAfterWrite: Long, size: Int): Cache[K, V]
+  def createWeightedCache[K <: AnyRef, V <: AnyRef](maximumWeight: Long, weigher: Weigher[K, V]): Cache[K, V]
 }
 
 class ExecutorBasedCaffeineCacheFactory(executor: Executor) extends CaffeineCacheFactory {
@@ -50,6 +54,14 @@ class ExecutorBasedCaffeineCacheFactory(executor: Executor) extends CaffeineCach
       .build[K, V]()
   }
 
+  override def createCache[K <: AnyRef, V <: AnyRef](size: Int, removalListener: RemovalListener[K, V]): Cache[K, V] =
+    Caffeine
+      .newBuilder()
+      .executor(executor)
+      .maximumSize(size)
+      .removalListener(removalListener)
+      .build[K, V]()
+
   override def createCache[K <: AnyRef, V <: AnyRef]( ticker: Ticker, ttlAfterWrite: Long, size: Int ): Cache[K, V] =
     Caffeine
       .newBuilder()
@@ -58,4 +70,12 @@ class ExecutorBasedCaffeineCacheFactory(executor: Executor) extends CaffeineCach
       .ticker(ticker)
       .expireAfterWrite(ttlAfterWrite, TimeUnit.MILLISECONDS)
       .build[K, V]()
+
+  override def createWeightedCache[K <: AnyRef, V <: AnyRef](maximumWeight: Long, weigher: Weigher[K, V]): Cache[K, V] =
+    Caffeine
+      .newBuilder()
+      .executor(executor)
+      .maximumWeight(maximumWeight)
+      .weigher(weigher)
+      .build[K, V]()
 }
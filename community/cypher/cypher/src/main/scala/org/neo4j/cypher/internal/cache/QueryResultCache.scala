@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.cache
+
+import com.github.benmanes.caffeine.cache.Cache
+import org.neo4j.cypher.internal.runtime.InternalQueryType
+import org.neo4j.graphdb.ExecutionPlanDescription
+import org.neo4j.graphdb.GraphDatabaseService
+import org.neo4j.graphdb.Notification
+import org.neo4j.graphdb.QueryStatistics
+import org.neo4j.graphdb.Transaction
+import org.neo4j.graphdb.event.TransactionData
+import org.neo4j.graphdb.event.TransactionEventListenerAdapter
+import org.neo4j.internal.kernel.api.security.AccessMode
+import org.neo4j.internal.kernel.api.security.SecurityContext
+import org.neo4j.kernel.api.query.CompilerInfo
+import org.neo4j.kernel.api.query.QueryObfuscator
+import org.neo4j.kernel.impl.query.QueryExecution
+import org.neo4j.kernel.impl.query.QuerySubscriber
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.TextValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.MapValue
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.function.Supplier
+import scala.collection.JavaConverters.iterableAsScalaIterableConverter
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Identifies the result of a query: the same query with the same parameters, run by a user with the same roles.
+ *
+ * Parameters are compared by type as well as by value. Values consider `1` and `1.0` equal, but a query returning
+ * its parameter must not answer one with the result of the other.
+ */
+case class ResultCacheKey(queryKey: String, parameters: MapValue, user: String, roles: java.util.Set[String]) {
+
+  override def equals(other: Any): Boolean = other match {
+    case that: ResultCacheKey =>
+      queryKey == that.queryKey &&
+        user == that.user &&
+        roles == that.roles &&
+        parameters == that.parameters &&
+        ResultCacheKey.sameTypes(parameters, that.parameters)
+    case _ => false
+  }
+}
+
+object ResultCacheKey {
+
+  /**
+   * Whether two equal values also have the same types, all the way down into lists and maps.
+   */
+  private[cache] def sameTypes(a: AnyValue, b: AnyValue): Boolean = (a, b) match {
+    case (_: TextValue, _: TextValue) => true
+    case (x: Value, y: Value) => x.valueRepresentation() == y.valueRepresentation()
+    case (x: ListValue, y: ListValue) =>
+      val xs = x.iterator()
+      val ys = y.iterator()
+      var same = true
+      while (same && xs.hasNext && ys.hasNext) {
+        same = sameTypes(xs.next(), ys.next())
+      }
+      same
+    case (x: MapValue, y: MapValue) =>
+      var same = true
+      x.foreach((key, value) => same &&= sameTypes(value, y.get(key)))
+      same
+    case _ => a.getClass == b.getClass
+  }
+
+  /**
+   * @return the key of the result for the given security context, or `None` if results can not be shared for it.
+   *         That is the case for users with fine-grained privileges, whose results depend on more than their roles.
+   */
+  def of(queryKey: String, parameters: MapValue, securityContext: SecurityContext): Option[ResultCacheKey] =
+    securityContext.mode() match {
+      case mode: AccessMode.Static if mode.allowsTraverseAllLabels() =>
+        Some(ResultCacheKey(queryKey, parameters, securityContext.subject().executingUser(), securityContext.roles()))
+      case _ =>
+        None
+    }
+}
+
+/**
+ * A fully consumed result of a read-only query, along with what is needed to report it like an executed query.
+ */
+case class CachedQueryResult(fieldNames: Array[String],
+                             rows: IndexedSeq[Array[AnyValue]],
+                             dependencies: ResultCacheDependencies,
+                             queryType: InternalQueryType,
+                             notifications: Iterable[Notification],
+                             compilerInfo: CompilerInfo,
+                             planDescriptionSupplier: Supplier[ExecutionPlanDescription],
+                             queryObfuscator: QueryObfuscator,
+                             estimatedHeapUsage: Long)
+
+trait QueryResultCacheMonitor {
+  def resultCacheHit(key: ResultCacheKey): Unit = {}
+
+  def resultCacheMiss(key: ResultCacheKey): Unit = {}
+
+  def resultCacheStore(key: ResultCacheKey, estimatedHeapUsage: Long): Unit = {}
+
+  def resultCacheInvalidation(numberOfInvalidatedResults: Int): Unit = {}
+}
+
+/**
+ * Caches the results of read-only queries, bounded by their estimated heap usage.
+ *
+ * Results are invalidated by [[invalidate]] when a committed transaction changes anything they depend on. To not
+ * cache a result that was read before a commit and stored after its invalidation, a result is only kept if no
+ * invalidation happened while its query was executing.
+ *
+ * @param maximumSize the maximum estimated heap usage of all cached results. Results larger than a tenth of this
+ *                    are never cached.
+ */
+class QueryResultCache(cacheFactory: CaffeineCacheFactory, maximumSize: Long, monitor: QueryResultCacheMonitor) {
+
+  private val maximumResultSize = maximumSize / 10
+  private val invalidations = new AtomicLong()
+  private val inner: Cache[ResultCacheKey, CachedQueryResult] =
+    cacheFactory.createWeightedCache[ResultCacheKey, CachedQueryResult](maximumSize,
+      (_: ResultCacheKey, result: CachedQueryResult) => Math.min(result.estimatedHeapUsage, Int.MaxValue).toInt)
+
+  def get(key: ResultCacheKey): Option[CachedQueryResult] = {
+    val result = inner.getIfPresent(key)
+    if (result == null) {
+      monitor.resultCacheMiss(key)
+      None
+    } else {
+      monitor.resultCacheHit(key)
+      Some(result)
+    }
+  }
+
+  /**
+   * Record the result of an executing query, to be cached once it has been fully consumed.
+   *
+   * @param createResult creates the cached result from the recorded field names, rows, the execution and the estimated heap usage.
+   * @return a subscriber that records the results streamed to it before passing them on to the given subscriber
+   */
+  def record(key: ResultCacheKey,
+             subscriber: QuerySubscriber,
+             createResult: (IndexedSeq[Array[AnyValue]], QueryExecution, Long) => CachedQueryResult): RecordingQuerySubscriber = {
+    val invalidationsAtStart = invalidations.get()
+    new RecordingQuerySubscriber(subscriber, maximumResultSize, (rows, execution, estimatedHeapUsage) => {
+      val result = createResult(rows, execution, estimatedHeapUsage)
+      inner.put(key, result)
+      if (invalidations.get() != invalidationsAtStart) {
+        inner.invalidate(key)
+      } else {
+        monitor.resultCacheStore(key, estimatedHeapUsage)
+      }
+    })
+  }
+
+  def invalidate(changes: CommittedChanges): Unit = {
+    invalidations.incrementAndGet()
+    var invalidated = 0
+    inner.asMap().entrySet().removeIf(entry => {
+      val isInvalidated = entry.getValue.dependencies.isInvalidatedBy(changes)
+      if (isInvalidated) invalidated += 1
+      isInvalidated
+    })
+    if (invalidated > 0) {
+      monitor.resultCacheInvalidation(invalidated)
+    }
+  }
+
+  /**
+   * @return the number of results that were cleared
+   */
+  def clear(): Long = {
+    invalidations.incrementAndGet()
+    val priorSize = inner.estimatedSize()
+    inner.invalidateAll()
+    inner.cleanUp()
+    priorSize
+  }
+}
+
+/**
+ * Invalidates the cached results that depend on the changes of committed transactions.
+ */
+class QueryResultCacheInvalidator(cache: QueryResultCache) extends TransactionEventListenerAdapter[CommittedChanges] {
+
+  override def beforeCommit(data: TransactionData, transaction: Transaction, databaseService: GraphDatabaseService): CommittedChanges =
+    CommittedChanges.of(data)
+
+  override def afterCommit(data: TransactionData, changes: CommittedChanges, databaseService: GraphDatabaseService): Unit =
+    if (changes != null) cache.invalidate(changes)
+}
+
+/**
+ * Passes the results of a query on to the given subscriber, while recording them. When all results have been streamed,
+ * the query did not update anything, and the results only contain values that do not change along with the graph,
+ * the recorded results are handed to `onCompleted`.
+ */
+class RecordingQuerySubscriber(inner: QuerySubscriber,
+                               maximumResultSize: Long,
+                               onCompleted: (IndexedSeq[Array[AnyValue]], QueryExecution, Long) => Unit) extends QuerySubscriber {
+
+  private var rows = new ArrayBuffer[Array[AnyValue]]()
+  private var currentRow: Array[AnyValue] = _
+  private var numberOfFields = 0
+  private var estimatedHeapUsage = 0L
+  private var completed = false
+  private var execution: QueryExecution = _
+
+  /**
+   * Called with the execution of the query, which may happen before or after its results have been streamed.
+   */
+  def onExecution(execution: QueryExecution): Unit = {
+    this.execution = execution
+    storeIfDone()
+  }
+
+  override def onResult(numberOfFields: Int): Unit = {
+    this.numberOfFields = numberOfFields
+    inner.onResult(numberOfFields)
+  }
+
+  override def onRecord(): Unit = {
+    if (rows != null) {
+      currentRow = new Array[AnyValue](numberOfFields)
+    }
+    inner.onRecord()
+  }
+
+  override def onField(offset: Int, value: AnyValue): Unit = {
+    if (rows != null) {
+      if (RecordingQuerySubscriber.isCacheable(value)) {
+        currentRow(offset) = value
+        estimatedHeapUsage += value.estimatedHeapUsage()
+      } else {
+        stopRecording()
+      }
+    }
+    inner.onField(offset, value)
+  }
+
+  override def onRecordCompleted(): Unit = {
+    if (rows != null) {
+      rows += currentRow
+      estimatedHeapUsage += shallowSizeOfObjectArray(numberOfFields)
+      if (estimatedHeapUsage > maximumResultSize) {
+        stopRecording()
+      }
+    }
+    inner.onRecordCompleted()
+  }
+
+  override def onError(throwable: Throwable): Unit = {
+    stopRecording()
+    inner.onError(throwable)
+  }
+
+  override def onResultCompleted(statistics: QueryStatistics): Unit = {
+    inner.onResultCompleted(statistics)
+    if (statistics.containsUpdates() || statistics.containsSystemUpdates()) {
+      stopRecording()
+    }
+    completed = true
+    storeIfDone()
+  }
+
+  private def storeIfDone(): Unit = {
+    if (completed && execution != null && rows != null) {
+      val recorded = rows
+      stopRecording()
+      onCompleted(recorded, execution, estimatedHeapUsage)
+    }
+  }
+
+  private def stopRecording(): Unit = {
+    rows = null
+    currentRow = null
+  }
+}
+
+object RecordingQuerySubscriber {
+
+  /**
+   * Nodes, relationships and paths are not cached, since they carry all their labels and properties, not only the
+   * ones the query depends on.
+   */
+  def isCacheable(value: AnyValue): Boolean = value match {
+    case _: Value => true
+    case list: ListValue => list.asScala.forall(isCacheable)
+    case map: MapValue =>
+      var cacheable = true
+      map.foreach((_, v) => cacheable &&= isCacheable(v))
+      cacheable
+    case _ => false
+  }
+}
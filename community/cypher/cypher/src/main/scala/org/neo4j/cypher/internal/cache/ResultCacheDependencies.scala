@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.cache
+
+import org.neo4j.cypher.internal.expressions.AllPropertiesSelector
+import org.neo4j.cypher.internal.expressions.ContainerIndex
+import org.neo4j.cypher.internal.expressions.FunctionInvocation
+import org.neo4j.cypher.internal.expressions.GetDegree
+import org.neo4j.cypher.internal.expressions.HasDegree
+import org.neo4j.cypher.internal.expressions.HasDegreeGreaterThan
+import org.neo4j.cypher.internal.expressions.HasDegreeGreaterThanOrEqual
+import org.neo4j.cypher.internal.expressions.HasDegreeLessThan
+import org.neo4j.cypher.internal.expressions.HasDegreeLessThanOrEqual
+import org.neo4j.cypher.internal.expressions.LabelName
+import org.neo4j.cypher.internal.expressions.LabelToken
+import org.neo4j.cypher.internal.expressions.PropertyKeyName
+import org.neo4j.cypher.internal.expressions.PropertyKeyToken
+import org.neo4j.cypher.internal.expressions.RelTypeName
+import org.neo4j.cypher.internal.expressions.RelationshipPattern
+import org.neo4j.cypher.internal.expressions.RelationshipTypeToken
+import org.neo4j.cypher.internal.expressions.functions.DeterministicFunction
+import org.neo4j.cypher.internal.expressions.functions.Keys
+import org.neo4j.cypher.internal.expressions.functions.Labels
+import org.neo4j.cypher.internal.expressions.functions.Properties
+import org.neo4j.cypher.internal.ir.PatternRelationship
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.CommandLogicalPlan
+import org.neo4j.cypher.internal.logical.plans.DirectedRelationshipByIdSeek
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.IntersectionArm
+import org.neo4j.cypher.internal.logical.plans.LoadCSV
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NodeByIdSeek
+import org.neo4j.cypher.internal.logical.plans.NodeCountFromCountStore
+import org.neo4j.cypher.internal.logical.plans.OptionalExpand
+import org.neo4j.cypher.internal.logical.plans.ProcedureCall
+import org.neo4j.cypher.internal.logical.plans.ProjectEndpoints
+import org.neo4j.cypher.internal.logical.plans.PruningVarExpand
+import org.neo4j.cypher.internal.logical.plans.RelationshipCountFromCountStore
+import org.neo4j.cypher.internal.logical.plans.ResolvedFunctionInvocation
+import org.neo4j.cypher.internal.logical.plans.UndirectedRelationshipByIdSeek
+import org.neo4j.cypher.internal.logical.plans.VarExpand
+import org.neo4j.cypher.internal.util.Foldable.FoldableAny
+import org.neo4j.cypher.internal.util.Foldable.SkipChildren
+import org.neo4j.cypher.internal.util.Foldable.TraverseChildren
+import org.neo4j.graphdb.event.TransactionData
+
+import scala.collection.JavaConverters.iterableAsScalaIterableConverter
+
+/**
+ * The parts of the graph that the result of a read-only query depends on.
+ *
+ * The result can only change when a transaction commits changes to any of the labels, relationship types or property
+ * keys the query mentions. Queries that find nodes or relationships without a label or type, or that read all labels or
+ * all properties of an entity, additionally depend on any node or relationship being created or deleted, or on any
+ * label or property being changed.
+ */
+case class ResultCacheDependencies(labels: Set[String] = Set.empty,
+                                   relationshipTypes: Set[String] = Set.empty,
+                                   propertyKeys: Set[String] = Set.empty,
+                                   anyNode: Boolean = false,
+                                   anyRelationship: Boolean = false,
+                                   anyLabel: Boolean = false,
+                                   anyPropertyKey: Boolean = false) {
+
+  def isInvalidatedBy(changes: CommittedChanges): Boolean =
+    (anyNode && changes.nodesCreatedOrDeleted) ||
+      (anyRelationship && changes.relationshipsCreatedOrDeleted) ||
+      (if (anyLabel) changes.labels.nonEmpty else changes.labels.exists(labels.contains)) ||
+      changes.relationshipTypes.exists(relationshipTypes.contains) ||
+      (if (anyPropertyKey) changes.propertyKeys.nonEmpty else changes.propertyKeys.exists(propertyKeys.contains))
+}
+
+object ResultCacheDependencies {
+
+  /**
+   * @return the dependencies of the results of the given read-only plan, or `None` if its results can not be cached
+   *         because they depend on more than the committed graph, e.g. on procedures, files or random values.
+   */
+  def of(plan: LogicalPlan): Option[ResultCacheDependencies] =
+    plan.treeFold(Option(ResultCacheDependencies())) {
+      case _: ProcedureCall | _: ResolvedFunctionInvocation | _: LoadCSV | _: CommandLogicalPlan =>
+        _ => SkipChildren(None)
+      case f: FunctionInvocation if DeterministicFunction.unapply(f.function).isEmpty =>
+        _ => SkipChildren(None)
+
+      case LabelName(name) => acc => TraverseChildren(acc.map(d => d.copy(labels = d.labels + name)))
+      case LabelToken(name, _) => acc => TraverseChildren(acc.map(d => d.copy(labels = d.labels + name)))
+      case RelTypeName(name) => acc => TraverseChildren(acc.map(d => d.copy(relationshipTypes = d.relationshipTypes + name)))
+      case RelationshipTypeToken(name, _) => acc => TraverseChildren(acc.map(d => d.copy(relationshipTypes = d.relationshipTypes + name)))
+      case PropertyKeyName(name) => acc => TraverseChildren(acc.map(d => d.copy(propertyKeys = d.propertyKeys + name)))
+      case PropertyKeyToken(name, _) => acc => TraverseChildren(acc.map(d => d.copy(propertyKeys = d.propertyKeys + name)))
+
+      case _: AllNodesScan | _: NodeByIdSeek =>
+        anyNode
+      case c: NodeCountFromCountStore if c.labelNames.contains(None) =>
+        anyNode
+
+      case e: Expand if e.types.isEmpty => anyRelationship
+      case e: OptionalExpand if e.types.isEmpty => anyRelationship
+      case e: VarExpand if e.types.isEmpty => anyRelationship
+      case e: PruningVarExpand if e.types.isEmpty => anyRelationship
+      case a: IntersectionArm if a.types.isEmpty => anyRelationship
+      case p: ProjectEndpoints if p.types.forall(_.isEmpty) => anyRelationship
+      case c: RelationshipCountFromCountStore if c.typeNames.isEmpty => anyRelationship
+      case _: DirectedRelationshipByIdSeek | _: UndirectedRelationshipByIdSeek => anyRelationship
+      case r: PatternRelationship if r.types.isEmpty => anyRelationship
+      case r: RelationshipPattern if r.types.isEmpty => anyRelationship
+      case d: GetDegree if d.relType.isEmpty => anyRelationship
+      case d: HasDegree if d.relType.isEmpty => anyRelationship
+      case d: HasDegreeGreaterThan if d.relType.isEmpty => anyRelationship
+      case d: HasDegreeGreaterThanOrEqual if d.relType.isEmpty => anyRelationship
+      case d: HasDegreeLessThan if d.relType.isEmpty => anyRelationship
+      case d: HasDegreeLessThanOrEqual if d.relType.isEmpty => anyRelationship
+
+      case f: FunctionInvocation if f.function == Labels =>
+        acc => TraverseChildren(acc.map(_.copy(anyLabel = true)))
+      case f: FunctionInvocation if f.function == Keys || f.function == Properties =>
+        acc => TraverseChildren(acc.map(_.copy(anyPropertyKey = true)))
+      case _: AllPropertiesSelector | _: ContainerIndex =>
+        acc => TraverseChildren(acc.map(_.copy(anyPropertyKey = true)))
+    }
+
+  private val anyNode: Option[ResultCacheDependencies] => TraverseChildren[Option[ResultCacheDependencies]] =
+    acc => TraverseChildren(acc.map(_.copy(anyNode = true)))
+
+  private val anyRelationship: Option[ResultCacheDependencies] => TraverseChildren[Option[ResultCacheDependencies]] =
+    acc => TraverseChildren(acc.map(_.copy(anyRelationship = true)))
+}
+
+/**
+ * The labels, relationship types and property keys touched by a committed transaction, and whether it created or
+ * deleted any nodes or relationships.
+ */
+case class CommittedChanges(labels: Set[String],
+                            relationshipTypes: Set[String],
+                            propertyKeys: Set[String],
+                            nodesCreatedOrDeleted: Boolean,
+                            relationshipsCreatedOrDeleted: Boolean)
+
+object CommittedChanges {
+
+  /**
+   * Must be called before the transaction commits, while the types of the created relationships can still be read.
+   */
+  def of(data: TransactionData): CommittedChanges = {
+    val labels = (data.assignedLabels().asScala ++ data.removedLabels().asScala).map(_.label().name()).toSet
+    val relationshipTypes = (data.createdRelationships().asScala ++ data.deletedRelationships().asScala).map(_.getType.name()).toSet
+    val propertyKeys =
+      (data.assignedNodeProperties().asScala ++ data.removedNodeProperties().asScala).map(_.key()).toSet ++
+        (data.assignedRelationshipProperties().asScala ++ data.removedRelationshipProperties().asScala).map(_.key())
+    CommittedChanges(
+      labels,
+      relationshipTypes,
+      propertyKeys,
+      data.createdNodes().iterator().hasNext || data.deletedNodes().iterator().hasNext,
+      relationshipTypes.nonEmpty)
+  }
+}
@@ -134,6 +134,7 @@ import org.neo4j.cypher.internal.logical.plans.Foreach
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
 import org.neo4j.cypher.internal.logical.plans.InequalitySeekRangeWrapper
 import org.neo4j.cypher.internal.logical.plans.Input
+import org.neo4j.cypher.internal.logical.plans.IntersectionExpand
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.LetAntiSemiApply
 import org.neo4j.cypher.internal.logical.plans.LetSelectOrAntiSemiApply
@@ -228,6 +229,7 @@ import org.neo4j.cypher.internal.logical.plans.Union
 import org.neo4j.cypher.internal.logical.plans.Uniqueness
 import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
+import org.neo4j.cypher.internal.logical.plans.ValueMergeJoin
 import org.neo4j.cypher.internal.logical.plans.VarExpand
 import org.neo4j.cypher.internal.logical.plans.VariablePredicate
 import org.neo4j.cypher.internal.macros.AssertMacros.checkOnlyWhenAssertionsAreEnabled
@@ -614,6 +616,10 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean,
         }
         PlanDescriptionImpl(id, modeText, children, Seq(expression), variables, withRawCardinalities)
 
+      case IntersectionExpand(_, arms, toName) =>
+        val expressions = arms.map(arm => expandExpressionDescription(arm.from, Some(arm.relName), arm.types.map(_.name), toName, arm.dir, 1, Some(1), None))
+        PlanDescriptionImpl(id, "IntersectionExpand", children, Seq(Details(expressions)), variables, withRawCardinalities)
+
       case Limit(_, count) =>
         PlanDescriptionImpl(id, "Limit", children, Seq(Details(asPrettyString(count))), variables, withRawCardinalities)
 
@@ -663,7 +669,7 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean,
 
         PlanDescriptionImpl(id, "ShortestPath", children, Seq(Details(pretty"$pathName$patternRelationshipInfo$predicatesInfo")), variables, withRawCardinalities)
 
-      case LoadCSV(_, _, variableName, _, _, _, _) =>
+      case LoadCSV(_, _, variableName, _, _, _, _, _) =>
         PlanDescriptionImpl(id, "LoadCSV", children, Seq(Details(asPrettyString(variableName))), variables, withRawCardinalities)
 
       case Merge(_, createNodes, createRelationships, onMatch, onCreate, nodesToLock) =>
@@ -959,6 +965,15 @@ case class LogicalPlan2PlanDescription(readOnly: Boolean,
           variables,
           withRawCardinalities)
 
+      case ValueMergeJoin(_, _, predicate) =>
+        PlanDescriptionImpl(
+          id = id,
+          name = "ValueMergeJoin",
+          children = children,
+          arguments = Seq(Details(asPrettyString(predicate))),
+          variables,
+          withRawCardinalities)
+
       case _: MultiNodeIndexSeek | _: AssertingMultiNodeIndexSeek | _: SubqueryForeach =>
         PlanDescriptionImpl(id = plan.id, plan.productPrefix, children, Seq.empty, variables, withRawCardinalities)
 
@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.planning
 
 import org.neo4j.cypher.internal.CacheTracer
 import org.neo4j.cypher.internal.CacheabilityInfo
+import org.neo4j.cypher.internal.DefaultParameterSelectivityBucketer
 import org.neo4j.cypher.internal.DefaultPlanStalenessCaller
 import org.neo4j.cypher.internal.PlanStalenessCaller
 import org.neo4j.cypher.internal.QueryCache
@@ -30,6 +31,7 @@ import org.neo4j.cypher.internal.cache.CaffeineCacheFactory
 import org.neo4j.cypher.internal.compiler.StatsDivergenceCalculator
 import org.neo4j.cypher.internal.compiler.phases.CachableLogicalPlanState
 import org.neo4j.cypher.internal.compiler.phases.LogicalPlanState
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitivePredicate
 import org.neo4j.cypher.internal.util.InternalNotification
 import org.neo4j.logging.Log
 
@@ -43,6 +45,8 @@ import java.time.Clock
  * @param clock                     Clock used to compute logical plan staleness
  * @param divergence                Statistics divergence calculator used to compute logical plan staleness
  * @param lastCommittedTxIdProvider Last committed transaction id provider used to compute logical plan staleness
+ * @param maxPlanVariants           Maximum number of additional plans per statement for parameter values of other selectivity
+ * @param maxTotalPlanVariants      Maximum number of additional plans of all statements together
  * @tparam STATEMENT Type of AST statement used as key
  */
 class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: CaffeineCacheFactory,
@@ -51,7 +55,9 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
                                                clock: Clock,
                                                divergence: StatsDivergenceCalculator,
                                                lastCommittedTxIdProvider: () => Long,
-                                               log: Log)
+                                               log: Log,
+                                               override val maxPlanVariants: Int = 0,
+                                               override val maxTotalPlanVariants: Int = Int.MaxValue)
   extends QueryCache[CacheKey[STATEMENT], CacheableLogicalPlan](
     cacheFactory,
     maximumSize,
@@ -59,7 +65,10 @@ class AstLogicalPlanCache[STATEMENT <: AnyRef](override val cacheFactory: Caffei
       divergence,
       lastCommittedTxIdProvider,
       log),
-    tracer) {
+    tracer,
+    new DefaultParameterSelectivityBucketer(log),
+    maxPlanVariants,
+    maxTotalPlanVariants) {
 
   def logStalePlanRemovalMonitor(log: Log): CacheTracer[STATEMENT] =
     new CacheTracer[STATEMENT] {
@@ -98,4 +107,5 @@ object AstLogicalPlanCache {
 
 case class CacheableLogicalPlan(logicalPlanState: CachableLogicalPlanState,
                                 reusability: ReusabilityState, notifications: IndexedSeq[InternalNotification],
-                                override val shouldBeCached: Boolean) extends CacheabilityInfo
+                                override val shouldBeCached: Boolean,
+                                override val selectivitySensitivePredicates: Seq[SelectivitySensitivePredicate] = Seq.empty) extends CacheabilityInfo
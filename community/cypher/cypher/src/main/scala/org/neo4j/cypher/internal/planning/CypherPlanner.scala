@@ -82,6 +82,7 @@ import org.neo4j.cypher.internal.planner.spi.CostBasedPlannerName
 import org.neo4j.cypher.internal.planner.spi.DPPlannerName
 import org.neo4j.cypher.internal.planner.spi.IDPPlannerName
 import org.neo4j.cypher.internal.planner.spi.PlanContext
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitivePredicate
 import org.neo4j.cypher.internal.planning.CypherPlanner.createQueryGraphSolver
 import org.neo4j.cypher.internal.runtime.interpreted.TransactionalContextWrapper
 import org.neo4j.cypher.internal.spi.ExceptionTranslatingPlanContext
@@ -189,7 +190,9 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       clock,
       config.statsDivergenceCalculator,
       lastCommittedTxIdProvider,
-      log)
+      log,
+      config.planCacheParameterVariants,
+      config.planCacheParameterVariantsTotal)
 
   monitors.addMonitorListener(planCache.logStalePlanRemovalMonitor(log), "cypher")
 
@@ -371,7 +374,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
           transactionalContext,
           compilerWithExpressionCodeGenOption,
           options.queryOptions.replan,
-          transactionalContext.executingQuery().id())
+          transactionalContext.executingQuery().id(),
+          filteredParams)
       } else if (!enoughParametersSupplied) {
         createPlan(shouldBeCached = false, missingParameterNames = queryParamNames.filterNot(filteredParams.containsKey))
       } else {
@@ -385,7 +389,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
       plannerContext,
       cacheableLogicalPlan.notifications,
       cacheableLogicalPlan.shouldBeCached,
-      obfuscator)
+      obfuscator,
+      cacheableLogicalPlan.selectivitySensitivePredicates)
   }
 
 
@@ -430,7 +435,8 @@ case class CypherPlanner(config: CypherPlannerConfiguration,
         val fingerprintReference = new PlanFingerprintReference(fingerprint)
         (MaybeReusable(fingerprintReference), shouldBeCached)
     }
-    CacheableLogicalPlan(logicalPlanState.asCachableLogicalPlanState(), reusabilityState, notificationLogger.notifications.toIndexedSeq, shouldCache)
+    CacheableLogicalPlan(logicalPlanState.asCachableLogicalPlanState(), reusabilityState, notificationLogger.notifications.toIndexedSeq, shouldCache,
+      context.planningParameters.selectivitySensitivePredicates)
   }
 
   private def checkForSchemaChanges(tcw: TransactionalContextWrapper): Unit =
@@ -468,7 +474,8 @@ case class LogicalPlanResult(logicalPlanState: CachableLogicalPlanState,
                              plannerContext: PlannerContext,
                              notifications: IndexedSeq[InternalNotification],
                              shouldBeCached: Boolean,
-                             queryObfuscator: QueryObfuscator)
+                             queryObfuscator: QueryObfuscator,
+                             selectivitySensitivePredicates: Seq[SelectivitySensitivePredicate] = Seq.empty)
 
 trait CypherCacheFlushingMonitor {
   def cacheFlushDetected(sizeBeforeFlush: Long): Unit = {}
@@ -484,6 +491,12 @@ trait CypherCacheHitMonitor[T] {
   def cacheCompile(key: T): Unit = {}
 
   def cacheCompileWithExpressionCodeGen(key: T): Unit = {}
+
+  def cacheVariantHit(key: T): Unit = {}
+
+  def cacheVariantMiss(key: T): Unit = {}
+
+  def cacheVariantLimitReached(key: T): Unit = {}
 }
 
 /**
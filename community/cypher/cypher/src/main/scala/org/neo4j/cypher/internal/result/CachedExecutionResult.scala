@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.result
+
+import org.neo4j.cypher.internal.cache.CachedQueryResult
+import org.neo4j.cypher.internal.runtime.ExecutionMode
+import org.neo4j.cypher.internal.runtime.InternalQueryType
+import org.neo4j.cypher.internal.runtime.NormalMode
+import org.neo4j.cypher.internal.runtime.QueryStatistics
+import org.neo4j.graphdb.ExecutionPlanDescription
+import org.neo4j.graphdb.Notification
+import org.neo4j.kernel.impl.query.QuerySubscriber
+
+/**
+ * Streams a cached result to the subscriber, honouring its demand, like the results of an executed query.
+ *
+ * @param onClose closes the transaction of the query
+ */
+class CachedExecutionResult(result: CachedQueryResult,
+                            subscriber: QuerySubscriber,
+                            onClose: CloseReason => Unit) extends InternalExecutionResult {
+
+  private var demand = 0L
+  private var served = 0
+  private var started = false
+  private var completed = false
+  private var cancelled = false
+  private var closed = false
+
+  override def initiate(): Unit = {}
+
+  override def request(numberOfRecords: Long): Unit = {
+    demand = if (Long.MaxValue - demand < numberOfRecords) Long.MaxValue else demand + numberOfRecords
+    serve()
+  }
+
+  private def serve(): Unit = {
+    if (!started) {
+      started = true
+      subscriber.onResult(result.fieldNames.length)
+    }
+    val rows = result.rows
+    while (demand > 0 && served < rows.size && !cancelled) {
+      val row = rows(served)
+      subscriber.onRecord()
+      var i = 0
+      while (i < row.length) {
+        subscriber.onField(i, row(i))
+        i += 1
+      }
+      subscriber.onRecordCompleted()
+      served += 1
+      demand -= 1
+    }
+    if (served == rows.size && !completed && !cancelled) {
+      completed = true
+      subscriber.onResultCompleted(QueryStatistics())
+    }
+  }
+
+  override def cancel(): Unit = cancelled = true
+
+  override def await(): Boolean = !completed && !cancelled
+
+  override def isClosed: Boolean = closed
+
+  override def close(reason: CloseReason): Unit = {
+    if (!closed) {
+      closed = true
+      onClose(reason)
+    }
+  }
+
+  override def executionMode: ExecutionMode = NormalMode
+
+  override def queryType: InternalQueryType = result.queryType
+
+  override def notifications: Iterable[Notification] = result.notifications
+
+  override def executionPlanDescription(): ExecutionPlanDescription = result.planDescriptionSupplier.get()
+
+  override def fieldNames(): Array[String] = result.fieldNames
+}
@@ -19,9 +19,11 @@
  */
 package org.neo4j.cypher.internal.spi
 
+import org.neo4j.cypher.internal.logical.plans.Bound
 import org.neo4j.cypher.internal.planner.spi.GraphStatistics
 import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
 import org.neo4j.cypher.internal.planner.spi.MinimumGraphStatistics
+import org.neo4j.cypher.internal.planner.spi.PropertyValue
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
@@ -31,9 +33,13 @@ import org.neo4j.internal.kernel.api.SchemaRead
 import org.neo4j.internal.kernel.api.TokenRead
 import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelException
 import org.neo4j.internal.schema
+import org.neo4j.kernel.api.index.IndexValueHistogram
 import org.neo4j.kernel.impl.query.TransactionalContext
 import org.neo4j.logging.Log
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
 
+import java.lang.Math.max
 import java.lang.Math.min
 
 object TransactionBoundGraphStatistics {
@@ -108,6 +114,44 @@ object TransactionBoundGraphStatistics {
           None
       }
 
+    override def valueSelectivity(index: IndexDescriptor, value: PropertyValue): Option[Selectivity] =
+      histogramSelectivity(index, "valueSelectivity") { histogram =>
+        histogram.equalitySelectivity(toValue(value))
+      }
+
+    override def rangeSelectivity(index: IndexDescriptor, lower: Option[Bound[PropertyValue]], upper: Option[Bound[PropertyValue]]): Option[Selectivity] =
+      histogramSelectivity(index, "rangeSelectivity") { histogram =>
+        histogram.rangeSelectivity(
+          lower.map(bound => toValue(bound.endPoint)).orNull, lower.exists(_.isInclusive),
+          upper.map(bound => toValue(bound.endPoint)).orNull, upper.exists(_.isInclusive))
+      }
+
+    private def histogramSelectivity(index: IndexDescriptor, description: String)(selectivity: IndexValueHistogram => Double): Option[Selectivity] =
+      try {
+        maybeKernelIndexDescriptor(index).flatMap { indexDescriptor =>
+          val histogram = schemaRead.indexSample(indexDescriptor).histogram()
+          if (histogram.isEmpty) {
+            None
+          } else {
+            // The histogram is built from a sample, so a value that was not seen may still exist. Never estimate less than one entry.
+            val minimum = 1.0 / histogram.sampleSize()
+            Some(Selectivity(min(max(selectivity(histogram), minimum), 1.0)))
+          }
+        }
+      }
+      catch {
+        case e: IndexNotFoundKernelException =>
+          log.debug(s"Index not found for $description", e)
+          None
+      }
+
+    private def toValue(value: PropertyValue): Value = value match {
+      case PropertyValue.IntegerValue(v) => Values.longValue(v)
+      case PropertyValue.FloatValue(v) => Values.doubleValue(v)
+      case PropertyValue.TextValue(v) => Values.stringValue(v)
+      case PropertyValue.BooleanValue(v) => Values.booleanValue(v)
+    }
+
     override def nodesAllCardinality(): Cardinality =
       Cardinality(read.countsForNodeWithoutTxState(TokenRead.ANY_LABEL))
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal
+
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.planner.spi.GraphStatisticsSnapshot
+import org.neo4j.cypher.internal.planner.spi.NodesWithLabelCardinality
+import org.neo4j.cypher.internal.planner.spi.PlanningAttributes.EffectiveCardinalities
+import org.neo4j.cypher.internal.util.EffectiveCardinality
+import org.neo4j.cypher.internal.util.LabelId
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.cypher.result.OperatorProfile
+import org.neo4j.cypher.result.OperatorProfile.ConstOperatorProfile
+import org.neo4j.cypher.result.QueryProfile
+
+class CardinalityFeedbackTest extends CypherFunSuite with LogicalPlanningTestSupport {
+
+  private val plan = AllNodesScan("a", Set.empty)
+  private val effectiveCardinalities = new EffectiveCardinalities
+  effectiveCardinalities.set(plan.id, EffectiveCardinality(10.0))
+
+  test("should sample every n-th execution") {
+    val (feedback, _) = newFeedback(sampleInterval = 3)
+
+    (1 to 6).map(_ => feedback.shouldSample()) should equal(Seq(false, false, true, false, false, true))
+  }
+
+  test("should mark the plan as misestimated after several misestimated executions in a row") {
+    val (feedback, fingerprint) = newFeedback()
+
+    feedback.record(profileWithRows(100000))
+    feedback.record(profileWithRows(100000))
+    fingerprint.misestimate shouldBe None
+
+    feedback.record(profileWithRows(100000))
+    fingerprint.misestimate shouldBe Some(s"AllNodesScan(${plan.id.x}) produced 100000 rows where 10 were estimated")
+  }
+
+  test("should start over after a well estimated execution") {
+    val (feedback, fingerprint) = newFeedback()
+
+    feedback.record(profileWithRows(100000))
+    feedback.record(profileWithRows(100000))
+    feedback.record(profileWithRows(20))
+    feedback.record(profileWithRows(100000))
+
+    fingerprint.misestimate shouldBe None
+  }
+
+  test("should ignore operators with few rows") {
+    val (feedback, fingerprint) = newFeedback(errorFactor = 10.0)
+
+    (1 to 3).foreach(_ => feedback.record(profileWithRows(500)))
+
+    fingerprint.misestimate shouldBe None
+  }
+
+  test("should ignore operators without rows") {
+    val (feedback, fingerprint) = newFeedback()
+
+    (1 to 3).foreach(_ => feedback.record(QueryProfile.NONE))
+
+    fingerprint.misestimate shouldBe None
+  }
+
+  test("should not create feedback for plans that are never replanned or if sampling is disabled") {
+    CardinalityFeedback(FineToReuse, plan, effectiveCardinalities, sampleInterval = 100, errorFactor = 100.0) shouldBe None
+    CardinalityFeedback(MaybeReusable(newFingerprint), plan, effectiveCardinalities, sampleInterval = 0, errorFactor = 100.0) shouldBe None
+  }
+
+  private def newFeedback(sampleInterval: Int = 1, errorFactor: Double = 100.0): (CardinalityFeedback, PlanFingerprintReference) = {
+    val fingerprint = newFingerprint
+    val feedback = CardinalityFeedback(MaybeReusable(fingerprint), plan, effectiveCardinalities, sampleInterval, errorFactor).get
+    (feedback, fingerprint)
+  }
+
+  private def newFingerprint: PlanFingerprintReference =
+    new PlanFingerprintReference(PlanFingerprint(0, 17, GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(Some(LabelId(0))) -> 5.0))))
+
+  private def profileWithRows(rows: Long): QueryProfile = new QueryProfile {
+    override def operatorProfile(operatorId: Int): OperatorProfile =
+      if (operatorId == plan.id.x) new ConstOperatorProfile(0, 0, rows, 0, 0, 0) else OperatorProfile.NONE
+
+    override def maxAllocatedMemory(): Long = 0
+  }
+}
@@ -214,6 +214,41 @@ class PlanStalenessCallerTest extends CypherFunSuite {
     }
   }
 
+  test("should be stale if misestimated and statistics changed at all, even before the life time has expired") {
+    testAll { (algorithm, clock) =>
+      val snapshot = GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(label(21)) -> 5.0))
+      val fingerprintRef = new PlanFingerprintReference(PlanFingerprint(clock.millis(), 17, snapshot))
+      fingerprintRef.misestimate = Some("NodeByLabelScan(0) produced 50000 rows where 5 were estimated")
+      val divergenceCalculator = StatsDivergenceCalculator.divergenceCalculatorFor(algorithm, 0.5, 0.1, 1000, 100000)
+
+      val stats: GraphStatistics = nodesWithLabelCardinality(21, 5.1)
+      val planStalenessCaller = new DefaultPlanStalenessCaller(clock, divergenceCalculator, TransactionIdSupplier(42), not_used, null)
+
+      clock.forward(500, MILLISECONDS)
+
+      val result = planStalenessCaller.staleness(fingerprintRef, stats)
+      result shouldBe a[Stale]
+      result.asInstanceOf[Stale].maybeReason.get should startWith("NodeByLabelScan(0) produced 50000 rows")
+      // other caches holding the plan must replan as well
+      planStalenessCaller.staleness(fingerprintRef, stats) shouldBe a[Stale]
+    }
+  }
+
+  test("should forget the misestimate if statistics have not changed") {
+    testAll { (algorithm, clock) =>
+      val snapshot = GraphStatisticsSnapshot(Map(NodesWithLabelCardinality(label(21)) -> 5.0))
+      val fingerprintRef = new PlanFingerprintReference(PlanFingerprint(clock.millis(), 17, snapshot))
+      fingerprintRef.misestimate = Some("NodeByLabelScan(0) produced 50000 rows where 5 were estimated")
+      val divergenceCalculator = StatsDivergenceCalculator.divergenceCalculatorFor(algorithm, 0.5, 0.1, 1000, 100000)
+
+      val stats: GraphStatistics = nodesWithLabelCardinality(21, 5.0)
+      val planStalenessCaller = new DefaultPlanStalenessCaller(clock, divergenceCalculator, TransactionIdSupplier(42), not_used, null)
+
+      planStalenessCaller.staleness(fingerprintRef, stats) shouldBe NotStale
+      fingerprintRef.misestimate shouldBe None
+    }
+  }
+
   def testAll(f: (CypherReplanAlgorithm, FakeClock) => Unit): Unit = {
     for (algorithm <- divergenceCalculators)
       withClue(s"For divergence calculator '$algorithm': ") { f(algorithm, Clocks.fakeClock()) }
@@ -20,24 +20,41 @@
 package org.neo4j.cypher.internal
 
 import org.mockito.Mockito
+import org.mockito.Mockito.never
 import org.mockito.Mockito.times
+import org.mockito.Mockito.verify
 import org.mockito.Mockito.verifyNoMoreInteractions
 import org.neo4j.cypher.internal.QueryCache.CacheKey
 import org.neo4j.cypher.internal.QueryCache.ParameterTypeMap
+import org.neo4j.cypher.internal.QueryCacheTest.Key
+import org.neo4j.cypher.internal.QueryCacheTest.MyValue
 import org.neo4j.cypher.internal.QueryCacheTest.TC
 import org.neo4j.cypher.internal.QueryCacheTest.alwaysStale
 import org.neo4j.cypher.internal.QueryCacheTest.compiled
 import org.neo4j.cypher.internal.QueryCacheTest.compilerWithExpressionCodeGenOption
+import org.neo4j.cypher.internal.QueryCacheTest.failingCompiler
 import org.neo4j.cypher.internal.QueryCacheTest.newCache
 import org.neo4j.cypher.internal.QueryCacheTest.newKey
 import org.neo4j.cypher.internal.QueryCacheTest.newTracer
+import org.neo4j.cypher.internal.QueryCacheTest.notCachedCompiler
+import org.neo4j.cypher.internal.QueryCacheTest.parameterIsBucket
+import org.neo4j.cypher.internal.QueryCacheTest.paramsInBucket
+import org.neo4j.cypher.internal.QueryCacheTest.sensitiveCompiler
 import org.neo4j.cypher.internal.QueryCacheTest.staleAfterNTimes
 import org.neo4j.cypher.internal.cache.TestExecutorCaffeineCacheFactory
 import org.neo4j.cypher.internal.options.CypherReplanOption
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor
+import org.neo4j.cypher.internal.planner.spi.IndexDescriptor.IndexType
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitiveEquality
+import org.neo4j.cypher.internal.planner.spi.SelectivitySensitivePredicate
 import org.neo4j.cypher.internal.util.InternalNotification
+import org.neo4j.cypher.internal.util.LabelId
+import org.neo4j.cypher.internal.util.PropertyKeyId
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.kernel.impl.query.TransactionalContext
+import org.neo4j.values.storable.IntegralValue
 import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.MapValue
 import org.neo4j.values.virtual.VirtualValues
 import org.scalatest.mockito.MockitoSugar
 
@@ -319,6 +336,198 @@ class QueryCacheTest extends CypherFunSuite {
     verifyNoMoreInteractions(tracer)
   }
 
+  test("should compile and cache a plan variant for parameter values in another selectivity bucket") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, bucketer = parameterIsBucket, maxPlanVariants = 1)
+    val key = newKey("foo")
+    def lookup(bucket: Int): MyValue = {
+      val params = paramsInBucket(bucket)
+      cache.computeIfAbsentOrStale(key, TC, sensitiveCompiler(key, params), CypherReplanOption.default, params = params)
+    }
+
+    // When
+    lookup(0).key should equal("foo@0")
+    // Then
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).queryCacheMiss(key, "")
+    o.verify(tracer).queryCompile(key, "")
+    verifyNoMoreInteractions(tracer)
+
+    // When
+    lookup(1).key should equal("foo@1")
+    // Then
+    o.verify(tracer).queryCacheVariantMiss(key, "")
+    o.verify(tracer).queryCacheMiss(key, "")
+    o.verify(tracer).queryCompile(key, "")
+    verifyNoMoreInteractions(tracer)
+
+    // When
+    lookup(1).key should equal("foo@1")
+    // Then
+    o.verify(tracer).queryCacheVariantHit(key, "")
+    o.verify(tracer).queryCacheHit(key, "")
+    verifyNoMoreInteractions(tracer)
+
+    // When
+    lookup(0).key should equal("foo@0")
+    // Then
+    o.verify(tracer).queryCacheHit(key, "")
+    verifyNoMoreInteractions(tracer)
+  }
+
+  test("should use the cached plan when a key has reached its maximum number of plan variants") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, bucketer = parameterIsBucket, maxPlanVariants = 1)
+    val key = newKey("foo")
+    def lookup(bucket: Int): MyValue = {
+      val params = paramsInBucket(bucket)
+      cache.computeIfAbsentOrStale(key, TC, sensitiveCompiler(key, params), CypherReplanOption.default, params = params)
+    }
+    lookup(0)
+    lookup(1)
+
+    // When
+    val valueFromCache = lookup(2)
+
+    // Then
+    valueFromCache.key should equal("foo@0")
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).queryCacheVariantLimitReached(key, "")
+    o.verify(tracer).queryCacheHit(key, "")
+  }
+
+  test("should use the cached plan when the cache has reached its maximum number of plan variants") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, bucketer = parameterIsBucket, maxPlanVariants = 2, maxTotalPlanVariants = 1)
+    val foo = newKey("foo")
+    val bar = newKey("bar")
+    def lookup(key: Key, bucket: Int): MyValue = {
+      val params = paramsInBucket(bucket)
+      cache.computeIfAbsentOrStale(key, TC, sensitiveCompiler(key, params), CypherReplanOption.default, params = params)
+    }
+    lookup(foo, 0)
+    lookup(foo, 1).key should equal("foo@1")
+    lookup(bar, 0)
+
+    // When
+    val valueFromCache = lookup(bar, 1)
+
+    // Then
+    valueFromCache.key should equal("bar@0")
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).queryCacheVariantLimitReached(bar, "")
+    o.verify(tracer).queryCacheHit(bar, "")
+  }
+
+  test("should discard plan variants when the plan they belong to is replaced") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, bucketer = parameterIsBucket, maxPlanVariants = 1, maxTotalPlanVariants = 1)
+    val foo = newKey("foo")
+    val bar = newKey("bar")
+    def lookup(key: Key, bucket: Int, replan: CypherReplanOption = CypherReplanOption.default): MyValue = {
+      val params = paramsInBucket(bucket)
+      cache.computeIfAbsentOrStale(key, TC, sensitiveCompiler(key, params), replan, params = params)
+    }
+    lookup(foo, 0)
+    lookup(foo, 1)
+
+    // When
+    lookup(foo, 0, CypherReplanOption.force)
+
+    // Then the variant of foo no longer counts against the limit of the cache
+    lookup(bar, 0)
+    lookup(bar, 1).key should equal("bar@1")
+    verify(tracer).queryCacheVariantMiss(bar, "")
+
+    // and the plan variant of foo is gone
+    lookup(foo, 1).key should equal("foo@0")
+    verify(tracer).queryCacheVariantLimitReached(foo, "")
+  }
+
+  test("should discard plan variants when the cache is cleared") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, bucketer = parameterIsBucket, maxPlanVariants = 1, maxTotalPlanVariants = 1)
+    val foo = newKey("foo")
+    def lookup(bucket: Int): MyValue = {
+      val params = paramsInBucket(bucket)
+      cache.computeIfAbsentOrStale(foo, TC, sensitiveCompiler(foo, params), CypherReplanOption.default, params = params)
+    }
+    lookup(0)
+    lookup(1)
+
+    // When
+    cache.clear()
+    lookup(0)
+
+    // Then
+    lookup(1).key should equal("foo@1")
+    verify(tracer, times(2)).queryCacheVariantMiss(foo, "")
+  }
+
+  test("should give back the place of a plan variant that is not cached") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, bucketer = parameterIsBucket, maxPlanVariants = 1, maxTotalPlanVariants = 1)
+    val foo = newKey("foo")
+    def lookup(bucket: Int, compiler: MapValue => CompilerWithExpressionCodeGenOption[MyValue]): MyValue = {
+      val params = paramsInBucket(bucket)
+      cache.computeIfAbsentOrStale(foo, TC, compiler(params), CypherReplanOption.default, params = params)
+    }
+    lookup(0, sensitiveCompiler(foo, _))
+
+    // When
+    lookup(1, params => notCachedCompiler(sensitiveCompiler(foo, params)))
+
+    // Then
+    lookup(2, sensitiveCompiler(foo, _)).key should equal("foo@2")
+    verify(tracer, never()).queryCacheVariantLimitReached(foo, "")
+  }
+
+  test("should give back the place of a plan variant that failed to compile") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, bucketer = parameterIsBucket, maxPlanVariants = 1, maxTotalPlanVariants = 1)
+    val foo = newKey("foo")
+    def lookup(bucket: Int, compiler: MapValue => CompilerWithExpressionCodeGenOption[MyValue]): MyValue = {
+      val params = paramsInBucket(bucket)
+      cache.computeIfAbsentOrStale(foo, TC, compiler(params), CypherReplanOption.default, params = params)
+    }
+    lookup(0, sensitiveCompiler(foo, _))
+
+    // When
+    an[IllegalStateException] should be thrownBy lookup(1, _ => failingCompiler)
+
+    // Then
+    lookup(1, sensitiveCompiler(foo, _)).key should equal("foo@1")
+    verify(tracer, never()).queryCacheVariantLimitReached(foo, "")
+  }
+
+  test("should not compile plan variants when disabled") {
+    // Given
+    val tracer = newTracer()
+    val cache = newCache(tracer, bucketer = parameterIsBucket)
+    val key = newKey("foo")
+    val params0 = paramsInBucket(0)
+    val params1 = paramsInBucket(1)
+    cache.computeIfAbsentOrStale(key, TC, sensitiveCompiler(key, params0), CypherReplanOption.default, params = params0)
+
+    // When
+    val valueFromCache = cache.computeIfAbsentOrStale(key, TC, sensitiveCompiler(key, params1), CypherReplanOption.default, params = params1)
+
+    // Then
+    valueFromCache.key should equal("foo@0")
+    val o = Mockito.inOrder(tracer)
+    o.verify(tracer).queryCacheMiss(key, "")
+    o.verify(tracer).queryCompile(key, "")
+    o.verify(tracer).queryCacheHit(key, "")
+    verifyNoMoreInteractions(tracer)
+  }
+
   test("parameterTypeMap should equal if same parameters") {
     val params1 = VirtualValues.map(Array("a", "b", "c"), Array(Values.of(3), Values.of("hi"), VirtualValues.list(Values.of(false), Values.of(true))))
     val params2 = VirtualValues.map(Array("a", "b", "c"), Array(Values.of(3), Values.of("hi"), VirtualValues.list(Values.of(false), Values.of(true))))
@@ -365,7 +574,8 @@ class QueryCacheTest extends CypherFunSuite {
 }
 
 object QueryCacheTest extends MockitoSugar {
-  case class MyValue(key: String)(val compiledWithExpressionCodeGen: Boolean) extends CacheabilityInfo {
+  case class MyValue(key: String)(val compiledWithExpressionCodeGen: Boolean,
+                                  override val selectivitySensitivePredicates: Seq[SelectivitySensitivePredicate] = Seq.empty) extends CacheabilityInfo {
     override def shouldBeCached: Boolean = true
 
     override def notifications: IndexedSeq[InternalNotification] = IndexedSeq.empty
@@ -390,10 +600,67 @@ object QueryCacheTest extends MockitoSugar {
 
   def newKey(string: String): Key = CacheKey(string, ParameterTypeMap.empty, txStateHasChanges = false)
 
-  def newCache(tracer: Tracer = newTracer(), stalenessCaller: PlanStalenessCaller[MyValue] = neverStale(), size: Int = 10): QueryCache[CacheKey[String], MyValue] = {
-    new QueryCache[CacheKey[String], MyValue](cacheFactory, size, stalenessCaller, tracer)
+  def newCache(tracer: Tracer = newTracer(),
+               stalenessCaller: PlanStalenessCaller[MyValue] = neverStale(),
+               size: Int = 10,
+               bucketer: ParameterSelectivityBucketer = ParameterSelectivityBucketer.NONE,
+               maxPlanVariants: Int = 0,
+               maxTotalPlanVariants: Int = Int.MaxValue): QueryCache[CacheKey[String], MyValue] = {
+    new QueryCache[CacheKey[String], MyValue](cacheFactory, size, stalenessCaller, tracer, bucketer, maxPlanVariants, maxTotalPlanVariants)
+  }
+
+  private val sensitivePredicate = SelectivitySensitiveEquality("x", IndexDescriptor.forLabel(IndexType.Btree, LabelId(0), Seq(PropertyKeyId(0))))
+
+  /**
+   * Compiles a plan that is sensitive to the selectivity of parameter `x`, named after the bucket it was compiled for.
+   */
+  def sensitiveCompiler(key: Key, params: MapValue): CompilerWithExpressionCodeGenOption[MyValue] = new CompilerWithExpressionCodeGenOption[MyValue] {
+    override def compile(): MyValue =
+      MyValue(s"${key.queryRep}@${bucketOf(params)}")(compiledWithExpressionCodeGen = false, Seq(sensitivePredicate))
+
+    override def compileWithExpressionCodeGen(): MyValue = compile()
+
+    override def maybeCompileWithExpressionCodeGen(hitCount: Int): Option[MyValue] = None
   }
 
+  /**
+   * Compiles the same plans as the given compiler, which must not be cached.
+   */
+  def notCachedCompiler(compiler: CompilerWithExpressionCodeGenOption[MyValue]): CompilerWithExpressionCodeGenOption[MyValue] =
+    new CompilerWithExpressionCodeGenOption[MyValue] {
+      override def compile(): MyValue = {
+        val value = compiler.compile()
+        new MyValue(value.key)(value.compiledWithExpressionCodeGen, value.selectivitySensitivePredicates) {
+          override def shouldBeCached: Boolean = false
+        }
+      }
+
+      override def compileWithExpressionCodeGen(): MyValue = compile()
+
+      override def maybeCompileWithExpressionCodeGen(hitCount: Int): Option[MyValue] = None
+    }
+
+  val failingCompiler: CompilerWithExpressionCodeGenOption[MyValue] = new CompilerWithExpressionCodeGenOption[MyValue] {
+    override def compile(): MyValue = throw new IllegalStateException("Failed to compile")
+
+    override def compileWithExpressionCodeGen(): MyValue = compile()
+
+    override def maybeCompileWithExpressionCodeGen(hitCount: Int): Option[MyValue] = None
+  }
+
+  /**
+   * The value of parameter `x` is its selectivity bucket.
+   */
+  val parameterIsBucket: ParameterSelectivityBucketer = new ParameterSelectivityBucketer {
+    override def buckets(transactionalContext: TransactionalContext,
+                         params: MapValue,
+                         predicates: Seq[SelectivitySensitivePredicate]): Seq[Int] = predicates.map(_ => bucketOf(params))
+  }
+
+  def paramsInBucket(bucket: Int): MapValue = VirtualValues.map(Array("x"), Array(Values.intValue(bucket)))
+
+  private def bucketOf(params: MapValue): Int = params.get("x").asInstanceOf[IntegralValue].longValue().toInt
+
   def newTracer(): Tracer = mock[Tracer]
 
   private def neverStale(): PlanStalenessCaller[MyValue] = (_, _) => NotStale
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.cache
+
+import org.neo4j.cypher.PlanCacheMetricsMonitor
+import org.neo4j.cypher.internal.runtime.READ_ONLY
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.QueryStatistics
+import org.neo4j.kernel.impl.query.QueryExecution
+import org.neo4j.kernel.impl.query.QuerySubscriber
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.doubleValue
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.longValue
+import org.neo4j.values.storable.Values.stringValue
+import org.neo4j.values.storable.Values.utf8Value
+import org.neo4j.values.virtual.VirtualValues
+
+import java.util.Collections
+
+class QueryResultCacheTest extends CypherFunSuite {
+
+  private val cacheKey = ResultCacheKey("MATCH (n:A) RETURN n.prop", VirtualValues.EMPTY_MAP, "alice", Collections.singleton("reader"))
+  private val dependencies = ResultCacheDependencies(labels = Set("A"), propertyKeys = Set("prop"))
+
+  test("should cache a fully consumed result") {
+    val cache = new QueryResultCache(TestExecutorCaffeineCacheFactory, 1024 * 1024, new QueryResultCacheMonitor {})
+
+    recordResult(cache, intValue(1), intValue(2))
+
+    cache.get(cacheKey).map(_.rows.map(_.toSeq)) should equal(Some(IndexedSeq(Seq(intValue(1)), Seq(intValue(2)))))
+  }
+
+  test("should not cache a result that was not fully consumed") {
+    val cache = new QueryResultCache(TestExecutorCaffeineCacheFactory, 1024 * 1024, new QueryResultCacheMonitor {})
+    val recorder = cache.record(cacheKey, QuerySubscriber.DO_NOTHING_SUBSCRIBER, createResult)
+
+    recorder.onResult(1)
+    recorder.onRecord()
+    recorder.onField(0, intValue(1))
+    recorder.onRecordCompleted()
+    recorder.onExecution(mock[QueryExecution])
+
+    cache.get(cacheKey) should be(None)
+  }
+
+  test("should not cache a result larger than a tenth of the cache") {
+    val cache = new QueryResultCache(TestExecutorCaffeineCacheFactory, 100, new QueryResultCacheMonitor {})
+
+    recordResult(cache, intValue(1), intValue(2))
+
+    cache.get(cacheKey) should be(None)
+  }
+
+  test("should only invalidate results that depend on the committed changes") {
+    val cache = new QueryResultCache(TestExecutorCaffeineCacheFactory, 1024 * 1024, new QueryResultCacheMonitor {})
+    recordResult(cache, intValue(1))
+
+    cache.invalidate(CommittedChanges(Set("B"), Set("R"), Set("other"), nodesCreatedOrDeleted = true, relationshipsCreatedOrDeleted = true))
+    cache.get(cacheKey) should not be None
+
+    cache.invalidate(CommittedChanges(Set.empty, Set.empty, Set("prop"), nodesCreatedOrDeleted = false, relationshipsCreatedOrDeleted = false))
+    cache.get(cacheKey) should be(None)
+  }
+
+  test("should not cache a result when an invalidation happened while it was recorded") {
+    val cache = new QueryResultCache(TestExecutorCaffeineCacheFactory, 1024 * 1024, new QueryResultCacheMonitor {})
+    val recorder = cache.record(cacheKey, QuerySubscriber.DO_NOTHING_SUBSCRIBER, createResult)
+
+    cache.invalidate(CommittedChanges(Set("B"), Set.empty, Set.empty, nodesCreatedOrDeleted = false, relationshipsCreatedOrDeleted = false))
+    recorder.onResult(1)
+    recorder.onResultCompleted(QueryStatistics.EMPTY)
+    recorder.onExecution(mock[QueryExecution])
+
+    cache.get(cacheKey) should be(None)
+  }
+
+  test("should only cache values that do not change along with the graph") {
+    RecordingQuerySubscriber.isCacheable(VirtualValues.list(intValue(1), intValue(2))) should be(true)
+    RecordingQuerySubscriber.isCacheable(VirtualValues.node(1)) should be(false)
+    RecordingQuerySubscriber.isCacheable(VirtualValues.list(VirtualValues.node(1))) should be(false)
+  }
+
+  test("should not share results between parameters that are equal but of different types") {
+    def keyFor(value: AnyValue) = cacheKey.copy(parameters = VirtualValues.map(Array("x"), Array(value)))
+
+    keyFor(longValue(1)) should equal(keyFor(longValue(1)))
+    keyFor(stringValue("a")) should equal(keyFor(utf8Value("a")))
+    keyFor(longValue(1)) should not equal keyFor(doubleValue(1.0))
+    keyFor(VirtualValues.list(longValue(1))) should not equal keyFor(VirtualValues.list(doubleValue(1.0)))
+    keyFor(VirtualValues.map(Array("y"), Array(longValue(1)))) should not equal keyFor(VirtualValues.map(Array("y"), Array(doubleValue(1.0))))
+  }
+
+  test("should tell the monitor about hits, misses, stores and invalidations") {
+    val monitor = new PlanCacheMetricsMonitor
+    val cache = new QueryResultCache(TestExecutorCaffeineCacheFactory, 1024 * 1024, monitor)
+
+    cache.get(cacheKey)
+    recordResult(cache, intValue(1))
+    cache.get(cacheKey)
+    cache.invalidate(CommittedChanges(Set("A"), Set.empty, Set.empty, nodesCreatedOrDeleted = false, relationshipsCreatedOrDeleted = false))
+
+    monitor.numberOfResultCacheMisses should be(1)
+    monitor.numberOfResultCacheHits should be(1)
+    monitor.numberOfInvalidatedResults should be(1)
+  }
+
+  private def recordResult(cache: QueryResultCache, values: AnyValue*): Unit = {
+    val recorder = cache.record(cacheKey, QuerySubscriber.DO_NOTHING_SUBSCRIBER, createResult)
+    recorder.onResult(1)
+    values.foreach { value =>
+      recorder.onRecord()
+      recorder.onField(0, value)
+      recorder.onRecordCompleted()
+    }
+    recorder.onResultCompleted(QueryStatistics.EMPTY)
+    recorder.onExecution(mock[QueryExecution])
+  }
+
+  private def createResult(rows: IndexedSeq[Array[AnyValue]], execution: QueryExecution, estimatedHeapUsage: Long): CachedQueryResult =
+    CachedQueryResult(Array("n.prop"), rows, dependencies, READ_ONLY, Seq.empty, null, null, null, estimatedHeapUsage)
+}
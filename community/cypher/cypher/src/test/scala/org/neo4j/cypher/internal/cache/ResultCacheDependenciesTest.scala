@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.cache
+
+import org.neo4j.cypher.internal.compiler.planner.LogicalPlanningTestSupport
+import org.neo4j.cypher.internal.expressions.SemanticDirection.OUTGOING
+import org.neo4j.cypher.internal.ir.HasHeaders
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.Argument
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.IndexOrderNone
+import org.neo4j.cypher.internal.logical.plans.LoadCSV
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.RelationshipCountFromCountStore
+import org.neo4j.cypher.internal.runtime.interpreted.CSVResources
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+
+class ResultCacheDependenciesTest extends CypherFunSuite with LogicalPlanningTestSupport {
+
+  test("should depend on the labels, relationship types and property keys the plan reads") {
+    val plan = Projection(
+      Expand(NodeByLabelScan("a", labelName("A"), Set.empty, IndexOrderNone), "a", OUTGOING, Seq(relTypeName("R")), "b", "r"),
+      Map("p" -> prop("b", "prop")))
+
+    ResultCacheDependencies.of(plan) should equal(Some(ResultCacheDependencies(
+      labels = Set("A"), relationshipTypes = Set("R"), propertyKeys = Set("prop"))))
+  }
+
+  test("should depend on any node for an all nodes scan") {
+    ResultCacheDependencies.of(AllNodesScan("n", Set.empty)) should equal(Some(ResultCacheDependencies(anyNode = true)))
+  }
+
+  test("should depend on any relationship for an expand without types") {
+    val plan = Expand(NodeByLabelScan("a", labelName("A"), Set.empty, IndexOrderNone), "a", OUTGOING, Seq.empty, "b", "r")
+
+    ResultCacheDependencies.of(plan) should equal(Some(ResultCacheDependencies(labels = Set("A"), anyRelationship = true)))
+  }
+
+  test("should depend on the relationship type of a count store lookup") {
+    val plan = RelationshipCountFromCountStore("c", None, Seq(relTypeName("R")), None, Set.empty)
+
+    ResultCacheDependencies.of(plan) should equal(Some(ResultCacheDependencies(relationshipTypes = Set("R"))))
+  }
+
+  test("should depend on any label or property key when reading all of them") {
+    val plan = Projection(AllNodesScan("n", Set.empty), Map(
+      "l" -> function("labels", varFor("n")),
+      "k" -> function("keys", varFor("n"))))
+
+    ResultCacheDependencies.of(plan) should equal(Some(ResultCacheDependencies(anyNode = true, anyLabel = true, anyPropertyKey = true)))
+  }
+
+  test("should not cache results of non-deterministic functions") {
+    val plan = Projection(Argument(), Map("r" -> function("rand")))
+
+    ResultCacheDependencies.of(plan) should be(None)
+  }
+
+  test("should not cache results that read files") {
+    val plan = LoadCSV(Argument(), literalString("file:///tmp/foo.csv"), "line", HasHeaders, None,
+      legacyCsvQuoteEscaping = false, CSVResources.DEFAULT_BUFFER_SIZE)
+
+    ResultCacheDependencies.of(plan) should be(None)
+  }
+
+  test("should only be invalidated by changes to its dependencies") {
+    val dependencies = ResultCacheDependencies(labels = Set("A"), relationshipTypes = Set("R"), propertyKeys = Set("prop"))
+    def changes(labels: Set[String] = Set.empty, types: Set[String] = Set.empty, keys: Set[String] = Set.empty, nodes: Boolean = false) =
+      CommittedChanges(labels, types, keys, nodesCreatedOrDeleted = nodes, relationshipsCreatedOrDeleted = types.nonEmpty)
+
+    dependencies.isInvalidatedBy(changes(labels = Set("B"), types = Set("T"), keys = Set("other"), nodes = true)) should be(false)
+    dependencies.isInvalidatedBy(changes(labels = Set("A"))) should be(true)
+    dependencies.isInvalidatedBy(changes(types = Set("R"))) should be(true)
+    dependencies.isInvalidatedBy(changes(keys = Set("prop"))) should be(true)
+    ResultCacheDependencies(anyNode = true).isInvalidatedBy(changes(nodes = true)) should be(true)
+  }
+}
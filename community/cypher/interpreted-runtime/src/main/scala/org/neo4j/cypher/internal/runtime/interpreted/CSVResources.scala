@@ -27,14 +27,17 @@ import java.net.CookiePolicy
 import java.net.URL
 import java.nio.charset.StandardCharsets
 import java.nio.file.Paths
+import java.util.concurrent.Executor
 import java.util.zip.GZIPInputStream
 import java.util.zip.InflaterInputStream
 
 import org.neo4j.csv.reader.BufferOverflowException
 import org.neo4j.csv.reader.CharReadable
+import org.neo4j.csv.reader.CharSeeker
 import org.neo4j.csv.reader.CharSeekers
 import org.neo4j.csv.reader.Configuration
 import org.neo4j.csv.reader.Extractors
+import org.neo4j.csv.reader.Extractors.TextValueExtractor
 import org.neo4j.csv.reader.Mark
 import org.neo4j.csv.reader.Readables
 import org.neo4j.cypher.internal.runtime.ResourceManager
@@ -44,6 +47,8 @@ import org.neo4j.exceptions.CypherExecutionException
 import org.neo4j.exceptions.LoadExternalResourceException
 import org.neo4j.internal.kernel.api.AutoCloseablePlus
 import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.memory.EmptyMemoryTracker
+import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.storable.Value
 import org.neo4j.values.storable.Values
 import sun.net.www.protocol.http.HttpURLConnection
@@ -64,6 +69,30 @@ object CSVResources {
     .withEmptyQuotedStringsAsNull(true)
     .withLegacyStyleQuoting(legacyCsvQuoteEscaping)
     .build()
+
+  /**
+   * Reads the fields of the next line of the seeker, or returns null when there are no more lines.
+   */
+  private[interpreted] def readRow(seeker: CharSeeker, mark: Mark, extractor: TextValueExtractor, delimiter: Int): Array[Value] = {
+    val buffer = new ArrayBuffer[Value]
+
+    try {
+      while (seeker.seek(mark, delimiter)) {
+        val success = seeker.tryExtract(mark, extractor)
+        buffer += (if (success) extractor.value() else Values.NO_VALUE)
+        if (mark.isEndOfLine) return if (buffer.isEmpty) null else buffer.toArray
+      }
+    } catch {
+      //TODO change to error message mentioning `dbms.import.csv.buffer_size` in 4.0
+      case e: BufferOverflowException => throw new CypherExecutionException(e.getMessage, e)
+    }
+
+    if (buffer.isEmpty) {
+      null
+    } else {
+      buffer.toArray
+    }
+  }
 }
 
 case class CSVResource(url: URL, resource: AutoCloseable) extends DefaultCloseListenable with AutoCloseablePlus {
@@ -75,17 +104,32 @@ case class CSVResource(url: URL, resource: AutoCloseable) extends DefaultCloseLi
   override def isClosed = false
 }
 
-class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource {
+/**
+ * @param memoryTracker the transaction memory tracker, which the read-ahead buffers of parallel parsing are allocated in
+ */
+class CSVResources(resourceManager: ResourceManager, memoryTracker: MemoryTracker = EmptyMemoryTracker.INSTANCE) extends ExternalCSVResource {
 
   def getCsvIterator(url: URL,
                      fieldTerminator: Option[String],
                      legacyCsvQuoteEscaping: Boolean,
                      bufferSize: Int,
-                     headers: Boolean = false): LoadCsvIterator = {
+                     headers: Boolean = false,
+                     parsingThreads: Int = 1,
+                     parsingExecutor: Option[Executor] = None): LoadCsvIterator = {
 
     val reader: CharReadable = getReader(url)
     val delimiter: Char = fieldTerminator.map(_.charAt(0)).getOrElse(CSVResources.DEFAULT_FIELD_TERMINATOR)
-    val seeker = CharSeekers.charSeeker(reader, CSVResources.config(legacyCsvQuoteEscaping, bufferSize), false)
+    val config = CSVResources.config(legacyCsvQuoteEscaping, bufferSize)
+    parsingExecutor match {
+      case Some(executor) if parsingThreads > 1 =>
+        getParallelCsvIterator(url, reader, config, delimiter, parsingThreads, executor)
+      case _ =>
+        getSequentialCsvIterator(url, reader, config, delimiter)
+    }
+  }
+
+  private def getSequentialCsvIterator(url: URL, reader: CharReadable, config: Configuration, delimiter: Char): LoadCsvIterator = {
+    val seeker = CharSeekers.charSeeker(reader, config, false)
     val extractor = new Extractors(delimiter).textValue()
     val intDelimiter = delimiter.toInt
     val mark = new Mark
@@ -99,26 +143,7 @@ class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource
 
       override protected[this] def closeMore(): Unit = resource.close()
 
-      private def readNextRow: Array[Value] = {
-        val buffer = new ArrayBuffer[Value]
-
-        try {
-          while (seeker.seek(mark, intDelimiter)) {
-            val success = seeker.tryExtract(mark, extractor)
-            buffer += (if (success) extractor.value() else Values.NO_VALUE)
-            if (mark.isEndOfLine) return if (buffer.isEmpty) null else buffer.toArray
-          }
-        } catch {
-          //TODO change to error message mentioning `dbms.import.csv.buffer_size` in 4.0
-          case e: BufferOverflowException => throw new CypherExecutionException(e.getMessage, e)
-        }
-
-        if (buffer.isEmpty) {
-          null
-        } else {
-          buffer.toArray
-        }
-      }
+      private def readNextRow: Array[Value] = CSVResources.readRow(seeker, mark, extractor, intDelimiter)
 
       var nextRow: Array[Value] = readNextRow
 
@@ -135,6 +160,37 @@ class CSVResources(resourceManager: ResourceManager) extends ExternalCSVResource
     }
   }
 
+  private def getParallelCsvIterator(url: URL, reader: CharReadable, config: Configuration, delimiter: Char, parsingThreads: Int,
+                                     executor: Executor): LoadCsvIterator = {
+    val parser = try {
+      new ParallelCSVParser(reader, config, delimiter, parsingThreads, executor, memoryTracker)
+    } catch {
+      case e: Throwable =>
+        reader.close()
+        throw e
+    }
+
+    val resource = CSVResource(url, parser)
+    resourceManager.trace(resource)
+
+    new LoadCsvIterator {
+      var lastProcessed = 0L
+      var readAll = false
+
+      override protected[this] def closeMore(): Unit = resource.close()
+
+      override def innerHasNext: Boolean = parser.hasNext
+
+      override def next(): Array[Value] = {
+        if (!hasNext) Iterator.empty.next()
+        val row = parser.next()
+        lastProcessed += 1
+        readAll = !hasNext
+        row
+      }
+    }
+  }
+
   private def getReader(url: URL) = try {
     val reader = if (url.getProtocol == "file") {
       Readables.files(StandardCharsets.UTF_8, Paths.get(url.toURI))
@@ -45,7 +45,7 @@ abstract class BaseExecutionResultBuilderFactory(pipe: Pipe,
                                                  startsTransactions: Boolean) extends ExecutionResultBuilderFactory {
 
   abstract class BaseExecutionResultBuilder() extends ExecutionResultBuilder {
-    protected var externalResource: ExternalCSVResource = new CSVResources(queryContext.resources)
+    protected var externalResource: ExternalCSVResource = new CSVResources(queryContext.resources, queryContext.transactionalContext.memoryTracker)
     protected var pipeDecorator: PipeDecorator = if (hasLoadCSV) new LinenumberPipeDecorator() else NullPipeDecorator
 
     protected def createQueryState(params: MapValue,
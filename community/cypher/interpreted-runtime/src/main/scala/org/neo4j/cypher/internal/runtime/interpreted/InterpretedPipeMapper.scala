@@ -77,6 +77,7 @@ import org.neo4j.cypher.internal.logical.plans.Foreach
 import org.neo4j.cypher.internal.logical.plans.ForeachApply
 import org.neo4j.cypher.internal.logical.plans.InjectCompilationError
 import org.neo4j.cypher.internal.logical.plans.Input
+import org.neo4j.cypher.internal.logical.plans.IntersectionExpand
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.LetAntiSemiApply
 import org.neo4j.cypher.internal.logical.plans.LetSelectOrAntiSemiApply
@@ -153,6 +154,7 @@ import org.neo4j.cypher.internal.logical.plans.UndirectedRelationshipTypeScan
 import org.neo4j.cypher.internal.logical.plans.Union
 import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
+import org.neo4j.cypher.internal.logical.plans.ValueMergeJoin
 import org.neo4j.cypher.internal.logical.plans.VarExpand
 import org.neo4j.cypher.internal.logical.plans.VariablePredicate
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
@@ -174,6 +176,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Remove
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ShortestPathExpression
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.SideEffect
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.pushDownPropertyComparisons
 import org.neo4j.cypher.internal.runtime.interpreted.commands.showcommands.ShowConstraintsCommand
 import org.neo4j.cypher.internal.runtime.interpreted.commands.showcommands.ShowFunctionsCommand
 import org.neo4j.cypher.internal.runtime.interpreted.commands.showcommands.ShowIndexesCommand
@@ -214,6 +217,7 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.ForeachApplyPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ForeachPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.IndexSeekModeFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.InputPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.IntersectionExpandPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyPropertyKey
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyType
@@ -290,12 +294,14 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.UndirectedRelationshi
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.UnionPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.UnwindPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.ValueHashJoinPipe
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ValueMergeJoinPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.VarLengthExpandPipe
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.VarLengthPredicate
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.GroupingAggTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.NonGroupingAggTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.OrderedGroupingAggTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.OrderedNonGroupingAggTable
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
 import org.neo4j.cypher.internal.util.Eagerly
 import org.neo4j.cypher.internal.util.attribution.Id
@@ -304,6 +310,8 @@ import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.VirtualNodeValue
 import org.neo4j.values.virtual.VirtualRelationshipValue
 
+import java.util.concurrent.Executor
+
 /**
  * Responsible for turning a logical plan with argument pipes into a new pipe.
  * When adding new Pipes and LogicalPlans, this is where you should be looking.
@@ -312,7 +320,9 @@ case class InterpretedPipeMapper(readOnly: Boolean,
                                  expressionConverters: ExpressionConverters,
                                  tokenContext: ReadTokenContext,
                                  indexRegistrator: QueryIndexRegistrator,
-                                 anonymousVariableNameGenerator: AnonymousVariableNameGenerator)
+                                 anonymousVariableNameGenerator: AnonymousVariableNameGenerator,
+                                 spilling: Spilling = Spilling.DISABLED,
+                                 csvParsingExecutor: Option[Executor] = None)
                                 (implicit semanticTable: SemanticTable) extends PipeMapper {
 
   private def getBuildExpression(id: Id): internal.expressions.Expression => Expression =
@@ -548,7 +558,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case Selection(predicate, _) =>
         val predicateExpression =
           if (predicate.exprs.size == 1) buildExpression(predicate.exprs.head) else buildExpression(predicate)
-        FilterPipe(source, predicateExpression)(id = id)
+        FilterPipe(source, pushDownPropertyComparisons(predicateExpression))(id = id)
 
       case CacheProperties(_, properties) =>
         val runtimeProperties = properties.toArray.map(buildExpression(_))
@@ -560,6 +570,10 @@ case class InterpretedPipeMapper(readOnly: Boolean,
       case Expand(_, fromName, dir, types: Seq[RelTypeName], toName, relName, ExpandInto) =>
         ExpandIntoPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray))(id = id)
 
+      case IntersectionExpand(_, arms, toName) =>
+        val pipeArms = arms.map(arm => IntersectionExpandPipe.Arm(arm.from, arm.relName, arm.dir, RelationshipTypes(arm.types.toArray))).toIndexedSeq
+        IntersectionExpandPipe(source, pipeArms, toName)(id = id)
+
       case OptionalExpand(_, fromName, dir, types, toName, relName, ExpandAll, predicate) =>
         OptionalExpandAllPipe(source, fromName, relName, toName, dir, RelationshipTypes(types.toArray), predicate.map(buildExpression))(id = id)
 
@@ -603,7 +617,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         PruningVarLengthExpandPipe(source, from, toName, RelationshipTypes(types.toArray), dir, minLength, maxLength, predicate)(id = id)
 
       case Sort(_, sortItems) =>
-        SortPipe(source, InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder)))(id = id)
+        SortPipe(source, InterpretedExecutionContextOrdering.asComparator(sortItems.map(translateColumnOrder)), spilling)(id = id)
 
       case PartialSort(_, alreadySortedPrefix, stillToSortSuffix, skipSortingPrefixLength) =>
         PartialSortPipe(source,
@@ -650,13 +664,13 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         val projection = groupingExpressions.map {
           case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
         }.toArray
-        DistinctPipe(source, projection)(id = id)
+        DistinctPipe(source, projection, spilling)(id = id)
 
       case Distinct(_, groupingExpressions) =>
         val projection = groupingExpressions.map {
           case (key, value) => DistinctPipe.GroupingCol(key, buildExpression(value))
         }.toArray
-        DistinctPipe(source, projection)(id = id)
+        DistinctPipe(source, projection, spilling)(id = id)
 
       case OrderedDistinct(_, groupingExpressions, orderToLeverage) =>
         val projection = groupingExpressions.map {
@@ -689,7 +703,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
             val groupingFunction: (CypherRow, QueryState) => AnyValue = AggregationPipe.computeGroupingFunction(groupingColumns)
             GroupingAggTable.Factory(groupingColumns, groupingFunction, aggregationColumns)
           }
-        EagerAggregationPipe(source, tableFactory)(id = id)
+        EagerAggregationPipe(source, tableFactory, spilling)(id = id)
 
       case OrderedAggregation(_, groupingExpressions, aggregatingExpressions, orderToLeverage) =>
         val aggregationColumns = aggregatingExpressions.map {
@@ -742,8 +756,9 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         val rowProcessing = ProcedureCallRowProcessing(signature)
         ProcedureCallPipe(source, signature, callMode, callArgumentCommands, rowProcessing, call.callResultTypes, call.callResultIndices)(id = id)
 
-      case LoadCSV(_, url, variableName, format, fieldTerminator, legacyCsvQuoteEscaping, bufferSize) =>
-        LoadCSVPipe(source, format, buildExpression(url), variableName, fieldTerminator, legacyCsvQuoteEscaping, bufferSize)(id = id)
+      case LoadCSV(_, url, variableName, format, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, parsingThreads) =>
+        LoadCSVPipe(source, format, buildExpression(url), variableName, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, parsingThreads,
+          csvParsingExecutor)(id = id)
 
       case ProduceResult(_, columns) =>
         ProduceResultsPipe(source, columns.toArray)(id = id)
@@ -916,7 +931,7 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         CartesianProductPipe(lhs, rhs)(id = id)
 
       case NodeHashJoin(nodes, _, _) =>
-        NodeHashJoinPipe(nodes, lhs, rhs)(id = id)
+        NodeHashJoinPipe(nodes, lhs, rhs, spilling)(id = id)
 
       case LeftOuterHashJoin(nodes, l, r) =>
         val nullableVariables = r.availableSymbols -- l.availableSymbols
@@ -971,7 +986,10 @@ case class InterpretedPipeMapper(readOnly: Boolean,
         TriadicSelectionPipe(positivePredicate, lhs, sourceId, seenId, targetId, rhs)(id = id)
 
       case ValueHashJoin(_, _, internal.expressions.Equals(lhsExpression, rhsExpression)) =>
-        ValueHashJoinPipe(buildExpression(lhsExpression), buildExpression(rhsExpression), lhs, rhs)(id = id)
+        ValueHashJoinPipe(buildExpression(lhsExpression), buildExpression(rhsExpression), lhs, rhs, spilling)(id = id)
+
+      case ValueMergeJoin(_, _, internal.expressions.Equals(lhsExpression, rhsExpression)) =>
+        ValueMergeJoinPipe(buildExpression(lhsExpression), buildExpression(rhsExpression), lhs, rhs)(id = id)
 
       case ForeachApply(_, _, variable, expression) =>
         ForeachApplyPipe(lhs, rhs, variable, buildExpression(expression))(id = id)
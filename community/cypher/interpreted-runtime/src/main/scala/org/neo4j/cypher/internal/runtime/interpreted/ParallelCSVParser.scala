@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+
+import org.neo4j.csv.reader.BufferedCharSeeker
+import org.neo4j.csv.reader.CharReadable
+import org.neo4j.csv.reader.ClosestNewLineChunker
+import org.neo4j.csv.reader.Configuration
+import org.neo4j.csv.reader.Extractors
+import org.neo4j.csv.reader.HeaderSkipper
+import org.neo4j.csv.reader.Mark
+import org.neo4j.csv.reader.Source
+import org.neo4j.csv.reader.Source.Chunk
+import org.neo4j.memory.HeapEstimator
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.storable.Value
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Parses a CSV on several threads while producing its lines in order.
+ *
+ * The CSV is cut into chunks that end at a line break. Each parsing task takes the next chunk and turns all of its
+ * lines into rows, so reading and parsing overlaps with the consumer processing the rows of earlier chunks. Every chunk
+ * gets a sequence number when it is read, and the consumer takes the parsed chunks in sequence order.
+ *
+ * The parsing runs on the given executor, which is shared with other queries, using at most `threads` tasks at a time.
+ * At most `2 * threads` chunks are read ahead of the consumer. Since chunks are cut at line breaks, quoted fields
+ * must not contain line breaks.
+ *
+ * The buffers of all chunks that can be read ahead are allocated in `memoryTracker` up front, and released on [[close]].
+ */
+class ParallelCSVParser(reader: CharReadable, config: Configuration, delimiter: Char, threads: Int, executor: Executor,
+                        memoryTracker: MemoryTracker)
+  extends Iterator[Array[Value]] with AutoCloseable {
+
+  private val bufferHeapUsage = ParallelCSVParser.bufferHeapUsage(config.bufferSize(), threads)
+  memoryTracker.allocateHeap(bufferHeapUsage)
+
+  private val parseConfig = config.toBuilder.withMultilineFields(false).build()
+  private val chunker = new ClosestNewLineChunker(reader, config.bufferSize(), HeaderSkipper.NO_SKIP)
+  private val window = 2 * threads
+  private val chunks = new ConcurrentLinkedQueue[Chunk]()
+  // Parsed chunk with sequence number s is completed in slot s % window. A null batch marks the end of the CSV.
+  private val slots = new Array[CompletableFuture[Array[Array[Value]]]](window)
+  private val chunkLock = new Object
+
+  // Guarded by chunkLock
+  private var nextSequence = 0L
+  private var requested = 0L
+  private var activeTasks = 0
+  // Only touched by the consumer
+  private var submitted = 0L
+  private var consumed = 0L
+  private var batch: Array[Array[Value]] = Array.empty
+  private var batchPosition = 0
+  private var exhausted = false
+  @volatile private var closed = false
+
+  while (submitted < window) {
+    submit()
+  }
+
+  override def hasNext: Boolean = {
+    while (batchPosition >= batch.length && !exhausted && !closed) {
+      val next = awaitNextBatch()
+      if (next == null) {
+        exhausted = true
+      } else {
+        batch = next
+        batchPosition = 0
+        submit()
+      }
+    }
+    batchPosition < batch.length
+  }
+
+  override def next(): Array[Value] = {
+    if (!hasNext) Iterator.empty.next()
+    val row = batch(batchPosition)
+    batch(batchPosition) = null
+    batchPosition += 1
+    row
+  }
+
+  /**
+   * Stops reading chunks and cancels the chunks that are not parsed yet. Does not wait for running tasks, they finish
+   * the chunk they are parsing and then return to the executor.
+   */
+  override def close(): Unit = {
+    chunkLock.synchronized {
+      if (!closed) {
+        closed = true
+        chunker.close()
+        memoryTracker.releaseHeap(bufferHeapUsage)
+      }
+    }
+    slots.foreach(slot => if (slot != null) slot.cancel(false))
+  }
+
+  private def submit(): Unit = {
+    slots((submitted % window).toInt) = new CompletableFuture[Array[Array[Value]]]()
+    submitted += 1
+    val startTask = chunkLock.synchronized {
+      requested += 1
+      val start = !closed && activeTasks < threads
+      if (start) activeTasks += 1
+      start
+    }
+    if (startTask) {
+      try {
+        executor.execute(() => parseChunks())
+      } catch {
+        case e: RejectedExecutionException =>
+          chunkLock.synchronized(activeTasks -= 1)
+          slots.foreach(slot => if (slot != null) slot.completeExceptionally(e))
+      }
+    }
+  }
+
+  private def awaitNextBatch(): Array[Array[Value]] = {
+    val slot = slots((consumed % window).toInt)
+    consumed += 1
+    try {
+      slot.get()
+    } catch {
+      case e: ExecutionException => throw e.getCause
+      case _: CancellationException if closed => null
+    }
+  }
+
+  // Runs on the executor. A task keeps parsing chunks while there are requested chunks that no other task has taken,
+  // so every requested chunk gets read and its slot completed unless the parser is closed.
+  private def parseChunks(): Unit = {
+    while (takeRequest()) {
+      parseNextChunk()
+    }
+  }
+
+  private def takeRequest(): Boolean = chunkLock.synchronized {
+    if (requested > 0 && !closed) {
+      requested -= 1
+      true
+    } else {
+      activeTasks -= 1
+      false
+    }
+  }
+
+  private def parseNextChunk(): Unit = {
+    val chunk = Option(chunks.poll()).getOrElse(chunker.newChunk())
+    var slot: CompletableFuture[Array[Array[Value]]] = null
+    try {
+      var hasData = false
+      chunkLock.synchronized {
+        slot = slots((nextSequence % window).toInt)
+        nextSequence += 1
+        hasData = !closed && chunker.nextChunk(chunk)
+      }
+      slot.complete(if (hasData) parse(chunk) else null)
+    } catch {
+      case t: Throwable => if (slot != null) slot.completeExceptionally(t)
+    } finally {
+      chunks.offer(chunk)
+    }
+  }
+
+  private def parse(chunk: Chunk): Array[Array[Value]] = {
+    val seeker = new BufferedCharSeeker(Source.singleChunk(chunk), parseConfig)
+    val extractor = new Extractors(delimiter).textValue()
+    val mark = new Mark
+    val rows = new ArrayBuffer[Array[Value]]
+    var row = CSVResources.readRow(seeker, mark, extractor, delimiter.toInt)
+    while (row != null) {
+      rows += row
+      row = CSVResources.readRow(seeker, mark, extractor, delimiter.toInt)
+    }
+    rows.toArray
+  }
+}
+
+object ParallelCSVParser {
+
+  /**
+   * The heap used by the chunk buffers that a parser with `threads` parsing threads reads ahead, and by the back buffer of
+   * its chunker.
+   */
+  def bufferHeapUsage(bufferSize: Int, threads: Int): Long =
+    2 * threads * charArraySize(bufferSize) + charArraySize(bufferSize >> 4)
+
+  private def charArraySize(length: Int): Long =
+    HeapEstimator.alignObjectSize(HeapEstimator.ARRAY_HEADER_BYTES + Character.BYTES.toLong * length)
+}
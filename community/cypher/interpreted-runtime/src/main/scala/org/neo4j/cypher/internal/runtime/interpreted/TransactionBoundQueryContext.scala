@@ -63,8 +63,12 @@ import org.neo4j.dbms.database.DatabaseManager
 import org.neo4j.exceptions.EntityNotFoundException
 import org.neo4j.exceptions.FailedIndexException
 import org.neo4j.graphalgo.BasicEvaluationContext
+import org.neo4j.graphalgo.impl.path.BidirectionalShortestPath
+import org.neo4j.graphalgo.impl.path.BidirectionalShortestPath.FoundPath
+import org.neo4j.graphalgo.impl.path.BidirectionalShortestPath.RelationshipFilter
 import org.neo4j.graphalgo.impl.path.ShortestPath
 import org.neo4j.graphalgo.impl.path.ShortestPath.ShortestPathPredicate
+import org.neo4j.graphalgo.impl.util.PathImpl
 import org.neo4j.graphdb.Entity
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.graphdb.Node
@@ -124,6 +128,7 @@ import org.neo4j.kernel.impl.util.ValueUtils
 import org.neo4j.logging.LogProvider
 import org.neo4j.logging.internal.LogService
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.storageengine.api.RelationshipSelection
 import org.neo4j.storageengine.api.RelationshipVisitor
 import org.neo4j.values.AnyValue
 import org.neo4j.values.ValueMapper
@@ -142,6 +147,7 @@ import org.neo4j.values.virtual.VirtualValues
 
 import java.net.URL
 import java.util.NoSuchElementException
+import java.util.function.LongPredicate
 import scala.collection.Iterator
 import scala.collection.JavaConverters.asScalaBufferConverter
 import scala.collection.JavaConverters.asScalaIteratorConverter
@@ -1116,18 +1122,37 @@ private[internal] class TransactionBoundReadQueryContext(val transactionalContex
                                   pathPredicate: KernelPredicate[Path],
                                   filters: Seq[KernelPredicate[Entity]],
                                   memoryTracker: MemoryTracker): Option[Path] = {
-    val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
+    bidirectionalSearch(depth, expander, pathPredicate, memoryTracker) match {
+      case Some(search) =>
+        try {
+          Option(search.findSinglePath(left, right)).map(toPath)
+        } finally {
+          search.close()
+        }
+      case None =>
+        val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
 
-    //could probably do without node proxies here
-    Option(pathFinder.findSinglePath(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right)))
+        //could probably do without node proxies here
+        Option(pathFinder.findSinglePath(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right)))
+    }
   }
 
   override def allShortestPath(left: Long, right: Long, depth: Int, expander: Expander,
                                pathPredicate: KernelPredicate[Path],
                                filters: Seq[KernelPredicate[Entity]], memoryTracker: MemoryTracker): ClosingIterator[Path] = {
-    val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
+    bidirectionalSearch(depth, expander, pathPredicate, memoryTracker) match {
+      case Some(search) =>
+        val paths = try {
+          search.findAllPaths(left, right).asScala.map(toPath)
+        } finally {
+          search.close()
+        }
+        ClosingIterator(paths.iterator)
+      case None =>
+        val pathFinder = buildPathFinder(depth, expander, pathPredicate, filters, memoryTracker)
 
-    pathFinder.findAllPathsAutoCloseableIterator(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right))
+        pathFinder.findAllPathsAutoCloseableIterator(entityAccessor.newNodeEntity(left), entityAccessor.newNodeEntity(right))
+    }
   }
 
   override def callReadOnlyProcedure(id: Int, args: Array[AnyValue],
@@ -1158,6 +1183,47 @@ private[internal] class TransactionBoundReadQueryContext(val transactionalContex
   override def builtInAggregateFunction(id: Int): UserDefinedAggregator =
     CallSupport.builtInAggregateFunction(transactionalContext.procedures, id)
 
+  /**
+   * A search on kernel cursors, if there is nothing to check on the found paths and all relationships are traversed in the
+   * same direction. Node and relationship filters are then applied while expanding.
+   */
+  private def bidirectionalSearch(depth: Int, expander: Expander, pathPredicate: KernelPredicate[Path],
+                                  memoryTracker: MemoryTracker): Option[BidirectionalShortestPath] = {
+    val maybeSelection = if (pathPredicate ne KernelPredicate.acceptAll[Path]) None else expander match {
+      case OnlyDirectionExpander(_, _, dir) =>
+        Some(RelationshipSelection.selection(toGraphDb(dir)))
+      case TypeAndDirectionExpander(_, _, typDirs) if typDirs.nonEmpty && typDirs.forall(_._2 == typDirs.head._2) =>
+        val types = typDirs.map { case (typ, _) => tokenRead.relationshipType(typ) }.filter(_ != TokenRead.NO_TOKEN).distinct
+        Some(if (types.isEmpty) RelationshipSelection.NO_RELATIONSHIPS
+             else RelationshipSelection.selection(types.toArray, toGraphDb(typDirs.head._2)))
+      case _ => None
+    }
+
+    maybeSelection.map { selection =>
+      val nodeFilter: LongPredicate =
+        if (expander.nodeFilters.isEmpty) null
+        else (node: Long) => {
+          val entity = entityAccessor.newNodeEntity(node)
+          expander.nodeFilters.forall(_.test(entity))
+        }
+      val relationshipFilter: RelationshipFilter =
+        if (expander.relFilters.isEmpty) null
+        else (relationship: Long, typ: Int, source: Long, target: Long) => {
+          val entity = entityAccessor.newRelationshipEntity(relationship, source, typ, target)
+          expander.relFilters.forall(_.test(entity))
+        }
+      new BidirectionalShortestPath(reads(), transactionalContext.cursors, transactionalContext.cursorContext, memoryTracker,
+        selection, depth, nodeFilter, relationshipFilter)
+    }
+  }
+
+  private def toPath(found: FoundPath): Path = {
+    val builder = found.relationships().foldLeft(new PathImpl.Builder(entityAccessor.newNodeEntity(found.nodes()(0)))) {
+      case (acc, relationship) => acc.push(entityAccessor.newRelationshipEntity(relationship))
+    }
+    builder.build()
+  }
+
   private def buildPathFinder(depth: Int, expander: Expander, pathPredicate: KernelPredicate[Path],
                               filters: Seq[KernelPredicate[Entity]], memoryTracker: MemoryTracker): ShortestPath = {
     val startExpander = expander match {
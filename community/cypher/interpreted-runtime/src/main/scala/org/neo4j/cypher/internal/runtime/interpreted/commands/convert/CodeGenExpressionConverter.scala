@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.convert
+
+import org.neo4j.codegen
+import org.neo4j.codegen.CodeBlock
+import org.neo4j.codegen.CodeGenerationNotSupportedException
+import org.neo4j.codegen.CodeGenerator.generateCode
+import org.neo4j.codegen.CompilationFailureException
+import org.neo4j.codegen.Expression.arrayLoad
+import org.neo4j.codegen.Expression.cast
+import org.neo4j.codegen.Expression.constant
+import org.neo4j.codegen.Expression.constantInt
+import org.neo4j.codegen.Expression.equal
+import org.neo4j.codegen.Expression.getStatic
+import org.neo4j.codegen.Expression.invoke
+import org.neo4j.codegen.Expression.or
+import org.neo4j.codegen.Expression.ternary
+import org.neo4j.codegen.FieldReference.staticField
+import org.neo4j.codegen.MethodDeclaration
+import org.neo4j.codegen.MethodReference
+import org.neo4j.codegen.MethodReference.methodReference
+import org.neo4j.codegen.Parameter.param
+import org.neo4j.codegen.bytecode.ByteCode.BYTECODE
+import org.neo4j.cypher.internal
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.DbAccess
+import org.neo4j.cypher.internal.runtime.ExpressionCursors
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.ast.ExpressionVariable
+import org.neo4j.cypher.internal.runtime.ast.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.CommandProjection
+import org.neo4j.cypher.internal.runtime.interpreted.GroupingExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CompiledCommandExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CompiledCommandPredicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CompiledExpression
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.operations.CypherBoolean
+import org.neo4j.cypher.operations.CypherFunctions
+import org.neo4j.cypher.operations.CypherMath
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.PropertyCursor
+import org.neo4j.internal.kernel.api.RelationshipScanCursor
+import org.neo4j.kernel.api.StatementConstants
+import org.neo4j.kernel.impl.util.ValueUtils
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+
+import java.util.concurrent.atomic.AtomicLong
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * Compiles comparisons, arithmetic, null checks and property reads to byte code, by generating a [[CompiledExpression]]
+ * per expression tree. Any sub-expression outside of that subset is converted by the other converters and called from
+ * the generated code, so a tree is compiled as far down as possible and interpreted from there.
+ *
+ * Boolean connectives are deliberately left to the interpreted [[commands.predicates.Ands]] and friends, which defer
+ * errors in a way that is awkward to reproduce in byte code. Their operands are still compiled.
+ *
+ * This converter is used once a query has been executed often enough to be recompiled with compiled expressions,
+ * see `QueryCache`. It must come before the [[CommunityExpressionConverter]] in [[ExpressionConverters]].
+ */
+case class CodeGenExpressionConverter(tokenContext: ReadTokenContext) extends ExpressionConverter {
+
+  override def toCommandExpression(id: Id, expression: Expression, self: ExpressionConverters): Option[commands.expressions.Expression] =
+    if (CodeGenExpressionConverter.isCompilableRoot(expression)) compile(expression, id, self) else None
+
+  override def toCommandProjection(id: Id, projections: Map[String, Expression], self: ExpressionConverters): Option[CommandProjection] =
+    Some(InterpretedCommandProjection(projections.map {
+      case (name, expression) => name -> self.toCommandExpression(id, expression)
+    }))
+
+  override def toGroupingExpression(id: Id, groupings: Map[String, Expression], orderToLeverage: Seq[Expression], self: ExpressionConverters): Option[GroupingExpression] = None
+
+  private def compile(expression: Expression, id: Id, self: ExpressionConverters): Option[commands.expressions.Expression] = {
+    val compilation = new ExpressionCompilation(id, self, tokenContext)
+    try {
+      val compiled = compilation.generate(expression)
+      val leaves = compilation.leaves.toArray
+      val constants = compilation.constants.toArray
+      val description = expression.asCanonicalStringVal
+      Some(expression match {
+        case _: internal.expressions.IsNull =>
+          new CompiledCommandPredicate(compiled, leaves, constants, description, containsIsNull = true)
+        case e if CodeGenExpressionConverter.isPredicate(e) =>
+          new CompiledCommandPredicate(compiled, leaves, constants, description, containsIsNull = false)
+        case _ =>
+          new CompiledCommandExpression(compiled, leaves, constants, description)
+      })
+    } catch {
+      // Fall back to the interpreted expression
+      case _: CodeGenerationNotSupportedException | _: CompilationFailureException | _: ReflectiveOperationException => None
+    }
+  }
+}
+
+object CodeGenExpressionConverter {
+
+  def isCompilableRoot(expression: Expression): Boolean = expression match {
+    case _: internal.expressions.Add |
+         _: internal.expressions.Subtract |
+         _: internal.expressions.Multiply |
+         _: internal.expressions.Divide |
+         _: internal.expressions.Modulo |
+         _: internal.expressions.Pow |
+         _: internal.expressions.Property => true
+    case e => isPredicate(e)
+  }
+
+  def isPredicate(expression: Expression): Boolean = expression match {
+    case _: internal.expressions.Equals |
+         _: internal.expressions.NotEquals |
+         _: internal.expressions.LessThan |
+         _: internal.expressions.LessThanOrEqual |
+         _: internal.expressions.GreaterThan |
+         _: internal.expressions.GreaterThanOrEqual |
+         _: internal.expressions.IsNull |
+         _: internal.expressions.IsNotNull => true
+    case _ => false
+  }
+}
+
+/**
+ * Generates the class for a single expression tree. The generated method is a straight sequence of assignments to
+ * locals, one per compiled sub-expression, evaluated in the same order as the interpreted expressions would.
+ */
+private class ExpressionCompilation(id: Id, self: ExpressionConverters, tokenContext: ReadTokenContext) {
+
+  import ExpressionCompilation.ADD
+  import ExpressionCompilation.APPLY
+  import ExpressionCompilation.CLASS_COUNTER
+  import ExpressionCompilation.CURSORS
+  import ExpressionCompilation.DIVIDE
+  import ExpressionCompilation.DIVIDE_CHECK_FOR_NULL
+  import ExpressionCompilation.EQUALS
+  import ExpressionCompilation.EVALUATE
+  import ExpressionCompilation.EXPRESSION_VARIABLES
+  import ExpressionCompilation.GET_BY_NAME
+  import ExpressionCompilation.GREATER_THAN
+  import ExpressionCompilation.GREATER_THAN_OR_EQUAL
+  import ExpressionCompilation.LESS_THAN
+  import ExpressionCompilation.LESS_THAN_OR_EQUAL
+  import ExpressionCompilation.MODULO
+  import ExpressionCompilation.MULTIPLY
+  import ExpressionCompilation.NODE_CURSOR
+  import ExpressionCompilation.NOT_EQUALS
+  import ExpressionCompilation.PACKAGE
+  import ExpressionCompilation.PARAMS
+  import ExpressionCompilation.POW
+  import ExpressionCompilation.PROPERTY_CURSOR
+  import ExpressionCompilation.PROPERTY_GET
+  import ExpressionCompilation.QUERY
+  import ExpressionCompilation.RELATIONSHIP_CURSOR
+  import ExpressionCompilation.SUBTRACT
+  import ExpressionCompilation.anyValue
+  import ExpressionCompilation.falseValue
+  import ExpressionCompilation.noValue
+  import ExpressionCompilation.trueValue
+
+  val leaves = new ArrayBuffer[commands.expressions.Expression]()
+  val constants = new ArrayBuffer[AnyValue]()
+  private var nextLocal = 0
+
+  def generate(expression: Expression): CompiledExpression = {
+    val classGenerator = generateCode(classOf[CompiledExpression].getClassLoader, BYTECODE)
+      .generateClass(PACKAGE, s"CompiledExpression${CLASS_COUNTER.incrementAndGet()}", classOf[CompiledExpression])
+    val handle = try {
+      val block = classGenerator.generate(EVALUATE)
+      try {
+        block.returns(compile(block, expression))
+      } finally {
+        block.close()
+      }
+      classGenerator.handle()
+    } finally {
+      classGenerator.close()
+    }
+    handle.loadClass().getConstructor().newInstance().asInstanceOf[CompiledExpression]
+  }
+
+  private def compile(block: CodeBlock, expression: Expression): codegen.Expression = expression match {
+    case _: internal.expressions.Null => noValue
+    case _: internal.expressions.True => literal(block, Values.TRUE)
+    case _: internal.expressions.False => literal(block, Values.FALSE)
+    case e: internal.expressions.Literal => literal(block, ValueUtils.of(e.value))
+    case e: internal.expressions.Variable =>
+      invoke(block.load("row"), GET_BY_NAME, constant(e.name))
+    case ExpressionVariable(offset, _) =>
+      arrayLoad(invoke(block.load("state"), EXPRESSION_VARIABLES), constantInt(offset))
+    case ParameterFromSlot(offset, _, _) =>
+      arrayLoad(invoke(block.load("state"), PARAMS), constantInt(offset))
+
+    case e: internal.expressions.Property =>
+      val container = local(block, compile(block, e.map))
+      val propertyKey = tokenContext.getOptPropertyKeyId(e.propertyKey.name).getOrElse(StatementConstants.NO_SUCH_PROPERTY_KEY)
+      val cursors = invoke(block.load("state"), CURSORS)
+      nullSafe(Seq(container), invoke(PROPERTY_GET,
+        constant(e.propertyKey.name),
+        constantInt(propertyKey),
+        container,
+        invoke(block.load("state"), QUERY),
+        invoke(cursors, NODE_CURSOR),
+        invoke(cursors, RELATIONSHIP_CURSOR),
+        invoke(cursors, PROPERTY_CURSOR)))
+
+    case e: internal.expressions.Equals => nullSafeBinary(block, e.lhs, e.rhs, EQUALS)
+    case e: internal.expressions.NotEquals => nullSafeBinary(block, e.lhs, e.rhs, NOT_EQUALS)
+    case e: internal.expressions.LessThan => binary(block, e.lhs, e.rhs, LESS_THAN)
+    case e: internal.expressions.LessThanOrEqual => binary(block, e.lhs, e.rhs, LESS_THAN_OR_EQUAL)
+    case e: internal.expressions.GreaterThan => binary(block, e.lhs, e.rhs, GREATER_THAN)
+    case e: internal.expressions.GreaterThanOrEqual => binary(block, e.lhs, e.rhs, GREATER_THAN_OR_EQUAL)
+    case e: internal.expressions.IsNull =>
+      anyValue(ternary(equal(local(block, compile(block, e.lhs)), noValue), trueValue, falseValue))
+    case e: internal.expressions.IsNotNull =>
+      anyValue(ternary(equal(local(block, compile(block, e.lhs)), noValue), falseValue, trueValue))
+
+    case e: internal.expressions.Add => nullSafeBinary(block, e.lhs, e.rhs, ADD)
+    case e: internal.expressions.Subtract => nullSafeBinary(block, e.lhs, e.rhs, SUBTRACT)
+    case e: internal.expressions.Multiply => nullSafeBinary(block, e.lhs, e.rhs, MULTIPLY)
+    case e: internal.expressions.Modulo => nullSafeBinary(block, e.lhs, e.rhs, MODULO)
+    case e: internal.expressions.Pow => nullSafeBinary(block, e.lhs, e.rhs, POW)
+    case e: internal.expressions.Divide =>
+      // divideCheckForNull throws on integer division by zero, even if the other operand is null
+      val lhs = local(block, compile(block, e.lhs))
+      val rhs = local(block, compile(block, e.rhs))
+      anyValue(ternary(invoke(DIVIDE_CHECK_FOR_NULL, lhs, rhs), noValue, anyValue(invoke(DIVIDE, lhs, rhs))))
+
+    case e => leaf(block, e)
+  }
+
+  private def leaf(block: CodeBlock, expression: Expression): codegen.Expression = {
+    leaves += self.toCommandExpression(id, expression)
+    invoke(arrayLoad(block.load("leaves"), constantInt(leaves.size - 1)), APPLY, block.load("row"), block.load("state"))
+  }
+
+  private def literal(block: CodeBlock, value: AnyValue): codegen.Expression = {
+    constants += value
+    arrayLoad(block.load("constants"), constantInt(constants.size - 1))
+  }
+
+  private def binary(block: CodeBlock, lhs: Expression, rhs: Expression, method: MethodReference): codegen.Expression = {
+    val l = local(block, compile(block, lhs))
+    val r = local(block, compile(block, rhs))
+    anyValue(invoke(method, l, r))
+  }
+
+  private def nullSafeBinary(block: CodeBlock, lhs: Expression, rhs: Expression, method: MethodReference): codegen.Expression = {
+    val l = local(block, compile(block, lhs))
+    val r = local(block, compile(block, rhs))
+    nullSafe(Seq(l, r), invoke(method, l, r))
+  }
+
+  /**
+   * @return `NO_VALUE` if any of the given locals is `NO_VALUE`, otherwise `value`.
+   */
+  private def nullSafe(locals: Seq[codegen.Expression], value: codegen.Expression): codegen.Expression = {
+    val isNull = locals.map(equal(_, noValue)).reduceLeft(or(_, _))
+    anyValue(ternary(isNull, noValue, anyValue(value)))
+  }
+
+  private def local(block: CodeBlock, value: codegen.Expression): codegen.Expression = {
+    val name = s"v$nextLocal"
+    nextLocal += 1
+    block.assign(classOf[AnyValue], name, anyValue(value))
+    block.load(name)
+  }
+}
+
+private object ExpressionCompilation {
+  private val PACKAGE = "org.neo4j.cypher.internal.runtime.interpreted.generated"
+  private val CLASS_COUNTER = new AtomicLong()
+
+  private val EVALUATE: MethodDeclaration.Builder = MethodDeclaration.method(classOf[AnyValue], "evaluate",
+    param(classOf[ReadableRow], "row"),
+    param(classOf[QueryState], "state"),
+    param(classOf[Array[commands.expressions.Expression]], "leaves"),
+    param(classOf[Array[AnyValue]], "constants"))
+
+  private val APPLY = methodReference(classOf[commands.expressions.Expression], classOf[AnyValue], "apply", classOf[ReadableRow], classOf[QueryState])
+  private val GET_BY_NAME = methodReference(classOf[ReadableRow], classOf[AnyValue], "getByName", classOf[String])
+  private val PARAMS = methodReference(classOf[QueryState], classOf[Array[AnyValue]], "params")
+  private val EXPRESSION_VARIABLES = methodReference(classOf[QueryState], classOf[Array[AnyValue]], "expressionVariables")
+  private val QUERY = methodReference(classOf[QueryState], classOf[QueryContext], "query")
+  private val CURSORS = methodReference(classOf[QueryState], classOf[ExpressionCursors], "cursors")
+  private val NODE_CURSOR = methodReference(classOf[ExpressionCursors], classOf[NodeCursor], "nodeCursor")
+  private val RELATIONSHIP_CURSOR = methodReference(classOf[ExpressionCursors], classOf[RelationshipScanCursor], "relationshipScanCursor")
+  private val PROPERTY_CURSOR = methodReference(classOf[ExpressionCursors], classOf[PropertyCursor], "propertyCursor")
+  private val PROPERTY_GET = methodReference(classOf[CypherFunctions], classOf[AnyValue], "propertyGet",
+    classOf[String], classOf[Int], classOf[AnyValue], classOf[DbAccess], classOf[NodeCursor], classOf[RelationshipScanCursor], classOf[PropertyCursor])
+
+  private val EQUALS = booleanOperator("equals")
+  private val NOT_EQUALS = booleanOperator("notEquals")
+  private val LESS_THAN = booleanOperator("lessThan")
+  private val LESS_THAN_OR_EQUAL = booleanOperator("lessThanOrEqual")
+  private val GREATER_THAN = booleanOperator("greaterThan")
+  private val GREATER_THAN_OR_EQUAL = booleanOperator("greaterThanOrEqual")
+
+  private val ADD = mathOperator("add")
+  private val SUBTRACT = mathOperator("subtract")
+  private val MULTIPLY = mathOperator("multiply")
+  private val DIVIDE = mathOperator("divide")
+  private val MODULO = mathOperator("modulo")
+  private val POW = mathOperator("pow")
+  private val DIVIDE_CHECK_FOR_NULL = methodReference(classOf[CypherMath], classOf[Boolean], "divideCheckForNull", classOf[AnyValue], classOf[AnyValue])
+
+  private def booleanOperator(name: String) = methodReference(classOf[CypherBoolean], classOf[Value], name, classOf[AnyValue], classOf[AnyValue])
+  private def mathOperator(name: String) = methodReference(classOf[CypherMath], classOf[AnyValue], name, classOf[AnyValue], classOf[AnyValue])
+
+  private def noValue: codegen.Expression = anyValue(getStatic(staticField(classOf[Values], classOf[Value], "NO_VALUE")))
+  private def trueValue: codegen.Expression = anyValue(getStatic(staticField(classOf[Values], classOf[BooleanValue], "TRUE")))
+  private def falseValue: codegen.Expression = anyValue(getStatic(staticField(classOf[Values], classOf[BooleanValue], "FALSE")))
+
+  // All compiled values are typed as AnyValue, so that branches agree on the type of the value they leave on the stack
+  private def anyValue(value: codegen.Expression): codegen.Expression = cast(classOf[AnyValue], value)
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+
+/**
+ * Implemented by classes generated from an expression tree, see
+ * [[org.neo4j.cypher.internal.runtime.interpreted.commands.convert.CodeGenExpressionConverter]].
+ *
+ * Sub-expressions that could not be compiled are evaluated through `leaves`, and literals are read from `constants`,
+ * so that a generated class carries no state of its own.
+ */
+trait CompiledExpression {
+  def evaluate(row: ReadableRow, state: QueryState, leaves: Array[Expression], constants: Array[AnyValue]): AnyValue
+}
+
+/**
+ * A command expression that evaluates a [[CompiledExpression]].
+ *
+ * Rewriting only reaches the leaves, the compiled part of the tree is fixed.
+ */
+class CompiledCommandExpression(compiled: CompiledExpression,
+                                leaves: Array[Expression],
+                                constants: Array[AnyValue],
+                                description: String) extends Expression {
+
+  override def apply(row: ReadableRow, state: QueryState): AnyValue = compiled.evaluate(row, state, leaves, constants)
+
+  override def rewrite(f: Expression => Expression): Expression =
+    f(new CompiledCommandExpression(compiled, leaves.map(_.rewrite(f)), constants, description))
+
+  override def arguments: Seq[Expression] = leaves.toIndexedSeq
+
+  override def children: Seq[AstNode[_]] = leaves.toIndexedSeq
+
+  override def toString: String = s"Compiled($description)"
+}
+
+/**
+ * Like [[CompiledCommandExpression]], for compiled expressions that evaluate to a boolean or null.
+ */
+class CompiledCommandPredicate(compiled: CompiledExpression,
+                               leaves: Array[Expression],
+                               constants: Array[AnyValue],
+                               description: String,
+                               override val containsIsNull: Boolean) extends Predicate {
+
+  override def isMatch(row: ReadableRow, state: QueryState): Option[Boolean] = {
+    val result = compiled.evaluate(row, state, leaves, constants)
+    if (result eq Values.TRUE) Some(true)
+    else if (result eq Values.FALSE) Some(false)
+    else None
+  }
+
+  override def rewrite(f: Expression => Expression): Expression =
+    f(new CompiledCommandPredicate(compiled, leaves.map(_.rewrite(f)), constants, description, containsIsNull))
+
+  override def arguments: Seq[Expression] = leaves.toIndexedSeq
+
+  override def children: Seq[AstNode[_]] = leaves.toIndexedSeq
+
+  override def toString: String = s"Compiled($description)"
+}
@@ -61,6 +61,23 @@ case class ShortestPathExpression(shortestPathPattern: ShortestPath,
 
   val predicates: Seq[Predicate] = perStepPredicates ++ fullPathPredicates
 
+  /*
+   * Whether the filters added to the expander are all there is to check. In that case the path predicate accepts everything,
+   * which lets the search skip checking the found paths.
+   * none() is only covered for property existence, since the filter would accept entities where the inner predicate is null,
+   * which makes none() null as well.
+   */
+  private lazy val onlyExpanderPredicates: Boolean =
+    fullPathPredicates.isEmpty && !withFallBack && perStepPredicates.map(findPredicate).forall {
+      case AllInList(function, _, _, _) => isNodesFunction(function) || isRelationshipsFunction(function)
+      case NoneInList(function, _, _, innerPredicate) =>
+        (isNodesFunction(function) || isRelationshipsFunction(function)) && (findPredicate(innerPredicate) match {
+          case _: PropertyExists | Not(_: PropertyExists) => true
+          case _ => false
+        })
+      case _ => false
+    }
+
   def apply(row: ReadableRow, state: QueryState): AnyValue = {
     apply(row, state, state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(operatorId.x))
   }
@@ -84,7 +101,9 @@ case class ShortestPathExpression(shortestPathPattern: ShortestPath,
      * accepting or disqualifying it as appropriate.
      */
     val cypherRow = ctx.asInstanceOf[CypherRow] // TODO: less ugly solution to evaluating predicates
-    val shortestPathPredicate = createShortestPathPredicate(cypherRow, maybePredicate, state)
+    val shortestPathPredicate =
+      if (onlyExpanderPredicates) KernelPredicate.acceptAll[Path]
+      else createShortestPathPredicate(cypherRow, maybePredicate, state)
 
     if (shortestPathPattern.single) {
       val result = state.query
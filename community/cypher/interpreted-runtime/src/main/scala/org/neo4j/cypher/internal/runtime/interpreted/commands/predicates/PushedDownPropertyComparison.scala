@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.predicates
+
+import org.neo4j.cypher.internal.runtime.IsNoValue
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.AstNode
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Literal
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.ParameterFromSlot
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Property
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.util.NonEmptyList
+import org.neo4j.storageengine.api.PropertyPredicate
+import org.neo4j.storageengine.api.PropertyPredicate.Comparison
+import org.neo4j.values.storable.NumberValue
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+
+/**
+ * Compares a property of a node or relationship with a number inside the storage engine, which rejects values that do
+ * not match without materializing them.
+ *
+ * The comparison is `false` where the original comparison would be `null`, so it may only replace comparisons whose
+ * `null` result is treated as `false`, like the conjuncts of a filter. For anything but nodes, relationships and
+ * numbers it evaluates the original comparison.
+ */
+case class PushedDownPropertyComparison(entity: Expression,
+                                        propertyKey: KeyToken,
+                                        comparison: Comparison,
+                                        operand: Expression,
+                                        original: Predicate) extends Predicate {
+
+  override def isMatch(ctx: ReadableRow, state: QueryState): Option[Boolean] = operand(ctx, state) match {
+    case number: NumberValue =>
+      entity(ctx, state) match {
+        case IsNoValue() => None
+        case node: VirtualNodeValue =>
+          Some(propertyKey.getOptId(state.query).exists(key =>
+            state.query.nodePropertyMatches(node.id(), PropertyPredicate.compare(key, comparison, number),
+              state.cursors.nodeCursor, state.cursors.propertyCursor)))
+        case relationship: VirtualRelationshipValue =>
+          Some(propertyKey.getOptId(state.query).exists(key =>
+            state.query.relationshipPropertyMatches(relationship.id(), PropertyPredicate.compare(key, comparison, number),
+              state.cursors.relationshipScanCursor, state.cursors.propertyCursor)))
+        case _ => original.isMatch(ctx, state)
+      }
+    case _ => original.isMatch(ctx, state)
+  }
+
+  override def containsIsNull: Boolean = false
+
+  override def toString: String = original.toString
+
+  override def rewrite(f: Expression => Expression): Expression =
+    f(PushedDownPropertyComparison(entity.rewrite(f), propertyKey.rewrite(f), comparison, operand.rewrite(f), original.rewriteAsPredicate(f)))
+
+  override def arguments: Seq[Expression] = Seq(entity, operand)
+
+  override def children: Seq[AstNode[_]] = Seq(entity, propertyKey, operand, original)
+}
+
+/**
+ * Replaces the comparisons of properties with a literal or parameter among the conjuncts of a filter predicate by
+ * [[PushedDownPropertyComparison]]s.
+ */
+object pushDownPropertyComparisons extends (Expression => Expression) {
+
+  def apply(filterPredicate: Expression): Expression = filterPredicate match {
+    case Ands(predicates) => Ands(predicates.flatMap(conjuncts).map(pushDown))
+    case predicate: Predicate => Ands(conjuncts(predicate).map(pushDown).toIndexedSeq: _*)
+    case other => other
+  }
+
+  private def conjuncts(predicate: Predicate): NonEmptyList[Predicate] = predicate match {
+    case AndedPropertyComparablePredicates(_, _, comparables) => comparables
+    case _ => NonEmptyList(predicate)
+  }
+
+  private def pushDown(predicate: Predicate): Predicate = predicate match {
+    case Equals(Property(entity, key), operand) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.EQUAL, operand, predicate)
+    case Equals(operand, Property(entity, key)) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.EQUAL, operand, predicate)
+    case LessThan(Property(entity, key), operand) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.LESS_THAN, operand, predicate)
+    case LessThan(operand, Property(entity, key)) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.GREATER_THAN, operand, predicate)
+    case LessThanOrEqual(Property(entity, key), operand) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.LESS_THAN_OR_EQUAL, operand, predicate)
+    case LessThanOrEqual(operand, Property(entity, key)) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.GREATER_THAN_OR_EQUAL, operand, predicate)
+    case GreaterThan(Property(entity, key), operand) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.GREATER_THAN, operand, predicate)
+    case GreaterThan(operand, Property(entity, key)) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.LESS_THAN, operand, predicate)
+    case GreaterThanOrEqual(Property(entity, key), operand) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.GREATER_THAN_OR_EQUAL, operand, predicate)
+    case GreaterThanOrEqual(operand, Property(entity, key)) if isConstant(operand) =>
+      PushedDownPropertyComparison(entity, key, Comparison.LESS_THAN_OR_EQUAL, operand, predicate)
+    case _ => predicate
+  }
+
+  private def isConstant(expression: Expression): Boolean = expression match {
+    case _: Literal | _: ParameterFromSlot => true
+    case _ => false
+  }
+}
@@ -28,6 +28,7 @@ import org.neo4j.internal.kernel.api.AutoCloseablePlus
 import org.neo4j.internal.kernel.api.Cursor
 
 import java.net.URL
+import java.util.concurrent.Executor
 import scala.collection.mutable.ArrayBuffer
 
 class LoadCsvPeriodicCommitObserver(batchRowCount: Long, resources: ExternalCSVResource, queryContext: QueryContext)
@@ -37,8 +38,10 @@ class LoadCsvPeriodicCommitObserver(batchRowCount: Long, resources: ExternalCSVR
   var outerLoadCSVIterator: Option[LoadCsvIteratorWithPeriodicCommit] = None
 
   override def getCsvIterator(url: URL, fieldTerminator: Option[String], legacyCsvQuoteEscaping: Boolean, bufferSize: Int,
-                              headers: Boolean = false): LoadCsvIterator = {
-    val innerIterator = resources.getCsvIterator(url, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, headers)
+                              headers: Boolean = false, parsingThreads: Int = 1,
+                              parsingExecutor: Option[Executor] = None): LoadCsvIterator = {
+    val innerIterator = resources.getCsvIterator(url, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, headers, parsingThreads,
+      parsingExecutor)
     if (outerLoadCSVIterator.isEmpty) {
       if (headers)
         updateCounter.offsetForHeaders()
@@ -51,6 +51,40 @@ object AggregationPipe {
     def result(): ClosingIterator[CypherRow]
   }
 
+  /**
+   * An [[AggregationTable]] that can take over the groups and partial aggregates of another table of the same kind,
+   * which has processed a disjoint part of the input. All its aggregation functions must be
+   * [[org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation.MergeableAggregationFunction]]s.
+   */
+  trait MergeableAggregationTable extends AggregationTable {
+
+    /**
+     * Merges `other` into this table. `other` must have been created by the same factory, and must not be used afterwards.
+     */
+    def merge(other: AggregationTable): Unit
+  }
+
+  /**
+   * An [[AggregationTable]] with grouping keys that can stop taking new groups. This lets [[EagerAggregationPipe]] move
+   * the rows of new groups to disk once the table has grown too big, and aggregate them separately later.
+   */
+  trait SpillableAggregationTable extends AggregationTable {
+
+    /**
+     * The heap tracked for the groups and aggregation functions of this table.
+     */
+    def estimatedHeapUsage: Long
+
+    def groupingKey(row: CypherRow): AnyValue
+
+    /**
+     * Processes the row if the table already has a group for `groupingKey`.
+     *
+     * @return `true` if the row has been processed
+     */
+    def processRowOfExistingGroup(groupingKey: AnyValue, row: CypherRow): Boolean
+  }
+
   /**
    * A Factory to obtain [[AggregationTable]]s at runtime.
    */
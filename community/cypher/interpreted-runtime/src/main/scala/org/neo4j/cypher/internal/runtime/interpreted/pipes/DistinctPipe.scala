@@ -24,23 +24,38 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.PrefetchingIterator
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.DistinctPipe.GroupingCol
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.kernel.impl.util.collection.DistinctSet
+import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.ListValueBuilder
 
-case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
+case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol], spilling: Spilling = Spilling.DISABLED)
                        (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
   private val keyNames = groupingColumns.map(_.key)
 
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     new PrefetchingIterator[CypherRow] {
+      private val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+
       /*
        * The filtering is done by extracting from the context the values of all return expressions, and keeping them
        * in a set.
        */
-      private var seen = DistinctSet.createDistinctSet[AnyValue](state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+      private var seen = DistinctSet.createDistinctSet[AnyValue](memoryTracker)
+
+      /*
+       * Once `seen` has grown beyond the spill threshold, it stops taking new values. Rows with values that are not in
+       * it yet are partitioned to disk, tagged with their input position, and are deduplicated once the input is
+       * exhausted. Merging the partitions by input position keeps the order of the input.
+       */
+      private var partitions: Array[SpillFile] = _
+      private var inputPosition = 0L
+      private var spilledResult: ClosingIterator[CypherRow] = _
 
       state.query.resources.trace(seen)
 
@@ -53,27 +68,71 @@ case class DistinctPipe(source: Pipe, groupingColumns: Array[GroupingCol])
             next.set(groupingColumns(i).key, groupingColumns(i).expression(next, state))
             i += 1
           }
-          val builder = ListValueBuilder.newListBuilder(keyNames.length)
-          keyNames.foreach(name => builder.add(next.getByName(name)))
-          val groupingValue = builder.build()
+          val groupingValue = groupingValueOf(next)
 
-          if (seen.add(groupingValue)) {
-            return Some(next)
+          if (partitions == null) {
+            if (seen.add(groupingValue)) {
+              if (spilling.exceeds(memoryTracker.estimatedHeapMemory())) {
+                partitions = SpillSupport.newPartitions(new RowSpillCodec, spilling, state)
+              }
+              return Some(next)
+            }
+          } else if (!seen.contains(groupingValue)) {
+            partitions(SpillSupport.partitionOf(groupingValue.hashCode(), 0)).write(inputPosition, next)
+            inputPosition += 1
+          }
+        }
+        if (seen != null) {
+          seen.close()
+          seen = null
+        }
+        if (partitions != null) {
+          if (spilledResult == null) {
+            spilledResult = distinctPartitions(partitions, memoryTracker, state)
+          }
+          if (spilledResult.hasNext) {
+            return Some(spilledResult.next())
           }
         }
-        seen.close()
-        seen = null
         None
       }
 
-      override protected[this] def closeMore(): Unit = if(seen != null) seen.close()
+      override protected[this] def closeMore(): Unit = {
+        if (seen != null) seen.close()
+        if (spilledResult != null) spilledResult.close()
+      }
+    }
+  }
+
+  private def groupingValueOf(row: CypherRow): AnyValue = {
+    val builder = ListValueBuilder.newListBuilder(keyNames.length)
+    keyNames.foreach(name => builder.add(row.getByName(name)))
+    builder.build()
+  }
+
+  private def distinctPartitions(partitions: Array[SpillFile], memoryTracker: MemoryTracker, state: QueryState): ClosingIterator[CypherRow] = {
+    val codec = new RowSpillCodec
+    val distinctRows = partitions.map { partition =>
+      val distinctPartition = SpillSupport.newSpillFile(codec, spilling, state)
+      val partitionSeen = DistinctSet.createDistinctSet[AnyValue](memoryTracker)
+      val reader = partition.read()
+      while (reader.hasNext) {
+        reader.advance()
+        if (partitionSeen.add(groupingValueOf(reader.row))) {
+          distinctPartition.write(reader.tag, reader.row)
+        }
+      }
+      partitionSeen.close()
+      partition.close()
+      distinctPartition
     }
+    SpillFile.mergeByTag(distinctRows)
   }
 
   override def equals(obj: Any): Boolean = {
     obj match {
-      case DistinctPipe(otherSource, otherGroupingColumns) =>
-        otherSource == this.source && otherGroupingColumns.sameElements(this.groupingColumns)
+      case DistinctPipe(otherSource, otherGroupingColumns, otherSpilling) =>
+        otherSource == this.source && otherGroupingColumns.sameElements(this.groupingColumns) && otherSpilling == this.spilling
       case _ => false
     }
   }
@@ -22,22 +22,74 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.SpillableAggregationTable
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 
 // Eager aggregation means that this pipe will eagerly load the whole resulting sub graphs before starting
 // to emit aggregated results.
 // Cypher is lazy until it can't - this pipe will eagerly load the full match
 case class EagerAggregationPipe(source: Pipe,
-                                tableFactory: AggregationTableFactory)
+                                tableFactory: AggregationTableFactory,
+                                spilling: Spilling = Spilling.DISABLED)
                                (val id: Id = Id.INVALID_ID)
   extends AggregationPipe(source) {
 
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     val table = tableFactory.table(state, rowFactory, id)
     table.clear()
+    table match {
+      case spillableTable: SpillableAggregationTable if spilling.isEnabled =>
+        aggregateWithSpilling(input, spillableTable, state, new RowSpillCodec, level = 0)
+      case _ =>
+        while (input.hasNext) {
+          table.processRow(input.next())
+        }
+        table.result()
+    }
+  }
+
+  /**
+   * Aggregates into `table` until it exceeds the spill threshold. From then on, rows of groups that are already in the
+   * table are still aggregated there, but the rows of new groups are partitioned by their grouping key into spill files.
+   * Once the input is exhausted, each partition is aggregated the same way, one after the other.
+   */
+  private def aggregateWithSpilling(input: Iterator[CypherRow],
+                                    table: SpillableAggregationTable,
+                                    state: QueryState,
+                                    codec: RowSpillCodec,
+                                    level: Int): ClosingIterator[CypherRow] = {
+    var partitions: Array[SpillFile] = null
     while (input.hasNext) {
-      table.processRow(input.next())
+      val row = input.next()
+      if (partitions == null) {
+        table.processRow(row)
+        if (spilling.exceeds(table.estimatedHeapUsage) && level < EagerAggregationPipe.MAX_PARTITIONING_LEVEL) {
+          partitions = SpillSupport.newPartitions(codec, spilling, state)
+        }
+      } else {
+        val groupingKey = table.groupingKey(row)
+        if (!table.processRowOfExistingGroup(groupingKey, row)) {
+          partitions(SpillSupport.partitionOf(groupingKey.hashCode(), level)).write(0, row)
+        }
+      }
+    }
+
+    if (partitions == null) {
+      table.result()
+    } else {
+      val partitionResults = partitions.iterator.map { partition =>
+        val partitionTable = tableFactory.table(state, rowFactory, id).asInstanceOf[SpillableAggregationTable]
+        partitionTable.clear()
+        aggregateWithSpilling(partition.rowIterator(), partitionTable, state, codec, level + 1)
+      }
+      ClosingIterator(Iterator.single(table.result()) ++ partitionResults).flatMap(results => results)
     }
-    table.result()
   }
 }
+
+object EagerAggregationPipe {
+  private val MAX_PARTITIONING_LEVEL = 3
+}
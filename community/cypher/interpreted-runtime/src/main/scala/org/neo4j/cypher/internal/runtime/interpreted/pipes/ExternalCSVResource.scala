@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import java.net.URL
+import java.util.concurrent.Executor
 
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.values.storable.Value
@@ -29,12 +30,14 @@ trait ExternalCSVResource {
                      fieldTerminator: Option[String],
                      legacyCsvQuoteEscaping: Boolean,
                      bufferSize: Int,
-                     headers: Boolean = false): LoadCsvIterator
+                     headers: Boolean = false,
+                     parsingThreads: Int = 1,
+                     parsingExecutor: Option[Executor] = None): LoadCsvIterator
 }
 
 object ExternalCSVResource {
   def empty: ExternalCSVResource = (_: URL, _: Option[String], _: Boolean,
-                                    _: Int, _: Boolean) => LoadCsvIterator.empty
+                                    _: Int, _: Boolean, _: Int, _: Option[Executor]) => LoadCsvIterator.empty
 }
 
 trait LoadCsvIterator extends ClosingIterator[Array[Value]] {
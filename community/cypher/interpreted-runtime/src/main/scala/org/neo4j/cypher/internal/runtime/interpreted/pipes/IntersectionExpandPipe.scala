@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.expressions.SemanticDirection
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.IsNoValue
+import org.neo4j.cypher.internal.runtime.QueryContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExpandIntoPipe.getRowNode
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.IntersectionExpandPipe.Arm
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.IntersectionExpandPipe.NeighbourList
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.memory.HeapEstimator
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.Iterator
+
+/**
+ * Finds the nodes that can be reached from the 'from' nodes of all arms, for example the third node of a triangle when two of its nodes are known.
+ *
+ * For every source row, the neighbours of each 'from' node are read into a list sorted by neighbour id, and the lists are
+ * intersected by leapfrogging: every list seeks to the largest current neighbour of all lists, until they all agree on a neighbour.
+ * Unlike expanding one relationship and then checking the others with expand into, no rows are produced for neighbours that are
+ * not shared by all 'from' nodes.
+ *
+ * One row is produced per shared neighbour and combination of relationships leading to it, in ascending order of neighbour id.
+ */
+case class IntersectionExpandPipe(source: Pipe,
+                                  arms: IndexedSeq[Arm],
+                                  toName: String)
+                                 (val id: Id = Id.INVALID_ID)
+  extends PipeWithSource(source) {
+
+  protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+    val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+    // The lists are reused for every row, since the rows of one input row are produced before the next input row is read
+    val lists = arms.map(_ => new NeighbourList(memoryTracker)).toArray
+
+    input.flatMap {
+      row =>
+        if (readNeighbours(row, state.query, lists)) new IntersectionIterator(row, lists)
+        else Iterator.empty
+    }.closing(() => lists.foreach(_.close()))
+  }
+
+  /**
+   * @return false if some arm has no neighbours, in which case there is nothing to intersect
+   */
+  private def readNeighbours(row: CypherRow, query: QueryContext, lists: Array[NeighbourList]): Boolean = {
+    var i = 0
+    while (i < arms.length) {
+      val arm = arms(i)
+      val list = lists(i)
+      list.clear()
+      getRowNode(row, arm.fromName) match {
+        case from: VirtualNodeValue =>
+          val relationships = query.getRelationshipsForIds(from.id(), arm.dir, arm.types.types(query))
+          try {
+            while (relationships.hasNext) {
+              val relationship = relationships.next()
+              list.add(relationships.otherNodeId(from.id()), relationship, relationships.startNodeId(), relationships.endNodeId(), relationships.typeId())
+            }
+          } finally {
+            relationships.close()
+          }
+        case IsNoValue() => // No neighbours, like expanding from a null node
+      }
+      if (list.size == 0) {
+        return false
+      }
+      list.sortByNode()
+      i += 1
+    }
+    true
+  }
+
+  private class IntersectionIterator(row: CypherRow, lists: Array[NeighbourList]) extends Iterator[CypherRow] {
+    // Position of each list, where it continues seeking for the next shared neighbour
+    private val positions = new Array[Int](lists.length)
+    // The relationships to the current shared neighbour are at [runStarts, runEnds) of each list
+    private val runStarts = new Array[Int](lists.length)
+    private val runEnds = new Array[Int](lists.length)
+    // The combination of relationships of the next row
+    private val current = new Array[Int](lists.length)
+    private var hasMatch = seekNextMatch()
+
+    override def hasNext: Boolean = hasMatch
+
+    override def next(): CypherRow = {
+      if (!hasMatch) {
+        Iterator.empty.next()
+      }
+      val entries = new Array[(String, AnyValue)](lists.length + 1)
+      entries(0) = toName -> VirtualValues.node(lists(0).node(current(0)))
+      var i = 0
+      while (i < lists.length) {
+        entries(i + 1) = arms(i).relName -> lists(i).relationship(current(i))
+        i += 1
+      }
+      val result = rowFactory.copyWith(row, entries)
+      hasMatch = advanceCombination() || seekNextMatch()
+      result
+    }
+
+    private def advanceCombination(): Boolean = {
+      var i = lists.length - 1
+      while (i >= 0) {
+        current(i) += 1
+        if (current(i) < runEnds(i)) {
+          return true
+        }
+        current(i) = runStarts(i)
+        i -= 1
+      }
+      false
+    }
+
+    private def seekNextMatch(): Boolean = {
+      var target = lists(0).nodeOrEnd(positions(0))
+      var agreeing = 0
+      var i = 0
+      while (agreeing < lists.length) {
+        val list = lists(i)
+        if (positions(i) >= list.size) {
+          return false
+        }
+        positions(i) = list.seek(positions(i), target)
+        if (positions(i) >= list.size) {
+          return false
+        }
+        val node = list.node(positions(i))
+        if (node == target) {
+          agreeing += 1
+        } else {
+          target = node
+          agreeing = 1
+        }
+        i = (i + 1) % lists.length
+      }
+
+      i = 0
+      while (i < lists.length) {
+        val list = lists(i)
+        runStarts(i) = positions(i)
+        var end = positions(i) + 1
+        while (end < list.size && list.node(end) == target) {
+          end += 1
+        }
+        runEnds(i) = end
+        current(i) = runStarts(i)
+        positions(i) = end
+        i += 1
+      }
+      true
+    }
+  }
+}
+
+object IntersectionExpandPipe {
+
+  /**
+   * Relationships of the given types and direction from 'fromName' to the new node, bound to 'relName'.
+   */
+  case class Arm(fromName: String, relName: String, dir: SemanticDirection, types: RelationshipTypes)
+
+  /**
+   * The relationships of one node, which can be sorted by the id of the node at their other end.
+   */
+  private[pipes] class NeighbourList(memoryTracker: MemoryTracker) extends AutoCloseable {
+    private var nodes = new Array[Long](16)
+    private var relationships = new Array[Long](16)
+    private var starts = new Array[Long](16)
+    private var ends = new Array[Long](16)
+    private var types = new Array[Int](16)
+    private var trackedHeap = 0L
+    var size = 0
+
+    track()
+
+    def clear(): Unit = size = 0
+
+    def add(node: Long, relationship: Long, start: Long, end: Long, typ: Int): Unit = {
+      if (size == nodes.length) {
+        grow()
+      }
+      nodes(size) = node
+      relationships(size) = relationship
+      starts(size) = start
+      ends(size) = end
+      types(size) = typ
+      size += 1
+    }
+
+    def node(i: Int): Long = nodes(i)
+
+    def nodeOrEnd(i: Int): Long = if (i < size) nodes(i) else Long.MaxValue
+
+    def relationship(i: Int): AnyValue = VirtualValues.relationship(relationships(i), starts(i), ends(i), types(i))
+
+    /**
+     * @return the first position at or after 'from' with a node id that is at least 'target', or size if there is none.
+     *         Gallops ahead before a binary search, since shared neighbours are usually far apart in the larger lists.
+     */
+    def seek(from: Int, target: Long): Int = {
+      if (from >= size || nodes(from) >= target) {
+        from
+      } else {
+        var low = from
+        var step = 1
+        while (low + step < size && nodes(low + step) < target) {
+          low += step
+          step *= 2
+        }
+        var high = math.min(low + step, size)
+        // nodes(low) < target, and nodes(high) >= target unless high == size
+        while (high - low > 1) {
+          val mid = (low + high) >>> 1
+          if (nodes(mid) < target) low = mid else high = mid
+        }
+        high
+      }
+    }
+
+    def sortByNode(): Unit = sort(0, size - 1)
+
+    private def sort(from: Int, to: Int): Unit = {
+      var low = from
+      var high = to
+      while (low < high) {
+        val pivot = nodes((low + high) >>> 1)
+        var i = low
+        var j = high
+        while (i <= j) {
+          while (nodes(i) < pivot) i += 1
+          while (nodes(j) > pivot) j -= 1
+          if (i <= j) {
+            swap(i, j)
+            i += 1
+            j -= 1
+          }
+        }
+        // Recurse into the smaller part and loop on the larger one, to bound the stack depth
+        if (j - low < high - i) {
+          sort(low, j)
+          low = i
+        } else {
+          sort(i, high)
+          high = j
+        }
+      }
+    }
+
+    private def swap(i: Int, j: Int): Unit = {
+      val node = nodes(i); nodes(i) = nodes(j); nodes(j) = node
+      val relationship = relationships(i); relationships(i) = relationships(j); relationships(j) = relationship
+      val start = starts(i); starts(i) = starts(j); starts(j) = start
+      val end = ends(i); ends(i) = ends(j); ends(j) = end
+      val typ = types(i); types(i) = types(j); types(j) = typ
+    }
+
+    private def grow(): Unit = {
+      val newLength = nodes.length * 2
+      nodes = java.util.Arrays.copyOf(nodes, newLength)
+      relationships = java.util.Arrays.copyOf(relationships, newLength)
+      starts = java.util.Arrays.copyOf(starts, newLength)
+      ends = java.util.Arrays.copyOf(ends, newLength)
+      types = java.util.Arrays.copyOf(types, newLength)
+      track()
+    }
+
+    private def track(): Unit = {
+      val heap = 4 * HeapEstimator.sizeOfLongArray(nodes.length) + HeapEstimator.sizeOf(types)
+      memoryTracker.allocateHeap(heap - trackedHeap)
+      trackedHeap = heap
+    }
+
+    override def close(): Unit = {
+      memoryTracker.releaseHeap(trackedHeap)
+      trackedHeap = 0
+    }
+  }
+}
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import java.net.URL
+import java.util.concurrent.Executor
 
 import org.neo4j.cypher.internal.ir.CSVFormat
 import org.neo4j.cypher.internal.ir.HasHeaders
@@ -47,9 +48,12 @@ case class LoadCSVPipe(source: Pipe,
                        variable: String,
                        fieldTerminator: Option[String],
                        legacyCsvQuoteEscaping: Boolean,
-                       bufferSize: Int)
+                       bufferSize: Int,
+                       parsingThreads: Int = 1,
+                       parsingExecutor: Option[Executor] = None)
                       (val id: Id = Id.INVALID_ID)
-  extends AbstractLoadCSVPipe(source, format, urlExpression, fieldTerminator, legacyCsvQuoteEscaping, bufferSize) {
+  extends AbstractLoadCSVPipe(source, format, urlExpression, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, parsingThreads,
+    parsingExecutor) {
 
   override final def writeRow(filename: String, linenumber: Long, last: Boolean, argumentRow: CypherRow, value: AnyValue): CypherRow = {
     val newRow = rowFactory.copyWith(argumentRow, variable, value)
@@ -63,7 +67,9 @@ abstract class AbstractLoadCSVPipe(source: Pipe,
                                    urlExpression: Expression,
                                    fieldTerminator: Option[String],
                                    legacyCsvQuoteEscaping: Boolean,
-                                   bufferSize: Int
+                                   bufferSize: Int,
+                                   parsingThreads: Int,
+                                   parsingExecutor: Option[Executor]
                                   ) extends PipeWithSource(source) {
 
   protected def writeRow(filename: String, linenumber: Long, last: Boolean, argumentRow: CypherRow, value: AnyValue): CypherRow
@@ -144,7 +150,7 @@ abstract class AbstractLoadCSVPipe(source: Pipe,
 
   private def getLoadCSVIterator(state: QueryState, url: URL, useHeaders: Boolean): LoadCsvIterator ={
     state.resources.getCsvIterator(
-      url, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, useHeaders
+      url, fieldTerminator, legacyCsvQuoteEscaping, bufferSize, useHeaders, parsingThreads, parsingExecutor
     )
   }
 
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.QueryTransactionalContext
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.LazyLabel.UNKNOWN
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.internal.kernel.api.Cursor
+import org.neo4j.internal.kernel.api.NodeCursor
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor
+import org.neo4j.internal.kernel.api.Scan
+import org.neo4j.values.virtual.VirtualValues
+
+/**
+ * The part of a parallel scan that all workers of one execution share. Each worker reserves morsels, i.e. batches of
+ * entities, from it until the scan is exhausted.
+ */
+trait MorselScan {
+
+  /**
+   * The rows of all morsels that the worker owning `state` manages to reserve.
+   */
+  def rows(state: QueryState, rowFactory: CypherRowFactory): ClosingIterator[CypherRow]
+
+  /**
+   * Stops handing out morsels, so that all workers run out of input soon. Used when one of the workers has failed.
+   */
+  def cancel(): Unit
+}
+
+/**
+ * A leaf pipe that reads from a [[MorselScan]], so that the pipeline on top of it can run in several workers at once,
+ * see [[ParallelAggregationPipe]]. When not run by such a worker, it reads all morsels itself.
+ */
+abstract class MorselScanPipe extends Pipe {
+
+  /**
+   * Creates the scan to share between the workers of one execution. Must be called from the thread that owns the transaction.
+   */
+  def newMorselScan(state: QueryState): MorselScan
+
+  override protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
+    val morselScan = if (state.morselScan != null) state.morselScan else newMorselScan(state)
+    morselScan.rows(state, rowFactory)
+  }
+}
+
+case class AllNodesMorselScanPipe(ident: String, morselSize: Int)(val id: Id = Id.INVALID_ID) extends MorselScanPipe {
+
+  override def newMorselScan(state: QueryState): MorselScan =
+    NodeMorselScan[NodeCursor](state.query.transactionalContext.dataRead.allNodesScan(), ident, morselSize)(
+      tc => tc.cursors.allocateNodeCursor(tc.cursorContext), _.nodeReference())
+}
+
+case class NodeByLabelMorselScanPipe(ident: String, label: LazyLabel, morselSize: Int)(val id: Id = Id.INVALID_ID) extends MorselScanPipe {
+
+  override def newMorselScan(state: QueryState): MorselScan = {
+    val labelId = label.getId(state.query)
+    if (labelId != UNKNOWN) {
+      NodeMorselScan[NodeLabelIndexCursor](state.query.transactionalContext.dataRead.nodeLabelScan(labelId), ident, morselSize)(
+        tc => tc.cursors.allocateNodeLabelIndexCursor(tc.cursorContext), _.nodeReference())
+    } else {
+      EmptyMorselScan
+    }
+  }
+}
+
+/**
+ * Produces one row per node of a kernel [[Scan]], reserving `morselSize` nodes at a time.
+ */
+case class NodeMorselScan[CURSOR <: Cursor](scan: Scan[CURSOR], ident: String, morselSize: Int)
+                                           (allocateCursor: QueryTransactionalContext => CURSOR,
+                                            nodeReference: CURSOR => Long) extends MorselScan {
+
+  @volatile private var cancelled = false
+
+  override def cancel(): Unit = cancelled = true
+
+  override def rows(state: QueryState, rowFactory: CypherRowFactory): ClosingIterator[CypherRow] = {
+    val transactionalContext = state.query.transactionalContext
+    val cursor = allocateCursor(transactionalContext)
+    state.query.resources.trace(cursor)
+    val baseContext = state.newRowWithArgument(rowFactory)
+    val accessMode = transactionalContext.securityContext.mode()
+
+    new ClosingIterator[CypherRow] {
+      private var hasMorsel = false
+      private var hasCurrent = false
+
+      override protected[this] def innerHasNext: Boolean = {
+        if (!hasCurrent) {
+          hasCurrent = hasMorsel && !cancelled && cursor.next()
+          while (!hasCurrent && !cancelled && scan.reserveBatch(cursor, morselSize, transactionalContext.cursorContext, accessMode)) {
+            hasMorsel = true
+            hasCurrent = cursor.next()
+          }
+        }
+        hasCurrent
+      }
+
+      override def next(): CypherRow = {
+        if (!hasNext) {
+          Iterator.empty.next()
+        }
+        hasCurrent = false
+        rowFactory.copyWith(baseContext, ident, VirtualValues.node(nodeReference(cursor)))
+      }
+
+      override protected[this] def closeMore(): Unit = cursor.close()
+    }
+  }
+}
+
+case object EmptyMorselScan extends MorselScan {
+  override def rows(state: QueryState, rowFactory: CypherRowFactory): ClosingIterator[CypherRow] = ClosingIterator.empty
+
+  override def cancel(): Unit = ()
+}
@@ -22,16 +22,18 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.CypherTypeException
 import org.neo4j.kernel.impl.util.collection
+import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.storable.LongArray
 import org.neo4j.values.storable.Values
 import org.neo4j.values.virtual.VirtualNodeValue
 
 import scala.collection.JavaConverters.asScalaIteratorConverter
 
-case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
+case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe, spilling: Spilling = Spilling.DISABLED)
                            (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(left) {
 
@@ -44,9 +46,14 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     if (rhsIterator.isEmpty)
       return ClosingIterator.empty
 
-    val table = buildProbeTable(input, state)
+    val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+    val table = buildProbeTable(input, memoryTracker)
     state.query.resources.trace(table)
 
+    if (input.hasNext) {
+      return SpillingHashJoin.join[LongArray](table, input, rhsIterator, keyOrNull, keyOrNull, memoryTracker, spilling, state)
+    }
+
     if (table.isEmpty) {
       table.close()
       return ClosingIterator.empty
@@ -66,17 +73,22 @@ case class NodeHashJoinPipe(nodeVariables: Set[String], left: Pipe, right: Pipe)
     result.closing(table)
   }
 
-  private def buildProbeTable(input: Iterator[CypherRow], queryState: QueryState): collection.ProbeTable[LongArray, CypherRow] = {
-    val table = collection.ProbeTable.createProbeTable[LongArray, CypherRow](queryState.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+  /**
+   * Builds the table from the input, or from as much of it as fits below the spill threshold.
+   */
+  private def buildProbeTable(input: Iterator[CypherRow], memoryTracker: MemoryTracker): collection.ProbeTable[LongArray, CypherRow] = {
+    val table = collection.ProbeTable.createProbeTable[LongArray, CypherRow](memoryTracker)
 
-    for {context <- input
-         joinKey <- computeKey(context)} {
-      table.put(joinKey, context)
+    while (input.hasNext && !spilling.exceeds(memoryTracker.estimatedHeapMemory())) {
+      val context = input.next()
+      computeKey(context).foreach(joinKey => table.put(joinKey, context))
     }
 
     table
   }
 
+  private val keyOrNull: CypherRow => LongArray = row => computeKey(row).orNull
+
   private val cachedVariables = nodeVariables.toIndexedSeq
 
   private def computeKey(context: CypherRow): Option[LongArray] = {
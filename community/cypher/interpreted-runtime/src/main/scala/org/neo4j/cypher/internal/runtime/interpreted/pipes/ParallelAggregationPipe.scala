@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.MergeableAggregationTable
+import org.neo4j.cypher.internal.runtime.memory.ParallelWorkersMemoryPool
+import org.neo4j.cypher.internal.util.attribution.Id
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.Executor
+
+/**
+ * An eager aggregation that runs its source pipeline in several workers at once. The pipeline must be streaming and
+ * read-only, and start at the given [[MorselScanPipe]]. Every worker reads morsels from one shared scan into a
+ * thread-local table, and the tables are merged into one at the end.
+ *
+ * Every worker tracks its memory with a thread-confined tracker, which reserves memory from the transaction through a
+ * [[ParallelWorkersMemoryPool]]. If one worker fails, the shared scan is cancelled so that the others stop early.
+ *
+ * Executions that cannot run in parallel fall back to a plain eager aggregation: when profiling, since the profiler is
+ * not thread-safe, and when the transaction has changes, since reading transaction state is not thread-safe either.
+ *
+ * @param tableFactory creates [[MergeableAggregationTable]]s
+ * @param scan         the leaf of the source pipeline
+ * @param workers      number of workers per execution
+ * @param executor     runs the workers
+ */
+case class ParallelAggregationPipe(source: Pipe,
+                                   tableFactory: AggregationTableFactory,
+                                   scan: MorselScanPipe,
+                                   workers: Int,
+                                   executor: Executor)
+                                  (val id: Id = Id.INVALID_ID) extends Pipe {
+
+  override protected def internalCreateResults(state: QueryState): ClosingIterator[CypherRow] = {
+    val table = tableFactory.table(state, rowFactory, id)
+    table.clear()
+    if (canRunInParallel(state)) {
+      aggregateInParallel(state, table.asInstanceOf[MergeableAggregationTable])
+    } else {
+      val input = source.createResults(state)
+      while (input.hasNext) {
+        table.processRow(input.next())
+      }
+      input.close()
+    }
+    table.result()
+  }
+
+  private def canRunInParallel(state: QueryState): Boolean =
+    state.decorator == NullPipeDecorator && !state.query.transactionalContext.dataRead.transactionStateHasChanges
+
+  private def aggregateInParallel(state: QueryState, table: MergeableAggregationTable): Unit = {
+    val morselScan = scan.newMorselScan(state)
+    val memoryPool = new ParallelWorkersMemoryPool(state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+    val workerMemoryTrackers = Array.fill(workers)(memoryPool.newWorkerMemoryTracker())
+    // Worker contexts must be created and closed by the thread that owns the transaction
+    val workerStates = workerMemoryTrackers.map(memoryTracker =>
+      state.forParallelWorker(state.query.createParallelQueryContext(), morselScan, memoryTracker))
+    val tasks = workerStates.map(workerState => CompletableFuture.supplyAsync(() => aggregate(workerState, morselScan), executor))
+    try {
+      // Merging allocates with the memory trackers of the transaction, which the workers use until they have finished
+      CompletableFuture.allOf(tasks: _*).exceptionally(_ => null).join()
+      // Merge in worker order, to not depend on which worker finishes first
+      tasks.foreach(task => table.merge(join(task)))
+    } finally {
+      // Wait for the remaining workers if merging has failed, before closing the resources they use
+      CompletableFuture.allOf(tasks: _*).exceptionally(_ => null).join()
+      workerStates.foreach { workerState =>
+        workerState.close()
+        workerState.query.transactionalContext.close()
+      }
+      // Gives back the memory of tables that were not merged
+      workerMemoryTrackers.foreach(_.reset())
+    }
+  }
+
+  private def aggregate(workerState: QueryState, morselScan: MorselScan): AggregationTable = {
+    val table = tableFactory.table(workerState, rowFactory, id)
+    table.clear()
+    val input = source.createResults(workerState)
+    try {
+      while (input.hasNext) {
+        table.processRow(input.next())
+      }
+    } catch {
+      case t: Throwable =>
+        // No need for the other workers to read the rest of the scan, the execution fails anyway
+        morselScan.cancel()
+        throw t
+    } finally {
+      input.close()
+    }
+    table
+  }
+
+  private def join(task: CompletableFuture[AggregationTable]): AggregationTable =
+    try {
+      task.join()
+    } catch {
+      case e: CompletionException => throw e.getCause
+    }
+}
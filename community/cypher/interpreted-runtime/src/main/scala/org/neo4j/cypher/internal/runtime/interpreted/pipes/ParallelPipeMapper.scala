@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.expressions.CountStar
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.FunctionInvocation
+import org.neo4j.cypher.internal.expressions.functions
+import org.neo4j.cypher.internal.logical.plans.Aggregation
+import org.neo4j.cypher.internal.logical.plans.AllNodesScan
+import org.neo4j.cypher.internal.logical.plans.Expand
+import org.neo4j.cypher.internal.logical.plans.ExpandAll
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.logical.plans.NodeByLabelScan
+import org.neo4j.cypher.internal.logical.plans.Projection
+import org.neo4j.cypher.internal.logical.plans.ResolvedFunctionInvocation
+import org.neo4j.cypher.internal.logical.plans.Selection
+import org.neo4j.cypher.internal.util.attribution.Id
+
+import java.util.concurrent.Executor
+import scala.annotation.tailrec
+
+/**
+ * Decorates the pipes of another [[PipeMapper]] so that the given aggregations run in parallel, see [[ParallelAggregationPipe]].
+ *
+ * @param parallelAggregations the ids of the aggregations to run in parallel, mapped to the ids of the scans they read from.
+ *                             See [[ParallelPipeMapper.parallelAggregations]].
+ */
+case class ParallelPipeMapper(inner: PipeMapper,
+                              parallelAggregations: Map[Id, Id],
+                              workers: Int,
+                              morselSize: Int,
+                              executor: Executor) extends PipeMapper {
+
+  private val parallelScans = parallelAggregations.values.toSet
+
+  override def onLeaf(plan: LogicalPlan): Pipe = plan match {
+    case AllNodesScan(ident, _) if parallelScans.contains(plan.id) =>
+      AllNodesMorselScanPipe(ident, morselSize)(id = plan.id)
+
+    case NodeByLabelScan(ident, label, _, _) if parallelScans.contains(plan.id) =>
+      NodeByLabelMorselScanPipe(ident, LazyLabel(label.name), morselSize)(id = plan.id)
+
+    case _ =>
+      inner.onLeaf(plan)
+  }
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = inner.onOneChildPlan(plan, source) match {
+    case EagerAggregationPipe(_, tableFactory, _) if parallelAggregations.contains(plan.id) =>
+      ParallelAggregationPipe(source, tableFactory, morselScanOf(source), workers, executor)(id = plan.id)
+
+    case pipe =>
+      pipe
+  }
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = inner.onTwoChildPlan(plan, lhs, rhs)
+
+  @tailrec
+  private def morselScanOf(pipe: Pipe): MorselScanPipe = pipe match {
+    case scan: MorselScanPipe => scan
+    case pipe: PipeWithSource => morselScanOf(pipe.getSource)
+    case pipe => throw new IllegalStateException(s"Expected a pipeline starting at a morsel scan, but found $pipe")
+  }
+}
+
+object ParallelPipeMapper {
+
+  /**
+   * Finds the aggregations that can run in parallel, and the scans they read from. These are aggregations that only use
+   * functions whose partial results can be merged, on top of a streaming, read-only pipeline that starts at a node scan.
+   * Nested plans are not considered.
+   */
+  def parallelAggregations(plan: LogicalPlan): Map[Id, Id] =
+    plan.flatten.flatMap {
+      case aggregation@Aggregation(source, _, aggregationExpressions)
+        if aggregationExpressions.nonEmpty && aggregationExpressions.values.forall(isMergeable) && !callsUserDefinedFunctions(aggregation) =>
+        streamingScan(source).map(scan => aggregation.id -> scan.id)
+      case _ =>
+        None
+    }.toMap
+
+  @tailrec
+  private def streamingScan(plan: LogicalPlan): Option[LogicalPlan] = plan match {
+    case scan: AllNodesScan => Some(scan)
+    case scan: NodeByLabelScan => Some(scan)
+    case Selection(_, source) => streamingScan(source)
+    case Projection(source, _) => streamingScan(source)
+    case Expand(source, _, _, _, _, _, ExpandAll) => streamingScan(source)
+    case _ => None
+  }
+
+  private def isMergeable(expression: Expression): Boolean = expression match {
+    case _: CountStar => true
+    case f: FunctionInvocation if !f.distinct => f.function match {
+      case functions.Count | functions.Sum | functions.Min | functions.Max | functions.Collect => true
+      case _ => false
+    }
+    case _ => false
+  }
+
+  // User-defined functions run against the transaction, which may only be used from the thread that owns it
+  private def callsUserDefinedFunctions(plan: LogicalPlan): Boolean = plan.treeExists {
+    case _: ResolvedFunctionInvocation => true
+  }
+}
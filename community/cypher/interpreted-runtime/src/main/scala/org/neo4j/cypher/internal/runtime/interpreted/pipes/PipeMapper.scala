@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.logical.plans.LogicalPlan
 import org.neo4j.cypher.internal.logical.plans.LogicalPlans
+import org.neo4j.cypher.internal.runtime.CypherRowLayout
 
 /**
  * Maps single logical plan operators to their respective pipes. Does not recurse.
@@ -36,3 +37,23 @@ case class PipeTreeBuilder(pipeMapper: PipeMapper) {
     LogicalPlans.map(logicalPlan, pipeMapper)
   }
 }
+
+/**
+ * Decorates the pipes of another [[PipeMapper]] so that they produce [[org.neo4j.cypher.internal.runtime.ArrayCypherRow]]s
+ * with the given layout.
+ */
+case class ArrayRowPipeMapper(inner: PipeMapper, layout: CypherRowLayout) extends PipeMapper {
+
+  private val rowFactory = ArrayCypherRowFactory(layout)
+
+  override def onLeaf(plan: LogicalPlan): Pipe = withArrayRows(inner.onLeaf(plan))
+
+  override def onOneChildPlan(plan: LogicalPlan, source: Pipe): Pipe = withArrayRows(inner.onOneChildPlan(plan, source))
+
+  override def onTwoChildPlan(plan: LogicalPlan, lhs: Pipe, rhs: Pipe): Pipe = withArrayRows(inner.onTwoChildPlan(plan, lhs, rhs))
+
+  private def withArrayRows(pipe: Pipe): Pipe = {
+    pipe.rowFactory = rowFactory
+    pipe
+  }
+}
@@ -21,7 +21,9 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.cypher.internal.config.MemoryTrackingController
 import org.neo4j.cypher.internal.macros.AssertMacros
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow
 import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.CypherRowLayout
 import org.neo4j.cypher.internal.runtime.ExpressionCursors
 import org.neo4j.cypher.internal.runtime.InputDataStream
 import org.neo4j.cypher.internal.runtime.MapCypherRow
@@ -37,10 +39,12 @@ import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.SingleT
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState.createDefaultInCache
 import org.neo4j.cypher.internal.runtime.memory.MemoryTrackerForOperatorProvider
 import org.neo4j.cypher.internal.runtime.memory.QueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.memory.SingleMemoryTrackerForOperatorProvider
 import org.neo4j.internal.kernel
 import org.neo4j.internal.kernel.api.IndexReadSession
 import org.neo4j.internal.kernel.api.TokenReadSession
 import org.neo4j.kernel.impl.query.QuerySubscriber
+import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.AnyValue
 
 class QueryState(val query: QueryContext,
@@ -63,6 +67,7 @@ class QueryState(val query: QueryContext,
 
   private var _pathValueBuilder: PathValueBuilder = _
   private var _rowFactory: CypherRowFactory = _
+  private var _morselScan: MorselScan = _
   private var _closed = false
 
   def newRow(rowFactory: CypherRowFactory): CypherRow = {
@@ -114,7 +119,7 @@ class QueryState(val query: QueryContext,
 
     // This method is not supported when we run with PERIODIC COMMIT, so we assert that we do not have such resources.
     AssertMacros.checkOnlyWhenAssertionsAreEnabled(resources.isInstanceOf[CSVResources])
-    val newResources = new CSVResources(newQuery.resources)
+    val newResources = new CSVResources(newQuery.resources, newQuery.transactionalContext.memoryTracker)
 
     // IndexReadSession and TokenReadSession are bound to the outer transaction.
     // They use a ValueIndexReader / TokenIndexReader that is cached and closed together with the transaction.
@@ -152,6 +157,28 @@ class QueryState(val query: QueryContext,
       input)
   }
 
+  /**
+   * A copy of this state for one worker of a parallel execution, which reads its input from the given shared scan.
+   * Everything that cannot be shared between threads is created anew. Since the memory trackers of the transaction are
+   * not thread-safe, all operators of the worker track their memory with the given thread-confined tracker, see
+   * [[org.neo4j.cypher.internal.runtime.memory.ParallelWorkersMemoryPool]].
+   *
+   * Must be called from the thread that owns the transaction.
+   */
+  def forParallelWorker(workerQuery: QueryContext, morselScan: MorselScan, workerMemoryTracker: MemoryTracker): QueryState = {
+    val workerState = new QueryState(workerQuery, resources, params, workerQuery.createExpressionCursors(), queryIndexes,
+      nodeLabelTokenReadSession, relTypeTokenReadSession, new Array[AnyValue](expressionVariables.length), subscriber,
+      queryMemoryTracker, SingleMemoryTrackerForOperatorProvider(workerMemoryTracker), decorator, initialContext, createDefaultInCache(),
+      lenientCreateRelationship, prePopulateResults, input)
+    workerState._morselScan = morselScan
+    workerState
+  }
+
+  /**
+   * The scan shared by all workers of a parallel execution, or `null` if this state does not belong to such a worker.
+   */
+  def morselScan: MorselScan = _morselScan
+
   def setExecutionContextFactory(rowFactory: CypherRowFactory): Unit = {
     _rowFactory = rowFactory
   }
@@ -287,29 +314,83 @@ case class CommunityCypherRowFactory() extends CypherRowFactory {
   override def copyWith(row: ReadableRow): CypherRow = row match {
     case context: MapCypherRow =>
       context.createClone()
+    case context: ArrayCypherRow =>
+      context.createClone()
   }
 
   // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
   override def copyWith(row: ReadableRow, newEntries: Seq[(String, AnyValue)]): CypherRow = row match {
     case context: MapCypherRow =>
       context.copyWith(newEntries)
+    case context: ArrayCypherRow =>
+      context.copyWith(newEntries)
   }
 
   // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
   override def copyWith(row: ReadableRow, key: String, value: AnyValue): CypherRow = row match {
     case context: MapCypherRow =>
       context.copyWith(key, value)
+    case context: ArrayCypherRow =>
+      context.copyWith(key, value)
   }
 
   // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
   override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = row match {
     case context: MapCypherRow =>
       context.copyWith(key1, value1, key2, value2)
+    case context: ArrayCypherRow =>
+      context.copyWith(key1, value1, key2, value2)
     }
 
   // Not using polymorphism here, instead cast since the cost of being megamorhpic is too high
   override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow = row match {
     case context: MapCypherRow =>
       context.copyWith(key1, value1, key2, value2, key3, value3)
+    case context: ArrayCypherRow =>
+      context.copyWith(key1, value1, key2, value2, key3, value3)
+  }
+}
+
+/**
+ * Creates [[ArrayCypherRow]]s with the given layout. Rows of any other kind, e.g. an initial context handed to the
+ * query, are converted into the layout the first time they are copied.
+ */
+case class ArrayCypherRowFactory(layout: CypherRowLayout) extends CypherRowFactory {
+
+  override def newRow(): CypherRow = ArrayCypherRow(layout)
+
+  override def copyArgumentOf(row: ReadableRow): CypherRow = copyWith(row)
+
+  override def copyWith(row: ReadableRow): ArrayCypherRow = row match {
+    case context: ArrayCypherRow if context.layout eq layout =>
+      context.createClone()
+    case context =>
+      val newRow = ArrayCypherRow(layout)
+      newRow.mergeWith(context, null)
+      newRow
+  }
+
+  override def copyWith(row: ReadableRow, newEntries: Seq[(String, AnyValue)]): CypherRow = {
+    val newRow = copyWith(row)
+    newRow.set(newEntries)
+    newRow
+  }
+
+  override def copyWith(row: ReadableRow, key: String, value: AnyValue): CypherRow = {
+    val newRow = copyWith(row)
+    newRow.set(key, value)
+    newRow
+  }
+
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = {
+    val newRow = copyWith(row)
+    newRow.set(key1, value1, key2, value2)
+    newRow
+  }
+
+  override def copyWith(row: ReadableRow, key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): CypherRow = {
+    val newRow = copyWith(row)
+    newRow.set(key1, value1, key2, value2, key3, value3)
+    newRow
   }
 }
@@ -26,22 +26,52 @@ import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.ClosingIterator.DelegatingClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 
 import scala.collection.JavaConverters.asScalaIteratorConverter
+import scala.collection.mutable.ArrayBuffer
 
-case class SortPipe(source: Pipe, comparator: Comparator[ReadableRow])
+/**
+ * Sorts all input rows on heap. If `spilling` is enabled, and the buffered rows exceed its threshold, they are sorted
+ * and written to disk as a run, and the runs are merged in the end, at most [[SpillFile.MERGE_FACTOR]] at a time.
+ */
+case class SortPipe(source: Pipe, comparator: Comparator[ReadableRow], spilling: Spilling = Spilling.DISABLED)
                    (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(source) {
 
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     val scopedMemoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x).getScopedMemoryTracker
     var arrayList: HeapTrackingArrayList[CypherRow] = HeapTrackingArrayList.newArrayList(256, scopedMemoryTracker)
+    val runs = new ArrayBuffer[SpillFile]()
+    var codec: RowSpillCodec = null
     while (input.hasNext) {
       val row = input.next()
       scopedMemoryTracker.allocateHeap(row.estimatedHeapUsage())
       arrayList.add(row)
+      if (spilling.exceeds(scopedMemoryTracker.estimatedHeapMemory())) {
+        if (codec == null) {
+          codec = new RowSpillCodec
+        }
+        runs += writeRun(arrayList, codec, state)
+        arrayList.close()
+        scopedMemoryTracker.reset()
+        arrayList = HeapTrackingArrayList.newArrayList(256, scopedMemoryTracker)
+      }
+    }
+
+    if (runs.nonEmpty) {
+      if (!arrayList.isEmpty) {
+        runs += writeRun(arrayList, codec, state)
+      }
+      arrayList.close()
+      scopedMemoryTracker.close()
+      input.close()
+      return SpillFile.mergeSortedRows(runs, comparator, () => SpillSupport.newSpillFile(codec, spilling, state))
     }
+
     arrayList.sort(comparator)
     new DelegatingClosingIterator[CypherRow](arrayList.iterator().asScala) {
       override def closeMore(): Unit = {
@@ -51,4 +81,14 @@ case class SortPipe(source: Pipe, comparator: Comparator[ReadableRow])
       }
     }
   }
+
+  private def writeRun(rows: HeapTrackingArrayList[CypherRow], codec: RowSpillCodec, state: QueryState): SpillFile = {
+    rows.sort(comparator)
+    val run = SpillSupport.newSpillFile(codec, spilling, state)
+    val iterator = rows.iterator()
+    while (iterator.hasNext) {
+      run.write(0, iterator.next())
+    }
+    run
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.Spilling
+
+import scala.util.hashing.MurmurHash3
+
+/**
+ * Helpers for pipes that move their buffered rows into [[SpillFile]]s, once the heap that they track for their
+ * buffers exceeds the threshold of their [[Spilling]].
+ */
+object SpillSupport {
+
+  /**
+   * The number of partitions that hash based operators split their spilled rows into.
+   */
+  val PARTITIONS = 16
+
+  /**
+   * A new spill file, traced by the query so that it gets deleted if the query fails or is cancelled.
+   */
+  def newSpillFile(codec: RowSpillCodec, spilling: Spilling, state: QueryState): SpillFile = {
+    val file = spilling.files.newSpillFile(codec)
+    state.query.resources.trace(file)
+    file
+  }
+
+  def newPartitions(codec: RowSpillCodec, spilling: Spilling, state: QueryState): Array[SpillFile] =
+    Array.fill(PARTITIONS)(newSpillFile(codec, spilling, state))
+
+  /**
+   * The partition of a key with the given hash code. Each level of recursive partitioning uses a different hash function,
+   * so that keys of one partition are spread over all partitions of the next level.
+   */
+  def partitionOf(hashCode: Int, level: Int): Int =
+    Math.floorMod(MurmurHash3.finalizeHash(MurmurHash3.mix(level, hashCode), 1), PARTITIONS)
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.Spilling
+import org.neo4j.kernel.impl.util.collection
+import org.neo4j.memory.Measurable
+import org.neo4j.memory.MemoryTracker
+
+/**
+ * The part of a hash join that takes over once its probe table has exceeded the spill threshold.
+ *
+ * The probe table keeps the left hand side rows it has so far. The remaining left hand side rows, and all right hand
+ * side rows, are partitioned to disk by their join key. Each partition is then joined on its own, probing both the
+ * partition and the original table. The right hand side rows are tagged with their input position, so that merging the
+ * joined partitions by that tag gives the same order as the in-memory join: the order of the right hand side, and for
+ * each right hand side row, the order of the left hand side.
+ */
+object SpillingHashJoin {
+
+  /**
+   * @param table        the probe table, which is closed once the join is done
+   * @param lhsRemaining the left hand side rows that are not in the table yet
+   * @param rhs          the right hand side rows
+   * @param lhsKey       the join key of a left hand side row, or `null` if the row cannot match anything
+   * @param rhsKey       the join key of a right hand side row, or `null` if the row cannot match anything
+   * @param spilling     creates the files that the rows are partitioned into
+   */
+  def join[K <: Measurable](table: collection.ProbeTable[K, CypherRow],
+                            lhsRemaining: Iterator[CypherRow],
+                            rhs: Iterator[CypherRow],
+                            lhsKey: CypherRow => K,
+                            rhsKey: CypherRow => K,
+                            memoryTracker: MemoryTracker,
+                            spilling: Spilling,
+                            state: QueryState): ClosingIterator[CypherRow] = {
+    val codec = new RowSpillCodec
+    val lhsPartitions = partition(lhsRemaining, lhsKey, codec, spilling, state, tagWithPosition = false)
+    val rhsPartitions = partition(rhs, rhsKey, codec, spilling, state, tagWithPosition = true)
+
+    val joinedPartitions = lhsPartitions.indices.map { p =>
+      val partitionTable = collection.ProbeTable.createProbeTable[K, CypherRow](memoryTracker)
+      val lhsRows = lhsPartitions(p).rowIterator()
+      while (lhsRows.hasNext) {
+        val lhsRow = lhsRows.next()
+        partitionTable.put(lhsKey(lhsRow), lhsRow)
+      }
+
+      val joined = SpillSupport.newSpillFile(codec, spilling, state)
+      val rhsRows = rhsPartitions(p).read()
+      while (rhsRows.hasNext) {
+        rhsRows.advance()
+        val rhsRow = rhsRows.row
+        val key = rhsKey(rhsRow)
+        writeJoined(table.get(key), rhsRows.tag, rhsRow, joined, state)
+        writeJoined(partitionTable.get(key), rhsRows.tag, rhsRow, joined, state)
+      }
+      rhsPartitions(p).close()
+      partitionTable.close()
+      joined
+    }
+    table.close()
+    SpillFile.mergeByTag(joinedPartitions)
+  }
+
+  private def partition[K](rows: Iterator[CypherRow],
+                           key: CypherRow => K,
+                           codec: RowSpillCodec,
+                           spilling: Spilling,
+                           state: QueryState,
+                           tagWithPosition: Boolean): Array[SpillFile] = {
+    val partitions = SpillSupport.newPartitions(codec, spilling, state)
+    var position = 0L
+    while (rows.hasNext) {
+      val row = rows.next()
+      val rowKey = key(row)
+      if (rowKey != null) {
+        partitions(SpillSupport.partitionOf(rowKey.hashCode(), 0)).write(if (tagWithPosition) position else 0L, row)
+      }
+      position += 1
+    }
+    partitions
+  }
+
+  private def writeJoined(lhsRows: java.util.Iterator[CypherRow], tag: Long, rhsRow: CypherRow, joined: SpillFile, state: QueryState): Unit = {
+    while (lhsRows.hasNext) {
+      val output = lhsRows.next().createClone()
+      output.mergeWith(rhsRow, state.query)
+      joined.write(tag, output)
+    }
+  }
+}
@@ -22,14 +22,16 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.spill.Spilling
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.kernel.impl.util.collection
+import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
 import scala.collection.JavaConverters.asScalaIteratorConverter
 
-case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expression, left: Pipe, right: Pipe)
+case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expression, left: Pipe, right: Pipe, spilling: Spilling = Spilling.DISABLED)
                             (val id: Id = Id.INVALID_ID)
   extends PipeWithSource(left) {
 
@@ -43,9 +45,19 @@ case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expressio
     if (rhsIterator.isEmpty)
       return ClosingIterator.empty
 
-    val table = buildProbeTable(input, state)
+    val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+    val table = buildProbeTable(input, memoryTracker, state)
     state.query.resources.trace(table)
 
+    if (input.hasNext) {
+      val lhsKey: CypherRow => AnyValue = row => lhsExpression(row, state)
+      val rhsKey: CypherRow => AnyValue = row => {
+        val joinKey = rhsExpression(row, state)
+        if (joinKey eq Values.NO_VALUE) null else joinKey
+      }
+      return SpillingHashJoin.join[AnyValue](table, input, rhsIterator, lhsKey, rhsKey, memoryTracker, spilling, state)
+    }
+
     if (table.isEmpty) {
       table.close()
       return ClosingIterator.empty
@@ -64,12 +76,18 @@ case class ValueHashJoinPipe(lhsExpression: Expression, rhsExpression: Expressio
     result.closing(table)
   }
 
-  private def buildProbeTable(input: Iterator[CypherRow], state: QueryState): collection.ProbeTable[AnyValue, CypherRow] = {
-    val table = collection.ProbeTable.createProbeTable[AnyValue, CypherRow](state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
+  /**
+   * Builds the table from the input, or from as much of it as fits below the spill threshold.
+   */
+  private def buildProbeTable(input: Iterator[CypherRow], memoryTracker: MemoryTracker, state: QueryState): collection.ProbeTable[AnyValue, CypherRow] = {
+    val table = collection.ProbeTable.createProbeTable[AnyValue, CypherRow](memoryTracker)
 
-    for (context <- input;
-         joinKey = lhsExpression(context, state) if joinKey != null) {
-      table.put(joinKey, context)
+    while (input.hasNext && !spilling.exceeds(memoryTracker.estimatedHeapMemory())) {
+      val context = input.next()
+      val joinKey = lhsExpression(context, state)
+      if (joinKey != null) {
+        table.put(joinKey, context)
+      }
     }
 
     table
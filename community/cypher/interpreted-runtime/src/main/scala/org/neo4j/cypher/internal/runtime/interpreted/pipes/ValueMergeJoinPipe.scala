@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.neo4j.collection.trackable.HeapTrackingArrayList
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.memory.MemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.AnyValues
+import org.neo4j.values.Equality
+import org.neo4j.values.storable.Values
+
+/**
+ * Joins two inputs that both arrive ordered ascending on their join key.
+ *
+ * Only the run of right rows that share the current join key is held in memory. Rows with a null join key never match
+ * and are skipped on both sides.
+ */
+case class ValueMergeJoinPipe(lhsExpression: Expression, rhsExpression: Expression, left: Pipe, right: Pipe)
+                             (val id: Id = Id.INVALID_ID)
+  extends PipeWithSource(left) {
+
+  override protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
+
+    if (input.isEmpty)
+      return ClosingIterator.empty
+
+    val rhsIterator = right.createResults(state)
+
+    if (rhsIterator.isEmpty)
+      return ClosingIterator.empty
+
+    val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+    new MergeJoinIterator(input, rhsIterator, memoryTracker, state)
+  }
+
+  private class MergeJoinIterator(lhs: ClosingIterator[CypherRow],
+                                  rhs: ClosingIterator[CypherRow],
+                                  memoryTracker: MemoryTracker,
+                                  state: QueryState) extends ClosingIterator[CypherRow] {
+
+    // The current run of right rows, all of which compare equal to runKey
+    private val rowsMemoryTracker = memoryTracker.getScopedMemoryTracker
+    private val runRows = HeapTrackingArrayList.newArrayList[CypherRow](16, memoryTracker)
+    private val runKeys = HeapTrackingArrayList.newArrayList[AnyValue](16, memoryTracker)
+    private var runKey: AnyValue = _
+
+    // The first right row after the current run, once it has been read
+    private var pendingRow: CypherRow = _
+    private var pendingKey: AnyValue = _
+
+    private var lhsRow: CypherRow = _
+    private var lhsKey: AnyValue = _
+    private var runIndex = 0
+    private var nextRow: CypherRow = _
+
+    override protected[this] def innerHasNext: Boolean = {
+      if (nextRow == null) {
+        nextRow = computeNext()
+      }
+      nextRow != null
+    }
+
+    override def next(): CypherRow = {
+      if (!hasNext) {
+        Iterator.empty.next()
+      }
+      val row = nextRow
+      nextRow = null
+      row
+    }
+
+    override protected[this] def closeMore(): Unit = {
+      runRows.close()
+      runKeys.close()
+      rowsMemoryTracker.close()
+      lhs.close()
+      rhs.close()
+    }
+
+    private def computeNext(): CypherRow = {
+      while (true) {
+        while (lhsRow != null && runIndex < runRows.size()) {
+          val i = runIndex
+          runIndex += 1
+          // Comparing equal in the ordering is not the same as being equal, e.g. for NaN
+          if (lhsKey.ternaryEquals(runKeys.get(i)) eq Equality.TRUE) {
+            val outputRow = lhsRow.createClone()
+            outputRow.mergeWith(runRows.get(i), state.query)
+            return outputRow
+          }
+        }
+        if (!advanceLhs()) {
+          return null
+        }
+      }
+      null
+    }
+
+    /**
+     * Moves to the next left row with a non-null key, and moves the right side forward to the run that could match it.
+     *
+     * @return false if there can be no more matches
+     */
+    private def advanceLhs(): Boolean = {
+      lhsRow = null
+      while (lhs.hasNext) {
+        val row = lhs.next()
+        val key = lhsExpression(row, state)
+        if (isJoinable(key)) {
+          if ((runKey == null || AnyValues.COMPARATOR.compare(key, runKey) > 0) && !seekRhs(key)) {
+            return false
+          }
+          lhsRow = row
+          lhsKey = key
+          runIndex = if (AnyValues.COMPARATOR.compare(key, runKey) == 0) 0 else runRows.size()
+          return true
+        }
+      }
+      false
+    }
+
+    /**
+     * Replaces the current run with the first run of right rows whose key is not smaller than the given key.
+     *
+     * @return false if the right side has no such rows
+     */
+    private def seekRhs(key: AnyValue): Boolean = {
+      runRows.clear()
+      runKeys.clear()
+      rowsMemoryTracker.reset()
+
+      while (readRhs() && AnyValues.COMPARATOR.compare(pendingKey, key) < 0) {
+        pendingRow = null
+      }
+      if (pendingRow == null) {
+        return false
+      }
+
+      runKey = pendingKey
+      do {
+        rowsMemoryTracker.allocateHeap(pendingRow.estimatedHeapUsage + pendingKey.estimatedHeapUsage())
+        runRows.add(pendingRow)
+        runKeys.add(pendingKey)
+        pendingRow = null
+      } while (readRhs() && AnyValues.COMPARATOR.compare(pendingKey, runKey) == 0)
+      true
+    }
+
+    private def isJoinable(key: AnyValue): Boolean = (key ne null) && (key ne Values.NO_VALUE)
+
+    /**
+     * Makes sure the next right row with a non-null key, if there is one, is pending.
+     */
+    private def readRhs(): Boolean = {
+      while (pendingRow == null && rhs.hasNext) {
+        val row = rhs.next()
+        val key = rhsExpression(row, state)
+        if (isJoinable(key)) {
+          pendingRow = row
+          pendingKey = key
+        }
+      }
+      pendingRow != null
+    }
+  }
+}
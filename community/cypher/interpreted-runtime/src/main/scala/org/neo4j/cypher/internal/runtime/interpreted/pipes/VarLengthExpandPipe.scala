@@ -20,15 +20,17 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.neo4j.collection.trackable.HeapTrackingCollections
+import org.neo4j.collection.trackable.HeapTrackingLongArrayList
 import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.runtime.ClosingIterator
 import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.IsNoValue
-import org.neo4j.cypher.internal.runtime.RelationshipContainer
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.VarLengthExpandPipe.projectBackwards
 import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.exceptions.InternalException
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.ListValue
 import org.neo4j.values.virtual.VirtualNodeValue
 import org.neo4j.values.virtual.VirtualRelationshipValue
 import org.neo4j.values.virtual.VirtualValues
@@ -60,51 +62,155 @@ case class VarLengthExpandPipe(source: Pipe,
                                filteringStep: VarLengthPredicate = VarLengthPredicate.NONE)
                               (val id: Id = Id.INVALID_ID) extends PipeWithSource(source) {
 
-  private def varLengthExpand(node: VirtualNodeValue, state: QueryState, maxDepth: Option[Int],
-                              row: CypherRow): Iterator[(VirtualNodeValue, RelationshipContainer)] = {
-    val stack = HeapTrackingCollections.newStack[(VirtualNodeValue, RelationshipContainer)](state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x))
-    stack.push((node, RelationshipContainer.EMPTY))
-
-    new ClosingIterator[(VirtualNodeValue, RelationshipContainer)] {
-      def next(): (VirtualNodeValue, RelationshipContainer) = {
-        val (node, rels) = stack.pop()
-        if (rels.size < maxDepth.getOrElse(Int.MaxValue) && filteringStep.filterNode(row, state)(node)) {
-          val relationships = state.query.getRelationshipsForIds(node.id(), dir, types.types(state.query))
-
-          // relationships get immediately exhausted. Therefore we do not need a ClosingIterator here.
-          while (relationships.hasNext) {
-            val rel = VirtualValues.relationship(relationships.next(), relationships.startNodeId(), relationships.endNodeId(), relationships.typeId())
-            if (filteringStep.filterRelationship(row, state)(rel)) {
+  /**
+   * Depth-first expansion from a single node that shares path prefixes instead of copying them.
+   *
+   * Every step waiting on the DFS stack only records its own relationship, the node it reaches and its depth, all in
+   * primitive arrays. The relationships of the path that is currently being visited are kept once, in `path*`, and a
+   * popped step at depth d simply replaces everything in the path from position d - 1 onwards; that is, the parent of
+   * a step is the path entry right before it. Relationship uniqueness is checked against `pathRelationshipIds`, and
+   * relationship lists are only materialized for rows that are actually emitted.
+   */
+  private class VarLengthExpansion(row: CypherRow,
+                                   startNode: VirtualNodeValue,
+                                   state: QueryState,
+                                   minDepth: Int,
+                                   maxDepth: Int) extends ClosingIterator[CypherRow] {
+    private val memoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(id.x)
+
+    // The DFS stack, one entry per step
+    private val stepRelationships = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+    private val stepStartNodes = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+    private val stepEndNodes = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+    private val stepNodes = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+    private val stepTypesAndDepths = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+
+    // The path currently being visited, one entry per relationship
+    private val pathRelationships = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+    private val pathStartNodes = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+    private val pathEndNodes = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+    private val pathTypes = HeapTrackingLongArrayList.newLongArrayList(memoryTracker)
+    private val pathRelationshipIds = HeapTrackingCollections.newLongSet(memoryTracker)
+
+    private var started = false
+    private var nextRow: CypherRow = _
+
+    override protected[this] def innerHasNext: Boolean = {
+      if (nextRow == null) {
+        nextRow = fetchNext()
+      }
+      nextRow != null
+    }
+
+    override def next(): CypherRow = {
+      if (!hasNext) {
+        Iterator.empty.next()
+      }
+      val row = nextRow
+      nextRow = null
+      row
+    }
+
+    private def fetchNext(): CypherRow = {
+      if (!started) {
+        started = true
+        val row = visit(startNode)
+        if (row != null) return row
+      }
+      while (stepNodes.notEmpty()) {
+        popStep()
+        val row = visit(VirtualValues.node(stepNodes.removeLast()))
+        if (row != null) return row
+      }
+      null
+    }
+
+    private def visit(node: VirtualNodeValue): CypherRow = {
+      val depth = pathRelationships.size()
+      if (depth < maxDepth) {
+        pushSteps(node, depth + 1)
+      }
+      if (depth >= minDepth && isToNodeValid(row, node)) {
+        rowFactory.copyWith(row, relName, materializePath(), toName, node)
+      } else {
+        null
+      }
+    }
+
+    private def pushSteps(node: VirtualNodeValue, depth: Int): Unit = {
+      val relationships = state.query.getRelationshipsForIds(node.id(), dir, types.types(state.query))
+
+      // relationships get immediately exhausted. Therefore we do not need a ClosingIterator here.
+      while (relationships.hasNext) {
+        val relId = relationships.next()
+        if (!pathRelationshipIds.contains(relId)) {
+          val rel = VirtualValues.relationship(relId, relationships.startNodeId(), relationships.endNodeId(), relationships.typeId())
+          if (filteringStep.filterRelationship(row, state)(rel)) {
             val otherNode = VirtualValues.node(relationships.otherNodeId(node.id()))
-            if (!rels.contains(rel) && filteringStep.filterNode(row,state)(otherNode)) {
-              stack.push((otherNode, rels.append(rel)))
+            if (filteringStep.filterNode(row, state)(otherNode)) {
+              stepRelationships.add(relId)
+              stepStartNodes.add(relationships.startNodeId())
+              stepEndNodes.add(relationships.endNodeId())
+              stepNodes.add(otherNode.id())
+              stepTypesAndDepths.add((relationships.typeId().toLong << 32) | depth)
             }
           }
         }
-        }
-        val projectedRels =
-          if (projectBackwards(dir, projectedDir)) {
-            rels.reverse
-          } else {
-            rels
-          }
-        (node, projectedRels)
       }
+    }
 
-      def innerHasNext: Boolean = !stack.isEmpty
+    /**
+     * Moves the relationship of the top step onto the path, replacing whatever the path held at that depth and below.
+     * The node reached by the step is left on the stack for the caller.
+     */
+    private def popStep(): Unit = {
+      val typeAndDepth = stepTypesAndDepths.removeLast()
+      val depth = typeAndDepth.toInt
+      while (pathRelationships.size() >= depth) {
+        pathRelationshipIds.remove(pathRelationships.removeLast())
+        pathStartNodes.removeLast()
+        pathEndNodes.removeLast()
+        pathTypes.removeLast()
+      }
+      val relId = stepRelationships.removeLast()
+      pathRelationships.add(relId)
+      pathStartNodes.add(stepStartNodes.removeLast())
+      pathEndNodes.add(stepEndNodes.removeLast())
+      pathTypes.add(typeAndDepth >>> 32)
+      pathRelationshipIds.add(relId)
+    }
 
-      override protected[this] def closeMore(): Unit = stack.close()
+    private def materializePath(): ListValue = {
+      val length = pathRelationships.size()
+      val backwards = projectBackwards(dir, projectedDir)
+      val rels = new Array[AnyValue](length)
+      var i = 0
+      while (i < length) {
+        val rel = VirtualValues.relationship(pathRelationships.get(i), pathStartNodes.get(i), pathEndNodes.get(i), pathTypes.get(i).toInt)
+        rels(if (backwards) length - 1 - i else i) = rel
+        i += 1
+      }
+      VirtualValues.list(rels: _*)
+    }
+
+    override protected[this] def closeMore(): Unit = {
+      stepRelationships.close()
+      stepStartNodes.close()
+      stepEndNodes.close()
+      stepNodes.close()
+      stepTypesAndDepths.close()
+      pathRelationships.close()
+      pathStartNodes.close()
+      pathEndNodes.close()
+      pathTypes.close()
+      pathRelationshipIds.close()
     }
   }
 
   protected def internalCreateResults(input: ClosingIterator[CypherRow], state: QueryState): ClosingIterator[CypherRow] = {
     def expand(row: CypherRow, n: VirtualNodeValue): Iterator[CypherRow] = {
       if (filteringStep.filterNode(row, state)(n)) {
-        val paths = varLengthExpand(n, state, max, row)
-        paths.collect {
-          case (node, rels) if rels.size >= min && isToNodeValid(row, node) =>
-            rowFactory.copyWith(row, relName, rels.asList, toName, node)
-        }
+        new VarLengthExpansion(row, n, state, min, max.getOrElse(Int.MaxValue))
       } else {
         Iterator.empty
       }
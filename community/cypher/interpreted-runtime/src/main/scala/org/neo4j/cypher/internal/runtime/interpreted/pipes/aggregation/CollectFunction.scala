@@ -28,8 +28,8 @@ import org.neo4j.memory.MemoryTracker
 import org.neo4j.values.AnyValue
 import org.neo4j.values.virtual.HeapTrackingListValueBuilder
 
-class CollectFunction(value:Expression, memoryTracker: MemoryTracker) extends AggregationFunction {
-  private[this] val collection = HeapTrackingListValueBuilder.newHeapTrackingListBuilder(memoryTracker)
+class CollectFunction(value:Expression, memoryTracker: MemoryTracker) extends AggregationFunction with MergeableAggregationFunction {
+  private val collection = HeapTrackingListValueBuilder.newHeapTrackingListBuilder(memoryTracker)
 
   override def apply(data: ReadableRow, state:QueryState): Unit = {
     value(data, state) match {
@@ -39,6 +39,13 @@ class CollectFunction(value:Expression, memoryTracker: MemoryTracker) extends Ag
     }
   }
 
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    val values = other.asInstanceOf[CollectFunction].collection.buildAndClose().iterator()
+    while (values.hasNext) {
+      collection.add(values.next())
+    }
+  }
+
   override def result(state: QueryState): AnyValue = {
     collection.buildAndClose();
   }
@@ -27,7 +27,7 @@ import org.neo4j.memory.HeapEstimator.shallowSizeOfInstance
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-class CountFunction(value: Expression) extends AggregationFunction {
+class CountFunction(value: Expression) extends AggregationFunction with MergeableAggregationFunction {
   var count: Long = 0
 
   override def apply(data: ReadableRow, state: QueryState) {
@@ -38,6 +38,10 @@ class CountFunction(value: Expression) extends AggregationFunction {
   }
 
   override def result(state: QueryState): AnyValue = Values.longValue(count)
+
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    count += other.asInstanceOf[CountFunction].count
+  }
 }
 
 object CountFunction {
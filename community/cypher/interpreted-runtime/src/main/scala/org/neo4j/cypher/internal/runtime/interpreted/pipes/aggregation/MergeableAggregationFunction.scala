@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
+
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+
+/**
+ * An aggregation function whose partial aggregate can be combined with that of another instance of the same function,
+ * which has aggregated a disjoint part of the input. This is how the thread-local tables of a parallel aggregation
+ * are combined.
+ */
+trait MergeableAggregationFunction {
+  self: AggregationFunction =>
+
+  /**
+   * Adds the partial aggregate of `other`, which must be of the same class as this function, to this one.
+   */
+  def merge(other: AggregationFunction, state: QueryState): Unit
+}
@@ -24,6 +24,7 @@ import org.neo4j.cypher.internal.runtime.CypherRow
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregatingCol
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.AggregationTableFactory
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.AggregationPipe.MergeableAggregationTable
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.CypherRowFactory
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.internal.util.attribution.Id
@@ -37,7 +38,7 @@ import org.neo4j.memory.MemoryTracker
 class NonGroupingAggTable(aggregations: Array[AggregatingCol],
                           state: QueryState,
                           rowFactory: CypherRowFactory,
-                          operatorId: Id) extends AggregationTable {
+                          operatorId: Id) extends MergeableAggregationTable {
   private val aggregationFunctions = new Array[AggregationFunction](aggregations.length) // We do not track this allocation, but it should be negligable
   private val scopedMemoryTracker: MemoryTracker = state.memoryTrackerForOperatorProvider.memoryTrackerForOperator(operatorId.x).getScopedMemoryTracker
 
@@ -62,6 +63,16 @@ class NonGroupingAggTable(aggregations: Array[AggregatingCol],
     }
   }
 
+  override def merge(other: AggregationTable): Unit = {
+    val that = other.asInstanceOf[NonGroupingAggTable]
+    var i = 0
+    while (i < aggregationFunctions.length) {
+      aggregationFunctions(i).asInstanceOf[MergeableAggregationFunction].merge(that.aggregationFunctions(i), state)
+      i += 1
+    }
+    that.close()
+  }
+
   override def result(): ClosingIterator[CypherRow] = {
     val row = resultRow()
     scopedMemoryTracker.close()
@@ -29,7 +29,8 @@ import org.neo4j.values.utils.ValueMath.overflowSafeAdd
 
 class SumFunction(val value: Expression)
   extends AggregationFunction
-  with NumericOrDurationAggregationExpression {
+  with NumericOrDurationAggregationExpression
+  with MergeableAggregationFunction {
 
   def name = "SUM"
 
@@ -55,6 +56,21 @@ class SumFunction(val value: Expression)
       }
     )
   }
+
+  override def merge(other: AggregationFunction, state: QueryState): Unit = {
+    val that = other.asInstanceOf[SumFunction]
+    // A function that has not seen any value would otherwise contribute a zero number, even if we are summing durations
+    if (that.aggregatingType.isDefined) {
+      actOnNumberOrDuration(that.result(state),
+        number => {
+          sumNumber = overflowSafeAdd(sumNumber, number)
+        },
+        duration => {
+          sumDuration = sumDuration.add(duration)
+        }
+      )
+    }
+  }
 }
 
 object SumFunction {
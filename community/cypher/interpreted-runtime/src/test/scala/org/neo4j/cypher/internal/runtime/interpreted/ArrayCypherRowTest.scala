@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted
+
+import org.neo4j.cypher.internal.ast.AstConstructionTestSupport
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.CypherRowLayout
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.ArrayCypherRowFactory
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+import java.util.UUID
+
+class ArrayCypherRowTest extends CypherFunSuite with AstConstructionTestSupport {
+
+  private val nProp = cachedNodeProp("n", "prop")
+  private val mProp = cachedNodeProp("m", "prop")
+  private val layout = new CypherRowLayout(Array("n", "m", "key1", "key2"), Array(nProp.runtimeKey -> "n", mProp.runtimeKey -> "m"))
+
+  test("layout should assign variables before cached properties") {
+    layout.variableOffset("n") should be(0)
+    layout.variableOffset("key2") should be(3)
+    layout.variableOffset("unknown") should be(-1)
+    layout.cachedPropertyOffset(nProp.runtimeKey) should be(4)
+    layout.cachedPropertyOffset(mProp.runtimeKey) should be(5)
+    layout.cachedPropertyOffset(cachedNodeProp("x", "prop").runtimeKey) should be(-1)
+    layout.size should be(6)
+  }
+
+  test("set and get variables with and without slots") {
+    // given
+    val row = ArrayCypherRow(layout)
+
+    // when
+    row.set("key1", BooleanValue.FALSE, "overflow", BooleanValue.TRUE)
+
+    // then
+    row.getByName("key1") should equal(BooleanValue.FALSE)
+    row.getByName("overflow") should equal(BooleanValue.TRUE)
+    row.containsName("key2") shouldBe false
+    row.numberOfColumns should be(2)
+    a[NotFoundException] should be thrownBy row.getByName("key2")
+  }
+
+  test("create clone") {
+    // given
+    val row = ArrayCypherRow(layout)
+    row.set("key1", BooleanValue.FALSE)
+    row.setCachedProperty(nProp.runtimeKey, Values.longValue(42L))
+
+    // when
+    val clone = row.createClone()
+
+    // then
+    clone.getByName("key1") should equal(BooleanValue.FALSE)
+    clone.getCachedProperty(nProp.runtimeKey) should equal(Values.longValue(42L))
+    clone should equal(row)
+
+    mutatingLeftDoesNotAffectRight(clone, row)
+  }
+
+  test("copyWith should not affect the original row") {
+    // given
+    val row = ArrayCypherRow(layout)
+    row.set("key1", BooleanValue.FALSE)
+
+    // when
+    val copy = row.copyWith("key1", BooleanValue.TRUE, "key2", BooleanValue.TRUE)
+
+    // then
+    row.getByName("key1") should equal(BooleanValue.FALSE)
+    row.containsName("key2") shouldBe false
+    copy.getByName("key1") should equal(BooleanValue.TRUE)
+    copy.getByName("key2") should equal(BooleanValue.TRUE)
+  }
+
+  test("mergeWith should not resurrect invalidated cached properties") {
+    // given
+    val lhs = ArrayCypherRow(layout)
+    lhs.set("n", VirtualValues.node(1))
+    lhs.setCachedProperty(nProp.runtimeKey, Values.longValue(1L))
+    lhs.setCachedProperty(mProp.runtimeKey, Values.longValue(2L))
+    val rhs = lhs.createClone()
+
+    // when
+    rhs.invalidateCachedNodeProperties(1)
+    lhs.mergeWith(rhs, null)
+
+    // then
+    lhs.getCachedProperty(nProp.runtimeKey) shouldBe null
+    // m is not in the row, so we cannot know whether it is node 1
+    lhs.getCachedProperty(mProp.runtimeKey) shouldBe null
+  }
+
+  test("invalidate cached node properties should only invalidate the matching node") {
+    // given
+    val row = ArrayCypherRow(layout)
+    row.set("n", VirtualValues.node(1), "m", VirtualValues.node(2))
+    row.setCachedProperty(nProp.runtimeKey, Values.longValue(1L))
+    row.setCachedProperty(mProp.runtimeKey, Values.longValue(2L))
+
+    // when
+    row.invalidateCachedNodeProperties(2)
+
+    // then
+    row.getCachedProperty(nProp.runtimeKey) should equal(Values.longValue(1L))
+    row.getCachedProperty(mProp.runtimeKey) shouldBe null
+  }
+
+  test("mergeWith map row and back") {
+    // given
+    val arrayRow = ArrayCypherRow(layout)
+    arrayRow.set("key1", BooleanValue.FALSE)
+    val mapRow = CypherRow.empty
+    mapRow.set("key2", BooleanValue.TRUE, "overflow", BooleanValue.TRUE)
+    mapRow.setCachedProperty(nProp.runtimeKey, Values.longValue(1L))
+
+    // when
+    arrayRow.mergeWith(mapRow, null)
+
+    // then
+    arrayRow.getByName("key1") should equal(BooleanValue.FALSE)
+    arrayRow.getByName("key2") should equal(BooleanValue.TRUE)
+    arrayRow.getByName("overflow") should equal(BooleanValue.TRUE)
+    arrayRow.getCachedProperty(nProp.runtimeKey) should equal(Values.longValue(1L))
+
+    // when
+    val otherMapRow = CypherRow.empty
+    otherMapRow.mergeWith(arrayRow, null)
+
+    // then
+    otherMapRow.getByName("key1") should equal(BooleanValue.FALSE)
+    otherMapRow.getByName("key2") should equal(BooleanValue.TRUE)
+    otherMapRow.getByName("overflow") should equal(BooleanValue.TRUE)
+    otherMapRow.getCachedProperty(nProp.runtimeKey) should equal(Values.longValue(1L))
+  }
+
+  test("row factory should convert map rows into the layout") {
+    // given
+    val factory = ArrayCypherRowFactory(layout)
+    val mapRow = CypherRow.empty.copyWith("key1", BooleanValue.TRUE)
+
+    // when
+    val row = factory.copyWith(mapRow, "key2", BooleanValue.FALSE)
+
+    // then
+    row shouldBe an[ArrayCypherRow]
+    row.getByName("key1") should equal(BooleanValue.TRUE)
+    row.getByName("key2") should equal(BooleanValue.FALSE)
+  }
+
+  test("copyMapped - should transform values") {
+    // given
+    val row = ArrayCypherRow(layout)
+    row.set("key1", Values.longValue(1L), "overflow", Values.longValue(2L))
+    row.setCachedProperty(nProp.runtimeKey, Values.longValue(3L))
+
+    // when
+    val mapped = row.copyMapped(_ => Values.longValue(0L))
+
+    // then
+    mapped.getByName("key1") should equal(Values.longValue(0L))
+    mapped.getByName("overflow") should equal(Values.longValue(0L))
+    mapped.getCachedProperty(nProp.runtimeKey) should equal(Values.longValue(0L))
+    mapped.containsName("key2") shouldBe false
+  }
+
+  private def mutatingLeftDoesNotAffectRight(left: CypherRow, right: CypherRow): Unit = {
+    // given
+    left should not be theSameInstanceAs(right)
+    val newKey = UUID.randomUUID().toString // this key should not yet exist in left or right
+    val newCachedPropertyKey = cachedNodeProp("n", newKey)
+
+    // when (left is modified)
+    left.set("key2", BooleanValue.TRUE)
+    left.set(newKey, BooleanValue.TRUE)
+    left.setCachedProperty(newCachedPropertyKey.runtimeKey, BooleanValue.FALSE)
+    left.setCachedProperty(mProp.runtimeKey, BooleanValue.FALSE)
+
+    // then (only left should be modified)
+    right.containsName("key2") shouldBe false
+    right.containsName(newKey) shouldBe false
+    right.getCachedProperty(newCachedPropertyKey.runtimeKey) shouldBe null
+    right.getCachedProperty(mProp.runtimeKey) shouldBe null
+  }
+}
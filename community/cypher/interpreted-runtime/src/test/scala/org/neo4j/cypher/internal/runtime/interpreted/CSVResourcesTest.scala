@@ -20,10 +20,16 @@
 package org.neo4j.cypher.internal.runtime.interpreted
 
 import java.net.URL
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
 
 import org.apache.commons.lang3.SystemUtils
 import org.mockito.ArgumentMatchers.any
 import org.mockito.Mockito.verify
+import org.neo4j.csv.reader.IllegalMultilineFieldException
 import org.neo4j.cypher.internal.runtime.CreateTempFileTestSupport
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.CSVResources.DEFAULT_BUFFER_SIZE
@@ -31,16 +37,24 @@ import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.exceptions.LoadExternalResourceException
 import org.neo4j.internal.kernel.api.AutoCloseablePlus
 import org.neo4j.io.fs.FileUtils
+import org.neo4j.memory.LocalMemoryTracker
 import org.neo4j.values.storable.TextValue
 
 class CSVResourcesTest extends CypherFunSuite with CreateTempFileTestSupport {
 
   var resources: CSVResources = _
   var cleaner: ResourceManager = _
+  var executor: ExecutorService = _
 
   override def beforeEach() {
     cleaner = mock[ResourceManager]
     resources = new CSVResources(cleaner)
+    executor = Executors.newCachedThreadPool()
+  }
+
+  override def afterEach() {
+    executor.shutdownNow()
+    super.afterEach()
   }
 
   test("should handle strings") {
@@ -246,4 +260,130 @@ class CSVResourcesTest extends CypherFunSuite with CreateTempFileTestSupport {
         r should equal(expected)
     }
   }
+
+  test("should keep the order of lines when parsing in parallel") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        writer.println("a,b")
+        (1 to 1000).foreach(i => writer.println(s"$i,value$i"))
+    }
+
+    //when
+    val iterator = resources.getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, bufferSize = 64,
+      headers = true, parsingThreads = 4, parsingExecutor = Some(executor))
+    val result = try {
+      iterator.map(_.map(_.asInstanceOf[TextValue].stringValue).toList).toList
+    } finally {
+      iterator.close()
+    }
+
+    //then
+    result should equal(List("a", "b") :: (1 to 1000).map(i => List(i.toString, s"value$i")).toList)
+    iterator.lastProcessed should equal(1001)
+    iterator.readAll should equal(true)
+  }
+
+  test("should not accept multiline fields when parsing in parallel") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        writer.println("a\tb")
+        writer.println("1\t\"Bar\nQuux\"")
+    }
+
+    //when
+    val iterator = resources.getCsvIterator(new URL(url), Some("\t"), legacyCsvQuoteEscaping = false,
+      DEFAULT_BUFFER_SIZE, parsingThreads = 2, parsingExecutor = Some(executor))
+
+    //then
+    try {
+      intercept[IllegalMultilineFieldException](iterator.toList)
+    } finally {
+      iterator.close()
+    }
+  }
+
+  test("should not run more parsing tasks than parsing threads") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 1000).foreach(i => writer.println(s"$i,value$i"))
+    }
+    val running = new AtomicInteger()
+    val maxRunning = new AtomicInteger()
+    val countingExecutor: Executor = task => executor.execute(() => {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), (a, b) => Math.max(a, b))
+      try task.run() finally running.decrementAndGet()
+    })
+
+    //when
+    val iterator = resources.getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, bufferSize = 64,
+      parsingThreads = 2, parsingExecutor = Some(countingExecutor))
+    val lines = try iterator.size finally iterator.close()
+
+    //then
+    lines should equal(1000)
+    maxRunning.get() should be <= 2
+  }
+
+  test("should not wait for parsing tasks when closed") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 1000).foreach(i => writer.println(s"$i,value$i"))
+    }
+    val queuedTasks = new ConcurrentLinkedQueue[Runnable]()
+    val queueingExecutor: Executor = task => queuedTasks.add(task)
+    val iterator = resources.getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, bufferSize = 64,
+      parsingThreads = 2, parsingExecutor = Some(queueingExecutor))
+
+    //when
+    iterator.close()
+
+    //then the tasks are left to the executor, and do not read any chunks once they run
+    queuedTasks.size() should equal(2)
+    queuedTasks.forEach(_.run())
+  }
+
+  test("should parse on the consuming thread without a parsing executor") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 10).foreach(i => writer.println(s"$i,value$i"))
+    }
+
+    //when
+    val iterator = resources.getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, DEFAULT_BUFFER_SIZE,
+      parsingThreads = 4)
+    val result = try {
+      iterator.map(_.map(_.asInstanceOf[TextValue].stringValue).toList).toList
+    } finally {
+      iterator.close()
+    }
+
+    //then
+    result should equal((1 to 10).map(i => List(i.toString, s"value$i")).toList)
+  }
+
+  test("should track the read-ahead buffers of parallel parsing in the memory tracker") {
+    // given
+    val url = createCSVTempFileURL {
+      writer =>
+        (1 to 1000).foreach(i => writer.println(s"$i,value$i"))
+    }
+    val memoryTracker = new LocalMemoryTracker()
+    val trackingResources = new CSVResources(cleaner, memoryTracker)
+
+    //when
+    val iterator = trackingResources.getCsvIterator(new URL(url), None, legacyCsvQuoteEscaping = false, bufferSize = 64,
+      parsingThreads = 4, parsingExecutor = Some(executor))
+
+    //then
+    memoryTracker.estimatedHeapMemory() should equal(ParallelCSVParser.bufferHeapUsage(64, 4))
+    memoryTracker.estimatedHeapMemory() should be > 2L * 4 * 64 * Character.BYTES
+    iterator.size should equal(1000)
+    iterator.close()
+    memoryTracker.estimatedHeapMemory() should equal(0)
+  }
 }
@@ -36,8 +36,11 @@ import org.neo4j.cypher.internal.runtime.interpreted.pipes.ExternalCSVResource
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.NullPipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.PipeDecorator
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.cypher.internal.runtime.memory.MemoryTrackerForOperatorProvider
 import org.neo4j.cypher.internal.runtime.memory.NoOpMemoryTrackerForOperatorProvider
 import org.neo4j.cypher.internal.runtime.memory.NoOpQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.memory.TrackingQueryMemoryTracker
+import org.neo4j.cypher.internal.runtime.memory.TransactionBoundMemoryTrackerForOperatorProvider
 import org.neo4j.graphdb.Node
 import org.neo4j.graphdb.Relationship
 import org.neo4j.graphdb.spatial.Point
@@ -78,7 +81,8 @@ object QueryStateHelper extends MockitoSugar {
                 subscriber: QuerySubscriber = QuerySubscriber.DO_NOTHING_SUBSCRIBER,
                 decorator: PipeDecorator = NullPipeDecorator,
                 initialContext: Option[CypherRow] = None,
-                input: InputDataStream = NoInput
+                input: InputDataStream = NoInput,
+                memoryTrackerForOperatorProvider: MemoryTrackerForOperatorProvider = NoOpMemoryTrackerForOperatorProvider
                ):QueryState =
     new QueryState(query,
       resources,
@@ -90,7 +94,7 @@ object QueryStateHelper extends MockitoSugar {
       expressionVariables,
       subscriber,
       NoOpQueryMemoryTracker,
-      NoOpMemoryTrackerForOperatorProvider,
+      memoryTrackerForOperatorProvider,
       decorator = decorator,
       initialContext = initialContext,
       input = input)
@@ -137,6 +141,14 @@ object QueryStateHelper extends MockitoSugar {
     emptyWith(query = context)
   }
 
+  def emptyWithOperatorMemoryTracking(resourceManager: ResourceManager): QueryState = {
+    val context = mock[QueryContext](Mockito.RETURNS_DEEP_STUBS)
+    Mockito.when(context.resources).thenReturn(resourceManager)
+    Mockito.when(context.asObject(ArgumentMatchers.any())).thenAnswer((invocationOnMock: InvocationOnMock) => toObject(invocationOnMock.getArgument(0)))
+    val memoryTrackerForOperatorProvider = new TransactionBoundMemoryTrackerForOperatorProvider(EmptyMemoryTracker.INSTANCE, new TrackingQueryMemoryTracker)
+    emptyWith(query = context, memoryTrackerForOperatorProvider = memoryTrackerForOperatorProvider)
+  }
+
   class TrackClosedMonitor extends ResourceMonitor {
     private val _closedResources = new ArrayBuffer[AutoCloseablePlus]()
     override def trace(resource: AutoCloseablePlus): Unit = ()
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.convert
+
+import org.neo4j.cypher.internal.expressions.Add
+import org.neo4j.cypher.internal.expressions.And
+import org.neo4j.cypher.internal.expressions.Divide
+import org.neo4j.cypher.internal.expressions.Equals
+import org.neo4j.cypher.internal.expressions.Expression
+import org.neo4j.cypher.internal.expressions.IsNull
+import org.neo4j.cypher.internal.expressions.LessThan
+import org.neo4j.cypher.internal.expressions.Null
+import org.neo4j.cypher.internal.expressions.SignedDecimalIntegerLiteral
+import org.neo4j.cypher.internal.expressions.Variable
+import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CompiledCommandExpression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.CompiledCommandPredicate
+import org.neo4j.cypher.internal.util.AnonymousVariableNameGenerator
+import org.neo4j.cypher.internal.util.DummyPosition
+import org.neo4j.cypher.internal.util.attribution.Id
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.exceptions.ArithmeticException
+import org.neo4j.values.storable.Values.FALSE
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.TRUE
+import org.neo4j.values.storable.Values.longValue
+
+class CodeGenExpressionConverterTest extends CypherFunSuite {
+
+  private val pos = DummyPosition(0)
+  private val id = Id.INVALID_ID
+
+  private val interpreted = new ExpressionConverters(
+    CommunityExpressionConverter(ReadTokenContext.EMPTY, new AnonymousVariableNameGenerator()))
+  private val compiled = new ExpressionConverters(
+    CodeGenExpressionConverter(ReadTokenContext.EMPTY),
+    CommunityExpressionConverter(ReadTokenContext.EMPTY, new AnonymousVariableNameGenerator()))
+
+  private val row = CypherRow.from("a" -> longValue(3), "b" -> longValue(4), "n" -> NO_VALUE)
+
+  private def variable(name: String) = Variable(name)(pos)
+  private def literal(value: Long) = SignedDecimalIntegerLiteral(value.toString)(pos)
+
+  private def evaluate(converters: ExpressionConverters, expression: Expression) =
+    converters.toCommandExpression(id, expression)(row, QueryStateHelper.empty)
+
+  private def shouldMatchInterpreted(expression: Expression) =
+    evaluate(compiled, expression) should equal(evaluate(interpreted, expression))
+
+  test("should compile arithmetic") {
+    val expression = Add(variable("a"), literal(5))(pos)
+
+    compiled.toCommandExpression(id, expression) shouldBe a[CompiledCommandExpression]
+    evaluate(compiled, expression) should equal(longValue(8))
+    shouldMatchInterpreted(expression)
+  }
+
+  test("should propagate null through arithmetic") {
+    shouldMatchInterpreted(Add(variable("n"), literal(5))(pos))
+    evaluate(compiled, Divide(variable("n"), literal(0))(pos)) should equal(NO_VALUE)
+  }
+
+  test("should throw on division by zero like the interpreted expression") {
+    an[ArithmeticException] should be thrownBy evaluate(compiled, Divide(variable("a"), literal(0))(pos))
+  }
+
+  test("should compile comparisons to predicates") {
+    val lessThan = LessThan(variable("a"), variable("b"))(pos)
+    val equals = Equals(variable("a"), variable("b"))(pos)
+
+    compiled.toCommandPredicate(id, lessThan) shouldBe a[CompiledCommandPredicate]
+    evaluate(compiled, lessThan) should equal(TRUE)
+    evaluate(compiled, equals) should equal(FALSE)
+    shouldMatchInterpreted(lessThan)
+    shouldMatchInterpreted(equals)
+    shouldMatchInterpreted(Equals(variable("a"), variable("n"))(pos))
+    shouldMatchInterpreted(LessThan(variable("n"), literal(1))(pos))
+  }
+
+  test("should compile null checks") {
+    val predicate = compiled.toCommandPredicate(id, IsNull(variable("n"))(pos))
+
+    predicate.isMatch(row, QueryStateHelper.empty) should equal(Some(true))
+    predicate.containsIsNull shouldBe true
+    shouldMatchInterpreted(IsNull(Null()(pos))(pos))
+  }
+
+  test("should leave boolean connectives interpreted but compile their operands") {
+    val expression = And(LessThan(variable("a"), variable("b"))(pos), IsNull(variable("n"))(pos))(pos)
+
+    compiled.toCommandExpression(id, expression) should not be a[CompiledCommandExpression]
+    compiled.toCommandExpression(id, expression).arguments.foreach(_ shouldBe a[CompiledCommandPredicate])
+    shouldMatchInterpreted(expression)
+  }
+}
@@ -48,7 +48,7 @@ class LoadCsvPeriodicCommitObserverTest extends CypherFunSuite {
 
   test("should not trigger tx restart until after first batch has been processed") {
     // Given
-    when(resource.getCsvIterator(ArgumentMatchers.eq(url), any(), anyBoolean(), anyInt(), anyBoolean())).thenReturn(getIterator(Iterator(
+    when(resource.getCsvIterator(ArgumentMatchers.eq(url), any(), anyBoolean(), anyInt(), anyBoolean(), anyInt(), any())).thenReturn(getIterator(Iterator(
       Array("Row1"),
       Array("Row2"))))
 
@@ -64,7 +64,7 @@ class LoadCsvPeriodicCommitObserverTest extends CypherFunSuite {
 
   test("headers should not count") {
     // given
-    when(resource.getCsvIterator(ArgumentMatchers.eq(url), any(), anyBoolean(), anyInt(), ArgumentMatchers.eq(true))).thenReturn(getIterator(Iterator(
+    when(resource.getCsvIterator(ArgumentMatchers.eq(url), any(), anyBoolean(), anyInt(), ArgumentMatchers.eq(true), anyInt(), any())).thenReturn(getIterator(Iterator(
       Array("header"),
       Array("Row1"),
       Array("Row2"),
@@ -90,7 +90,7 @@ class LoadCsvPeriodicCommitObserverTest extends CypherFunSuite {
 
   test("multiple iterators are still handled correctly only commit when the first iterator advances") {
     // Given
-    when(resource.getCsvIterator(ArgumentMatchers.eq(url), any(), anyBoolean(), anyInt(), anyBoolean())).
+    when(resource.getCsvIterator(ArgumentMatchers.eq(url), any(), anyBoolean(), anyInt(), anyBoolean(), anyInt(), any())).
       thenReturn(getIterator(Iterator(Array("outer1"),Array("outer2")))).
       thenReturn(getIterator(Iterator(Array("inner1"),Array("inner2"),Array("inner3"),Array("inner4"))))
     val iterator1 = resourceUnderTest.getCsvIterator(url, fieldTerminator = None, legacyCsvQuoteEscaping = false,
@@ -116,7 +116,7 @@ class LoadCsvPeriodicCommitObserverTest extends CypherFunSuite {
 
     // When
     verify(resource).getCsvIterator(url, Some(";"), legacyCsvQuoteEscaping = false,
-      DEFAULT_BUFFER_SIZE, false)
+      DEFAULT_BUFFER_SIZE, false, 1, None)
   }
 
   override protected def beforeEach() {
@@ -22,8 +22,16 @@ package org.neo4j.cypher.internal.runtime.interpreted.pipes
 import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.SpillFiles
+import org.neo4j.cypher.internal.runtime.spill.Spilling
+import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.fs.DefaultFileSystemAbstraction
 import org.neo4j.kernel.impl.util.collection.DistinctSet
+import org.neo4j.values.storable.Values.intValue
+
+import java.nio.file.Files
 
 class DistinctPipeTest extends CypherFunSuite {
   test("should be lazy") {
@@ -59,4 +67,23 @@ class DistinctPipeTest extends CypherFunSuite {
     input.wasClosed shouldBe true
     monitor.closedResources.collect { case t: DistinctSet[_] => t } should have size(1)
   }
+
+  test("should keep first occurrences in order when spilling") {
+    val resourceManager = new ResourceManager()
+
+    val fs = new DefaultFileSystemAbstraction
+    val directory = Files.createTempDirectory("distinct-pipe-test")
+
+    try {
+      val input = new FakePipe(Seq(Map("a"->1), Map("a"->2), Map("a"->1), Map("a"->3), Map("a"->2), Map("a"->4), Map("a"->3)))
+      val pipe = DistinctPipe(input, Array(DistinctPipe.GroupingCol("a", Variable("a"))), Spilling(1, new SpillFiles(fs, directory)))(Id(0))
+      val result = pipe.createResults(QueryStateHelper.emptyWithOperatorMemoryTracking(resourceManager)).map(_.getByName("a")).toList
+
+      result should equal(Seq(1, 2, 3, 4).map(intValue))
+      resourceManager.allResources.collect { case f: SpillFile => f } shouldBe empty
+      fs.listFiles(directory) shouldBe empty
+    } finally {
+      fs.deleteRecursively(directory)
+    }
+  }
 }
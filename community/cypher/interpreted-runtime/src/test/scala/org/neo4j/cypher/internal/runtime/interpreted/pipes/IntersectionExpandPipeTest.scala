@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.ArgumentMatchers
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.expressions.SemanticDirection
+import org.neo4j.cypher.internal.expressions.SemanticDirection.INCOMING
+import org.neo4j.cypher.internal.expressions.SemanticDirection.OUTGOING
+import org.neo4j.cypher.internal.runtime.ClosingLongIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.RelationshipIterator
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.IntersectionExpandPipe.Arm
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.storageengine.api.RelationshipVisitor
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+class IntersectionExpandPipeTest extends CypherFunSuite {
+
+  private val arms = IndexedSeq(
+    Arm("a", "r", OUTGOING, new EagerTypes(Array(0))),
+    Arm("b", "s", INCOMING, new EagerTypes(Array(0))))
+
+  test("should produce one row per shared neighbour and combination of relationships") {
+    // given
+    val state = QueryStateHelper.emptyWithValueSerialization
+    givenRelationships(state, 1, OUTGOING, (100, 1, 10), (102, 1, 12), (101, 1, 11))
+    givenRelationships(state, 2, INCOMING, (203, 12, 2), (202, 13, 2), (200, 11, 2), (201, 12, 2))
+    val input = new FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2))))
+
+    // when
+    val result = IntersectionExpandPipe(input, arms, "c")().createResults(state).map(matched).toList
+
+    // then
+    result.map(_._1) should equal(List(11, 12, 12))
+    result should contain theSameElementsAs List((11, 101, 200), (12, 102, 203), (12, 102, 201))
+  }
+
+  test("should produce nothing when there are no shared neighbours") {
+    // given
+    val state = QueryStateHelper.emptyWithValueSerialization
+    givenRelationships(state, 1, OUTGOING, (100, 1, 10), (101, 1, 11))
+    givenRelationships(state, 2, INCOMING, (200, 12, 2), (201, 13, 2))
+    val input = new FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2))))
+
+    // when
+    val result = IntersectionExpandPipe(input, arms, "c")().createResults(state).toList
+
+    // then
+    result shouldBe empty
+  }
+
+  test("should not read the remaining arms when an arm has no neighbours") {
+    // given
+    val state = QueryStateHelper.emptyWithValueSerialization
+    givenRelationships(state, 1, OUTGOING)
+    givenRelationships(state, 2, INCOMING, (200, 12, 2))
+    val input = new FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2))))
+
+    // when
+    val result = IntersectionExpandPipe(input, arms, "c")().createResults(state).toList
+
+    // then
+    result shouldBe empty
+    verify(state.query, never()).getRelationshipsForIds(ArgumentMatchers.eq(2L), any[SemanticDirection](), any[Array[Int]]())
+  }
+
+  test("should produce nothing for null nodes") {
+    // given
+    val state = QueryStateHelper.emptyWithValueSerialization
+    val input = new FakePipe(Seq(Map("a" -> null, "b" -> VirtualValues.node(2))))
+
+    // when
+    val result = IntersectionExpandPipe(input, arms, "c")().createResults(state).toList
+
+    // then
+    result shouldBe empty
+    verify(state.query, never()).getRelationshipsForIds(anyLong(), any[SemanticDirection](), any[Array[Int]]())
+  }
+
+  test("should intersect the neighbours of more than two nodes") {
+    // given
+    val state = QueryStateHelper.emptyWithValueSerialization
+    givenRelationships(state, 1, OUTGOING, (100, 1, 10), (101, 1, 11), (102, 1, 12), (103, 1, 13))
+    givenRelationships(state, 2, INCOMING, (200, 13, 2), (201, 11, 2), (202, 12, 2))
+    givenRelationships(state, 3, OUTGOING, (300, 3, 13), (301, 3, 10), (302, 3, 11))
+    val input = new FakePipe(Seq(Map("a" -> VirtualValues.node(1), "b" -> VirtualValues.node(2), "d" -> VirtualValues.node(3))))
+    val threeArms = arms :+ Arm("d", "t", OUTGOING, new EagerTypes(Array(0)))
+
+    // when
+    val result = IntersectionExpandPipe(input, threeArms, "c")().createResults(state).map { row =>
+      (row.getByName("c").asInstanceOf[VirtualNodeValue].id(), row.getByName("t").asInstanceOf[VirtualRelationshipValue].id())
+    }.toList
+
+    // then
+    result should equal(List((11, 302), (13, 300)))
+  }
+
+  private def matched(row: CypherRow): (Long, Long, Long) =
+    (row.getByName("c").asInstanceOf[VirtualNodeValue].id(),
+      row.getByName("r").asInstanceOf[VirtualRelationshipValue].id(),
+      row.getByName("s").asInstanceOf[VirtualRelationshipValue].id())
+
+  private def givenRelationships(state: QueryState, node: Long, dir: SemanticDirection, relationships: (Long, Long, Long)*): Unit =
+    when(state.query.getRelationshipsForIds(ArgumentMatchers.eq(node), ArgumentMatchers.eq(dir), any[Array[Int]]())).thenReturn(relationshipIterator(relationships))
+
+  private def relationshipIterator(relationships: Seq[(Long, Long, Long)]): ClosingLongIterator with RelationshipIterator =
+    new ClosingLongIterator with RelationshipIterator {
+      private var i = -1
+
+      override def close(): Unit = ()
+
+      override protected[this] def innerHasNext: Boolean = i + 1 < relationships.size
+
+      override def next(): Long = {
+        i += 1
+        relationships(i)._1
+      }
+
+      override def relationshipVisit[EXCEPTION <: Exception](relationshipId: Long, visitor: RelationshipVisitor[EXCEPTION]): Boolean = {
+        visitor.visit(relationshipId, typeId(), startNodeId(), endNodeId())
+        true
+      }
+
+      override def startNodeId(): Long = relationships(i)._2
+
+      override def endNodeId(): Long = relationships(i)._3
+
+      override def typeId(): Int = 0
+    }
+}
@@ -20,16 +20,24 @@
 package org.neo4j.cypher.internal.runtime.interpreted.pipes
 
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.neo4j.cypher.internal.runtime.ResourceManager
 import org.neo4j.cypher.internal.runtime.interpreted.Ascending
 import org.neo4j.cypher.internal.runtime.interpreted.Descending
 import org.neo4j.cypher.internal.runtime.interpreted.InterpretedExecutionContextOrdering
 import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
 import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper.beEquivalentTo
+import org.neo4j.cypher.internal.runtime.spill.SpillFile
+import org.neo4j.cypher.internal.runtime.spill.SpillFiles
+import org.neo4j.cypher.internal.runtime.spill.Spilling
+import org.neo4j.cypher.internal.util.attribution.Id
 import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.fs.DefaultFileSystemAbstraction
 import org.neo4j.values.storable.Values
 import org.neo4j.values.storable.Values.intValue
 import org.scalatest.mockito.MockitoSugar
 
+import java.nio.file.Files
+
 import scala.collection.mutable
 
 class SortPipeTest extends CypherFunSuite with MockitoSugar {
@@ -91,4 +99,45 @@ class SortPipeTest extends CypherFunSuite with MockitoSugar {
       Map("y" -> intValue(2)),
       Map("y" -> Values.NO_VALUE)))
   }
+
+  test("should sort spilled runs") {
+    val resourceManager = new ResourceManager()
+    val list: Seq[mutable.Map[String, Any]] = Seq(5, 3, 8, 1, 9, 2, 7, 4, 6).map(i => mutable.Map[String, Any]("x" -> i))
+    val source = new FakePipe(list)
+    val fs = new DefaultFileSystemAbstraction
+    val directory = Files.createTempDirectory("sort-pipe-test")
+
+    try {
+      val spilling = Spilling(1, new SpillFiles(fs, directory))
+      val sortPipe = SortPipe(source, InterpretedExecutionContextOrdering.asComparator(List(Ascending("x"))), spilling)(Id(0))
+
+      sortPipe.createResults(QueryStateHelper.emptyWithOperatorMemoryTracking(resourceManager)).toList should beEquivalentTo(
+        (1 to 9).map(i => Map("x" -> i)).toList)
+      source.wasClosed shouldBe true
+      resourceManager.allResources.collect { case f: SpillFile => f } shouldBe empty
+      fs.listFiles(directory) shouldBe empty
+    } finally {
+      fs.deleteRecursively(directory)
+    }
+  }
+
+  test("should sort more spilled runs than are merged at once") {
+    val resourceManager = new ResourceManager()
+    val values = (1 to 10 * SpillFile.MERGE_FACTOR).reverse
+    val source = new FakePipe(values.map(i => mutable.Map[String, Any]("x" -> i)))
+    val fs = new DefaultFileSystemAbstraction
+    val directory = Files.createTempDirectory("sort-pipe-test")
+
+    try {
+      val spilling = Spilling(1, new SpillFiles(fs, directory))
+      val sortPipe = SortPipe(source, InterpretedExecutionContextOrdering.asComparator(List(Ascending("x"))), spilling)(Id(0))
+
+      sortPipe.createResults(QueryStateHelper.emptyWithOperatorMemoryTracking(resourceManager)).toList should beEquivalentTo(
+        values.sorted.map(i => Map("x" -> i)).toList)
+      resourceManager.allResources.collect { case f: SpillFile => f } shouldBe empty
+      fs.listFiles(directory) shouldBe empty
+    } finally {
+      fs.deleteRecursively(directory)
+    }
+  }
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes
+
+import org.mockito.ArgumentMatchers.any
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.when
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ImplicitValueConversion.toIntValue
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContextHelper.RichExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.TestableIterator
+import org.neo4j.cypher.internal.runtime.interpreted.ValueComparisonHelper.beEquivalentTo
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.doubleValue
+import org.neo4j.values.storable.Values.intValue
+
+class ValueMergeJoinPipeTest extends CypherFunSuite {
+
+  test("should support simple merge join between two identifiers") {
+    // given
+    val queryState = QueryStateHelper.emptyWithValueSerialization
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(rows("a", 1, 2, 4))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(rows("b", 2, 3, 4))
+
+    // when
+    val result = ValueMergeJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+
+    // then
+    result.toList should beEquivalentTo(List(Map("a" -> 2, "b" -> 2), Map("a" -> 4, "b" -> 4)))
+  }
+
+  test("should handle nulls") {
+    // given
+    val queryState = QueryStateHelper.emptyWithValueSerialization
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(rows("a", 1, 2, NO_VALUE))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(rows("b", 2, 3, NO_VALUE))
+
+    // when
+    val result = ValueMergeJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+
+    // then
+    result.toList should beEquivalentTo(List(Map("a" -> 2, "b" -> 2)))
+  }
+
+  test("should handle multiples on both sides and keep the order of the LHS") {
+    // given
+    val leftSide = ClosingIterator(Iterator(
+      row("a" -> 1, "a2" -> 1),
+      row("a" -> 1, "a2" -> 2),
+      row("a" -> 2, "a2" -> 3),
+      row("a" -> 3, "a2" -> 4),
+      row("a" -> 4, "a2" -> 5)))
+
+    val rightSide = ClosingIterator(Iterator(
+      row("b" -> 1, "b2" -> 1),
+      row("b" -> 2, "b2" -> 2),
+      row("b" -> 2, "b2" -> 3),
+      row("b" -> 4, "b2" -> 4)))
+
+    val queryState = QueryStateHelper.emptyWithValueSerialization
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(leftSide)
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(rightSide)
+
+    // when
+    val result = ValueMergeJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+
+    // then
+    result.map(_.toMap).toList should equal(List(
+      Map("a" -> intValue(1), "b" -> intValue(1), "a2" -> intValue(1), "b2" -> intValue(1)),
+      Map("a" -> intValue(1), "b" -> intValue(1), "a2" -> intValue(2), "b2" -> intValue(1)),
+      Map("a" -> intValue(2), "b" -> intValue(2), "a2" -> intValue(3), "b2" -> intValue(2)),
+      Map("a" -> intValue(2), "b" -> intValue(2), "a2" -> intValue(3), "b2" -> intValue(3)),
+      Map("a" -> intValue(4), "b" -> intValue(4), "a2" -> intValue(5), "b2" -> intValue(4))
+    ))
+  }
+
+  test("should join numbers of different types that are equal") {
+    // given
+    val queryState = QueryStateHelper.emptyWithValueSerialization
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(rows("a", 1, 2, 3))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(rows("b", doubleValue(1.5), doubleValue(2.0), doubleValue(Double.NaN)))
+
+    // when
+    val result = ValueMergeJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+
+    // then
+    result.toList should beEquivalentTo(List(Map("a" -> 2, "b" -> 2.0)))
+  }
+
+  test("should not join NaN with itself") {
+    // given
+    val queryState = QueryStateHelper.emptyWithValueSerialization
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(rows("a", doubleValue(Double.NaN)))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(rows("b", doubleValue(Double.NaN)))
+
+    // when
+    val result = ValueMergeJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+
+    // then
+    result shouldBe empty
+  }
+
+  test("should not fetch results from RHS if LHS is empty") {
+    // given
+    val queryState = QueryStateHelper.emptyWithValueSerialization
+
+    val left = mock[Pipe]
+    when(left.createResults(queryState)).thenReturn(ClosingIterator.empty)
+
+    val right = mock[Pipe]
+
+    // when
+    val result = ValueMergeJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+
+    // then
+    result shouldBe empty
+    verify(right, never()).createResults(any())
+  }
+
+  test("should stop reading the LHS once the RHS is exhausted") {
+    // given
+    val queryState = QueryStateHelper.emptyWithValueSerialization
+
+    val left = mock[Pipe]
+    val lhsIterator = new TestableIterator(rows("a", 1, 5, 6, 7, 8))
+    when(left.createResults(queryState)).thenReturn(ClosingIterator(lhsIterator))
+
+    val right = mock[Pipe]
+    when(right.createResults(queryState)).thenReturn(rows("b", 1, 2))
+
+    // when
+    val result = ValueMergeJoinPipe(Variable("a"), Variable("b"), left, right)().createResults(queryState)
+
+    // then
+    result.toList should beEquivalentTo(List(Map("a" -> 1, "b" -> 1)))
+    lhsIterator.fetched should equal(2)
+  }
+
+  private def row(values: (String, AnyValue)*) = CypherRow.from(values: _*)
+
+  private def rows(variable: String, values: AnyValue*): ClosingIterator[CypherRow] =
+    ClosingIterator(values.map(x => CypherRow.from(variable -> x)).iterator)
+
+}
@@ -33,9 +33,11 @@ import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
 import org.neo4j.graphdb.Node
 import org.neo4j.internal.kernel.api.NodeCursor
 import org.neo4j.storageengine.api.RelationshipVisitor
+import org.neo4j.values.virtual.ListValue
 import org.neo4j.values.virtual.NodeValue
 import org.neo4j.values.virtual.RelationshipValue
 import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
 
 class VarLengthExpandPipeTest extends CypherFunSuite {
   private trait WasClosed {
@@ -132,6 +134,35 @@ class VarLengthExpandPipeTest extends CypherFunSuite {
     rels.wasClosed shouldBe true
   }
 
+  test("should not reuse relationships within a path") {
+    val state = QueryStateHelper.emptyWithResourceManager(new ResourceManager(QueryStateHelper.trackClosedMonitor))
+    // (10)-[1]->(11)-[2]->(10)
+    Mockito.when(state.query.getRelationshipsForIds(any[Long], any[SemanticDirection], any[Array[Int]])).thenAnswer(
+      (invocation: InvocationOnMock) => invocation.getArgument[Long](0) match {
+        case 10L => PrimitiveLongHelper.relationshipIteratorFrom((1, 0, 10, 11))
+        case 11L => PrimitiveLongHelper.relationshipIteratorFrom((2, 0, 11, 10))
+      })
+
+    val input = FakePipe(Seq(Map("a"->newMockedNode(10))))
+    val pipe = VarLengthExpandPipe(input,
+      "a",
+      "r",
+      "b",
+      SemanticDirection.OUTGOING,
+      SemanticDirection.INCOMING,
+      new EagerTypes(Array(0)),
+      1,
+      None,
+      nodeInScope = false)()
+
+    val result = pipe.createResults(state).map { row =>
+      val rels = row.getByName("r").asInstanceOf[ListValue].asArray().map(_.asInstanceOf[VirtualRelationshipValue].id()).toList
+      (rels, row.getByName("b").asInstanceOf[VirtualNodeValue].id())
+    }.toList
+
+    result should equal(List((List(1L), 11L), (List(2L, 1L), 10L)))
+  }
+
   private def newMockedNode(id: Int): Node = {
     val node = mock[Node]
     when(node.getId).thenReturn(id)
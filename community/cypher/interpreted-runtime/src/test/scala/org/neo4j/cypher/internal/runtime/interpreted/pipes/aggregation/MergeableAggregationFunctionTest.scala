@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.pipes.aggregation
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.interpreted.QueryStateHelper
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Variable
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.memory.EmptyMemoryTracker
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values.NO_VALUE
+import org.neo4j.values.storable.Values.intValue
+import org.neo4j.values.storable.Values.longValue
+import org.neo4j.values.virtual.VirtualValues
+
+class MergeableAggregationFunctionTest extends CypherFunSuite {
+
+  test("count should add up partial counts") {
+    merged(new CountFunction(_), Seq(intValue(1), NO_VALUE), Seq(intValue(2), intValue(3))) should equal(longValue(3))
+  }
+
+  test("count(*) should add up partial counts") {
+    merged(_ => new CountStarFunction, Seq(intValue(1), NO_VALUE), Seq(intValue(2))) should equal(longValue(3))
+  }
+
+  test("sum should add up partial sums") {
+    merged(new SumFunction(_), Seq(intValue(1), intValue(2)), Seq(intValue(3))) should equal(longValue(6))
+  }
+
+  test("sum should ignore empty partial sums") {
+    merged(new SumFunction(_), Seq(intValue(1), intValue(2)), Seq.empty) should equal(longValue(3))
+  }
+
+  test("min and max should pick across partial results") {
+    merged(new MinFunction(_), Seq(intValue(4), intValue(2)), Seq(intValue(3), intValue(1))) should equal(intValue(1))
+    merged(new MaxFunction(_), Seq(intValue(4), intValue(2)), Seq(intValue(5), NO_VALUE)) should equal(intValue(5))
+    merged(new MaxFunction(_), Seq(intValue(4)), Seq.empty) should equal(intValue(4))
+  }
+
+  test("collect should append partial collections") {
+    merged(new CollectFunction(_, EmptyMemoryTracker.INSTANCE), Seq(intValue(1)), Seq(intValue(2), NO_VALUE, intValue(3))) should equal(
+      VirtualValues.list(intValue(1), intValue(2), intValue(3)))
+  }
+
+  private def merged(createAggregator: Expression => AggregationFunction, left: Seq[AnyValue], right: Seq[AnyValue]): AnyValue = {
+    val state = QueryStateHelper.empty
+    def aggregate(values: Seq[AnyValue]): AggregationFunction = {
+      val func = createAggregator(Variable("x"))
+      values.foreach(value => func(CypherRow.from("x" -> value), state))
+      func
+    }
+    val result = aggregate(left)
+    result.asInstanceOf[MergeableAggregationFunction].merge(aggregate(right), state)
+    result.result(state)
+  }
+}
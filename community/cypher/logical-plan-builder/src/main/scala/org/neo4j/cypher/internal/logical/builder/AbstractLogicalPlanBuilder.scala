@@ -118,6 +118,8 @@ import org.neo4j.cypher.internal.logical.plans.IndexSeek
 import org.neo4j.cypher.internal.logical.plans.IndexedProperty
 import org.neo4j.cypher.internal.logical.plans.InjectCompilationError
 import org.neo4j.cypher.internal.logical.plans.Input
+import org.neo4j.cypher.internal.logical.plans.IntersectionArm
+import org.neo4j.cypher.internal.logical.plans.IntersectionExpand
 import org.neo4j.cypher.internal.logical.plans.LeftOuterHashJoin
 import org.neo4j.cypher.internal.logical.plans.LetAntiSemiApply
 import org.neo4j.cypher.internal.logical.plans.LetSelectOrAntiSemiApply
@@ -200,6 +202,7 @@ import org.neo4j.cypher.internal.logical.plans.Union
 import org.neo4j.cypher.internal.logical.plans.UnwindCollection
 import org.neo4j.cypher.internal.logical.plans.UserFunctionSignature
 import org.neo4j.cypher.internal.logical.plans.ValueHashJoin
+import org.neo4j.cypher.internal.logical.plans.ValueMergeJoin
 import org.neo4j.cypher.internal.logical.plans.VarExpand
 import org.neo4j.cypher.internal.logical.plans.VariablePredicate
 import org.neo4j.cypher.internal.util.InputPosition
@@ -464,6 +467,19 @@ abstract class AbstractLogicalPlanBuilder[T, IMPL <: AbstractLogicalPlanBuilder[
 
   def expandInto(pattern: String): IMPL = expand(pattern, ExpandInto)
 
+  def intersectionExpand(patterns: String*): IMPL = {
+    val parsed = patterns.map(patternParser.parse)
+    val to = parsed.head.to
+    if (parsed.exists(_.to != to)) {
+      throw new IllegalArgumentException("All patterns of an intersection expand must end in the same node")
+    }
+    parsed.foreach(p => newRelationship(varFor(p.relName)))
+    newNode(varFor(to))
+    val arms = parsed.map(p => IntersectionArm(p.from, p.dir, p.relTypes, p.relName))
+    appendAtCurrentIndent(UnaryOperator(lp => IntersectionExpand(lp, arms, to)(_)))
+    self
+  }
+
   def optionalExpandAll(pattern: String,
                         predicate: Option[String] = None): IMPL =
     optionalExpandAll(
@@ -1136,6 +1152,15 @@ abstract class AbstractLogicalPlanBuilder[T, IMPL <: AbstractLogicalPlanBuilder[
     }
   }
 
+  def valueMergeJoin(predicate: String): IMPL = {
+    val expression = parseExpression(predicate)
+    expression match {
+      case e: Equals =>
+        appendAtCurrentIndent(BinaryOperator((left, right) => ValueMergeJoin(left, right, e)(_)))
+      case _ => throw new IllegalArgumentException(s"can't join on $expression")
+    }
+  }
+
   def input(nodes: Seq[String] = Seq.empty, relationships: Seq[String] = Seq.empty, variables: Seq[String] = Seq.empty, nullable: Boolean = true): IMPL = {
     if (indent != 0) {
       throw new IllegalStateException("The input operator has to be the left-most leaf of the plan")
@@ -1198,7 +1223,8 @@ abstract class AbstractLogicalPlanBuilder[T, IMPL <: AbstractLogicalPlanBuilder[
       format,
       fieldTerminator,
       legacyCsvQuoteEscaping = GraphDatabaseSettings.csv_legacy_quote_escaping.defaultValue(),
-      csvBufferSize = GraphDatabaseSettings.csv_buffer_size.defaultValue().toInt
+      csvBufferSize = GraphDatabaseSettings.csv_buffer_size.defaultValue().toInt,
+      csvParsingThreads = GraphDatabaseSettings.csv_parsing_threads.defaultValue()
     )(_)))
   }
 
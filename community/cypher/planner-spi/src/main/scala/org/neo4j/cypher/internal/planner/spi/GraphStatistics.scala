@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.planner.spi
 
+import org.neo4j.cypher.internal.logical.plans.Bound
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
@@ -64,6 +65,20 @@ trait GraphStatistics {
    * indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE x.prop IS NOT NULL|
    */
   def indexPropertyIsNotNullSelectivity(index: IndexDescriptor): Option[Selectivity]
+
+  /**
+   * Probability of any node or relationship in the index to have the given value, based on the distribution of values in the index.
+   * None if the distribution is not known, in which case a uniform distribution should be assumed.
+   *
+   * valueSelectivity(:X, prop, v) = s => |MATCH (a:X) WHERE a.prop IS NOT NULL| * s = |MATCH (a:X) WHERE a.prop = v|
+   */
+  def valueSelectivity(index: IndexDescriptor, value: PropertyValue): Option[Selectivity] = None
+
+  /**
+   * Probability of any node or relationship in the index to have a value in the given range, based on the distribution of values in the index.
+   * A missing bound means that the range is unbounded in that direction. None if the distribution is not known.
+   */
+  def rangeSelectivity(index: IndexDescriptor, lower: Option[Bound[PropertyValue]], upper: Option[Bound[PropertyValue]]): Option[Selectivity] = None
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -79,5 +94,11 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
   override def indexPropertyIsNotNullSelectivity(index: IndexDescriptor): Option[Selectivity] =
     delegate.indexPropertyIsNotNullSelectivity(index)
 
+  override def valueSelectivity(index: IndexDescriptor, value: PropertyValue): Option[Selectivity] =
+    delegate.valueSelectivity(index, value)
+
+  override def rangeSelectivity(index: IndexDescriptor, lower: Option[Bound[PropertyValue]], upper: Option[Bound[PropertyValue]]): Option[Selectivity] =
+    delegate.rangeSelectivity(index, lower, upper)
+
   override def nodesAllCardinality(): Cardinality = delegate.nodesAllCardinality()
 }
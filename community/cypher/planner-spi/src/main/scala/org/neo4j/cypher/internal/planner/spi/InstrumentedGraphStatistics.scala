@@ -19,6 +19,7 @@
  */
 package org.neo4j.cypher.internal.planner.spi
 
+import org.neo4j.cypher.internal.logical.plans.Bound
 import org.neo4j.cypher.internal.util.Cardinality
 import org.neo4j.cypher.internal.util.LabelId
 import org.neo4j.cypher.internal.util.RelTypeId
@@ -34,6 +35,8 @@ case object NodesAllCardinality extends StatisticsKey
 case class CardinalityByLabelsAndRelationshipType(lhs: Option[LabelId], relType: Option[RelTypeId], rhs: Option[LabelId]) extends StatisticsKey
 case class IndexSelectivity(index: IndexDescriptor) extends StatisticsKey
 case class IndexPropertyExistsSelectivity(index: IndexDescriptor) extends StatisticsKey
+case class IndexValueSelectivity(index: IndexDescriptor, value: PropertyValue) extends StatisticsKey
+case class IndexRangeSelectivity(index: IndexDescriptor, lower: Option[Bound[PropertyValue]], upper: Option[Bound[PropertyValue]]) extends StatisticsKey
 
 class MutableGraphStatisticsSnapshot(val map: mutable.Map[StatisticsKey, Double] = mutable.Map.empty) {
   def freeze: GraphStatisticsSnapshot = GraphStatisticsSnapshot(map.toMap)
@@ -57,6 +60,10 @@ case class GraphStatisticsSnapshot(statsValues: Map[StatisticsKey, Double] = Map
         instrumented.uniqueValueSelectivity(index)
       case IndexPropertyExistsSelectivity(index) =>
         instrumented.indexPropertyIsNotNullSelectivity(index)
+      case IndexValueSelectivity(index, value) =>
+        instrumented.valueSelectivity(index, value)
+      case IndexRangeSelectivity(index, lower, upper) =>
+        instrumented.rangeSelectivity(index, lower, upper)
     }
     snapshot.freeze
   }
@@ -99,5 +106,17 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
     selectivity
   }
 
+  override def valueSelectivity(index: IndexDescriptor, value: PropertyValue): Option[Selectivity] = {
+    val selectivity = inner.valueSelectivity(index, value)
+    snapshot.map.getOrElseUpdate(IndexValueSelectivity(index, value), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
+  override def rangeSelectivity(index: IndexDescriptor, lower: Option[Bound[PropertyValue]], upper: Option[Bound[PropertyValue]]): Option[Selectivity] = {
+    val selectivity = inner.rangeSelectivity(index, lower, upper)
+    snapshot.map.getOrElseUpdate(IndexRangeSelectivity(index, lower, upper), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
   override def nodesAllCardinality(): Cardinality = snapshot.map.getOrElseUpdate(NodesAllCardinality, inner.nodesAllCardinality().amount)
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.planner.spi
+
+import org.neo4j.cypher.internal.logical.plans.Bound
+import org.neo4j.cypher.internal.logical.plans.ExclusiveBound
+import org.neo4j.cypher.internal.logical.plans.InclusiveBound
+import org.neo4j.cypher.internal.util.Selectivity
+
+/**
+ * A predicate on a parameter whose value influenced the estimates the planner made for a query.
+ * A plan made for one value of the parameter may be a bad plan for another value that is much more, or much less, selective.
+ */
+sealed trait SelectivitySensitivePredicate {
+  def parameterName: String
+  def index: IndexDescriptor
+
+  /**
+   * The selectivity of this predicate if the parameter had the given value, if the statistics can tell.
+   */
+  def selectivity(stats: GraphStatistics, value: PropertyValue): Option[Selectivity]
+}
+
+/**
+ * `n.prop = $param`
+ */
+case class SelectivitySensitiveEquality(parameterName: String, index: IndexDescriptor) extends SelectivitySensitivePredicate {
+  override def selectivity(stats: GraphStatistics, value: PropertyValue): Option[Selectivity] =
+    stats.valueSelectivity(index, value)
+}
+
+/**
+ * `n.prop > $param`, `n.prop <= $param` and so on.
+ */
+case class SelectivitySensitiveRangeBound(parameterName: String,
+                                          index: IndexDescriptor,
+                                          isLowerBound: Boolean,
+                                          isInclusive: Boolean) extends SelectivitySensitivePredicate {
+  override def selectivity(stats: GraphStatistics, value: PropertyValue): Option[Selectivity] = {
+    val bound: Bound[PropertyValue] = if (isInclusive) InclusiveBound(value) else ExclusiveBound(value)
+    if (isLowerBound) stats.rangeSelectivity(index, Some(bound), None)
+    else stats.rangeSelectivity(index, None, Some(bound))
+  }
+}
+
+object SelectivitySensitivePredicate {
+
+  /**
+   * Parameter values are put in this many buckets, from not selective to very selective.
+   */
+  val NUMBER_OF_BUCKETS = 3
+
+  /**
+   * Each bucket covers selectivities that are a factor 100 apart: [1, 0.01), [0.01, 0.0001) and anything below.
+   * Values within a bucket are assumed to be served well by the same plan.
+   */
+  def bucket(selectivity: Selectivity): Int =
+    if (selectivity.factor <= 0.0) NUMBER_OF_BUCKETS - 1
+    else math.min(NUMBER_OF_BUCKETS - 1, (-math.log10(selectivity.factor) / 2).toInt)
+}
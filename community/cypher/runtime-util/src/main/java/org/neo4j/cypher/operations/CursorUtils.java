@@ -33,6 +33,7 @@ import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
 import org.neo4j.internal.kernel.api.helpers.RelationshipSelections;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.impl.newapi.Cursors;
+import org.neo4j.storageengine.api.PropertyPredicate;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.DurationValue;
@@ -198,6 +199,43 @@ public final class CursorUtils
         return propertyCursor.next();
     }
 
+    /**
+     * Tests a property of a node against a predicate, without materializing the property value where the storage
+     * engine supports it.
+     *
+     * @param read The current Read instance
+     * @param nodeCursor The node cursor to use
+     * @param node The id of the node
+     * @param propertyCursor The property cursor to use
+     * @param predicate The predicate to test, on the property it compares
+     * @return {@code true} if the node has the property and its value matches the predicate, otherwise {@code false}
+     * @throws EntityNotFoundException If the node was deleted in transaction.
+     */
+    public static boolean nodeMatchesPropertyPredicate(
+            Read read,
+            NodeCursor nodeCursor,
+            long node,
+            PropertyCursor propertyCursor,
+            PropertyPredicate predicate
+    ) throws EntityNotFoundException
+    {
+        if ( node == NO_SUCH_NODE || predicate.propertyKey() == NO_SUCH_PROPERTY_KEY )
+        {
+            return false;
+        }
+        read.singleNode( node, nodeCursor );
+        if ( !nodeCursor.next() )
+        {
+            if ( read.nodeDeletedInTransaction( node ) )
+            {
+                throw new EntityNotFoundException( String.format( "Node with id %d has been deleted in this transaction", node ) );
+            }
+            return false;
+        }
+        nodeCursor.properties( propertyCursor, PropertySelection.selection( predicate.propertyKey() ) );
+        return propertyCursor.next() && propertyCursor.propertyValueMatches( predicate );
+    }
+
     /**
      * Checks if given node has a given label.
      *
@@ -421,6 +459,44 @@ public final class CursorUtils
         return propertyCursor.next();
     }
 
+    /**
+     * Tests a property of a relationship against a predicate, without materializing the property value where the
+     * storage engine supports it.
+     *
+     * @param read The current Read instance
+     * @param relationshipCursor The relationship cursor to use
+     * @param relationship The id of the relationship
+     * @param propertyCursor The property cursor to use
+     * @param predicate The predicate to test, on the property it compares
+     * @return {@code true} if the relationship has the property and its value matches the predicate, otherwise {@code false}
+     * @throws EntityNotFoundException If the relationship was deleted in transaction.
+     */
+    public static boolean relationshipMatchesPropertyPredicate(
+            Read read,
+            RelationshipScanCursor relationshipCursor,
+            long relationship,
+            PropertyCursor propertyCursor,
+            PropertyPredicate predicate
+    ) throws EntityNotFoundException
+    {
+        if ( relationship == NO_SUCH_RELATIONSHIP || predicate.propertyKey() == NO_SUCH_PROPERTY_KEY )
+        {
+            return false;
+        }
+        read.singleRelationship( relationship, relationshipCursor );
+        if ( !relationshipCursor.next() )
+        {
+            if ( read.relationshipDeletedInTransaction( relationship ) )
+            {
+                throw new EntityNotFoundException(
+                        String.format( "Relationship with id %d has been deleted in this transaction", relationship ) );
+            }
+            return false;
+        }
+        relationshipCursor.properties( propertyCursor, PropertySelection.selection( predicate.propertyKey() ) );
+        return propertyCursor.next() && propertyCursor.propertyValueMatches( predicate );
+    }
+
     public static RelationshipTraversalCursor nodeGetRelationships( Read read, CursorFactory cursors, NodeCursor node,
             long nodeId, Direction direction, CursorContext cursorContext )
     {
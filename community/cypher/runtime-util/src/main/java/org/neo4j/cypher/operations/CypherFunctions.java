@@ -647,6 +647,42 @@ public final class CypherFunctions
         }
     }
 
+    /**
+     * Like {@link #propertyGet(String, AnyValue, DbAccess, NodeCursor, RelationshipScanCursor, PropertyCursor)}, but uses the given property key token
+     * for nodes and relationships unless it is {@link StatementConstants#NO_SUCH_PROPERTY_KEY}, in which case the token is looked up by name.
+     */
+    @CalledFromGeneratedCode
+    public static AnyValue propertyGet( String key,
+                                        int propertyKey,
+                                        AnyValue container,
+                                        DbAccess dbAccess,
+                                        NodeCursor nodeCursor,
+                                        RelationshipScanCursor relationshipScanCursor,
+                                        PropertyCursor propertyCursor )
+    {
+        assert container != NO_VALUE : "NO_VALUE checks need to happen outside this call";
+        if ( container instanceof VirtualNodeValue )
+        {
+            return dbAccess.nodeProperty( ((VirtualNodeValue) container).id(),
+                                          propertyKey == StatementConstants.NO_SUCH_PROPERTY_KEY ? dbAccess.propertyKey( key ) : propertyKey,
+                                          nodeCursor,
+                                          propertyCursor,
+                                          true );
+        }
+        else if ( container instanceof VirtualRelationshipValue )
+        {
+            return dbAccess.relationshipProperty( ((VirtualRelationshipValue) container).id(),
+                                                  propertyKey == StatementConstants.NO_SUCH_PROPERTY_KEY ? dbAccess.propertyKey( key ) : propertyKey,
+                                                  relationshipScanCursor,
+                                                  propertyCursor,
+                                                  true );
+        }
+        else
+        {
+            return propertyGet( key, container, dbAccess, nodeCursor, relationshipScanCursor, propertyCursor );
+        }
+    }
+
     public static AnyValue containerIndex( AnyValue container,
                                            AnyValue index,
                                            DbAccess dbAccess,
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.exceptions.InternalException
+import org.neo4j.graphdb.NotFoundException
+import org.neo4j.memory.HeapEstimator.shallowSizeOfInstance
+import org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray
+import org.neo4j.values.AnyValue
+import org.neo4j.values.AnyValueWriter
+import org.neo4j.values.Equality
+import org.neo4j.values.ValueMapper
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.ValueRepresentation
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+
+import scala.collection.mutable
+
+object ArrayCypherRow {
+  private final val SHALLOW_SIZE = shallowSizeOfInstance(classOf[ArrayCypherRow])
+  private final val INITIAL_SIZE_OF_MUTABLE_MAP = shallowSizeOfInstance(classOf[mutable.OpenHashMap[_,_]]) + shallowSizeOfObjectArray(8)
+
+  def apply(layout: CypherRowLayout): ArrayCypherRow = new ArrayCypherRow(layout, new Array[AnyValue](layout.size), null, null)
+
+  /**
+   * Marks an invalidated cached property slot. An empty slot means that the property was never cached, which matters when
+   * merging rows: an invalidation on the other row must win over a possibly stale value on this row.
+   */
+  private[runtime] case object InvalidatedCachedProperty extends AnyValue {
+    override protected def equalTo(other: Any): Boolean = this eq other.asInstanceOf[AnyRef]
+    override protected def computeHash(): Int = 0
+    override def writeTo[E <: Exception](writer: AnyValueWriter[E]): Unit = throw new UnsupportedOperationException()
+    override def ternaryEquals(other: AnyValue): Equality = throw new UnsupportedOperationException()
+    override def map[T](mapper: ValueMapper[T]): T = throw new UnsupportedOperationException()
+    override def getTypeName: String = "InvalidatedCachedProperty"
+    override def estimatedHeapUsage(): Long = 0
+    override def valueRepresentation(): ValueRepresentation = ValueRepresentation.UNKNOWN
+  }
+}
+
+/**
+ * A [[CypherRow]] that stores its variables and cached properties in an array, at offsets assigned at plan time by a
+ * [[CypherRowLayout]]. Copying a row is a single array copy, instead of re-hashing every entry like [[MapCypherRow]] does.
+ *
+ * Entries that the layout does not know about, which should be rare, are kept in overflow maps.
+ */
+class ArrayCypherRow(val layout: CypherRowLayout,
+                     private val slots: Array[AnyValue],
+                     private var overflow: mutable.Map[String, AnyValue],
+                     private var cachedOverflow: mutable.Map[ASTCachedProperty.RuntimeKey, Value]) extends CypherRow {
+
+  import ArrayCypherRow.InvalidatedCachedProperty
+
+  private var linenumber: Option[ResourceLinenumber] = None
+
+  override def setLinenumber(line: Option[ResourceLinenumber]): Unit = {
+    linenumber = line
+  }
+
+  def setLinenumberIfEmpty(line: Option[ResourceLinenumber]): Unit = linenumber match {
+    case None => linenumber = line
+    case _ =>
+  }
+
+  override def getLinenumber: Option[ResourceLinenumber] = linenumber
+
+  override def copyAllFrom(input: ReadableRow): Unit = fail()
+
+  override def copyFrom(input: ReadableRow, nLongs: Int, nRefs: Int): Unit = fail()
+
+  override def copyFromOffset(input: ReadableRow, sourceLongOffset: Int, sourceRefOffset: Int, targetLongOffset: Int, targetRefOffset: Int): Unit = fail()
+
+  override def setLongAt(offset: Int, value: Long): Unit = fail()
+  override def getLongAt(offset: Int): Long = fail()
+
+  override def setRefAt(offset: Int, value: AnyValue): Unit = fail()
+  override def getRefAt(offset: Int): AnyValue = fail()
+
+  override def setCachedPropertyAt(offset: Int, value: Value): Unit = fail()
+  override def getCachedPropertyAt(offset: Int): Value = fail()
+
+  private def fail(): Nothing = throw new InternalException("Tried using an array context as a slotted context")
+
+  override def getByName(name: String): AnyValue = {
+    val value = getOrNull(name)
+    if (value == null) throw new NotFoundException(s"Unknown variable `$name`.")
+    value
+  }
+
+  override def containsName(name: String): Boolean = getOrNull(name) != null
+
+  override def numberOfColumns: Int = {
+    var count = if (overflow == null) 0 else overflow.size
+    var i = 0
+    while (i < layout.numberOfVariables) {
+      if (slots(i) != null) count += 1
+      i += 1
+    }
+    count
+  }
+
+  override def isNull(key: String): Boolean = getOrNull(key) eq Values.NO_VALUE
+
+  private def getOrNull(name: String): AnyValue = {
+    val offset = layout.variableOffset(name)
+    if (offset >= 0) slots(offset)
+    else if (overflow == null) null
+    else overflow.getOrElse(name, null)
+  }
+
+  // This may seem silly but it has measurable impact in tight loops
+
+  override def set(key: String, value: AnyValue): Unit = {
+    val offset = layout.variableOffset(key)
+    if (offset >= 0) {
+      slots(offset) = value
+    } else {
+      if (overflow == null) {
+        overflow = mutable.Map.empty
+      }
+      overflow.put(key, value)
+    }
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+  }
+
+  override def set(key1: String, value1: AnyValue, key2: String, value2: AnyValue, key3: String, value3: AnyValue): Unit = {
+    set(key1, value1)
+    set(key2, value2)
+    set(key3, value3)
+  }
+
+  override def set(newEntries: Seq[(String, AnyValue)]): Unit =
+    newEntries.foreach {
+      case (key, value) => set(key, value)
+    }
+
+  override def copyWith(key: String, value: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key, value)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue, key2: String, value2: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key1, value1, key2, value2)
+    row
+  }
+
+  override def copyWith(key1: String, value1: AnyValue,
+                        key2: String, value2: AnyValue,
+                        key3: String, value3: AnyValue): CypherRow = {
+    val row = createClone()
+    row.set(key1, value1, key2, value2, key3, value3)
+    row
+  }
+
+  override def copyWith(newEntries: Seq[(String, AnyValue)]): CypherRow = {
+    val row = createClone()
+    row.set(newEntries)
+    row
+  }
+
+  override def createClone(): ArrayCypherRow = {
+    val row = new ArrayCypherRow(layout,
+      slots.clone(),
+      if (overflow == null) null else overflow.clone(),
+      if (cachedOverflow == null) null else cachedOverflow.clone())
+    row.setLinenumberIfEmpty(linenumber)
+    row
+  }
+
+  override def copyMapped(func: AnyValue => AnyValue): CypherRow = {
+    val newSlots = new Array[AnyValue](slots.length)
+    var i = 0
+    while (i < slots.length) {
+      val value = slots(i)
+      newSlots(i) = if (value == null || (value eq InvalidatedCachedProperty)) value else func(value)
+      i += 1
+    }
+    val newOverflow = if (overflow == null) null else overflow.map({ case (k, v) => k -> func(v) })
+    val newCachedOverflow = if (cachedOverflow == null) null else cachedOverflow.map({ case (k, v) => k -> func(v).asInstanceOf[Value] })
+    val row = new ArrayCypherRow(layout, newSlots, newOverflow, newCachedOverflow)
+    row.setLinenumberIfEmpty(linenumber)
+    row
+  }
+
+  override def mergeWith(other: ReadableRow, entityById: EntityById, checkNullability: Boolean = true): Unit = other match {
+    case otherRow: ArrayCypherRow if otherRow.layout eq layout =>
+      var i = 0
+      while (i < slots.length) {
+        val value = otherRow.slots(i)
+        if (value != null) slots(i) = value
+        i += 1
+      }
+      if (otherRow.overflow != null) otherRow.overflow.foreach { case (k, v) => set(k, v) }
+      if (otherRow.cachedOverflow != null) otherRow.cachedOverflow.foreach { case (k, v) => setCachedProperty(k, v) }
+      setLinenumberIfEmpty(otherRow.getLinenumber)
+    case otherRow: ArrayCypherRow =>
+      otherRow.foreachVariable((k, v) => set(k, v))
+      otherRow.foreachCachedProperty(setCachedProperty)
+      setLinenumberIfEmpty(otherRow.getLinenumber)
+    case otherRow: MapCypherRow =>
+      otherRow.foreachVariable((k, v) => set(k, v))
+      otherRow.foreachCachedProperty(setCachedProperty)
+      setLinenumberIfEmpty(otherRow.getLinenumber)
+    case _ => fail()
+  }
+
+  private[runtime] def foreachVariable(f: (String, AnyValue) => Unit): Unit = {
+    var i = 0
+    while (i < layout.numberOfVariables) {
+      val value = slots(i)
+      if (value != null) f(layout.variableAt(i), value)
+      i += 1
+    }
+    if (overflow != null) overflow.foreach { case (k, v) => f(k, v) }
+  }
+
+  private[runtime] def foreachCachedProperty(f: (ASTCachedProperty.RuntimeKey, Value) => Unit): Unit = {
+    var i = layout.numberOfVariables
+    while (i < slots.length) {
+      val value = slots(i)
+      if (value != null) f(layout.cachedPropertyAt(i), cachedValue(value))
+      i += 1
+    }
+    if (cachedOverflow != null) cachedOverflow.foreach { case (k, v) => f(k, v) }
+  }
+
+  override def setCachedProperty(key: ASTCachedProperty.RuntimeKey, value: Value): Unit = {
+    val offset = layout.cachedPropertyOffset(key)
+    if (offset >= 0) {
+      slots(offset) = if (value == null) InvalidatedCachedProperty else value
+    } else {
+      if (cachedOverflow == null) {
+        cachedOverflow = mutable.Map.empty
+      }
+      cachedOverflow.put(key, value)
+    }
+  }
+
+  override def getCachedProperty(key: ASTCachedProperty.RuntimeKey): Value = {
+    val offset = layout.cachedPropertyOffset(key)
+    if (offset >= 0) {
+      val value = slots(offset)
+      if (value == null) null else cachedValue(value)
+    } else if (cachedOverflow == null) {
+      null
+    } else {
+      cachedOverflow.getOrElse(key, null)
+    }
+  }
+
+  private def cachedValue(value: AnyValue): Value =
+    if (value eq InvalidatedCachedProperty) null else value.asInstanceOf[Value]
+
+  override def invalidateCachedProperties(): Unit = {
+    java.util.Arrays.fill(slots.asInstanceOf[Array[AnyRef]], layout.numberOfVariables, slots.length, null)
+    cachedOverflow = null
+  }
+
+  override def invalidateCachedNodeProperties(node: Long): Unit =
+    invalidateCachedProperties {
+      case n: VirtualNodeValue => n.id() == node
+      case _ => false
+    }
+
+  override def invalidateCachedRelationshipProperties(rel: Long): Unit =
+    invalidateCachedProperties {
+      case r: VirtualRelationshipValue => r.id() == rel
+      case _ => false
+    }
+
+  private def invalidateCachedProperties(isEntity: AnyValue => Boolean): Unit = {
+    var i = layout.numberOfVariables
+    while (i < slots.length) {
+      val value = slots(i)
+      if (value != null && (value ne InvalidatedCachedProperty)) {
+        // If the entity variable is not in this row we cannot tell which entity the value belongs to, so be conservative
+        val entity = getOrNull(layout.cachedPropertyEntityNameAt(i))
+        if (entity == null || isEntity(entity)) {
+          slots(i) = InvalidatedCachedProperty
+        }
+      }
+      i += 1
+    }
+    if (cachedOverflow != null) {
+      cachedOverflow.keys.filter(cnp => isEntity(getByName(cnp.entityName))).foreach(cnp => cachedOverflow.put(cnp, null))
+    }
+  }
+
+  override def estimatedHeapUsage: Long = {
+    var total = ArrayCypherRow.SHALLOW_SIZE + shallowSizeOfObjectArray(slots.length)
+    var i = 0
+    while (i < slots.length) {
+      val value = slots(i)
+      if (value != null) {
+        total += value.estimatedHeapUsage()
+      }
+      i += 1
+    }
+    if (overflow != null) {
+      total += ArrayCypherRow.INITIAL_SIZE_OF_MUTABLE_MAP
+      overflow.valuesIterator.foreach(value => if (value != null) total += value.estimatedHeapUsage())
+    }
+    if (cachedOverflow != null) {
+      total += ArrayCypherRow.INITIAL_SIZE_OF_MUTABLE_MAP
+      cachedOverflow.valuesIterator.foreach(value => if (value != null) total += value.estimatedHeapUsage())
+    }
+    total
+  }
+
+  //used for testing
+  def toMap: Map[String, AnyValue] = {
+    val builder = Map.newBuilder[String, AnyValue]
+    foreachVariable((k, v) => builder += k -> v)
+    builder.result()
+  }
+
+  def canEqual(other: Any): Boolean = other.isInstanceOf[ArrayCypherRow]
+
+  override def equals(other: Any): Boolean = other match {
+    case that: ArrayCypherRow =>
+      (that canEqual this) &&
+        toMap == that.toMap
+    case _ => false
+  }
+
+  override def hashCode(): Int = toMap.hashCode()
+
+  override def toString: String = s"ArrayExecutionContext(m=$toMap, layout=$layout)"
+}
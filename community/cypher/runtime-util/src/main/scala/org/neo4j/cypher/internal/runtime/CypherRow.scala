@@ -144,9 +144,19 @@ class MapCypherRow(private val m: mutable.Map[String, AnyValue], private var cac
         //otherMapCtx.cachedProperties is null so do nothing
       }
       setLinenumberIfEmpty(otherMapCtx.getLinenumber)
+    case otherArrayCtx: ArrayCypherRow =>
+      otherArrayCtx.foreachVariable((k, v) => set(k, v))
+      otherArrayCtx.foreachCachedProperty(setCachedProperty)
+      setLinenumberIfEmpty(otherArrayCtx.getLinenumber)
     case _ => fail()
   }
 
+  private[runtime] def foreachVariable(f: (String, AnyValue) => Unit): Unit =
+    m.foreach { case (k, v) => f(k, v) }
+
+  private[runtime] def foreachCachedProperty(f: (ASTCachedProperty.RuntimeKey, Value) => Unit): Unit =
+    if (cachedProperties != null) cachedProperties.foreach { case (k, v) => f(k, v) }
+
   override def set(newEntries: Seq[(String, AnyValue)]): Unit =
     m ++= newEntries
 
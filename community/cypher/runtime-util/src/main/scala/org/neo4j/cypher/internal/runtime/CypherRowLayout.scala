@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+
+/**
+ * Plan-time assignment of variables and cached properties to slots of an [[ArrayCypherRow]].
+ *
+ * Variables occupy slots `[0, numberOfVariables)` and cached properties occupy the slots following them.
+ * A layout is shared by all rows of a query, so looking up a slot never allocates.
+ */
+final class CypherRowLayout(variables: Array[String], cachedProperties: Array[(ASTCachedProperty.RuntimeKey, String)]) {
+
+  private val variableOffsets = new java.util.HashMap[String, Integer]()
+  private val cachedPropertyOffsets = new java.util.HashMap[ASTCachedProperty.RuntimeKey, Integer]()
+  private val cachedPropertyEntityNames = cachedProperties.map(_._2)
+
+  variables.indices.foreach(i => variableOffsets.put(variables(i), i))
+  cachedProperties.indices.foreach(i => cachedPropertyOffsets.put(cachedProperties(i)._1, variables.length + i))
+
+  def numberOfVariables: Int = variables.length
+
+  def numberOfCachedProperties: Int = cachedProperties.length
+
+  def size: Int = variables.length + cachedProperties.length
+
+  /**
+   * @return the slot of the given variable, or -1 if the variable has no slot in this layout.
+   */
+  def variableOffset(name: String): Int = {
+    val offset = variableOffsets.get(name)
+    if (offset == null) -1 else offset.intValue()
+  }
+
+  def variableAt(offset: Int): String = variables(offset)
+
+  /**
+   * @return the slot of the given cached property, or -1 if the cached property has no slot in this layout.
+   */
+  def cachedPropertyOffset(key: ASTCachedProperty.RuntimeKey): Int = {
+    val offset = cachedPropertyOffsets.get(key)
+    if (offset == null) -1 else offset.intValue()
+  }
+
+  def cachedPropertyAt(offset: Int): ASTCachedProperty.RuntimeKey = cachedProperties(offset - variables.length)._1
+
+  /**
+   * @return the name of the variable holding the entity of the cached property in the given slot.
+   */
+  def cachedPropertyEntityNameAt(offset: Int): String = cachedPropertyEntityNames(offset - variables.length)
+
+  override def toString: String =
+    s"CypherRowLayout(variables=${variables.mkString("[", ", ", "]")}, cached=${cachedProperties.map(_._1.asCanonicalStringVal).mkString("[", ", ", "]")})"
+}
+
+object CypherRowLayout {
+  val empty: CypherRowLayout = new CypherRowLayout(Array.empty, Array.empty)
+}
@@ -27,6 +27,7 @@ import org.neo4j.cypher.internal.expressions.SemanticDirection
 import org.neo4j.cypher.internal.logical.plans.IndexOrder
 import org.neo4j.cypher.internal.planner.spi.ReadTokenContext
 import org.neo4j.cypher.internal.profiling.KernelStatisticProvider
+import org.neo4j.cypher.operations.CursorUtils
 import org.neo4j.dbms.database.DatabaseContext
 import org.neo4j.dbms.database.DatabaseManager
 import org.neo4j.graphdb.Entity
@@ -70,6 +71,7 @@ import org.neo4j.kernel.impl.query.FunctionInformation
 import org.neo4j.logging.LogProvider
 import org.neo4j.memory.EmptyMemoryTracker
 import org.neo4j.memory.MemoryTracker
+import org.neo4j.storageengine.api.PropertyPredicate
 import org.neo4j.util.VisibleForTesting
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.TextValue
@@ -281,6 +283,15 @@ trait ReadQueryContext extends ReadTokenContext with DbAccess with AutoCloseable
                                propertyCursor: PropertyCursor): Boolean =
     nodeReadOps.hasProperty(node, property, nodeCursor, propertyCursor)
 
+  /**
+   * Tests a property of a node against a predicate, which the storage engine can do without materializing the value.
+   */
+  def nodePropertyMatches(node: Long,
+                          predicate: PropertyPredicate,
+                          nodeCursor: NodeCursor,
+                          propertyCursor: PropertyCursor): Boolean =
+    CursorUtils.nodeMatchesPropertyPredicate(transactionalContext.dataRead, nodeCursor, node, propertyCursor, predicate)
+
   override def relationshipProperty(relationship: Long,
                                     property: Int,
                                     relationshipScanCursor: RelationshipScanCursor,
@@ -299,6 +310,15 @@ trait ReadQueryContext extends ReadTokenContext with DbAccess with AutoCloseable
                                        propertyCursor: PropertyCursor): Boolean =
     relationshipReadOps.hasProperty(relationship, property, relationshipScanCursor, propertyCursor)
 
+  /**
+   * Tests a property of a relationship against a predicate, which the storage engine can do without materializing the value.
+   */
+  def relationshipPropertyMatches(relationship: Long,
+                                  predicate: PropertyPredicate,
+                                  relationshipScanCursor: RelationshipScanCursor,
+                                  propertyCursor: PropertyCursor): Boolean =
+    CursorUtils.relationshipMatchesPropertyPredicate(transactionalContext.dataRead, relationshipScanCursor, relationship, propertyCursor, predicate)
+
   override def hasTxStatePropertyForCachedNodeProperty(nodeId: Long, propertyKeyId: Int): Optional[java.lang.Boolean] = {
     nodeReadOps.hasTxStatePropertyForCachedProperty(nodeId, propertyKeyId) match {
       case None => Optional.empty()
@@ -558,6 +578,18 @@ trait KernelPredicate[T] {
   def test(obj: T): Boolean
 }
 
+object KernelPredicate {
+  private val ACCEPT_ALL = new KernelPredicate[Any] {
+    override def test(obj: Any): Boolean = true
+  }
+
+  /**
+   * A predicate accepting everything. Shortest path searches can be given this instance to tell that there is nothing
+   * to check on the found paths, apart from the filters of the expander.
+   */
+  def acceptAll[T]: KernelPredicate[T] = ACCEPT_ALL.asInstanceOf[KernelPredicate[T]]
+}
+
 trait Expander {
   def addRelationshipFilter(newFilter: KernelPredicate[Entity]): Expander
   def addNodeFilter(newFilter: KernelPredicate[Entity]): Expander
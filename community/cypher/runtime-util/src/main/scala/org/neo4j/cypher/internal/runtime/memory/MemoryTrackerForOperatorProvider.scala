@@ -61,6 +61,14 @@ case object NoOpMemoryTrackerForOperatorProvider extends MemoryTrackerForOperato
   override def memoryTrackerForOperator(operatorId: Int): MemoryTracker = EmptyMemoryTracker.INSTANCE
 }
 
+/**
+ * Tracks the memory of all operators with one tracker.
+ */
+case class SingleMemoryTrackerForOperatorProvider(memoryTracker: MemoryTracker) extends MemoryTrackerForOperatorProvider {
+
+  override def memoryTrackerForOperator(operatorId: Int): MemoryTracker = memoryTracker
+}
+
 object TransactionBoundMemoryTrackerForOperatorProvider {
 
   /**
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.memory
+
+import org.neo4j.memory.LocalMemoryTracker
+import org.neo4j.memory.MemoryPool
+import org.neo4j.memory.MemoryTracker
+
+/**
+ * Lets the workers of one parallel execution track their memory against a memory tracker of the thread that owns the
+ * transaction, which is not thread-safe.
+ *
+ * Every worker gets a thread-confined [[LocalMemoryTracker]], which reserves memory from this pool in chunks. The pool
+ * forwards these reservations to the owner's tracker one at a time, so the limits of the transaction are enforced while
+ * the workers run. The owner must not use its tracker itself until all workers have finished.
+ *
+ * @param ownerMemoryTracker the tracker of the owning thread to forward reservations to
+ */
+class ParallelWorkersMemoryPool(ownerMemoryTracker: MemoryTracker) extends MemoryPool {
+
+  private[this] var reservedHeap = 0L
+  private[this] var reservedNative = 0L
+
+  /**
+   * A memory tracker for one worker. It must only be used by that worker, and by the owner once the worker has finished.
+   * The owner should [[LocalMemoryTracker.reset()]] it afterwards, to give back what the worker has not released.
+   */
+  def newWorkerMemoryTracker(): LocalMemoryTracker = new LocalMemoryTracker(this)
+
+  override def reserveHeap(bytes: Long): Unit = synchronized {
+    ownerMemoryTracker.allocateHeap(bytes)
+    reservedHeap += bytes
+  }
+
+  override def reserveNative(bytes: Long): Unit = synchronized {
+    ownerMemoryTracker.allocateNative(bytes)
+    reservedNative += bytes
+  }
+
+  override def releaseHeap(bytes: Long): Unit = synchronized {
+    ownerMemoryTracker.releaseHeap(bytes)
+    reservedHeap -= bytes
+  }
+
+  override def releaseNative(bytes: Long): Unit = synchronized {
+    ownerMemoryTracker.releaseNative(bytes)
+    reservedNative -= bytes
+  }
+
+  override def totalSize(): Long = Long.MaxValue
+
+  override def usedHeap(): Long = synchronized(reservedHeap)
+
+  override def usedNative(): Long = synchronized(reservedNative)
+
+  override def free(): Long = totalSize() - totalUsed()
+
+  override def setSize(size: Long): Unit = throw new UnsupportedOperationException("The size is given by the limits of the owner's memory tracker")
+}
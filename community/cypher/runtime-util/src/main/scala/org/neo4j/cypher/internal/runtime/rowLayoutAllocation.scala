@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.cypher.internal.logical.plans.LogicalPlan
+import org.neo4j.cypher.internal.util.Foldable.TraverseChildren
+
+import scala.collection.mutable
+
+/**
+ * Allocates a [[CypherRowLayout]] covering every variable and cached property that a logical plan, including
+ * any nested plans, can put into a row.
+ */
+case object rowLayoutAllocation {
+
+  def apply(input: LogicalPlan): CypherRowLayout = {
+    val variables = mutable.LinkedHashSet.empty[String]
+    val cachedProperties = mutable.LinkedHashMap.empty[ASTCachedProperty.RuntimeKey, String]
+    input.treeFold(()) {
+      case plan: LogicalPlan => acc =>
+        variables ++= plan.availableSymbols
+        TraverseChildren(acc)
+      case property: ASTCachedProperty => acc =>
+        cachedProperties.getOrElseUpdate(property.runtimeKey, property.entityName)
+        TraverseChildren(acc)
+    }
+    new CypherRowLayout(variables.toArray, cachedProperties.toArray)
+  }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill
+
+import java.io.DataInput
+import java.io.DataOutput
+import java.nio.charset.StandardCharsets.UTF_8
+import java.time.LocalDateTime
+import java.time.LocalTime
+import java.time.OffsetTime
+import java.time.ZoneId
+import java.time.ZoneOffset
+import java.time.temporal.ChronoUnit
+
+import org.neo4j.cypher.internal.expressions.ASTCachedProperty
+import org.neo4j.cypher.internal.runtime.ArrayCypherRow
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.CypherRowLayout
+import org.neo4j.cypher.internal.runtime.MapCypherRow
+import org.neo4j.cypher.internal.runtime.ResourceLinenumber
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.BOOLEAN_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.BYTE
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.BYTE_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.CHAR
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.CHAR_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.DATE
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.DATE_TIME
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.DOUBLE
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.DOUBLE_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.DURATION
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.Dictionary
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.FALSE
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.FLOAT
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.FLOAT_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.INT
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.INT_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.LIST
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.LOCAL_DATE_TIME
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.LOCAL_TIME
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.LONG
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.LONG_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.MAP
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.NODE
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.NO_VALUE
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.PATH
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.POINT
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.RELATIONSHIP
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.SHORT
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.SHORT_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.STRING
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.STRING_ARRAY
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.TIME
+import org.neo4j.cypher.internal.runtime.spill.RowSpillCodec.TRUE
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.BooleanArray
+import org.neo4j.values.storable.BooleanValue
+import org.neo4j.values.storable.ByteArray
+import org.neo4j.values.storable.ByteValue
+import org.neo4j.values.storable.CharArray
+import org.neo4j.values.storable.CharValue
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DoubleArray
+import org.neo4j.values.storable.DoubleValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.FloatArray
+import org.neo4j.values.storable.FloatValue
+import org.neo4j.values.storable.IntArray
+import org.neo4j.values.storable.IntValue
+import org.neo4j.values.storable.LocalDateTimeValue
+import org.neo4j.values.storable.LocalTimeValue
+import org.neo4j.values.storable.LongArray
+import org.neo4j.values.storable.LongValue
+import org.neo4j.values.storable.PointValue
+import org.neo4j.values.storable.ShortArray
+import org.neo4j.values.storable.ShortValue
+import org.neo4j.values.storable.StringArray
+import org.neo4j.values.storable.TextValue
+import org.neo4j.values.storable.TimeValue
+import org.neo4j.values.storable.Value
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.virtual.ListValueBuilder
+import org.neo4j.values.virtual.MapValue
+import org.neo4j.values.virtual.MapValueBuilder
+import org.neo4j.values.virtual.VirtualNodeValue
+import org.neo4j.values.virtual.VirtualPathValue
+import org.neo4j.values.virtual.VirtualRelationshipValue
+import org.neo4j.values.virtual.VirtualValues
+
+import scala.collection.mutable
+
+/**
+ * Serializes rows into a compact binary format, so that operators can move them out of the heap into [[SpillFile]]s.
+ *
+ * Variable names and cached property keys are not written to disk, but replaced by their index in a dictionary that
+ * is kept by the codec. Rows can therefore only be read back by the same codec instance that wrote them.
+ * Entities are written as references, and read back as such.
+ *
+ * Rows holding values that have no binary representation here, such as virtual entities created by procedures,
+ * make [[write]] throw a [[CannotSpillException]]. Operators should then keep the rows on heap.
+ */
+class RowSpillCodec {
+  private val variables = new Dictionary[String]
+  private val cachedProperties = new Dictionary[ASTCachedProperty.RuntimeKey]
+  private var layout: CypherRowLayout = _
+
+  def write(row: CypherRow, out: DataOutput): Unit = row match {
+    case arrayRow: ArrayCypherRow =>
+      if (layout == null) {
+        layout = arrayRow.layout
+      }
+      out.writeByte(RowSpillCodec.ARRAY_ROW)
+      writeRowContent(arrayRow.numberOfColumns, arrayRow.foreachVariable, arrayRow.foreachCachedProperty, row, out)
+
+    case mapRow: MapCypherRow =>
+      out.writeByte(RowSpillCodec.MAP_ROW)
+      writeRowContent(mapRow.numberOfColumns, mapRow.foreachVariable, mapRow.foreachCachedProperty, row, out)
+
+    case _ =>
+      throw new CannotSpillException(s"Cannot spill rows of type ${row.getClass.getSimpleName}")
+  }
+
+  def read(in: DataInput): CypherRow = {
+    val row = in.readByte() match {
+      case RowSpillCodec.ARRAY_ROW => ArrayCypherRow(layout)
+      case RowSpillCodec.MAP_ROW => CypherRow.empty
+    }
+    var i = in.readInt()
+    while (i > 0) {
+      row.set(variables(in.readInt()), readValue(in))
+      i -= 1
+    }
+    i = in.readInt()
+    while (i > 0) {
+      val key = cachedProperties(in.readInt())
+      val value = if (in.readBoolean()) readValue(in).asInstanceOf[Value] else null
+      row.setCachedProperty(key, value)
+      i -= 1
+    }
+    if (in.readBoolean()) {
+      row.setLinenumber(Some(ResourceLinenumber(readString(in), in.readLong(), in.readBoolean())))
+    }
+    row
+  }
+
+  private def writeRowContent(numberOfColumns: Int,
+                              foreachVariable: ((String, AnyValue) => Unit) => Unit,
+                              foreachCachedProperty: ((ASTCachedProperty.RuntimeKey, Value) => Unit) => Unit,
+                              row: CypherRow,
+                              out: DataOutput): Unit = {
+    out.writeInt(numberOfColumns)
+    foreachVariable((name, value) => {
+      out.writeInt(variables.idOf(name))
+      writeValue(value, out)
+    })
+
+    var nCachedProperties = 0
+    foreachCachedProperty((_, _) => nCachedProperties += 1)
+    out.writeInt(nCachedProperties)
+    foreachCachedProperty((key, value) => {
+      out.writeInt(cachedProperties.idOf(key))
+      out.writeBoolean(value != null)
+      if (value != null) {
+        writeValue(value, out)
+      }
+    })
+
+    row.getLinenumber match {
+      case Some(ResourceLinenumber(filename, linenumber, last)) =>
+        out.writeBoolean(true)
+        writeString(filename, out)
+        out.writeLong(linenumber)
+        out.writeBoolean(last)
+      case None =>
+        out.writeBoolean(false)
+    }
+  }
+
+  private def writeValue(value: AnyValue, out: DataOutput): Unit = {
+    value match {
+      case v if v eq Values.NO_VALUE => out.writeByte(NO_VALUE)
+      case v: BooleanValue => out.writeByte(if (v.booleanValue()) TRUE else FALSE)
+      case v: ByteValue => out.writeByte(BYTE); out.writeByte(v.value())
+      case v: ShortValue => out.writeByte(SHORT); out.writeShort(v.value())
+      case v: IntValue => out.writeByte(INT); out.writeInt(v.value())
+      case v: LongValue => out.writeByte(LONG); out.writeLong(v.value())
+      case v: FloatValue => out.writeByte(FLOAT); out.writeFloat(v.value())
+      case v: DoubleValue => out.writeByte(DOUBLE); out.writeDouble(v.value())
+      case v: CharValue => out.writeByte(CHAR); out.writeChar(v.value())
+      case v: TextValue => out.writeByte(STRING); writeString(v.stringValue(), out)
+
+      case v: DateValue =>
+        out.writeByte(DATE)
+        out.writeLong(v.asObjectCopy().toEpochDay)
+      case v: LocalTimeValue =>
+        out.writeByte(LOCAL_TIME)
+        out.writeLong(v.asObjectCopy().toNanoOfDay)
+      case v: TimeValue =>
+        val time = v.asObjectCopy()
+        out.writeByte(TIME)
+        out.writeLong(time.toLocalTime.toNanoOfDay)
+        out.writeInt(time.getOffset.getTotalSeconds)
+      case v: LocalDateTimeValue =>
+        val dateTime = v.asObjectCopy()
+        out.writeByte(LOCAL_DATE_TIME)
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC))
+        out.writeInt(dateTime.getNano)
+      case v: DateTimeValue =>
+        val dateTime = v.asObjectCopy()
+        out.writeByte(DATE_TIME)
+        out.writeLong(dateTime.toEpochSecond)
+        out.writeInt(dateTime.getNano)
+        writeString(dateTime.getZone.getId, out)
+      case v: DurationValue =>
+        out.writeByte(DURATION)
+        out.writeLong(v.get(ChronoUnit.MONTHS))
+        out.writeLong(v.get(ChronoUnit.DAYS))
+        out.writeLong(v.get(ChronoUnit.SECONDS))
+        out.writeLong(v.get(ChronoUnit.NANOS))
+      case v: PointValue =>
+        val coordinate = v.coordinate()
+        out.writeByte(POINT)
+        out.writeInt(v.getCoordinateReferenceSystem.getCode)
+        out.writeByte(coordinate.length)
+        coordinate.foreach(out.writeDouble)
+
+      case v: BooleanArray => writeArray(BOOLEAN_ARRAY, v.asObjectCopy(), out)(out.writeBoolean)
+      case v: ByteArray => writeArray(BYTE_ARRAY, v.asObjectCopy(), out)(b => out.writeByte(b))
+      case v: ShortArray => writeArray(SHORT_ARRAY, v.asObjectCopy(), out)(s => out.writeShort(s))
+      case v: IntArray => writeArray(INT_ARRAY, v.asObjectCopy(), out)(out.writeInt)
+      case v: LongArray => writeArray(LONG_ARRAY, v.asObjectCopy(), out)(out.writeLong)
+      case v: FloatArray => writeArray(FLOAT_ARRAY, v.asObjectCopy(), out)(out.writeFloat)
+      case v: DoubleArray => writeArray(DOUBLE_ARRAY, v.asObjectCopy(), out)(out.writeDouble)
+      case v: CharArray => writeArray(CHAR_ARRAY, v.asObjectCopy(), out)(c => out.writeChar(c))
+      case v: StringArray => writeArray(STRING_ARRAY, v.asObjectCopy(), out)(s => writeString(s, out))
+
+      case v: VirtualNodeValue if v.id() >= 0 =>
+        out.writeByte(NODE)
+        out.writeLong(v.id())
+      case v: VirtualRelationshipValue if v.id() >= 0 =>
+        out.writeByte(RELATIONSHIP)
+        out.writeLong(v.id())
+      case v: VirtualPathValue =>
+        out.writeByte(PATH)
+        writeElements(v.nodeIds(), out)(out.writeLong)
+        writeElements(v.relationshipIds(), out)(out.writeLong)
+      case v: ListValue =>
+        out.writeByte(LIST)
+        out.writeInt(v.size())
+        v.forEach(writeValue(_, out))
+      case v: MapValue =>
+        out.writeByte(MAP)
+        out.writeInt(v.size())
+        v.foreach((key, value) => {
+          writeString(key, out)
+          writeValue(value, out)
+        })
+
+      case v =>
+        throw new CannotSpillException(s"Cannot spill values of type ${v.getTypeName}")
+    }
+  }
+
+  private def readValue(in: DataInput): AnyValue = {
+    in.readByte() match {
+      case NO_VALUE => Values.NO_VALUE
+      case TRUE => Values.TRUE
+      case FALSE => Values.FALSE
+      case BYTE => Values.byteValue(in.readByte())
+      case SHORT => Values.shortValue(in.readShort())
+      case INT => Values.intValue(in.readInt())
+      case LONG => Values.longValue(in.readLong())
+      case FLOAT => Values.floatValue(in.readFloat())
+      case DOUBLE => Values.doubleValue(in.readDouble())
+      case CHAR => Values.charValue(in.readChar())
+      case STRING => Values.utf8Value(readBytes(in))
+
+      case DATE => DateValue.epochDate(in.readLong())
+      case LOCAL_TIME => LocalTimeValue.localTime(in.readLong())
+      case TIME =>
+        val localTime = LocalTime.ofNanoOfDay(in.readLong())
+        TimeValue.time(OffsetTime.of(localTime, ZoneOffset.ofTotalSeconds(in.readInt())))
+      case LOCAL_DATE_TIME =>
+        LocalDateTimeValue.localDateTime(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC))
+      case DATE_TIME =>
+        val epochSecond = in.readLong()
+        val nano = in.readInt()
+        DateTimeValue.datetime(epochSecond, nano, ZoneId.of(readString(in)))
+      case DURATION =>
+        DurationValue.duration(in.readLong(), in.readLong(), in.readLong(), in.readLong())
+      case POINT =>
+        val crs = CoordinateReferenceSystem.get(in.readInt())
+        val coordinate = new Array[Double](in.readByte())
+        var i = 0
+        while (i < coordinate.length) {
+          coordinate(i) = in.readDouble()
+          i += 1
+        }
+        Values.pointValue(crs, coordinate: _*)
+
+      case BOOLEAN_ARRAY => Values.booleanArray(readArray(in)(in.readBoolean()))
+      case BYTE_ARRAY => Values.byteArray(readArray(in)(in.readByte()))
+      case SHORT_ARRAY => Values.shortArray(readArray(in)(in.readShort()))
+      case INT_ARRAY => Values.intArray(readArray(in)(in.readInt()))
+      case LONG_ARRAY => Values.longArray(readArray(in)(in.readLong()))
+      case FLOAT_ARRAY => Values.floatArray(readArray(in)(in.readFloat()))
+      case DOUBLE_ARRAY => Values.doubleArray(readArray(in)(in.readDouble()))
+      case CHAR_ARRAY => Values.charArray(readArray(in)(in.readChar()))
+      case STRING_ARRAY => Values.stringArray(readArray(in)(readString(in)): _*)
+
+      case NODE => VirtualValues.node(in.readLong())
+      case RELATIONSHIP => VirtualValues.relationship(in.readLong())
+      case PATH =>
+        val nodeIds = readArray(in)(in.readLong())
+        VirtualValues.pathReference(nodeIds, readArray(in)(in.readLong()))
+      case LIST =>
+        val size = in.readInt()
+        val builder = ListValueBuilder.newListBuilder(size)
+        var i = 0
+        while (i < size) {
+          builder.add(readValue(in))
+          i += 1
+        }
+        builder.build()
+      case MAP =>
+        val size = in.readInt()
+        val builder = new MapValueBuilder(size)
+        var i = 0
+        while (i < size) {
+          builder.add(readString(in), readValue(in))
+          i += 1
+        }
+        builder.build()
+    }
+  }
+
+  private def writeArray[T](tag: Byte, array: Array[T], out: DataOutput)(writeElement: T => Unit): Unit = {
+    out.writeByte(tag)
+    writeElements(array, out)(writeElement)
+  }
+
+  private def writeElements[T](array: Array[T], out: DataOutput)(writeElement: T => Unit): Unit = {
+    out.writeInt(array.length)
+    var i = 0
+    while (i < array.length) {
+      writeElement(array(i))
+      i += 1
+    }
+  }
+
+  private def readArray[T: scala.reflect.ClassTag](in: DataInput)(readElement: => T): Array[T] = {
+    val array = new Array[T](in.readInt())
+    var i = 0
+    while (i < array.length) {
+      array(i) = readElement
+      i += 1
+    }
+    array
+  }
+
+  private def writeString(string: String, out: DataOutput): Unit = {
+    val bytes = string.getBytes(UTF_8)
+    out.writeInt(bytes.length)
+    out.write(bytes)
+  }
+
+  private def readString(in: DataInput): String = new String(readBytes(in), UTF_8)
+
+  private def readBytes(in: DataInput): Array[Byte] = {
+    val bytes = new Array[Byte](in.readInt())
+    in.readFully(bytes)
+    bytes
+  }
+}
+
+object RowSpillCodec {
+  private val ARRAY_ROW: Byte = 0
+  private val MAP_ROW: Byte = 1
+
+  private final val NO_VALUE: Byte = 0
+  private final val TRUE: Byte = 1
+  private final val FALSE: Byte = 2
+  private final val BYTE: Byte = 3
+  private final val SHORT: Byte = 4
+  private final val INT: Byte = 5
+  private final val LONG: Byte = 6
+  private final val FLOAT: Byte = 7
+  private final val DOUBLE: Byte = 8
+  private final val CHAR: Byte = 9
+  private final val STRING: Byte = 10
+  private final val DATE: Byte = 11
+  private final val LOCAL_TIME: Byte = 12
+  private final val TIME: Byte = 13
+  private final val LOCAL_DATE_TIME: Byte = 14
+  private final val DATE_TIME: Byte = 15
+  private final val DURATION: Byte = 16
+  private final val POINT: Byte = 17
+  private final val BOOLEAN_ARRAY: Byte = 18
+  private final val BYTE_ARRAY: Byte = 19
+  private final val SHORT_ARRAY: Byte = 20
+  private final val INT_ARRAY: Byte = 21
+  private final val LONG_ARRAY: Byte = 22
+  private final val FLOAT_ARRAY: Byte = 23
+  private final val DOUBLE_ARRAY: Byte = 24
+  private final val CHAR_ARRAY: Byte = 25
+  private final val STRING_ARRAY: Byte = 26
+  private final val NODE: Byte = 27
+  private final val RELATIONSHIP: Byte = 28
+  private final val PATH: Byte = 29
+  private final val LIST: Byte = 30
+  private final val MAP: Byte = 31
+
+  private class Dictionary[T] {
+    private val ids = mutable.HashMap.empty[T, Int]
+    private val entries = mutable.ArrayBuffer.empty[T]
+
+    def idOf(entry: T): Int = ids.getOrElseUpdate(entry, {
+      entries += entry
+      entries.length - 1
+    })
+
+    def apply(id: Int): T = entries(id)
+  }
+}
+
+/**
+ * Thrown by [[RowSpillCodec]] for rows that it cannot write to disk.
+ */
+class CannotSpillException(message: String) extends RuntimeException(message)
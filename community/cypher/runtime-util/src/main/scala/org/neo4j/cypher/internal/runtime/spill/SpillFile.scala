@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill
+
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.nio.file.Path
+import java.util.Comparator
+import java.util.NoSuchElementException
+import java.util.PriorityQueue
+
+import org.neo4j.cypher.internal.runtime.ClosingIterator
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.runtime.spill.SpillFile.HeapRecord
+import org.neo4j.internal.kernel.api.DefaultCloseListenable
+import org.neo4j.io.fs.FileSystemAbstraction
+
+import scala.collection.mutable.ArrayBuffer
+
+/**
+ * A temporary file of rows, each tagged with a long, that an operator has moved out of the heap.
+ *
+ * Rows are appended with [[write]], and are read back in the same order once writing has finished. Rows that the
+ * [[RowSpillCodec]] cannot serialize stay on heap, but keep their position, so callers do not need to care.
+ *
+ * The file is deleted on [[close]], so it should be traced by the resource manager of the query to not leak if the
+ * query fails. Files are created by [[SpillFiles]].
+ */
+class SpillFile(codec: RowSpillCodec, fs: FileSystemAbstraction, path: Path) extends DefaultCloseListenable {
+  private var out = new DataOutputStream(new BufferedOutputStream(fs.openAsOutputStream(path, false), SpillFile.BUFFER_SIZE))
+  private val scratch = new ByteArrayOutputStream()
+  private val scratchOut = new DataOutputStream(scratch)
+  private var onHeap: ArrayBuffer[HeapRecord] = _
+  private var in: DataInputStream = _
+  private var rows = 0L
+  private var closed = false
+
+  def write(tag: Long, row: CypherRow): Unit = {
+    scratch.reset()
+    try {
+      codec.write(row, scratchOut)
+      out.writeLong(tag)
+      scratch.writeTo(out)
+    } catch {
+      case _: CannotSpillException =>
+        if (onHeap == null) {
+          onHeap = new ArrayBuffer[HeapRecord]()
+        }
+        onHeap += HeapRecord(rows, tag, row)
+    }
+    rows += 1
+  }
+
+  def size: Long = rows
+
+  /**
+   * Finishes writing and opens the file for reading. Can only be called once.
+   */
+  def read(): SpillFile.Reader = {
+    out.close()
+    out = null
+    in = new DataInputStream(new BufferedInputStream(fs.openAsInputStream(path), SpillFile.BUFFER_SIZE))
+    new SpillFile.Reader {
+      private var position = 0L
+      private var nextOnHeap = 0
+
+      override def hasNext: Boolean = position < rows
+
+      override def advance(): Unit = {
+        if (position >= rows) {
+          throw new NoSuchElementException("No more rows in spill file")
+        }
+        if (onHeap != null && nextOnHeap < onHeap.length && onHeap(nextOnHeap).position == position) {
+          val record = onHeap(nextOnHeap)
+          onHeap(nextOnHeap) = null
+          nextOnHeap += 1
+          tag = record.tag
+          row = record.row
+        } else {
+          tag = in.readLong()
+          row = codec.read(in)
+        }
+        position += 1
+      }
+    }
+  }
+
+  /**
+   * Reads back the rows in the order they were written. The file is closed once all rows have been read.
+   */
+  def rowIterator(): ClosingIterator[CypherRow] = SpillFile.merge(Seq(this), (_, _) => 0)
+
+  override def closeInternal(): Unit = {
+    if (!closed) {
+      closed = true
+      onHeap = null
+      try {
+        if (out != null) out.close()
+        if (in != null) in.close()
+      } finally {
+        fs.deleteFile(path)
+      }
+    }
+  }
+
+  override def isClosed: Boolean = closed
+}
+
+object SpillFile {
+  private val BUFFER_SIZE = 64 * 1024
+
+  private case class HeapRecord(position: Long, tag: Long, row: CypherRow)
+
+  abstract class Reader {
+    var tag: Long = _
+    var row: CypherRow = _
+
+    def hasNext: Boolean
+
+    /**
+     * Moves to the next row, which must exist, and makes it available as [[row]] and [[tag]].
+     */
+    def advance(): Unit
+  }
+
+  /**
+   * The number of files that are merged at once. Merging more runs than this takes several passes, like the merge of
+   * the block storage of index populators, so that the number of open files and read buffers stays bounded.
+   */
+  val MERGE_FACTOR = 8
+
+  /**
+   * Merges files whose rows are sorted by `comparator`, and closes them once they have been read.
+   * Reads from at most [[MERGE_FACTOR]] files at once, by first merging the files into fewer, longer files created by
+   * `newFile`, as often as needed.
+   */
+  def mergeSortedRows(files: Seq[SpillFile], comparator: Comparator[ReadableRow], newFile: () => SpillFile): ClosingIterator[CypherRow] = {
+    val compareReaders: Comparator[Reader] = (a, b) => comparator.compare(a.row, b.row)
+    var runs = files
+    while (runs.size > MERGE_FACTOR) {
+      runs = runs.grouped(MERGE_FACTOR).map { group =>
+        if (group.size == 1) {
+          group.head
+        } else {
+          val merged = newFile()
+          mergeInto(group, compareReaders, merged)
+          merged
+        }
+      }.toVector
+    }
+    merge(runs, compareReaders)
+  }
+
+  /**
+   * Merges files whose rows are written in ascending tag order, and closes them once they have been read.
+   * Rows with the same tag are returned in the order of `files`.
+   */
+  def mergeByTag(files: Seq[SpillFile]): ClosingIterator[CypherRow] =
+    merge(files, (a, b) => java.lang.Long.compare(a.tag, b.tag))
+
+  private def merge(files: Seq[SpillFile], compareReaders: Comparator[Reader]): ClosingIterator[CypherRow] = {
+    val merged = new MergedReaders(files, compareReaders)
+    new ClosingIterator[CypherRow] {
+      override protected[this] def closeMore(): Unit = files.foreach(_.close())
+
+      override protected[this] def innerHasNext: Boolean = merged.hasNext
+
+      override def next(): CypherRow = merged.next().row
+    }
+  }
+
+  private def mergeInto(files: Seq[SpillFile], compareReaders: Comparator[Reader], target: SpillFile): Unit = {
+    try {
+      val merged = new MergedReaders(files, compareReaders)
+      while (merged.hasNext) {
+        val reader = merged.next()
+        target.write(reader.tag, reader.row)
+      }
+    } finally {
+      files.foreach(_.close())
+    }
+  }
+
+  /**
+   * The readers of some files, in the order of their current rows. A returned reader must not be used once
+   * [[MergedReaders.next]] is called again.
+   */
+  private class MergedReaders(files: Seq[SpillFile], compareReaders: Comparator[Reader]) {
+    private val readers = files.map(_.read())
+    private val indexOf = readers.zipWithIndex.toMap
+    private val queue = new PriorityQueue[Reader](math.max(1, readers.size), (a: Reader, b: Reader) => {
+      val result = compareReaders.compare(a, b)
+      if (result != 0) result else Integer.compare(indexOf(a), indexOf(b))
+    })
+    private var current: Reader = _
+    readers.foreach { reader =>
+      if (reader.hasNext) {
+        reader.advance()
+        queue.add(reader)
+      }
+    }
+
+    def hasNext: Boolean = {
+      advanceCurrent()
+      !queue.isEmpty
+    }
+
+    def next(): Reader = {
+      advanceCurrent()
+      current = queue.poll()
+      if (current == null) {
+        throw new NoSuchElementException("No more rows in spill files")
+      }
+      current
+    }
+
+    private def advanceCurrent(): Unit = {
+      if (current != null) {
+        if (current.hasNext) {
+          current.advance()
+          queue.add(current)
+        }
+        current = null
+      }
+    }
+  }
+}
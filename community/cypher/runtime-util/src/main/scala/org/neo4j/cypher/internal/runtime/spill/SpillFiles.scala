@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill
+
+import java.nio.file.Path
+import java.util.UUID
+
+import org.neo4j.io.fs.FileSystemAbstraction
+
+/**
+ * Creates the [[SpillFile]]s of the operators of one database, in the directory given by
+ * `unsupported.cypher.spill_directory`. The directory is created along with the first file.
+ */
+class SpillFiles(fs: FileSystemAbstraction, directory: Path) {
+
+  def newSpillFile(codec: RowSpillCodec): SpillFile = {
+    fs.mkdirs(directory)
+    new SpillFile(codec, fs, directory.resolve(s"neo4j-cypher-spill-${UUID.randomUUID()}.tmp"))
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill
+
+/**
+ * How operators spill their buffered rows to disk: once the heap that an operator tracks for its buffers exceeds
+ * `threshold`, it moves the rows into files created by `files`.
+ */
+case class Spilling(threshold: Long, files: SpillFiles) {
+  require(threshold <= 0 || files != null, "Spilling needs spill files when enabled")
+
+  def isEnabled: Boolean = threshold > 0
+
+  def exceeds(estimatedHeapUsage: Long): Boolean = isEnabled && estimatedHeapUsage > threshold
+}
+
+object Spilling {
+  val DISABLED: Spilling = Spilling(0L, null)
+}
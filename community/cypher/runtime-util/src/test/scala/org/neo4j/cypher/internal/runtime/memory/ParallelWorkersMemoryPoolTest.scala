@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.memory
+
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.memory.LocalMemoryTracker
+import org.neo4j.memory.MemoryLimitExceededException
+import org.neo4j.memory.MemoryPools
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class ParallelWorkersMemoryPoolTest extends CypherFunSuite {
+
+  private def ownerMemoryTracker(maxBytes: Long = Long.MaxValue) = new LocalMemoryTracker(MemoryPools.NO_TRACKING, maxBytes, 0, null)
+
+  test("should forward the reservations of all workers to the owner") {
+    val owner = ownerMemoryTracker()
+    val pool = new ParallelWorkersMemoryPool(owner)
+    val worker1 = pool.newWorkerMemoryTracker()
+    val worker2 = pool.newWorkerMemoryTracker()
+
+    worker1.allocateHeap(10)
+    worker2.allocateHeap(5000)
+
+    pool.usedHeap() should be >= 5010L
+    owner.estimatedHeapMemory() shouldBe pool.usedHeap()
+  }
+
+  test("should enforce the limit of the owner") {
+    val owner = ownerMemoryTracker(maxBytes = 4096)
+    val pool = new ParallelWorkersMemoryPool(owner)
+    val worker = pool.newWorkerMemoryTracker()
+
+    worker.allocateHeap(1000)
+    a[MemoryLimitExceededException] should be thrownBy worker.allocateHeap(5000)
+    worker.estimatedHeapMemory() shouldBe 1000L
+  }
+
+  test("should give back all reservations of a worker on reset") {
+    val owner = ownerMemoryTracker()
+    val pool = new ParallelWorkersMemoryPool(owner)
+    val worker = pool.newWorkerMemoryTracker()
+
+    worker.allocateHeap(3000)
+    worker.reset()
+
+    pool.usedHeap() shouldBe 0L
+    owner.estimatedHeapMemory() shouldBe 0L
+  }
+
+  test("should track the allocations of concurrent workers") {
+    val owner = ownerMemoryTracker()
+    val pool = new ParallelWorkersMemoryPool(owner)
+    val workers = Seq.fill(4)(pool.newWorkerMemoryTracker())
+    val executor = Executors.newFixedThreadPool(workers.size)
+    try {
+      val tasks = workers.map { worker =>
+        executor.submit(new Callable[Unit] {
+          override def call(): Unit = {
+            for (_ <- 0 until 10000) {
+              worker.allocateHeap(100)
+            }
+            for (_ <- 0 until 5000) {
+              worker.releaseHeap(100)
+            }
+          }
+        })
+      }
+      tasks.foreach(_.get(1, TimeUnit.MINUTES))
+    } finally {
+      executor.shutdown()
+    }
+
+    pool.usedHeap() should be >= 4 * 5000 * 100L
+    owner.estimatedHeapMemory() shouldBe pool.usedHeap()
+
+    workers.foreach(_.reset())
+    owner.estimatedHeapMemory() shouldBe 0L
+  }
+}
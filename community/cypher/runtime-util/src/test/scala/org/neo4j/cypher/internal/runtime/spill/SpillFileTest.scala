@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.spill
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.ZoneId
+
+import org.neo4j.cypher.internal.runtime.CypherRow
+import org.neo4j.cypher.internal.runtime.ReadableRow
+import org.neo4j.cypher.internal.util.test_helpers.CypherFunSuite
+import org.neo4j.io.fs.DefaultFileSystemAbstraction
+import org.neo4j.values.AnyValue
+import org.neo4j.values.AnyValues
+import org.neo4j.values.storable.CoordinateReferenceSystem
+import org.neo4j.values.storable.DateTimeValue
+import org.neo4j.values.storable.DateValue
+import org.neo4j.values.storable.DurationValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.VirtualValues
+
+class SpillFileTest extends CypherFunSuite {
+
+  private val fs = new DefaultFileSystemAbstraction
+  private var directory: Path = _
+  private var spillFiles: SpillFiles = _
+
+  override protected def beforeEach(): Unit = {
+    super.beforeEach()
+    directory = Files.createTempDirectory("spill-file-test").resolve("spill")
+    spillFiles = new SpillFiles(fs, directory)
+  }
+
+  override protected def afterEach(): Unit = {
+    fs.deleteRecursively(directory.getParent)
+    super.afterEach()
+  }
+
+  private val comparator: java.util.Comparator[ReadableRow] =
+    (a: ReadableRow, b: ReadableRow) => AnyValues.COMPARATOR.compare(a.getByName("x"), b.getByName("x"))
+
+  test("should read back rows with all spillable values") {
+    val values: Seq[AnyValue] = Seq(
+      Values.NO_VALUE,
+      Values.TRUE,
+      Values.byteValue(1),
+      Values.shortValue(2),
+      Values.intValue(3),
+      Values.longValue(4L),
+      Values.floatValue(5.5f),
+      Values.doubleValue(6.5),
+      Values.charValue('x'),
+      Values.stringValue("hello"),
+      DateValue.epochDate(18000L),
+      DateTimeValue.datetime(1600000000L, 42, ZoneId.of("Europe/Stockholm")),
+      DurationValue.duration(1, 2, 3, 4),
+      Values.pointValue(CoordinateReferenceSystem.Cartesian, 1.0, 2.0),
+      Values.longArray(Array(1L, 2L, 3L)),
+      Values.stringArray("a", "b"),
+      VirtualValues.node(7L),
+      VirtualValues.relationship(8L),
+      VirtualValues.pathReference(Array(1L, 2L), Array(3L)),
+      VirtualValues.list(Values.intValue(1), Values.stringValue("two")),
+      VirtualValues.map(Array("k"), Array[AnyValue](Values.intValue(1)))
+    )
+    val file = spillFiles.newSpillFile(new RowSpillCodec)
+
+    values.zipWithIndex.foreach { case (value, i) => file.write(i, CypherRow.from("v" -> value)) }
+
+    file.rowIterator().map(_.getByName("v")).toList should equal(values)
+  }
+
+  test("should keep rows that cannot be serialized on heap in their position") {
+    val file = spillFiles.newSpillFile(new RowSpillCodec)
+    val rows = Seq(
+      CypherRow.from("v" -> Values.intValue(1)),
+      CypherRow.from("v" -> VirtualValues.node(-1L)),
+      CypherRow.from("v" -> Values.intValue(3))
+    )
+
+    rows.zipWithIndex.foreach { case (row, i) => file.write(i, row) }
+
+    val result = file.rowIterator().toList
+    result.map(_.getByName("v")) should equal(rows.map(_.getByName("v")))
+    result(1) should be theSameInstanceAs rows(1)
+  }
+
+  test("should merge sorted files") {
+    val codec = new RowSpillCodec
+    val files = Seq(Seq(1, 4, 7), Seq(2, 5, 8), Seq(3, 6, 9)).map { run =>
+      val file = spillFiles.newSpillFile(codec)
+      run.foreach(i => file.write(0, CypherRow.from("x" -> Values.intValue(i))))
+      file
+    }
+
+    SpillFile.mergeSortedRows(files, comparator, () => spillFiles.newSpillFile(codec)).map(_.getByName("x")).toList should equal((1 to 9).map(Values.intValue))
+  }
+
+  test("should merge files by tag and keep the order of files for equal tags") {
+    val codec = new RowSpillCodec
+    val first = spillFiles.newSpillFile(codec)
+    val second = spillFiles.newSpillFile(codec)
+    first.write(0, CypherRow.from("x" -> Values.stringValue("a")))
+    second.write(0, CypherRow.from("x" -> Values.stringValue("b")))
+    second.write(1, CypherRow.from("x" -> Values.stringValue("c")))
+    first.write(2, CypherRow.from("x" -> Values.stringValue("d")))
+
+    SpillFile.mergeByTag(Seq(first, second)).map(_.getByName("x")).toList should equal(
+      Seq("a", "b", "c", "d").map(Values.stringValue))
+  }
+
+  test("should close files once merged") {
+    val file = spillFiles.newSpillFile(new RowSpillCodec)
+    file.write(0, CypherRow.from("x" -> Values.intValue(1)))
+
+    val iterator = file.rowIterator()
+    iterator.toList
+
+    file.isClosed shouldBe true
+  }
+
+  test("should merge more sorted files than the merge factor in several passes") {
+    val codec = new RowSpillCodec
+    val runs = 3 * SpillFile.MERGE_FACTOR + 1
+    val files = (0 until runs).map { run =>
+      val file = spillFiles.newSpillFile(codec)
+      (run until 10 * runs by runs).foreach(i => file.write(0, CypherRow.from("x" -> Values.intValue(i))))
+      file
+    }
+    var createdFiles = 0
+
+    val merged = SpillFile.mergeSortedRows(files, comparator, () => {
+      createdFiles += 1
+      spillFiles.newSpillFile(codec)
+    })
+
+    createdFiles should be > 0
+    fs.listFiles(directory).length should be <= SpillFile.MERGE_FACTOR
+    merged.map(_.getByName("x")).toList should equal((0 until 10 * runs).map(Values.intValue))
+  }
+
+  test("should create files in the spill directory and delete them on close") {
+    val file = spillFiles.newSpillFile(new RowSpillCodec)
+    file.write(0, CypherRow.from("x" -> Values.intValue(1)))
+
+    fs.listFiles(directory).length shouldBe 1
+    file.close()
+    fs.listFiles(directory) shouldBe empty
+  }
+}
@@ -23,6 +23,7 @@ import java.util.Collections;
 
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.api.Kernel;
 import org.neo4j.kernel.api.exceptions.InvalidArgumentsException;
 import org.neo4j.kernel.database.Database;
@@ -34,8 +35,10 @@ public class DataCollector extends LifecycleAdapter
 {
     private final Database database;
     private final QueryCollector queryCollector;
+    private final QueryCacheWarmup queryCacheWarmup;
 
-    public DataCollector( Database database, JobScheduler jobScheduler, Monitors monitors, Config config, RecentQueryBuffer recentQueryBuffer )
+    public DataCollector( Database database, FileSystemAbstraction fileSystem, JobScheduler jobScheduler, Monitors monitors, Config config,
+                          RecentQueryBuffer recentQueryBuffer )
     {
         this.database = database;
         this.queryCollector = new QueryCollector( database.getNamedDatabaseId(),
@@ -51,12 +54,38 @@ public class DataCollector extends LifecycleAdapter
             throw new IllegalStateException( "An empty config cannot be invalid", e );
         }
         monitors.addMonitorListener( queryCollector );
+
+        int warmupCount = config.get( GraphDatabaseInternalSettings.data_collector_query_cache_warmup_count );
+        if ( warmupCount > 0 && !database.getNamedDatabaseId().isSystemDatabase() )
+        {
+            this.queryCacheWarmup = new QueryCacheWarmup( database, fileSystem, jobScheduler, monitors, warmupCount,
+                                                          config.get( GraphDatabaseInternalSettings.data_collector_max_query_text_size ),
+                                                          config.get( GraphDatabaseInternalSettings.data_collector_query_cache_warmup_persist_interval ) );
+            monitors.addMonitorListener( queryCacheWarmup );
+        }
+        else
+        {
+            this.queryCacheWarmup = null;
+        }
+    }
+
+    @Override
+    public void start()
+    {
+        if ( queryCacheWarmup != null )
+        {
+            queryCacheWarmup.start();
+        }
     }
 
     @Override
     public void stop()
     {
         queryCollector.doStop();
+        if ( queryCacheWarmup != null )
+        {
+            queryCacheWarmup.stop();
+        }
     }
 
     public Kernel getKernel()
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.neo4j.values.virtual.MapValue;
+
+/**
+ * Counts how often queries were executed, keyed by query text and the types of the query parameters, which is the
+ * granularity of the query caches. Used to persist the hottest queries of a database so that the query caches can be
+ * warmed up with them after a restart.
+ */
+class HotQueries
+{
+    static final String EXPLAIN = "EXPLAIN ";
+    private static final int FORMAT_VERSION = 1;
+
+    private final Map<HotQuery,Long> counts = new HashMap<>();
+
+    void add( TruncatedQuerySnapshot snapshot )
+    {
+        // A truncated query text can not be planned, so there is no point in remembering it.
+        if ( snapshot.queryText.hashCode() == snapshot.fullQueryTextHash )
+        {
+            add( snapshot.queryText, snapshot.queryParameters );
+        }
+    }
+
+    void add( String queryText, MapValue queryParameters )
+    {
+        // Explained queries are skipped, they are mostly the warm-up's own queries.
+        if ( queryText.regionMatches( true, 0, EXPLAIN, 0, EXPLAIN.length() ) )
+        {
+            return;
+        }
+        SortedMap<String,QueryParameterType> parameterTypes = new TreeMap<>();
+        queryParameters.foreach( ( key, value ) -> parameterTypes.put( key, QueryParameterType.of( value ) ) );
+        add( new HotQuery( queryText, parameterTypes ), 1 );
+    }
+
+    void add( HotQuery query, long count )
+    {
+        counts.merge( query, count, Long::sum );
+    }
+
+    void addAll( HotQueries other )
+    {
+        other.counts.forEach( this::add );
+    }
+
+    boolean isEmpty()
+    {
+        return counts.isEmpty();
+    }
+
+    int size()
+    {
+        return counts.size();
+    }
+
+    void clear()
+    {
+        counts.clear();
+    }
+
+    /**
+     * Forget all but the {@code limit} most frequently executed queries.
+     */
+    void retainHottest( int limit )
+    {
+        if ( counts.size() > limit )
+        {
+            counts.keySet().retainAll( new HashSet<>( hottest( limit ) ) );
+        }
+    }
+
+    /**
+     * @return the {@code limit} most frequently executed queries, the most frequent first.
+     */
+    List<HotQuery> hottest( int limit )
+    {
+        List<Map.Entry<HotQuery,Long>> entries = new ArrayList<>( counts.entrySet() );
+        entries.sort( Map.Entry.<HotQuery,Long>comparingByValue( Comparator.reverseOrder() ) );
+        List<HotQuery> hottest = new ArrayList<>( Math.min( limit, entries.size() ) );
+        for ( int i = 0; i < limit && i < entries.size(); i++ )
+        {
+            hottest.add( entries.get( i ).getKey() );
+        }
+        return hottest;
+    }
+
+    long count( HotQuery query )
+    {
+        return counts.getOrDefault( query, 0L );
+    }
+
+    /**
+     * Write the {@code limit} most frequently executed queries, with their counts.
+     */
+    void write( DataOutput out, int limit ) throws IOException
+    {
+        List<HotQuery> hottest = hottest( limit );
+        out.writeInt( FORMAT_VERSION );
+        out.writeInt( hottest.size() );
+        for ( HotQuery query : hottest )
+        {
+            out.writeLong( counts.get( query ) );
+            writeString( out, query.queryText );
+            out.writeInt( query.parameterTypes.size() );
+            for ( Map.Entry<String,QueryParameterType> parameter : query.parameterTypes.entrySet() )
+            {
+                writeString( out, parameter.getKey() );
+                out.writeByte( parameter.getValue().ordinal() );
+            }
+        }
+    }
+
+    static HotQueries read( DataInput in ) throws IOException
+    {
+        int version = in.readInt();
+        if ( version != FORMAT_VERSION )
+        {
+            throw new IOException( "Unsupported hot queries format version " + version );
+        }
+        QueryParameterType[] types = QueryParameterType.values();
+        HotQueries hotQueries = new HotQueries();
+        int size = in.readInt();
+        for ( int i = 0; i < size; i++ )
+        {
+            long count = in.readLong();
+            String queryText = readString( in );
+            int numberOfParameters = in.readInt();
+            SortedMap<String,QueryParameterType> parameterTypes = new TreeMap<>();
+            for ( int j = 0; j < numberOfParameters; j++ )
+            {
+                String name = readString( in );
+                int type = in.readByte();
+                if ( type < 0 || type >= types.length )
+                {
+                    throw new IOException( "Unknown parameter type " + type );
+                }
+                parameterTypes.put( name, types[type] );
+            }
+            hotQueries.add( new HotQuery( queryText, parameterTypes ), count );
+        }
+        return hotQueries;
+    }
+
+    private static void writeString( DataOutput out, String string ) throws IOException
+    {
+        byte[] bytes = string.getBytes( StandardCharsets.UTF_8 );
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private static String readString( DataInput in ) throws IOException
+    {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return new String( bytes, StandardCharsets.UTF_8 );
+    }
+
+    static final class HotQuery
+    {
+        final String queryText;
+        final SortedMap<String,QueryParameterType> parameterTypes;
+
+        HotQuery( String queryText, SortedMap<String,QueryParameterType> parameterTypes )
+        {
+            this.queryText = queryText;
+            this.parameterTypes = Collections.unmodifiableSortedMap( parameterTypes );
+        }
+
+        /**
+         * @return parameters of the recorded types, which hit the same query cache entries as the original parameters.
+         */
+        Map<String,Object> representativeParameters()
+        {
+            Map<String,Object> parameters = new HashMap<>();
+            parameterTypes.forEach( ( name, type ) -> parameters.put( name, type.representative() ) );
+            return parameters;
+        }
+
+        @Override
+        public boolean equals( Object o )
+        {
+            if ( this == o )
+            {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() )
+            {
+                return false;
+            }
+            HotQuery hotQuery = (HotQuery) o;
+            return queryText.equals( hotQuery.queryText ) && parameterTypes.equals( hotQuery.parameterTypes );
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash( queryText, parameterTypes );
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.cypher.internal.QueryCacheWarmupMonitor;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.api.query.ExecutingQuery;
+import org.neo4j.kernel.api.query.QuerySnapshot;
+import org.neo4j.kernel.availability.AvailabilityListener;
+import org.neo4j.kernel.availability.DatabaseAvailabilityGuard;
+import org.neo4j.kernel.database.Database;
+import org.neo4j.kernel.impl.query.QueryExecutionMonitor;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobMonitoringParams;
+import org.neo4j.scheduler.JobScheduler;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Keeps the query caches of a database warm across restarts.
+ * <p>
+ * The warm-up counts the successfully executed queries of the database itself, independently of whether the
+ * {@link QueryCollector} is collecting, and periodically persists the most frequently executed ones, together with
+ * the types of their parameters, in the database directory. When the database becomes available, the persisted
+ * queries are planned in the background with {@code EXPLAIN} and representative parameters of the recorded types,
+ * which populates the same query cache entries as the original invocations would. Queries that no longer plan, e.g.
+ * because the schema changed, are skipped.
+ * <p>
+ * Warming up has to wait for the database to become available, because planning requires a transaction. Progress
+ * is reported through {@link QueryCacheWarmupMonitor}.
+ */
+class QueryCacheWarmup extends LifecycleAdapter implements AvailabilityListener, QueryExecutionMonitor
+{
+    static final String HOT_QUERIES_FILE_NAME = "hot-queries";
+
+    /**
+     * How many more distinct queries than are persisted are counted between two persists, before the least executed
+     * ones are forgotten to bound the memory used for counting.
+     */
+    private static final int RECENT_QUERIES_FACTOR = 16;
+
+    private final Database database;
+    private final FileSystemAbstraction fileSystem;
+    private final JobScheduler jobScheduler;
+    private final QueryCacheWarmupMonitor monitor;
+    private final Log log;
+    private final int maxQueries;
+    private final int maxQueryTextSize;
+    private final Duration persistInterval;
+    private final Path hotQueriesFile;
+
+    private HotQueries persistedQueries = new HotQueries();
+    /**
+     * The queries executed since the last persist, guarded by its own monitor so that executing queries do not wait
+     * for a persist or a warm-up.
+     */
+    private final HotQueries recentQueries = new HotQueries();
+    private JobHandle<?> persistJob;
+    private JobHandle<?> warmupJob;
+    private volatile boolean stopped;
+
+    QueryCacheWarmup( Database database, FileSystemAbstraction fileSystem, JobScheduler jobScheduler, Monitors monitors,
+                      int maxQueries, int maxQueryTextSize, Duration persistInterval )
+    {
+        this.database = database;
+        this.fileSystem = fileSystem;
+        this.jobScheduler = jobScheduler;
+        this.monitor = monitors.newMonitor( QueryCacheWarmupMonitor.class );
+        this.log = database.getInternalLogProvider().getLog( getClass() );
+        this.maxQueries = maxQueries;
+        this.maxQueryTextSize = maxQueryTextSize;
+        this.persistInterval = persistInterval;
+        this.hotQueriesFile = database.getDatabaseLayout().file( HOT_QUERIES_FILE_NAME );
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        stopped = false;
+        persistedQueries = readHotQueries();
+        var monitoringParams = JobMonitoringParams.systemJob( database.getNamedDatabaseId().name(), "Persisting of hot queries" );
+        persistJob = jobScheduler.scheduleRecurring( Group.DATA_COLLECTOR, monitoringParams, this::persist,
+                                                     persistInterval.toMillis(), TimeUnit.MILLISECONDS );
+        DatabaseAvailabilityGuard availabilityGuard = database.getDatabaseAvailabilityGuard();
+        availabilityGuard.addListener( this );
+        if ( availabilityGuard.isAvailable() )
+        {
+            available();
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        synchronized ( this )
+        {
+            stopped = true;
+            database.getDatabaseAvailabilityGuard().removeListener( this );
+            cancel( persistJob );
+            cancel( warmupJob );
+            persistJob = null;
+            warmupJob = null;
+        }
+        persist();
+    }
+
+    @Override
+    public synchronized void available()
+    {
+        // Only warm up once per start, not every time the database comes back after being briefly unavailable.
+        if ( !stopped && warmupJob == null && !persistedQueries.isEmpty() )
+        {
+            var monitoringParams = JobMonitoringParams.systemJob( database.getNamedDatabaseId().name(), "Query cache warm-up" );
+            warmupJob = jobScheduler.schedule( Group.DATA_COLLECTOR, monitoringParams, this::warmUp );
+        }
+    }
+
+    @Override
+    public void unavailable()
+    {
+        // The warm-up stops by itself when the database becomes unavailable.
+    }
+
+    private void warmUp()
+    {
+        List<HotQueries.HotQuery> queries;
+        synchronized ( this )
+        {
+            queries = persistedQueries.hottest( maxQueries );
+        }
+        monitor.warmupStarted( queries.size() );
+        int warmedUp = 0;
+        for ( HotQueries.HotQuery query : queries )
+        {
+            if ( stopped || !database.getDatabaseAvailabilityGuard().isAvailable() )
+            {
+                break;
+            }
+            monitor.queryWarmedUp( plan( query ) );
+            warmedUp++;
+        }
+        monitor.warmupCompleted( queries.size() - warmedUp );
+        log.info( "Warmed up the query caches with %d of %d hot queries.", warmedUp, queries.size() );
+    }
+
+    private boolean plan( HotQueries.HotQuery query )
+    {
+        try ( Transaction transaction = database.getDatabaseFacade().beginTx() )
+        {
+            transaction.execute( HotQueries.EXPLAIN + query.queryText, query.representativeParameters() ).close();
+            return true;
+        }
+        catch ( Exception e )
+        {
+            log.debug( "Failed to plan hot query during query cache warm-up", e );
+            return false;
+        }
+    }
+
+    /**
+     * Persist the hottest queries, counting both the queries persisted before and the queries executed since, so that a
+     * short-lived run of the database does not forget the queries that were hot before it.
+     */
+    synchronized void persist()
+    {
+        synchronized ( recentQueries )
+        {
+            if ( recentQueries.isEmpty() )
+            {
+                return;
+            }
+            persistedQueries.addAll( recentQueries );
+            recentQueries.clear();
+        }
+        persistedQueries.retainHottest( maxQueries );
+
+        Path temporaryFile = hotQueriesFile.resolveSibling( HOT_QUERIES_FILE_NAME + ".tmp" );
+        try
+        {
+            try ( DataOutputStream out = new DataOutputStream( fileSystem.openAsOutputStream( temporaryFile, false ) ) )
+            {
+                persistedQueries.write( out, maxQueries );
+            }
+            fileSystem.renameFile( temporaryFile, hotQueriesFile, ATOMIC_MOVE, REPLACE_EXISTING );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to persist hot queries for the query cache warm-up", e );
+        }
+    }
+
+    // QueryExecutionMonitor
+
+    @Override
+    public void startProcessing( ExecutingQuery query )
+    {
+    }
+
+    @Override
+    public void startExecution( ExecutingQuery query )
+    {
+    }
+
+    @Override
+    public void endFailure( ExecutingQuery query, Throwable failure )
+    {
+    }
+
+    @Override
+    public void endFailure( ExecutingQuery query, String reason )
+    {
+    }
+
+    @Override
+    public void endSuccess( ExecutingQuery query )
+    {
+        if ( stopped || !query.databaseId().map( database.getNamedDatabaseId()::equals ).orElse( false ) )
+        {
+            return;
+        }
+        QuerySnapshot snapshot = query.snapshot();
+        String queryText = snapshot.obfuscatedQueryText().orElse( null );
+        var parameters = snapshot.obfuscatedQueryParameters().orElse( null );
+        if ( queryText != null && parameters != null && queryText.length() <= maxQueryTextSize )
+        {
+            synchronized ( recentQueries )
+            {
+                recentQueries.add( queryText, parameters );
+                if ( recentQueries.size() > RECENT_QUERIES_FACTOR * maxQueries )
+                {
+                    recentQueries.retainHottest( maxQueries );
+                }
+            }
+        }
+    }
+
+    private HotQueries readHotQueries()
+    {
+        if ( !fileSystem.fileExists( hotQueriesFile ) )
+        {
+            return new HotQueries();
+        }
+        try ( DataInputStream in = new DataInputStream( fileSystem.openAsInputStream( hotQueriesFile ) ) )
+        {
+            return HotQueries.read( in );
+        }
+        catch ( IOException e )
+        {
+            log.warn( "Failed to read hot queries for the query cache warm-up, the query caches will start cold", e );
+            return new HotQueries();
+        }
+    }
+
+    private static void cancel( JobHandle<?> job )
+    {
+        if ( job != null )
+        {
+            job.cancel();
+        }
+    }
+}
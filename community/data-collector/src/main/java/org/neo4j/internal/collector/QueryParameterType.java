@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.BooleanValue;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.DateValue;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.FloatingPointValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.LocalDateTimeValue;
+import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.TimeValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+/**
+ * The type of a query parameter, as far as it matters to the query caches. Each type has a representative value that
+ * can be used to plan a query with parameters of that type, without knowing the original parameter values.
+ * <p>
+ * The types are recorded from the parameters of a {@link TruncatedQuerySnapshot}, where lists and maps have already
+ * been replaced by a textual description. We recognize these descriptions, but lose the element type of lists.
+ */
+enum QueryParameterType
+{
+    STRING( Values.stringValue( "" ) ),
+    BOOLEAN( Values.FALSE ),
+    INTEGER( Values.longValue( 0 ) ),
+    FLOAT( Values.doubleValue( 0.0 ) ),
+    POINT( Values.pointValue( CoordinateReferenceSystem.Cartesian, 0.0, 0.0 ) ),
+    DATE_TIME( DateTimeValue.MIN_VALUE ),
+    LOCAL_DATE_TIME( LocalDateTimeValue.MIN_VALUE ),
+    TIME( TimeValue.MIN_VALUE ),
+    LOCAL_TIME( LocalTimeValue.MIN_VALUE ),
+    DATE( DateValue.MIN_VALUE ),
+    DURATION( DurationValue.ZERO ),
+    MAP( VirtualValues.EMPTY_MAP ),
+    LIST( VirtualValues.EMPTY_LIST ),
+    ANY( Values.NO_VALUE );
+
+    private static final String TRUNCATED_LIST_PREFIX = "§LIST[";
+    private static final String TRUNCATED_MAP_PREFIX = "§MAP[";
+
+    private final AnyValue representative;
+
+    QueryParameterType( AnyValue representative )
+    {
+        this.representative = representative;
+    }
+
+    AnyValue representative()
+    {
+        return representative;
+    }
+
+    static QueryParameterType of( AnyValue value )
+    {
+        if ( value instanceof TextValue )
+        {
+            String text = ((TextValue) value).stringValue();
+            if ( text.startsWith( TRUNCATED_LIST_PREFIX ) )
+            {
+                return LIST;
+            }
+            if ( text.startsWith( TRUNCATED_MAP_PREFIX ) )
+            {
+                return MAP;
+            }
+            return STRING;
+        }
+        if ( value instanceof BooleanValue )
+        {
+            return BOOLEAN;
+        }
+        if ( value instanceof IntegralValue )
+        {
+            return INTEGER;
+        }
+        if ( value instanceof FloatingPointValue )
+        {
+            return FLOAT;
+        }
+        if ( value instanceof PointValue )
+        {
+            return POINT;
+        }
+        if ( value instanceof DateTimeValue )
+        {
+            return DATE_TIME;
+        }
+        if ( value instanceof LocalDateTimeValue )
+        {
+            return LOCAL_DATE_TIME;
+        }
+        if ( value instanceof TimeValue )
+        {
+            return TIME;
+        }
+        if ( value instanceof LocalTimeValue )
+        {
+            return LOCAL_TIME;
+        }
+        if ( value instanceof DateValue )
+        {
+            return DATE;
+        }
+        if ( value instanceof DurationValue )
+        {
+            return DURATION;
+        }
+        if ( value instanceof MapValue )
+        {
+            return MAP;
+        }
+        if ( value instanceof ListValue )
+        {
+            return LIST;
+        }
+        return ANY;
+    }
+}
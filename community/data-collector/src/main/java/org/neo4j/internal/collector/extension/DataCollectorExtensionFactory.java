@@ -23,6 +23,7 @@ import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.configuration.Config;
 import org.neo4j.internal.collector.DataCollector;
 import org.neo4j.internal.collector.RecentQueryBuffer;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.database.Database;
 import org.neo4j.kernel.extension.ExtensionFactory;
 import org.neo4j.kernel.extension.context.ExtensionContext;
@@ -43,6 +44,8 @@ public class DataCollectorExtensionFactory extends ExtensionFactory<DataCollecto
 
         Database database();
 
+        FileSystemAbstraction fileSystem();
+
         Config config();
 
         RecentQueryBuffer recentQueryBuffer();
@@ -57,6 +60,7 @@ public class DataCollectorExtensionFactory extends ExtensionFactory<DataCollecto
     public Lifecycle newInstance( ExtensionContext context, Dependencies dependencies )
     {
         return new DataCollector( dependencies.database(),
+                                  dependencies.fileSystem(),
                                   dependencies.jobScheduler(),
                                   dependencies.monitors(),
                                   dependencies.config(),
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.collector;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualValues;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotQueriesTest
+{
+    @Test
+    void shouldOrderQueriesByNumberOfExecutions()
+    {
+        // given
+        HotQueries hotQueries = new HotQueries();
+        hotQueries.add( snapshot( "MATCH (n) RETURN n", VirtualValues.EMPTY_MAP ) );
+        hotQueries.add( snapshot( "MATCH (n:A) RETURN n", VirtualValues.EMPTY_MAP ) );
+        hotQueries.add( snapshot( "MATCH (n:A) RETURN n", VirtualValues.EMPTY_MAP ) );
+
+        // when
+        List<HotQueries.HotQuery> hottest = hotQueries.hottest( 10 );
+
+        // then
+        assertEquals( 2, hottest.size() );
+        assertEquals( "MATCH (n:A) RETURN n", hottest.get( 0 ).queryText );
+        assertEquals( "MATCH (n) RETURN n", hottest.get( 1 ).queryText );
+        assertEquals( 1, hotQueries.hottest( 1 ).size() );
+    }
+
+    @Test
+    void shouldCountQueriesPerParameterTypes()
+    {
+        // given
+        HotQueries hotQueries = new HotQueries();
+        hotQueries.add( snapshot( "RETURN $x", map( "x", Values.longValue( 1 ) ) ) );
+        hotQueries.add( snapshot( "RETURN $x", map( "x", Values.longValue( 2 ) ) ) );
+        hotQueries.add( snapshot( "RETURN $x", map( "x", Values.stringValue( "a" ) ) ) );
+
+        // when
+        List<HotQueries.HotQuery> hottest = hotQueries.hottest( 10 );
+
+        // then
+        assertEquals( 2, hottest.size() );
+        assertEquals( QueryParameterType.INTEGER, hottest.get( 0 ).parameterTypes.get( "x" ) );
+        assertEquals( 2, hotQueries.count( hottest.get( 0 ) ) );
+        assertEquals( QueryParameterType.STRING, hottest.get( 1 ).parameterTypes.get( "x" ) );
+        assertEquals( 1, hotQueries.count( hottest.get( 1 ) ) );
+    }
+
+    @Test
+    void shouldRecognizeTruncatedListsAndMaps()
+    {
+        // given
+        HotQueries hotQueries = new HotQueries();
+        MapValue parameters = VirtualValues.map( new String[]{"list", "map"},
+                                                 new AnyValue[]{VirtualValues.list( Values.longValue( 1 ) ), map( "a", Values.TRUE )} );
+        hotQueries.add( snapshot( "RETURN $list, $map", parameters ) );
+
+        // when
+        HotQueries.HotQuery query = hotQueries.hottest( 1 ).get( 0 );
+
+        // then
+        assertEquals( QueryParameterType.LIST, query.parameterTypes.get( "list" ) );
+        assertEquals( QueryParameterType.MAP, query.parameterTypes.get( "map" ) );
+        Map<String,Object> representative = query.representativeParameters();
+        assertEquals( VirtualValues.EMPTY_LIST, representative.get( "list" ) );
+        assertEquals( VirtualValues.EMPTY_MAP, representative.get( "map" ) );
+    }
+
+    @Test
+    void shouldIgnoreTruncatedAndExplainedQueries()
+    {
+        // given
+        HotQueries hotQueries = new HotQueries();
+
+        // when
+        hotQueries.add( new TruncatedQuerySnapshot( null, "MATCH (n) RETURN n", null, VirtualValues.EMPTY_MAP, -1L, -1L, -1L, 5 ) );
+        hotQueries.add( snapshot( "EXPLAIN MATCH (n) RETURN n", VirtualValues.EMPTY_MAP ) );
+        hotQueries.add( snapshot( "explain MATCH (n) RETURN n", VirtualValues.EMPTY_MAP ) );
+
+        // then
+        assertTrue( hotQueries.isEmpty() );
+    }
+
+    @Test
+    void shouldRetainOnlyTheHottestQueries()
+    {
+        // given
+        HotQueries hotQueries = new HotQueries();
+        hotQueries.add( "MATCH (n) RETURN n", VirtualValues.EMPTY_MAP );
+        hotQueries.add( "MATCH (n:A) RETURN n", VirtualValues.EMPTY_MAP );
+        hotQueries.add( "MATCH (n:A) RETURN n", VirtualValues.EMPTY_MAP );
+
+        // when
+        hotQueries.retainHottest( 1 );
+
+        // then
+        assertEquals( 1, hotQueries.size() );
+        HotQueries.HotQuery hottest = hotQueries.hottest( 10 ).get( 0 );
+        assertEquals( "MATCH (n:A) RETURN n", hottest.queryText );
+        assertEquals( 2, hotQueries.count( hottest ) );
+    }
+
+    @Test
+    void shouldWriteAndReadHottestQueries() throws IOException
+    {
+        // given
+        HotQueries hotQueries = new HotQueries();
+        hotQueries.add( snapshot( "RETURN $x", map( "x", Values.longValue( 1 ) ) ) );
+        hotQueries.add( snapshot( "RETURN $x", map( "x", Values.longValue( 1 ) ) ) );
+        hotQueries.add( snapshot( "RETURN 'ö'", VirtualValues.EMPTY_MAP ) );
+        hotQueries.add( snapshot( "RETURN 1", VirtualValues.EMPTY_MAP ) );
+
+        // when
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try ( DataOutputStream out = new DataOutputStream( bytes ) )
+        {
+            hotQueries.write( out, 2 );
+        }
+        HotQueries read = HotQueries.read( new DataInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) );
+
+        // then
+        List<HotQueries.HotQuery> hottest = read.hottest( 10 );
+        assertEquals( 2, hottest.size() );
+        assertEquals( hotQueries.hottest( 1 ).get( 0 ), hottest.get( 0 ) );
+        assertEquals( 2, read.count( hottest.get( 0 ) ) );
+        assertEquals( QueryParameterType.INTEGER, hottest.get( 0 ).parameterTypes.get( "x" ) );
+    }
+
+    private static TruncatedQuerySnapshot snapshot( String queryText, MapValue parameters )
+    {
+        return new TruncatedQuerySnapshot( null, queryText, null, parameters, -1L, -1L, -1L, 100 );
+    }
+
+    private static MapValue map( String key, AnyValue value )
+    {
+        String[] keys = {key};
+        AnyValue[] values = {value};
+        return VirtualValues.map( keys, values );
+    }
+}
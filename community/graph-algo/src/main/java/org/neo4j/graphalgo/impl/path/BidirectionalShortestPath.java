@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.path;
+
+import org.eclipse.collections.api.iterator.LongIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import org.neo4j.collection.trackable.HeapTrackingCollections;
+import org.neo4j.collection.trackable.HeapTrackingLongArrayList;
+import org.neo4j.collection.trackable.HeapTrackingLongHashSet;
+import org.neo4j.collection.trackable.HeapTrackingLongIntHashMap;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+/**
+ * Finds the shortest paths between two nodes with a breadth first search from both ends, working directly on kernel cursors.
+ * <p>
+ * Unlike {@link ShortestPath} it does not create any node or relationship objects while searching. What has been seen from
+ * each end is kept in primitive collections that are tracked by the given {@link MemoryTracker}: the depth of every visited node,
+ * and for every visited node the relationships it was reached through. Each step expands the side with the fewest nodes in its
+ * frontier, which only needs the sizes already at hand rather than reading the degrees of every frontier node, and node and
+ * relationship filters are applied while expanding.
+ * <p>
+ * Relationships are traversed in the direction of the given {@link RelationshipSelection} from the start node, and in the reverse
+ * direction from the end node.
+ * <p>
+ * Instances are not thread-safe and must be closed after use.
+ */
+public class BidirectionalShortestPath implements AutoCloseable
+{
+    private static final int NO_PARENT = -1;
+
+    /**
+     * Decides whether a relationship can be part of a path.
+     */
+    @FunctionalInterface
+    public interface RelationshipFilter
+    {
+        boolean test( long relationshipId, int type, long sourceNodeId, long targetNodeId );
+    }
+
+    /**
+     * A path found by the search, from the start node to the end node.
+     */
+    public static final class FoundPath
+    {
+        private final long[] nodes;
+        private final long[] relationships;
+
+        FoundPath( long[] nodes, long[] relationships )
+        {
+            this.nodes = nodes;
+            this.relationships = relationships;
+        }
+
+        public long[] nodes()
+        {
+            return nodes;
+        }
+
+        public long[] relationships()
+        {
+            return relationships;
+        }
+
+        public int length()
+        {
+            return relationships.length;
+        }
+    }
+
+    private final Read read;
+    private final CursorContext cursorContext;
+    private final MemoryTracker memoryTracker;
+    private final RelationshipSelection selection;
+    private final int maxDepth;
+    private final LongPredicate nodeFilter;
+    private final RelationshipFilter relationshipFilter;
+    private final NodeCursor nodeCursor;
+    private final RelationshipTraversalCursor relationshipCursor;
+
+    /**
+     * @param selection the types and direction of relationships to traverse from the start node
+     * @param maxDepth the maximum length of the paths to find
+     * @param nodeFilter nodes that can be part of a path, including the start and end nodes, or {@code null} for all nodes
+     * @param relationshipFilter relationships that can be part of a path, or {@code null} for all relationships
+     */
+    public BidirectionalShortestPath( Read read, CursorFactory cursors, CursorContext cursorContext, MemoryTracker memoryTracker,
+            RelationshipSelection selection, int maxDepth, LongPredicate nodeFilter, RelationshipFilter relationshipFilter )
+    {
+        this.read = read;
+        this.cursorContext = cursorContext;
+        this.memoryTracker = memoryTracker;
+        this.selection = selection;
+        this.maxDepth = maxDepth;
+        this.nodeFilter = nodeFilter;
+        this.relationshipFilter = relationshipFilter;
+        this.nodeCursor = cursors.allocateNodeCursor( cursorContext );
+        this.relationshipCursor = cursors.allocateRelationshipTraversalCursor( cursorContext );
+    }
+
+    /**
+     * @return one of the shortest paths from {@code start} to {@code end}, or {@code null} if there is none within the max depth.
+     */
+    public FoundPath findSinglePath( long start, long end )
+    {
+        List<FoundPath> paths = search( start, end, true );
+        return paths.isEmpty() ? null : paths.get( 0 );
+    }
+
+    /**
+     * @return all shortest paths from {@code start} to {@code end}, which is empty if there is none within the max depth.
+     */
+    public List<FoundPath> findAllPaths( long start, long end )
+    {
+        return search( start, end, false );
+    }
+
+    @Override
+    public void close()
+    {
+        nodeCursor.close();
+        relationshipCursor.close();
+    }
+
+    private List<FoundPath> search( long start, long end, boolean single )
+    {
+        List<FoundPath> result = new ArrayList<>();
+        if ( !nodeExists( start ) || !nodeExists( end ) || !acceptsNode( start ) || !acceptsNode( end ) )
+        {
+            return result;
+        }
+        if ( start == end )
+        {
+            result.add( new FoundPath( new long[]{start}, new long[0] ) );
+            return result;
+        }
+
+        try ( Side fromStart = new Side( start, selection );
+              Side fromEnd = new Side( end, selection.reverse() );
+              HeapTrackingLongHashSet meetingNodes = HeapTrackingCollections.newLongSet( memoryTracker ) )
+        {
+            int depth = 0;
+            while ( depth < maxDepth && fromStart.frontier.notEmpty() && fromEnd.frontier.notEmpty() )
+            {
+                Side side = fromStart.frontier.size() <= fromEnd.frontier.size() ? fromStart : fromEnd;
+                Side other = side == fromStart ? fromEnd : fromStart;
+                side.expand( other, meetingNodes, single );
+                depth++;
+
+                if ( meetingNodes.notEmpty() )
+                {
+                    collectPaths( fromStart, fromEnd, meetingNodes, single, result );
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean nodeExists( long node )
+    {
+        read.singleNode( node, nodeCursor );
+        return nodeCursor.next();
+    }
+
+    private boolean acceptsNode( long node )
+    {
+        return nodeFilter == null || nodeFilter.test( node );
+    }
+
+    private void collectPaths( Side fromStart, Side fromEnd, HeapTrackingLongHashSet meetingNodes, boolean single, List<FoundPath> result )
+    {
+        // All meeting nodes found in one step are equally far apart from the two ends, except in graphs where filters make the
+        // search asymmetric, so only keep the ones on the shortest paths
+        int shortest = Integer.MAX_VALUE;
+        LongIterator nodes = meetingNodes.longIterator();
+        while ( nodes.hasNext() )
+        {
+            long node = nodes.next();
+            shortest = Math.min( shortest, fromStart.depths.get( node ) + fromEnd.depths.get( node ) );
+        }
+
+        nodes = meetingNodes.longIterator();
+        while ( nodes.hasNext() && !(single && !result.isEmpty()) )
+        {
+            long node = nodes.next();
+            int startDepth = fromStart.depths.get( node );
+            if ( startDepth + fromEnd.depths.get( node ) == shortest )
+            {
+                long[] pathNodes = new long[shortest + 1];
+                long[] pathRelationships = new long[shortest];
+                pathNodes[startDepth] = node;
+                fromStart.walkToStart( node, startDepth, pathNodes, pathRelationships, true,
+                        () -> fromEnd.walkToStart( node, startDepth, pathNodes, pathRelationships, false,
+                                () -> result.add( new FoundPath( pathNodes.clone(), pathRelationships.clone() ) ), single ),
+                        single );
+            }
+        }
+    }
+
+    /**
+     * What has been seen from one end of the path.
+     */
+    private class Side implements AutoCloseable
+    {
+        private final RelationshipSelection selection;
+        // The depth of every visited node
+        private final HeapTrackingLongIntHashMap depths;
+        // Index of the first entry in parentEntries of every visited node except the origin
+        private final HeapTrackingLongIntHashMap firstParent;
+        // Entries of (parent node, relationship, index of the next entry of the same node)
+        private final HeapTrackingLongArrayList parentEntries;
+        private HeapTrackingLongArrayList frontier;
+        private HeapTrackingLongArrayList nextFrontier;
+        private int depth;
+
+        Side( long origin, RelationshipSelection selection )
+        {
+            this.selection = selection;
+            this.depths = HeapTrackingCollections.newLongIntMap( memoryTracker );
+            this.firstParent = HeapTrackingCollections.newLongIntMap( memoryTracker );
+            this.parentEntries = HeapTrackingLongArrayList.newLongArrayList( memoryTracker );
+            this.frontier = HeapTrackingLongArrayList.newLongArrayList( memoryTracker );
+            this.nextFrontier = HeapTrackingLongArrayList.newLongArrayList( memoryTracker );
+            depths.put( origin, 0 );
+            frontier.add( origin );
+        }
+
+        void expand( Side other, HeapTrackingLongHashSet meetingNodes, boolean single )
+        {
+            depth++;
+            for ( int i = 0; i < frontier.size(); i++ )
+            {
+                long node = frontier.get( i );
+                read.singleNode( node, nodeCursor );
+                if ( nodeCursor.next() )
+                {
+                    nodeCursor.relationships( relationshipCursor, selection );
+                    while ( relationshipCursor.next() )
+                    {
+                        long relationship = relationshipCursor.relationshipReference();
+                        if ( relationshipFilter == null || relationshipFilter.test( relationship, relationshipCursor.type(),
+                                relationshipCursor.sourceNodeReference(), relationshipCursor.targetNodeReference() ) )
+                        {
+                            visit( node, relationship, relationshipCursor.otherNodeReference(), other, meetingNodes, single );
+                        }
+                    }
+                }
+            }
+
+            HeapTrackingLongArrayList expanded = frontier;
+            expanded.clear();
+            frontier = nextFrontier;
+            nextFrontier = expanded;
+        }
+
+        private void visit( long parent, long relationship, long node, Side other, HeapTrackingLongHashSet meetingNodes, boolean single )
+        {
+            int previousDepth = depths.getIfAbsent( node, -1 );
+            if ( previousDepth == -1 )
+            {
+                if ( !acceptsNode( node ) )
+                {
+                    return;
+                }
+                depths.put( node, depth );
+                addParent( node, parent, relationship, NO_PARENT );
+                nextFrontier.add( node );
+                if ( other.depths.containsKey( node ) )
+                {
+                    meetingNodes.add( node );
+                }
+            }
+            else if ( previousDepth == depth && !single )
+            {
+                // Another way of reaching a node at the same distance, which is part of other shortest paths
+                addParent( node, parent, relationship, firstParent.get( node ) );
+            }
+        }
+
+        private void addParent( long node, long parent, long relationship, int next )
+        {
+            int entry = parentEntries.size() / 3;
+            parentEntries.add( parent );
+            parentEntries.add( relationship );
+            parentEntries.add( next );
+            firstParent.put( node, entry );
+        }
+
+        /**
+         * Fills in the path between the origin of this side and {@code node}, which is at {@code nodeDepth}, for every way of reaching
+         * it, and calls {@code onPath} for each of them.
+         *
+         * @param fromStart whether this side starts at the start node, in which case the path is filled in before {@code node},
+         * and otherwise after it
+         */
+        void walkToStart( long node, int nodeDepth, long[] pathNodes, long[] pathRelationships, boolean fromStart, Runnable onPath,
+                boolean single )
+        {
+            int distance = depths.get( node );
+            if ( distance == 0 )
+            {
+                onPath.run();
+                return;
+            }
+            int entry = firstParent.get( node );
+            while ( entry != NO_PARENT )
+            {
+                long parent = parentEntries.get( 3 * entry );
+                long relationship = parentEntries.get( 3 * entry + 1 );
+                // Position of the relationship between node and parent in the path
+                int position = fromStart ? distance - 1 : pathRelationships.length - distance;
+                pathRelationships[position] = relationship;
+                pathNodes[fromStart ? position : position + 1] = parent;
+                walkToStart( parent, nodeDepth, pathNodes, pathRelationships, fromStart, onPath, single );
+                if ( single )
+                {
+                    return;
+                }
+                entry = (int) parentEntries.get( 3 * entry + 2 );
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            depths.close();
+            firstParent.close();
+            parentEntries.close();
+            frontier.close();
+            nextFrontier.close();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+import static org.neo4j.index.internal.gbptree.TreeNode.Overflow.NO;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.INTERNAL;
+import static org.neo4j.index.internal.gbptree.TreeNode.Type.LEAF;
+
+/**
+ * Builds a tree bottom-up from keys coming in ascending order, instead of inserting them one by one from the root.
+ * <p>
+ * Leaves are filled from left to right, each one up to the fill factor, and only the right-most node on each level
+ * of the tree is kept track of, the "right spine". When a node on a level is full a new right sibling is started,
+ * and the splitter between the two, together with the new node, is appended to the right-most node on the level above.
+ * A level which has no node yet gets a new one, having the full node as its left-most child, which is how the tree grows in height.
+ * Pages are therefore written sequentially and once, with no searching, splitting or shifting of keys.
+ * <p>
+ * Changes involved in appending key/value E to full leaf L (P = right-most node on level above):
+ * <ol>
+ * <li>Acquire new page id R and initialize it as a leaf</li>
+ * <li>Set L's right sibling to R and R's left sibling to L</li>
+ * <li>Append splitter between L and E, along with R as its right child, to P, starting a new node on that level if P is full</li>
+ * <li>Append E to R</li>
+ * </ol>
+ * The right-most node on a level may end up having a single child and no keys, which is a state the tree can be in anyway
+ * since internal nodes are never rebalanced. Nodes aren't reachable from the root until the caller has made the one
+ * returned from {@link #finish()} the new root, and so a tree can only be bulk loaded when it's empty.
+ *
+ * @param <KEY> type of internal/leaf keys
+ * @param <VALUE> type of leaf values
+ */
+class BulkLoadLogic<KEY,VALUE>
+{
+    private final IdProvider idProvider;
+    private final TreeNode<KEY,VALUE> bTreeNode;
+    private final Layout<KEY,VALUE> layout;
+    private final KEY lastKey;
+    private final KEY splitter;
+    private final VALUE readValue;
+
+    /**
+     * Right-most node on each level of the tree being built
+     * - level: 0 is the leaf level
+     * - level: 1 is the first level of internal nodes
+     * ... a.s.o
+     */
+    private Level[] levels = new Level[0]; // grows on demand
+    private int height;
+    private boolean hasLastKey;
+    private double fillFactor;
+
+    BulkLoadLogic( IdProvider idProvider, TreeNode<KEY,VALUE> bTreeNode, Layout<KEY,VALUE> layout )
+    {
+        this.idProvider = idProvider;
+        this.bTreeNode = bTreeNode;
+        this.layout = layout;
+        this.lastKey = layout.newKey();
+        this.splitter = layout.newKey();
+        this.readValue = layout.newValue();
+    }
+
+    /**
+     * Prepares for bulk loading a new tree.
+     *
+     * @param fillFactor fraction of each node, in the range (0,1], to fill before starting a new node.
+     */
+    void initialize( double fillFactor )
+    {
+        this.fillFactor = fillFactor;
+        this.height = 0;
+        this.hasLastKey = false;
+    }
+
+    /**
+     * Appends key/value to the right-most leaf, or merges value with the one of the last appended key if the keys are equal.
+     * The {@code cursor} is expected to be placed at the right-most leaf and will be left there.
+     *
+     * @param cursor {@link PageCursor} placed at the right-most leaf, if any.
+     * @param key key to append, must not be less than the last appended key.
+     * @param value value to append.
+     * @param valueMerger {@link ValueMerger} deciding what to do with the value if the key is equal to the last appended key.
+     * Only merges which keep the size of the existing value are supported.
+     * @param createIfNotExists whether or not to append key/value if the key isn't equal to the last appended key.
+     * @param stableGeneration stable generation, i.e. generation which survives a crash.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @throws IllegalArgumentException if key is less than the last appended key.
+     * @throws IOException on cursor failure
+     */
+    void append( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        bTreeNode.validateKeyValueSize( key, value );
+        if ( hasLastKey )
+        {
+            int comparison = layout.compare( key, lastKey );
+            if ( comparison < 0 )
+            {
+                throw new IllegalArgumentException( "Keys must be bulk loaded in ascending order, but got " + key + " after " + lastKey );
+            }
+            if ( comparison == 0 )
+            {
+                mergeWithLast( cursor, key, value, valueMerger, cursorContext );
+                return;
+            }
+        }
+
+        if ( !createIfNotExists )
+        {
+            return;
+        }
+
+        Level leaf = level( 0 );
+        if ( leaf.treeNodeId == TreeNode.NO_NODE_FLAG )
+        {
+            startLevel( cursor, 0, stableGeneration, unstableGeneration, cursorContext );
+        }
+        else if ( bTreeNode.leafOverflow( cursor, leaf.keyCount, key, value ) != NO ||
+                bTreeNode.reachedFillFactor( cursor, leaf.keyCount, LEAF, fillFactor ) )
+        {
+            layout.minimalSplitter( lastKey, key, splitter );
+            startRightSibling( cursor, 0, splitter, stableGeneration, unstableGeneration, cursorContext );
+        }
+
+        bTreeNode.insertKeyValueAt( cursor, key, value, leaf.keyCount, leaf.keyCount, stableGeneration, unstableGeneration, cursorContext );
+        leaf.keyCount++;
+        TreeNode.setKeyCount( cursor, leaf.keyCount );
+        // Read back the key the same way the tree would see it, rather than copying it
+        bTreeNode.keyAt( cursor, lastKey, leaf.keyCount - 1, LEAF, cursorContext );
+        hasLastKey = true;
+    }
+
+    /**
+     * Finishes the tree built by appends so far.
+     *
+     * @return id of the root of the built tree, or {@link TreeNode#NO_NODE_FLAG} if nothing was appended.
+     */
+    long finish()
+    {
+        return height == 0 ? TreeNode.NO_NODE_FLAG : levels[height - 1].treeNodeId;
+    }
+
+    private void mergeWithLast( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, CursorContext cursorContext )
+    {
+        int pos = levels[0].keyCount - 1;
+        bTreeNode.valueAt( cursor, readValue, pos, cursorContext );
+        ValueMerger.MergeResult mergeResult = valueMerger.merge( lastKey, key, readValue, value );
+        if ( mergeResult == ValueMerger.MergeResult.UNCHANGED )
+        {
+            return;
+        }
+        if ( mergeResult == ValueMerger.MergeResult.REPLACED || mergeResult == ValueMerger.MergeResult.MERGED )
+        {
+            VALUE mergedValue = mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue;
+            if ( !bTreeNode.setValueAt( cursor, mergedValue, pos ) )
+            {
+                // Splitter to this leaf may already have been appended above it, so it can't be split or emptied at this point
+                throw new UnsupportedOperationException( "Bulk load can't merge into value of different size for key " + key );
+            }
+            return;
+        }
+        throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult + " during bulk load for key " + key );
+    }
+
+    /**
+     * Starts the first node on a level, leaving the cursor at it.
+     */
+    private void startLevel( PageCursor cursor, int level, long stableGeneration, long unstableGeneration, CursorContext cursorContext )
+            throws IOException
+    {
+        long newId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+        PageCursorUtil.goTo( cursor, "new node", newId );
+        initializeNode( cursor, level, stableGeneration, unstableGeneration );
+        levels[level].start( newId );
+        height = level + 1;
+    }
+
+    /**
+     * Starts a new right sibling to the right-most node on a level and appends it, along with the splitter between the two,
+     * to the level above. Leaves the cursor at the new node.
+     */
+    private void startRightSibling( PageCursor cursor, int level, KEY splitter, long stableGeneration, long unstableGeneration,
+            CursorContext cursorContext ) throws IOException
+    {
+        Level current = levels[level];
+        long leftId = current.treeNodeId;
+        long newId = idProvider.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+
+        PageCursorUtil.goTo( cursor, "left sibling", leftId );
+        TreeNode.setRightSibling( cursor, newId, stableGeneration, unstableGeneration );
+        PageCursorUtil.goTo( cursor, "new right sibling", newId );
+        initializeNode( cursor, level, stableGeneration, unstableGeneration );
+        TreeNode.setLeftSibling( cursor, leftId, stableGeneration, unstableGeneration );
+        current.start( newId );
+
+        appendToParent( cursor, level + 1, splitter, leftId, newId, stableGeneration, unstableGeneration, cursorContext );
+        PageCursorUtil.goTo( cursor, "new right sibling", newId );
+    }
+
+    private void appendToParent( PageCursor cursor, int level, KEY splitter, long leftChild, long rightChild, long stableGeneration,
+            long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        Level parent = level( level );
+        if ( parent.treeNodeId == TreeNode.NO_NODE_FLAG )
+        {
+            // Tree grows in height, with the left child as left-most child of the new level
+            startLevel( cursor, level, stableGeneration, unstableGeneration, cursorContext );
+            bTreeNode.setChildAt( cursor, leftChild, 0, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            PageCursorUtil.goTo( cursor, "parent", parent.treeNodeId );
+            if ( bTreeNode.internalOverflow( cursor, parent.keyCount, splitter ) != NO ||
+                    bTreeNode.reachedFillFactor( cursor, parent.keyCount, INTERNAL, fillFactor ) )
+            {
+                // Splitter moves further up and the right child becomes left-most child of a new node on this level
+                startRightSibling( cursor, level, splitter, stableGeneration, unstableGeneration, cursorContext );
+                bTreeNode.setChildAt( cursor, rightChild, 0, stableGeneration, unstableGeneration );
+                return;
+            }
+        }
+
+        bTreeNode.insertKeyAndRightChildAt( cursor, splitter, rightChild, parent.keyCount, parent.keyCount,
+                stableGeneration, unstableGeneration, cursorContext );
+        parent.keyCount++;
+        TreeNode.setKeyCount( cursor, parent.keyCount );
+    }
+
+    private void initializeNode( PageCursor cursor, int level, long stableGeneration, long unstableGeneration )
+    {
+        if ( level == 0 )
+        {
+            bTreeNode.initializeLeaf( cursor, stableGeneration, unstableGeneration );
+        }
+        else
+        {
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+        }
+    }
+
+    private Level level( int level )
+    {
+        if ( level >= levels.length )
+        {
+            int oldLength = levels.length;
+            levels = Arrays.copyOf( levels, level + 1 );
+            for ( int i = oldLength; i < levels.length; i++ )
+            {
+                levels[i] = new Level();
+            }
+        }
+        if ( level >= height )
+        {
+            levels[level].treeNodeId = TreeNode.NO_NODE_FLAG;
+        }
+        return levels[level];
+    }
+
+    private static class Level
+    {
+        // Id of the right-most tree node on this level
+        private long treeNodeId = TreeNode.NO_NODE_FLAG;
+        // Number of keys appended to that tree node so far
+        private int keyCount;
+
+        void start( long treeNodeId )
+        {
+            this.treeNodeId = treeNodeId;
+            this.keyCount = 0;
+        }
+    }
+}
@@ -32,9 +32,13 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Collection;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
@@ -93,6 +97,8 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * <p>
  * A single writer w/ multiple concurrent readers is supported. Assuming usage adheres to this
  * constraint neither writer nor readers are blocking. Readers are virtually garbage-free.
+ * Alternatively multiple {@link #parallelWriter(CursorContext) parallel writers} can modify the tree concurrently,
+ * blocking each other only when changing the same leaf or when a change needs to alter the structure of the tree.
  * <p>
  * An reader of GB+Tree is a {@link SeekCursor} that returns result as it finds them.
  * As the cursor move over keys/values, returned results are considered "behind" it
@@ -407,6 +413,28 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
      */
     private final GBPTreeLock lock = new GBPTreeLock();
 
+    /**
+     * Coordinates {@link ParallelWriter parallel writers}. A change confined to a single leaf is made holding the read lock
+     * and the latch of that leaf from {@link #leafLatches}. Any other change is made holding the write lock.
+     */
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+    /**
+     * Latches for leaves changed by {@link ParallelWriter parallel writers} holding read lock of {@link #structureLock}.
+     */
+    private final TreeNodeLatches leafLatches = new TreeNodeLatches();
+
+    /**
+     * Number of changes made by {@link ParallelWriter parallel writers} holding write lock of {@link #structureLock},
+     * guarded by that same lock. Tells a parallel writer whether or not the path down the tree it remembers is still valid.
+     */
+    private long structureChanges;
+
+    /**
+     * {@link ParallelWriter Parallel writers} not currently in use, kept so that they can be reused.
+     */
+    private final Queue<ParallelWriter> idleParallelWriters = new ConcurrentLinkedQueue<>();
+
     /**
      * Page size, i.e. tree node size, of the tree nodes in this tree. The page size is determined on
      * tree creation, stored in meta page and read when opening tree later.
@@ -1404,6 +1432,65 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         return writer;
     }
 
+    /**
+     * Returns a {@link Writer} able to modify the index concurrently with other writers returned from this method.
+     * After usage the returned writer must be closed, typically by using try-with-resource clause.
+     * <p>
+     * Each change is first tried within the leaf where the key belongs, holding an exclusive latch on only that leaf.
+     * A change which needs more than that, i.e. a new version of a leaf which hasn't been changed since last checkpoint,
+     * a split, rebalance or merge of leaves or an offloaded key/value, is instead made with exclusive access to the tree,
+     * blocking other parallel writers meanwhile. Changes to different leaves therefore proceed in parallel as long as
+     * the structure of the tree stays the same, which is mostly the case once a leaf has been changed after a checkpoint.
+     * <p>
+     * Parallel writers exclude {@link #writer(CursorContext) the single writer}, {@link #checkpoint(CursorContext) checkpoint}
+     * and {@link #close() close}, which all wait for open parallel writers to be closed. A thread holding a writer must therefore
+     * not acquire another one or checkpoint before closing it. Order of changes to the same key is decided by the order
+     * in which writers make them, so callers that care about it must make sure such changes aren't made concurrently.
+     *
+     * @param cursorContext underlying page cursor context
+     * @return a {@link Writer} for this index. The returned writer must be {@link Writer#close() closed} after usage.
+     * @throws IOException on error accessing the index.
+     */
+    public Writer<KEY,VALUE> parallelWriter( CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Open parallel tree writer." );
+        ParallelWriter parallelWriter = idleParallelWriters.poll();
+        if ( parallelWriter == null )
+        {
+            parallelWriter = new ParallelWriter( new InternalTreeLogic<>( freeList, bTreeNode, layout, monitor ) );
+        }
+        parallelWriter.initialize( cursorContext );
+        changesSinceLastCheckpoint = true;
+        return parallelWriter;
+    }
+
+    /**
+     * Returns a {@link Writer} which builds this tree bottom-up from keys coming in ascending order, instead of inserting
+     * them one by one from the root like {@link #writer(CursorContext)} does. Leaves are written sequentially, each filled
+     * up to {@code fillFactor}, and internal levels are built on top of them as leaves are completed.
+     * The loaded entries become visible to readers as the new root is set when the returned writer is closed.
+     * <p>
+     * This tree must be empty. A key equal to the previously put key is merged into it, as long as the merged value keeps
+     * its size, and removals aren't supported. Like {@link #writer(CursorContext) the single writer} the returned writer
+     * excludes other writers and {@link #checkpoint(CursorContext) checkpoint} until it's closed.
+     *
+     * @param fillFactor fraction of each tree node, in the range (0,1], to fill before starting a new one. 1 packs nodes
+     * as densely as possible, lower values leave room for later inserts without splitting.
+     * @param cursorContext underlying page cursor context
+     * @return a {@link Writer} for bulk loading this tree. The returned writer must be {@link Writer#close() closed} after usage.
+     * @throws IOException on error accessing the index.
+     * @throws IllegalStateException if this tree isn't empty.
+     */
+    public Writer<KEY,VALUE> bulkLoader( double fillFactor, CursorContext cursorContext ) throws IOException
+    {
+        assertNotReadOnly( "Open tree bulk loader." );
+        Preconditions.checkArgument( fillFactor > 0 && fillFactor <= 1, "Fill factor must be in range (0,1], but was %s", fillFactor );
+        BulkLoader bulkLoader = new BulkLoader( new BulkLoadLogic<>( freeList, bTreeNode, layout ) );
+        bulkLoader.initialize( fillFactor, cursorContext );
+        changesSinceLastCheckpoint = true;
+        return bulkLoader;
+    }
+
     private void setRoot( long rootId, long rootGeneration )
     {
         this.root = new Root( rootId, rootGeneration );
@@ -1724,13 +1811,6 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
             checkOutOfBounds( cursor );
         }
 
-        private void setRoot( long rootPointer )
-        {
-            long rootId = GenerationSafePointerPair.pointer( rootPointer );
-            GBPTree.this.setRoot( rootId, unstableGeneration );
-            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
-        }
-
         @Override
         public VALUE remove( KEY key )
         {
@@ -1759,26 +1839,7 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
 
         private void handleStructureChanges( CursorContext cursorContext ) throws IOException
         {
-            if ( structurePropagation.hasRightKeyInsert )
-            {
-                // New root
-                long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
-                PageCursorUtil.goTo( cursor, "new root", newRootId );
-
-                bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
-                bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
-                        stableGeneration, unstableGeneration );
-                bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
-                        stableGeneration, unstableGeneration, cursorContext );
-                TreeNode.setKeyCount( cursor, 1 );
-                setRoot( newRootId );
-                monitor.treeGrowth();
-            }
-            else if ( structurePropagation.hasMidChildUpdate )
-            {
-                setRoot( structurePropagation.midChild );
-            }
-            structurePropagation.clear();
+            handleRootChanges( cursor, structurePropagation, treeLogic, ratioToKeepInLeftOnSplit, stableGeneration, unstableGeneration, cursorContext );
         }
 
         @Override
@@ -1803,6 +1864,424 @@ public class GBPTree<KEY,VALUE> implements Closeable, Seeker.Factory<KEY,VALUE>
         }
     }
 
+    /**
+     * {@link Writer} which can be used concurrently with other instances of this class, see {@link #parallelWriter(CursorContext)}.
+     */
+    private class ParallelWriter implements Writer<KEY,VALUE>
+    {
+        private final InternalTreeLogic<KEY,VALUE> treeLogic;
+        private final StructurePropagation<KEY> structurePropagation;
+        private PageCursor cursor;
+        private CursorContext cursorContext;
+        private boolean open;
+
+        // Writer can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private long stableGeneration;
+        private long unstableGeneration;
+
+        // Value of structureChanges when the path down the tree remembered by treeLogic was last known to be valid
+        private long pathStructureChanges;
+
+        ParallelWriter( InternalTreeLogic<KEY,VALUE> treeLogic )
+        {
+            this.structurePropagation = new StructurePropagation<>( layout.newKey(), layout.newKey(), layout.newKey() );
+            this.treeLogic = treeLogic;
+        }
+
+        void initialize( CursorContext cursorContext ) throws IOException
+        {
+            // Block here until cleaning has completed, if cleaning was required
+            lock.parallelWriterLock();
+            open = true;
+
+            boolean success = false;
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                cursor = pagedFile.io( 0L /*Ignored*/, PagedFile.PF_SHARED_WRITE_LOCK, cursorContext );
+                this.cursorContext = cursorContext;
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                // Start from root on first change
+                pathStructureChanges = -1;
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, true );
+        }
+
+        @Override
+        public void mergeIfExists( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, false );
+        }
+
+        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            try
+            {
+                InternalTreeLogic.LeafChange change;
+                structureLock.readLock().lock();
+                try
+                {
+                    ReentrantLock latch = moveToAndLatchLeaf( key );
+                    try
+                    {
+                        change = treeLogic.tryInsertInLeaf( cursor, key, value, valueMerger, createIfNotExists,
+                                stableGeneration, unstableGeneration, cursorContext );
+                    }
+                    finally
+                    {
+                        latch.unlock();
+                    }
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                if ( change == InternalTreeLogic.LeafChange.NEEDS_STRUCTURE_CHANGE )
+                {
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        syncPath();
+                        treeLogic.insert( cursor, structurePropagation, key, value, valueMerger, createIfNotExists,
+                                stableGeneration, unstableGeneration, cursorContext );
+                        handleStructureChanges();
+                    }
+                    finally
+                    {
+                        structureChangeDone();
+                    }
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            VALUE result;
+            try
+            {
+                VALUE into = layout.newValue();
+                InternalTreeLogic.LeafChange change;
+                structureLock.readLock().lock();
+                try
+                {
+                    ReentrantLock latch = moveToAndLatchLeaf( key );
+                    try
+                    {
+                        change = treeLogic.tryRemoveFromLeaf( cursor, key, into, stableGeneration, unstableGeneration, cursorContext );
+                    }
+                    finally
+                    {
+                        latch.unlock();
+                    }
+                }
+                finally
+                {
+                    structureLock.readLock().unlock();
+                }
+
+                if ( change == InternalTreeLogic.LeafChange.NEEDS_STRUCTURE_CHANGE )
+                {
+                    structureLock.writeLock().lock();
+                    try
+                    {
+                        syncPath();
+                        result = treeLogic.remove( cursor, structurePropagation, key, into, stableGeneration, unstableGeneration, cursorContext );
+                        handleStructureChanges();
+                    }
+                    finally
+                    {
+                        structureChangeDone();
+                    }
+                }
+                else
+                {
+                    result = change == InternalTreeLogic.LeafChange.CHANGED ? into : null;
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+
+            checkOutOfBounds( cursor );
+            return result;
+        }
+
+        /**
+         * Moves cursor to the leaf where {@code key} belongs and latches it. Must be called holding read lock of {@link #structureLock}
+         * so that the tree structure, and with that which leaf the key belongs to, stays the same until the latch is released.
+         */
+        private ReentrantLock moveToAndLatchLeaf( KEY key ) throws IOException
+        {
+            syncPath();
+            treeLogic.moveToLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+            ReentrantLock latch = leafLatches.latch( cursor.getCurrentPageId() );
+            latch.lock();
+            return latch;
+        }
+
+        /**
+         * Starts over from root if the tree structure has been changed by another parallel writer since this writer last walked down the tree.
+         */
+        private void syncPath() throws IOException
+        {
+            if ( pathStructureChanges != structureChanges )
+            {
+                root.goTo( cursor );
+                treeLogic.initialize( cursor );
+                pathStructureChanges = structureChanges;
+            }
+        }
+
+        private void handleStructureChanges() throws IOException
+        {
+            handleRootChanges( cursor, structurePropagation, treeLogic, InternalTreeLogic.DEFAULT_SPLIT_RATIO, stableGeneration, unstableGeneration,
+                    cursorContext );
+            // The path of this writer was kept up to date by treeLogic while making the change
+            pathStructureChanges = structureChanges + 1;
+        }
+
+        /**
+         * Called holding write lock of {@link #structureLock} after having made, or failed making, a change to the tree structure.
+         */
+        private void structureChangeDone()
+        {
+            // Have other parallel writers start over from root, their paths down the tree may no longer be valid
+            structureChanges++;
+            structureLock.writeLock().unlock();
+        }
+
+        @Override
+        public void close()
+        {
+            if ( !open )
+            {
+                throw new IllegalStateException( "Tried to close parallel writer of " + GBPTree.this + ", but writer is already closed." );
+            }
+            open = false;
+            if ( cursor != null )
+            {
+                cursor.close();
+                cursor = null;
+            }
+            cursorContext = null;
+            lock.parallelWriterUnlock();
+            idleParallelWriters.offer( this );
+        }
+    }
+
+    /**
+     * {@link Writer} which bulk loads an empty tree from keys coming in ascending order, see {@link #bulkLoader(double, CursorContext)}.
+     */
+    private class BulkLoader implements Writer<KEY,VALUE>
+    {
+        private final BulkLoadLogic<KEY,VALUE> bulkLoadLogic;
+        private PageCursor cursor;
+        private CursorContext cursorContext;
+        private boolean open;
+
+        // Bulk loader can't live past a checkpoint because of the mutex with checkpoint,
+        // therefore safe to locally cache these generation fields from the volatile generation in the tree
+        private long stableGeneration;
+        private long unstableGeneration;
+
+        BulkLoader( BulkLoadLogic<KEY,VALUE> bulkLoadLogic )
+        {
+            this.bulkLoadLogic = bulkLoadLogic;
+        }
+
+        void initialize( double fillFactor, CursorContext cursorContext ) throws IOException
+        {
+            // Block here until cleaning has completed, if cleaning was required
+            lock.writerAndCleanerLock();
+            open = true;
+            boolean success = false;
+            try
+            {
+                assertRecoveryCleanSuccessful();
+                cursor = openRootCursor( PagedFile.PF_SHARED_WRITE_LOCK, cursorContext );
+                if ( !TreeNode.isLeaf( cursor ) || TreeNode.keyCount( cursor ) != 0 )
+                {
+                    throw new IllegalStateException( "Can only bulk load " + GBPTree.this + " when it's empty" );
+                }
+                this.cursorContext = cursorContext;
+                stableGeneration = stableGeneration( generation );
+                unstableGeneration = unstableGeneration( generation );
+                bulkLoadLogic.initialize( fillFactor );
+                success = true;
+            }
+            catch ( Throwable e )
+            {
+                appendTreeInformation( e );
+                throw e;
+            }
+            finally
+            {
+                if ( !success )
+                {
+                    close();
+                }
+            }
+        }
+
+        @Override
+        public void put( KEY key, VALUE value )
+        {
+            merge( key, value, ValueMergers.overwrite() );
+        }
+
+        @Override
+        public void merge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, true );
+        }
+
+        @Override
+        public void mergeIfExists( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger )
+        {
+            internalMerge( key, value, valueMerger, false );
+        }
+
+        private void internalMerge( KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists )
+        {
+            try
+            {
+                bulkLoadLogic.append( cursor, key, value, valueMerger, createIfNotExists, stableGeneration, unstableGeneration, cursorContext );
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            catch ( Throwable t )
+            {
+                appendTreeInformation( t );
+                throw t;
+            }
+
+            checkOutOfBounds( cursor );
+        }
+
+        @Override
+        public VALUE remove( KEY key )
+        {
+            throw new UnsupportedOperationException( "Bulk loader of " + GBPTree.this + " doesn't support removal" );
+        }
+
+        @Override
+        public void close()
+        {
+            if ( !open )
+            {
+                throw new IllegalStateException( "Tried to close bulk loader of " + GBPTree.this + ", but it is already closed." );
+            }
+            open = false;
+            try
+            {
+                long newRootId = bulkLoadLogic.finish();
+                if ( newRootId != TreeNode.NO_NODE_FLAG )
+                {
+                    // The old root is an empty leaf which nothing points to once the loaded tree has replaced it
+                    long oldRootId = root.id();
+                    setRoot( newRootId, unstableGeneration );
+                    freeList.releaseId( stableGeneration, unstableGeneration, oldRootId, cursorContext );
+                }
+            }
+            catch ( IOException e )
+            {
+                appendTreeInformation( e );
+                throw new UncheckedIOException( e );
+            }
+            finally
+            {
+                if ( cursor != null )
+                {
+                    cursor.close();
+                    cursor = null;
+                }
+                cursorContext = null;
+                lock.writerAndCleanerUnlock();
+            }
+        }
+    }
+
+    /**
+     * Handles structure changes that propagated all the way up to the root, i.e. root split or new version of root,
+     * after an insert or remove made by {@code treeLogic}.
+     */
+    private void handleRootChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation, InternalTreeLogic<KEY,VALUE> treeLogic,
+            double ratioToKeepInLeftOnSplit, long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        if ( structurePropagation.hasRightKeyInsert )
+        {
+            // New root
+            long newRootId = freeList.acquireNewId( stableGeneration, unstableGeneration, cursorContext );
+            PageCursorUtil.goTo( cursor, "new root", newRootId );
+
+            bTreeNode.initializeInternal( cursor, stableGeneration, unstableGeneration );
+            bTreeNode.setChildAt( cursor, structurePropagation.midChild, 0,
+                    stableGeneration, unstableGeneration );
+            bTreeNode.insertKeyAndRightChildAt( cursor, structurePropagation.rightKey, structurePropagation.rightChild, 0, 0,
+                    stableGeneration, unstableGeneration, cursorContext );
+            TreeNode.setKeyCount( cursor, 1 );
+            setRoot( newRootId, unstableGeneration );
+            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+            monitor.treeGrowth();
+        }
+        else if ( structurePropagation.hasMidChildUpdate )
+        {
+            setRoot( GenerationSafePointerPair.pointer( structurePropagation.midChild ), unstableGeneration );
+            treeLogic.initialize( cursor, ratioToKeepInLeftOnSplit );
+        }
+        structurePropagation.clear();
+    }
+
     /**
      * Total size limit for key and value.
      * This limit includes storage overhead that is specific to key implementation for example entity id or meta data about type.
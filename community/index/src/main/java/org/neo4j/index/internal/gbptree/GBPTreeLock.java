@@ -26,10 +26,19 @@ import java.util.concurrent.locks.LockSupport;
 
 import org.neo4j.util.VisibleForTesting;
 
+/**
+ * Lock with two exclusive parts, writer and cleaner, and a shared part for parallel writers.
+ * <p>
+ * Any number of parallel writers can hold the lock at the same time, as long as neither writer nor cleaner lock is held.
+ * Taking writer and/or cleaner lock first blocks new parallel writers from entering and then waits for the ones already holding the lock
+ * to leave, so that a waiting checkpoint can't be starved by a steady stream of parallel writers.
+ */
 class GBPTreeLock
 {
     private static final long writerLockBit = 0x00000000_00000001L;
     private static final long cleanerLockBit = 0x00000000_00000002L;
+    private static final long parallelWriterUnit = 0x00000000_00000004L;
+    private static final long parallelWritersMask = ~(writerLockBit | cleanerLockBit);
     @SuppressWarnings( "unused" ) // accessed via VarHandle
     private long state;
     private static final VarHandle STATE;
@@ -85,6 +94,40 @@ class GBPTreeLock
         doUnlock( writerLockBit | cleanerLockBit );
     }
 
+    void parallelWriterLock()
+    {
+        long currentState;
+        long newState;
+        do
+        {
+            currentState = (long) STATE.getVolatile( this );
+            while ( (currentState & (writerLockBit | cleanerLockBit)) != 0 )
+            {
+                // sleep
+                sleep();
+                currentState = (long) STATE.getVolatile( this );
+            }
+            newState = currentState + parallelWriterUnit;
+        }
+        while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
+    }
+
+    void parallelWriterUnlock()
+    {
+        long currentState;
+        long newState;
+        do
+        {
+            currentState = (long) STATE.getVolatile( this );
+            if ( (currentState & parallelWritersMask) == 0 )
+            {
+                throw new IllegalStateException( "Can not unlock parallel writer lock that isn't locked" );
+            }
+            newState = currentState - parallelWriterUnit;
+        }
+        while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
+    }
+
     private void doLock( long targetLockBit )
     {
         long currentState;
@@ -100,6 +143,13 @@ class GBPTreeLock
             }
             newState = currentState | targetLockBit;
         } while ( !STATE.weakCompareAndSet( this, currentState, newState ) );
+
+        // New parallel writers are now kept out, wait for the ones that got in before us to leave
+        while ( (newState & parallelWritersMask) != 0 )
+        {
+            sleep();
+            newState = (long) STATE.getVolatile( this );
+        }
     }
 
     private void doUnlock( long targetLockBit )
@@ -116,6 +116,29 @@ class InternalTreeLogic<KEY,VALUE>
     private int currentLevel = -1;
     private double ratioToKeepInLeftOnSplit;
 
+    /**
+     * Outcome of trying to make a change within a single leaf, see
+     * {@link #tryInsertInLeaf(PageCursor, Object, Object, ValueMerger, boolean, long, long, CursorContext)} and
+     * {@link #tryRemoveFromLeaf(PageCursor, Object, Object, long, long, CursorContext)}.
+     */
+    enum LeafChange
+    {
+        /**
+         * The change was made in the leaf.
+         */
+        CHANGED,
+
+        /**
+         * There was nothing to change, e.g. the key to remove didn't exist.
+         */
+        UNCHANGED,
+
+        /**
+         * The change needs more than this leaf, like a successor, split, rebalance or offloaded key/value. The leaf was left untouched.
+         */
+        NEEDS_STRUCTURE_CHANGE
+    }
+
     /**
      * Keeps information about one level in a path down the tree where the {@link PageCursor} is currently at.
      *
@@ -400,6 +423,110 @@ class InternalTreeLogic<KEY,VALUE>
         handleStructureChanges( cursor, structurePropagation, stableGeneration, unstableGeneration, cursorContext );
     }
 
+    /**
+     * Moves the cursor to the leaf where {@code key} belongs, without changing anything on the way there. The path down the tree is
+     * remembered in the same way as for {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, CursorContext)}.
+     * <p>
+     * Used by writers that don't have exclusive access to the tree structure and so must pick the leaf first, lock it and only then make
+     * the change using {@link #tryInsertInLeaf(PageCursor, Object, Object, ValueMerger, boolean, long, long, CursorContext)} or
+     * {@link #tryRemoveFromLeaf(PageCursor, Object, Object, long, long, CursorContext)}.
+     *
+     * @param cursor {@link PageCursor} pinned to root of tree (if first call since {@link #initialize(PageCursor)}) or at where
+     * last insert/remove left it.
+     * @param key key to find leaf for.
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @throws IOException on cursor failure
+     */
+    void moveToLeaf( PageCursor cursor, KEY key, long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        assert cursorIsAtExpectedLocation( cursor );
+        moveToCorrectLeaf( cursor, key, stableGeneration, unstableGeneration, cursorContext );
+    }
+
+    /**
+     * Like {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, CursorContext)}, but only
+     * ever changes the leaf that {@code cursor} is at, which is expected to be where {@link #moveToLeaf(PageCursor, Object, long, long, CursorContext)}
+     * left it. Changes that need anything more than that, i.e. a successor of a stable leaf, a split, defragmentation or an offloaded
+     * key/value, are not made and reported as {@link LeafChange#NEEDS_STRUCTURE_CHANGE}.
+     * <p>
+     * Note that {@code valueMerger} may have been called also when the change isn't made, so the caller retrying with
+     * {@link #insert(PageCursor, StructurePropagation, Object, Object, ValueMerger, boolean, long, long, CursorContext)} will call it again.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf where {@code key} belongs.
+     * @param key key to be inserted
+     * @param value value to be associated with key
+     * @param valueMerger {@link ValueMerger} for deciding what to do with existing keys
+     * @param createIfNotExists create this key if it doesn't exist
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @return the {@link LeafChange} describing what happened.
+     * @throws IOException on cursor failure
+     */
+    LeafChange tryInsertInLeaf( PageCursor cursor, KEY key, VALUE value, ValueMerger<KEY,VALUE> valueMerger, boolean createIfNotExists,
+            long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
+    {
+        bTreeNode.validateKeyValueSize( key, value );
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount, cursorContext );
+        int pos = positionOf( search );
+        if ( isHit( search ) )
+        {
+            bTreeNode.valueAt( cursor, readValue, pos, cursorContext );
+            ValueMerger.MergeResult mergeResult = valueMerger.merge( readKey, key, readValue, value );
+            if ( mergeResult == ValueMerger.MergeResult.UNCHANGED )
+            {
+                return LeafChange.UNCHANGED;
+            }
+            if ( TreeNode.generation( cursor ) != unstableGeneration )
+            {
+                return LeafChange.NEEDS_STRUCTURE_CHANGE;
+            }
+            if ( mergeResult == ValueMerger.MergeResult.REPLACED || mergeResult == ValueMerger.MergeResult.MERGED )
+            {
+                // Value of a different size can't be overwritten in place and would need overflow/underflow checks, see mergeValue
+                VALUE mergedValue = mergeResult == ValueMerger.MergeResult.REPLACED ? value : readValue;
+                return bTreeNode.setValueAt( cursor, mergedValue, pos ) ? LeafChange.CHANGED : LeafChange.NEEDS_STRUCTURE_CHANGE;
+            }
+            if ( mergeResult == ValueMerger.MergeResult.REMOVED )
+            {
+                if ( !bTreeNode.canRemoveKeyValueWithinLeaf( cursor, pos, keyCount ) )
+                {
+                    return LeafChange.NEEDS_STRUCTURE_CHANGE;
+                }
+                bTreeNode.removeKeyValueAt( cursor, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+                TreeNode.setKeyCount( cursor, keyCount - 1 );
+                return LeafChange.CHANGED;
+            }
+            throw new UnsupportedOperationException( "Unexpected merge result " + mergeResult );
+        }
+
+        if ( !createIfNotExists )
+        {
+            return LeafChange.UNCHANGED;
+        }
+        if ( TreeNode.generation( cursor ) != unstableGeneration || needsOffload( key, value ) )
+        {
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        if ( bTreeNode.leafOverflow( cursor, keyCount, key, value ) != Overflow.NO )
+        {
+            // Besides split, also leave defragmentation to the exclusive path since it uses scratch space shared by all writers of the tree
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        bTreeNode.insertKeyValueAt( cursor, key, value, pos, keyCount, stableGeneration, unstableGeneration, cursorContext );
+        TreeNode.setKeyCount( cursor, keyCount + 1 );
+        return LeafChange.CHANGED;
+    }
+
+    private boolean needsOffload( KEY key, VALUE value )
+    {
+        int inlineKeyValueSizeCap = bTreeNode.inlineKeyValueSizeCap();
+        return inlineKeyValueSizeCap != TreeNode.NO_KEY_VALUE_SIZE_CAP && layout.keySize( key ) + layout.valueSize( value ) > inlineKeyValueSizeCap;
+    }
+
     private int search( PageCursor cursor, TreeNode.Type type, KEY key, KEY readKey, int keyCount, CursorContext cursorContext )
     {
         int searchResult = KeySearch.search( cursor, bTreeNode, type, key, readKey, keyCount, cursorContext );
@@ -777,6 +904,40 @@ class InternalTreeLogic<KEY,VALUE>
         return into;
     }
 
+    /**
+     * Like {@link #remove(PageCursor, StructurePropagation, Object, Object, long, long, CursorContext)}, but only ever changes the leaf
+     * that {@code cursor} is at, which is expected to be where {@link #moveToLeaf(PageCursor, Object, long, long, CursorContext)} left it.
+     * Removals that need anything more than that, i.e. a successor of a stable leaf, rebalancing or merging an underflowing leaf or
+     * freeing an offloaded key/value, are not made and reported as {@link LeafChange#NEEDS_STRUCTURE_CHANGE}.
+     *
+     * @param cursor {@link PageCursor} pinned to the leaf where {@code key} belongs.
+     * @param key key to be removed
+     * @param into {@code VALUE} instance to write removed value to
+     * @param stableGeneration stable generation, i.e. generations <= this generation are considered stable.
+     * @param unstableGeneration unstable generation, i.e. generation which is under development right now.
+     * @param cursorContext underlying page cursor context
+     * @return the {@link LeafChange} describing what happened, {@code into} is populated with removed value if {@link LeafChange#CHANGED}.
+     * @throws IOException on cursor failure
+     */
+    LeafChange tryRemoveFromLeaf( PageCursor cursor, KEY key, VALUE into, long stableGeneration, long unstableGeneration,
+            CursorContext cursorContext ) throws IOException
+    {
+        int keyCount = TreeNode.keyCount( cursor );
+        int search = search( cursor, LEAF, key, readKey, keyCount, cursorContext );
+        if ( !isHit( search ) )
+        {
+            return LeafChange.UNCHANGED;
+        }
+
+        int pos = positionOf( search );
+        if ( TreeNode.generation( cursor ) != unstableGeneration || !bTreeNode.canRemoveKeyValueWithinLeaf( cursor, pos, keyCount ) )
+        {
+            return LeafChange.NEEDS_STRUCTURE_CHANGE;
+        }
+        simplyRemoveFromLeaf( cursor, into, keyCount, pos, stableGeneration, unstableGeneration, cursorContext );
+        return LeafChange.CHANGED;
+    }
+
     private void handleStructureChanges( PageCursor cursor, StructurePropagation<KEY> structurePropagation,
             long stableGeneration, long unstableGeneration, CursorContext cursorContext ) throws IOException
     {
@@ -361,6 +361,20 @@ abstract class TreeNode<KEY,VALUE>
 
     abstract boolean leafUnderflow( PageCursor cursor, int keyCount );
 
+    /**
+     * Can key/value at given position be removed from leaf without the leaf underflowing and without touching any other page,
+     * like the one holding an offloaded key/value?
+     * @return true if removal is confined to this leaf, else false.
+     */
+    abstract boolean canRemoveKeyValueWithinLeaf( PageCursor cursor, int pos, int keyCount );
+
+    /**
+     * Is node filled up to, or beyond, the given fill factor? Used when bulk loading to leave room in each node for later inserts.
+     * @param fillFactor fraction of the node, in the range (0,1], to fill before starting a new node.
+     * @return true if node has reached the fill factor, else false.
+     */
+    abstract boolean reachedFillFactor( PageCursor cursor, int keyCount, Type type, double fillFactor );
+
     /**
      * How do we best rebalance left and right leaf?
      * Can we move keys from underflowing left to right so that none of them underflow?
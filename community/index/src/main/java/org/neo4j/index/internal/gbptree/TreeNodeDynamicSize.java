@@ -838,6 +838,28 @@ public class TreeNodeDynamicSize<KEY, VALUE> extends TreeNode<KEY,VALUE>
         return availableSpace > halfSpace;
     }
 
+    @Override
+    boolean canRemoveKeyValueWithinLeaf( PageCursor cursor, int pos, int keyCount )
+    {
+        placeCursorAtActualKey( cursor, pos, LEAF );
+        if ( extractOffload( readKeyValueSize( cursor, msbIsOffload ) ) )
+        {
+            // Offloaded key/value lives on, and would be freed from, pages of its own
+            return false;
+        }
+
+        // Removal turns the whole entry into dead space and gives back its slot in the offset array
+        int availableSpace = getAllocSpace( cursor, keyCount, LEAF ) + getDeadSpace( cursor );
+        return availableSpace + totalSpaceOfKeyValue( cursor, pos ) <= halfSpace;
+    }
+
+    @Override
+    boolean reachedFillFactor( PageCursor cursor, int keyCount, Type type, double fillFactor )
+    {
+        int usedSpace = totalSpace - getAllocSpace( cursor, keyCount, type ) - getDeadSpace( cursor );
+        return usedSpace >= totalSpace * fillFactor;
+    }
+
     @Override
     int canRebalanceLeaves( PageCursor leftCursor, int leftKeyCount, PageCursor rightCursor, int rightKeyCount )
     {
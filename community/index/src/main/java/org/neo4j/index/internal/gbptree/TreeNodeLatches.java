@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Exclusive latches for tree nodes, striped on tree node id, used by parallel writers to keep each other out of the leaf they're changing.
+ * Two tree nodes may share a latch and so at most one latch may be held at any given time, or there's a risk of deadlock.
+ */
+class TreeNodeLatches
+{
+    private static final int STRIPES = 64;
+    private static final int STRIPE_MASK = STRIPES - 1;
+
+    private final ReentrantLock[] latches = new ReentrantLock[STRIPES];
+
+    TreeNodeLatches()
+    {
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            latches[i] = new ReentrantLock();
+        }
+    }
+
+    ReentrantLock latch( long treeNodeId )
+    {
+        return latches[(int) (treeNodeId & STRIPE_MASK)];
+    }
+}
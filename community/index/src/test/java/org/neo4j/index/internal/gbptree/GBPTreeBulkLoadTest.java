@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableInt;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.ValueMerger.MergeResult.MERGED;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeBulkLoadTest
+{
+    private static final int KEYS = 20_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( 512 ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    @Test
+    void shouldBulkLoadSortedKeysFixedSize() throws IOException
+    {
+        shouldBulkLoadSortedKeys( SimpleLongLayout.longLayout().withFixedSize( true ).build() );
+    }
+
+    @Test
+    void shouldBulkLoadSortedKeysDynamicSize() throws IOException
+    {
+        shouldBulkLoadSortedKeys( SimpleLongLayout.longLayout().withFixedSize( false ).build() );
+    }
+
+    @Test
+    void shouldLeaveRoomInTreeNodesWithLowerFillFactor() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        int denseLeaves = countLeavesAfterBulkLoad( layout, "dense", 1 );
+        int sparseLeaves = countLeavesAfterBulkLoad( layout, "sparse", 0.5 );
+        assertTrue( sparseLeaves > denseLeaves * 1.5, "Expected about twice as many leaves, but got " + sparseLeaves + " vs " + denseLeaves );
+    }
+
+    @Test
+    void shouldMergeValuesOfEqualConsecutiveKeys() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        ValueMerger<MutableLong,MutableLong> adder = ( existingKey, newKey, existingValue, newValue ) ->
+        {
+            existingValue.add( newValue.longValue() );
+            return MERGED;
+        };
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> bulkLoader = tree.bulkLoader( 1, NULL ) )
+            {
+                for ( int i = 0; i < KEYS; i++ )
+                {
+                    bulkLoader.merge( layout.key( i / 3 ), layout.value( 1 ), adder );
+                }
+                // Only merges into the last key and never creates a new one
+                bulkLoader.mergeIfExists( layout.key( (KEYS - 1) / 3 ), layout.value( 10 ), adder );
+                bulkLoader.mergeIfExists( layout.key( KEYS ), layout.value( 10 ), adder );
+            }
+
+            try ( Seeker<MutableLong,MutableLong> seek = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                long total = 0;
+                while ( seek.next() )
+                {
+                    total += seek.value().longValue();
+                }
+                assertEquals( KEYS + 10, total );
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldThrowOnKeysOutOfOrder() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> bulkLoader = tree.bulkLoader( 1, NULL ) )
+            {
+                bulkLoader.put( layout.key( 10 ), layout.value( 10 ) );
+                assertThrows( IllegalArgumentException.class, () -> bulkLoader.put( layout.key( 5 ), layout.value( 5 ) ) );
+                assertThrows( UnsupportedOperationException.class, () -> bulkLoader.remove( layout.key( 10 ) ) );
+            }
+
+            // Entries put before the failure are still loaded
+            try ( Seeker<MutableLong,MutableLong> seek = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                assertTrue( seek.next() );
+                assertEquals( 10, seek.key().longValue() );
+                assertFalse( seek.next() );
+            }
+        }
+    }
+
+    @Test
+    void shouldNotBulkLoadTreeWhichIsNotEmpty() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 1 ), layout.value( 1 ) );
+            }
+
+            assertThrows( IllegalStateException.class, () -> tree.bulkLoader( 1, NULL ) );
+            assertThrows( IllegalArgumentException.class, () -> tree.bulkLoader( 0, NULL ) );
+
+            // A failed attempt to open a bulk loader shouldn't hold on to the writer lock
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                writer.put( layout.key( 2 ), layout.value( 2 ) );
+            }
+        }
+    }
+
+    private void shouldBulkLoadSortedKeys( SimpleLongLayout layout ) throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // given
+            try ( Writer<MutableLong,MutableLong> bulkLoader = tree.bulkLoader( 0.8, NULL ) )
+            {
+                for ( int i = 0; i < KEYS; i++ )
+                {
+                    bulkLoader.put( layout.key( i * 2 ), layout.value( i * 2 ) );
+                }
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+            tree.checkpoint( NULL );
+
+            // when changing the loaded tree the regular way, filling the gaps left between keys and removing some
+            try ( Writer<MutableLong,MutableLong> writer = tree.writer( NULL ) )
+            {
+                for ( int i = 0; i < KEYS; i++ )
+                {
+                    writer.put( layout.key( i * 2 + 1 ), layout.value( i * 2 + 1 ) );
+                }
+                for ( int i = 0; i < KEYS * 2; i += 10 )
+                {
+                    assertEquals( i, writer.remove( layout.key( i ) ).longValue() );
+                }
+            }
+
+            // then
+            try ( Seeker<MutableLong,MutableLong> seek = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                for ( int i = 0; i < KEYS * 2; i++ )
+                {
+                    if ( i % 10 != 0 )
+                    {
+                        assertTrue( seek.next() );
+                        assertEquals( i, seek.key().longValue() );
+                        assertEquals( i, seek.value().longValue() );
+                    }
+                }
+                assertFalse( seek.next() );
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    private int countLeavesAfterBulkLoad( SimpleLongLayout layout, String name, double fillFactor ) throws IOException
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( name ), layout ).build() )
+        {
+            try ( Writer<MutableLong,MutableLong> bulkLoader = tree.bulkLoader( fillFactor, NULL ) )
+            {
+                for ( int i = 0; i < KEYS; i++ )
+                {
+                    bulkLoader.put( layout.key( i ), layout.value( i ) );
+                }
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+
+            MutableInt leaves = new MutableInt();
+            tree.visit( new GBPTreeVisitor.Adaptor<>()
+            {
+                @Override
+                public void beginNode( long pageId, boolean isLeaf, long generation, int keyCount )
+                {
+                    if ( isLeaf )
+                    {
+                        leaves.increment();
+                    }
+                }
+            }, NULL );
+            return leaves.intValue();
+        }
+    }
+}
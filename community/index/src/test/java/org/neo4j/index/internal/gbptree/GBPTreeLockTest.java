@@ -163,6 +163,79 @@ class GBPTreeLockTest
         assertOnlyOneSucceeds( lock::writerAndCleanerLock, lock::writerAndCleanerLock );
     }
 
+    @Test
+    void parallelWritersShouldNotBlockEachOther()
+    {
+        // given
+        assertUU();
+
+        // then
+        lock.parallelWriterLock();
+        lock.parallelWriterLock();
+        lock.parallelWriterUnlock();
+        lock.parallelWriterUnlock();
+        assertThrows( IllegalStateException.class, lock::parallelWriterUnlock );
+        assertUU();
+    }
+
+    @Test
+    void parallelWriterShouldBlockWriterAndCleaner() throws Exception
+    {
+        // given
+        lock.parallelWriterLock();
+
+        // then
+        assertThrows( IllegalStateException.class, lock::writerUnlock );
+        assertThrows( IllegalStateException.class, lock::cleanerUnlock );
+        copy = lock.copy();
+        assertBlock( copy::writerLock, copy::parallelWriterUnlock );
+        copy = lock.copy();
+        assertBlock( copy::cleanerLock, copy::parallelWriterUnlock );
+        copy = lock.copy();
+        assertBlock( copy::writerAndCleanerLock, copy::parallelWriterUnlock );
+
+        lock.parallelWriterUnlock();
+        assertUU();
+    }
+
+    @Test
+    void writerAndCleanerShouldBlockParallelWriter() throws Exception
+    {
+        lock.writerLock();
+        copy = lock.copy();
+        assertParallelWriterBlock( copy::writerUnlock );
+        lock.writerUnlock();
+
+        lock.cleanerLock();
+        copy = lock.copy();
+        assertParallelWriterBlock( copy::cleanerUnlock );
+        lock.cleanerUnlock();
+        assertUU();
+    }
+
+    @Test
+    void waitingWriterShouldKeepNewParallelWritersOut() throws Exception
+    {
+        // given
+        lock.parallelWriterLock();
+        Future<Object> writer = executor.submit( () ->
+        {
+            lock.writerLock();
+            return null;
+        } );
+        executor.untilWaitingIn( GBPTreeLock.class.getDeclaredMethod( "doLock", long.class ) );
+        copy = lock.copy();
+
+        // when
+        lock.parallelWriterUnlock();
+        writer.get();
+
+        // then
+        assertParallelWriterBlock( copy::writerUnlock );
+        lock.writerUnlock();
+        assertUU();
+    }
+
     private void assertOnlyOneSucceeds( Runnable lockAction1, Runnable lockAction2 )
     {
         assertUU();
@@ -261,6 +334,19 @@ class GBPTreeLockTest
         future.get();
     }
 
+    private void assertParallelWriterBlock( Runnable runUnlock ) throws Exception
+    {
+        GBPTreeLock lockToBlockOn = copy;
+        Future<Object> future = executor.submit( () ->
+        {
+            lockToBlockOn.parallelWriterLock();
+            return null;
+        } );
+        executor.untilWaitingIn( GBPTreeLock.class.getDeclaredMethod( "parallelWriterLock" ) );
+        runUnlock.run();
+        future.get();
+    }
+
     private void assertUU()
     {
         assertThrows( IllegalStateException.class, lock::writerUnlock );
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.index.internal.gbptree;
+
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.test.Race;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
+import org.neo4j.test.extension.testdirectory.EphemeralTestDirectoryExtension;
+import org.neo4j.test.utils.PageCacheConfig;
+import org.neo4j.test.utils.TestDirectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.index.internal.gbptree.ValueMerger.MergeResult.MERGED;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.test.Race.throwing;
+
+@EphemeralTestDirectoryExtension
+class GBPTreeParallelWriterTest
+{
+    private static final int THREADS = 8;
+    private static final int KEYS_PER_THREAD = 5_000;
+
+    @RegisterExtension
+    static PageCacheSupportExtension pageCacheExtension = new PageCacheSupportExtension( PageCacheConfig.config().withPageSize( 512 ) );
+    @Inject
+    private TestDirectory directory;
+    @Inject
+    private PageCache pageCache;
+
+    @Test
+    void shouldApplyChangesFromConcurrentParallelWritersFixedSize() throws Throwable
+    {
+        shouldApplyChangesFromConcurrentParallelWriters( SimpleLongLayout.longLayout().withFixedSize( true ).build() );
+    }
+
+    @Test
+    void shouldApplyChangesFromConcurrentParallelWritersDynamicSize() throws Throwable
+    {
+        shouldApplyChangesFromConcurrentParallelWriters( SimpleLongLayout.longLayout().withFixedSize( false ).build() );
+    }
+
+    @Test
+    void shouldMergeConcurrentChangesToSameKeys() throws Throwable
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().withFixedSize( true ).build();
+        int keys = 100;
+        int incrementsPerThread = 1_000;
+        ValueMerger<MutableLong,MutableLong> adder = ( existingKey, newKey, existingValue, newValue ) ->
+        {
+            existingValue.add( newValue.longValue() );
+            return MERGED;
+        };
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            Race race = new Race();
+            race.addContestants( THREADS, throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> writer = tree.parallelWriter( NULL ) )
+                {
+                    for ( int i = 0; i < incrementsPerThread; i++ )
+                    {
+                        writer.merge( layout.key( i % keys ), layout.value( 1 ), adder );
+                    }
+                }
+            } ) );
+            race.go();
+
+            try ( Seeker<MutableLong,MutableLong> seek = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                for ( int i = 0; i < keys; i++ )
+                {
+                    assertTrue( seek.next() );
+                    assertEquals( i, seek.key().longValue() );
+                    assertEquals( (long) THREADS * incrementsPerThread / keys, seek.value().longValue() );
+                }
+                assertFalse( seek.next() );
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+
+    @Test
+    void shouldNotAllowClosingParallelWriterTwice() throws IOException
+    {
+        SimpleLongLayout layout = SimpleLongLayout.longLayout().build();
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            Writer<MutableLong,MutableLong> writer = tree.parallelWriter( NULL );
+            writer.put( layout.key( 1 ), layout.value( 1 ) );
+            writer.close();
+            assertThrows( IllegalStateException.class, writer::close );
+
+            // The tree should still be usable by a single writer, i.e. the parallel writer lock was released exactly once
+            try ( Writer<MutableLong,MutableLong> singleWriter = tree.writer( NULL ) )
+            {
+                assertEquals( 1, singleWriter.remove( layout.key( 1 ) ).longValue() );
+                assertNull( singleWriter.remove( layout.key( 1 ) ) );
+            }
+        }
+    }
+
+    private void shouldApplyChangesFromConcurrentParallelWriters( SimpleLongLayout layout ) throws Throwable
+    {
+        try ( GBPTree<MutableLong,MutableLong> tree = new GBPTreeBuilder<>( pageCache, directory.file( "index" ), layout ).build() )
+        {
+            // when inserting keys interleaved between writers, so that they compete for the same leaves
+            Race inserts = new Race();
+            inserts.addContestants( THREADS, thread -> throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> writer = tree.parallelWriter( NULL ) )
+                {
+                    for ( int i = 0; i < KEYS_PER_THREAD; i++ )
+                    {
+                        long key = (long) i * THREADS + thread;
+                        writer.put( layout.key( key ), layout.value( key ) );
+                    }
+                }
+            } ) );
+            inserts.go();
+            // making all nodes stable so that the following changes will have to create new versions of them
+            tree.checkpoint( NULL );
+
+            // and then removing every odd key and updating every even one
+            Race updates = new Race();
+            updates.addContestants( THREADS, thread -> throwing( () ->
+            {
+                try ( Writer<MutableLong,MutableLong> writer = tree.parallelWriter( NULL ) )
+                {
+                    for ( int i = 0; i < KEYS_PER_THREAD; i++ )
+                    {
+                        long key = (long) i * THREADS + thread;
+                        if ( key % 2 == 0 )
+                        {
+                            writer.put( layout.key( key ), layout.value( key * 10 ) );
+                        }
+                        else
+                        {
+                            assertEquals( key, writer.remove( layout.key( key ) ).longValue() );
+                        }
+                    }
+                }
+            } ) );
+            updates.go();
+
+            // then
+            try ( Seeker<MutableLong,MutableLong> seek = tree.seek( layout.key( 0 ), layout.key( Long.MAX_VALUE ), NULL ) )
+            {
+                for ( long key = 0; key < (long) THREADS * KEYS_PER_THREAD; key += 2 )
+                {
+                    assertTrue( seek.next() );
+                    assertEquals( key, seek.key().longValue() );
+                    assertEquals( key * 10, seek.value().longValue() );
+                }
+                assertFalse( seek.next() );
+            }
+            assertTrue( tree.consistencyCheck( NULL ) );
+        }
+    }
+}
@@ -19,6 +19,7 @@
  */
 package org.neo4j.internal.kernel.api;
 
+import org.neo4j.storageengine.api.PropertyPredicate;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 
@@ -32,4 +33,15 @@ public interface PropertyCursor extends Cursor
     ValueGroup propertyType();
 
     Value propertyValue();
+
+    /**
+     * Tests the value of the current property without necessarily materializing it.
+     *
+     * @param predicate the predicate to test the value with.
+     * @return whether the value matches the predicate.
+     */
+    default boolean propertyValueMatches( PropertyPredicate predicate )
+    {
+        return predicate.test( propertyValue() );
+    }
 }
@@ -433,6 +433,33 @@ public interface Read
      */
     void relationshipProperties( long relationshipReference, Reference reference, PropertySelection selection, PropertyCursor cursor );
 
+    /**
+     * Reads a set of properties for a batch of nodes into columnar buffers. Nodes are visited in store order rather than in the
+     * order they are given, so that nodes residing on the same page are read one after the other.
+     *
+     * @param nodeReferences the nodes to read properties for, in any order.
+     * @param propertyKeys the property keys to read.
+     * @param nodeCursor the cursor to use for locating the nodes.
+     * @param propertyCursor the cursor to use for reading the properties.
+     * @param values buffers to fill, where {@code values[k][i]} receives the value of {@code propertyKeys[k]} for {@code nodeReferences[i]},
+     * or {@link Values#NO_VALUE} if the node doesn't exist or doesn't have that property.
+     */
+    void nodesProperties( long[] nodeReferences, int[] propertyKeys, NodeCursor nodeCursor, PropertyCursor propertyCursor, Value[][] values );
+
+    /**
+     * Reads a set of properties for a batch of relationships into columnar buffers. Relationships are visited in store order rather than
+     * in the order they are given, so that relationships residing on the same page are read one after the other.
+     *
+     * @param relationshipReferences the relationships to read properties for, in any order.
+     * @param propertyKeys the property keys to read.
+     * @param relationshipCursor the cursor to use for locating the relationships.
+     * @param propertyCursor the cursor to use for reading the properties.
+     * @param values buffers to fill, where {@code values[k][i]} receives the value of {@code propertyKeys[k]} for
+     * {@code relationshipReferences[i]}, or {@link Values#NO_VALUE} if the relationship doesn't exist or doesn't have that property.
+     */
+    void relationshipsProperties( long[] relationshipReferences, int[] propertyKeys, RelationshipScanCursor relationshipCursor,
+            PropertyCursor propertyCursor, Value[][] values );
+
     /**
      * Checks if a node was deleted in the current transaction
      * @param node the node to check
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
+import org.neo4j.values.storable.Values;
+
+/**
+ * Distribution of the values in a single property index, collected when sampling the index. It consists of
+ * <ul>
+ *     <li>the most common values, with their number of entries, and</li>
+ *     <li>an equi-depth histogram, i.e. ranges of values with about the same number of entries each.</li>
+ * </ul>
+ * A histogram only covers values of one {@link ValueGroup}, either numbers, text or booleans. Indexes with other or mixed types of values
+ * get {@link #EMPTY} histograms, and the planner falls back to assuming a uniform distribution.
+ * <p>
+ * Bucket {@code i} holds the values in {@code (bounds[i], bounds[i + 1]]}, except for the first bucket which also holds {@code bounds[0]},
+ * the lowest value. Values are never split between buckets.
+ */
+public final class IndexValueHistogram
+{
+    public static final IndexValueHistogram EMPTY = new IndexValueHistogram( 0, new Value[0], new long[0], new Value[0], new long[0], new long[0] );
+
+    static final int MAX_BUCKETS = 32;
+    static final int MAX_MOST_COMMON_VALUES = 16;
+
+    private final long sampleSize;
+    private final Value[] mostCommonValues;
+    private final long[] mostCommonValueCounts;
+    private final Value[] bounds;
+    private final long[] bucketCounts;
+    private final long[] bucketDistinctValues;
+
+    public IndexValueHistogram( long sampleSize, Value[] mostCommonValues, long[] mostCommonValueCounts, Value[] bounds, long[] bucketCounts,
+            long[] bucketDistinctValues )
+    {
+        this.sampleSize = sampleSize;
+        this.mostCommonValues = mostCommonValues;
+        this.mostCommonValueCounts = mostCommonValueCounts;
+        this.bounds = bounds;
+        this.bucketCounts = bucketCounts;
+        this.bucketDistinctValues = bucketDistinctValues;
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public boolean isEmpty()
+    {
+        return sampleSize == 0 || bounds.length == 0;
+    }
+
+    /**
+     * @return the number of index entries that this histogram was built from.
+     */
+    public long sampleSize()
+    {
+        return sampleSize;
+    }
+
+    public Value[] mostCommonValues()
+    {
+        return mostCommonValues;
+    }
+
+    public long[] mostCommonValueCounts()
+    {
+        return mostCommonValueCounts;
+    }
+
+    /**
+     * @return the lowest value, followed by the highest value of each bucket.
+     */
+    public Value[] bounds()
+    {
+        return bounds;
+    }
+
+    public long[] bucketCounts()
+    {
+        return bucketCounts;
+    }
+
+    public long[] bucketDistinctValues()
+    {
+        return bucketDistinctValues;
+    }
+
+    /**
+     * Estimates the fraction of index entries with the given value.
+     */
+    public double equalitySelectivity( Value value )
+    {
+        if ( isEmpty() || !isComparable( value ) )
+        {
+            return 0;
+        }
+        return entriesEqualTo( value ) / sampleSize;
+    }
+
+    /**
+     * Estimates the fraction of index entries with values in the given range.
+     *
+     * @param from lower bound of the range, or {@code null} if unbounded.
+     * @param fromInclusive whether entries equal to {@code from} are included.
+     * @param to upper bound of the range, or {@code null} if unbounded.
+     * @param toInclusive whether entries equal to {@code to} are included.
+     */
+    public double rangeSelectivity( Value from, boolean fromInclusive, Value to, boolean toInclusive )
+    {
+        if ( isEmpty() || (from != null && !isComparable( from )) || (to != null && !isComparable( to )) )
+        {
+            return 0;
+        }
+        double below = from == null ? 0 : fractionBelow( from, !fromInclusive );
+        double upTo = to == null ? 1 : fractionBelow( to, toInclusive );
+        return Math.max( 0, upTo - below );
+    }
+
+    private boolean isComparable( Value value )
+    {
+        return value.valueGroup() == bounds[0].valueGroup();
+    }
+
+    private double entriesEqualTo( Value value )
+    {
+        for ( int i = 0; i < mostCommonValues.length; i++ )
+        {
+            if ( mostCommonValues[i].equals( value ) )
+            {
+                return mostCommonValueCounts[i];
+            }
+        }
+        int bucket = bucketOf( value );
+        if ( bucket < 0 )
+        {
+            return 0;
+        }
+        // The remaining entries of the bucket are assumed to be evenly spread over its remaining values
+        long entries = bucketCounts[bucket];
+        long distinct = bucketDistinctValues[bucket];
+        for ( int i = 0; i < mostCommonValues.length; i++ )
+        {
+            if ( bucketOf( mostCommonValues[i] ) == bucket )
+            {
+                entries -= mostCommonValueCounts[i];
+                distinct--;
+            }
+        }
+        return entries <= 0 ? 0 : (double) entries / Math.max( 1, distinct );
+    }
+
+    /**
+     * Fraction of entries with values less than, or if {@code inclusive} less than or equal to, the given value.
+     */
+    private double fractionBelow( Value value, boolean inclusive )
+    {
+        int bucket = bucketOf( value );
+        if ( bucket < 0 )
+        {
+            return Values.COMPARATOR.compare( value, bounds[0] ) < 0 ? 0 : 1;
+        }
+        double entries = 0;
+        for ( int i = 0; i < bucket; i++ )
+        {
+            entries += bucketCounts[i];
+        }
+        Value upper = bounds[bucket + 1];
+        if ( Values.COMPARATOR.compare( value, upper ) == 0 )
+        {
+            entries += inclusive ? bucketCounts[bucket] : Math.max( 0, bucketCounts[bucket] - entriesEqualTo( value ) );
+        }
+        else
+        {
+            entries += positionInBucket( value, bounds[bucket], upper ) * bucketCounts[bucket];
+            if ( inclusive )
+            {
+                entries += entriesEqualTo( value );
+            }
+        }
+        return Math.min( 1, entries / sampleSize );
+    }
+
+    /**
+     * Where in a bucket a value lies, as a fraction from 0 at the lower bound to 1 at the upper bound. Only numbers can be interpolated,
+     * for other values the middle of the bucket is assumed.
+     */
+    private static double positionInBucket( Value value, Value lower, Value upper )
+    {
+        if ( value instanceof NumberValue )
+        {
+            double low = ((NumberValue) lower).doubleValue();
+            double high = ((NumberValue) upper).doubleValue();
+            if ( high > low )
+            {
+                return Math.max( 0, Math.min( 1, (((NumberValue) value).doubleValue() - low) / (high - low) ) );
+            }
+        }
+        return 0.5;
+    }
+
+    /**
+     * @return the bucket holding the given value, or -1 if the value is outside of the histogram.
+     */
+    private int bucketOf( Value value )
+    {
+        if ( Values.COMPARATOR.compare( value, bounds[0] ) < 0 )
+        {
+            return -1;
+        }
+        for ( int i = 1; i < bounds.length; i++ )
+        {
+            if ( Values.COMPARATOR.compare( value, bounds[i] ) <= 0 )
+            {
+                return i - 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        IndexValueHistogram that = (IndexValueHistogram) o;
+        return sampleSize == that.sampleSize && Arrays.equals( mostCommonValues, that.mostCommonValues ) &&
+               Arrays.equals( mostCommonValueCounts, that.mostCommonValueCounts ) && Arrays.equals( bounds, that.bounds ) &&
+               Arrays.equals( bucketCounts, that.bucketCounts ) && Arrays.equals( bucketDistinctValues, that.bucketDistinctValues );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = Long.hashCode( sampleSize );
+        result = 31 * result + Arrays.hashCode( mostCommonValues );
+        result = 31 * result + Arrays.hashCode( bounds );
+        result = 31 * result + Arrays.hashCode( bucketCounts );
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "IndexValueHistogram{" +
+               "sampleSize=" + sampleSize +
+               ", mostCommonValues=" + Arrays.toString( mostCommonValues ) +
+               ", mostCommonValueCounts=" + Arrays.toString( mostCommonValueCounts ) +
+               ", bounds=" + Arrays.toString( bounds ) +
+               ", bucketCounts=" + Arrays.toString( bucketCounts ) +
+               ", bucketDistinctValues=" + Arrays.toString( bucketDistinctValues ) +
+               '}';
+    }
+
+    /**
+     * Builds a histogram in one pass over the values of an index, in index order. Bucket depth starts at one entry and is doubled,
+     * merging pairs of buckets, whenever there are too many buckets, so the number of entries does not have to be known up front.
+     */
+    public static final class Builder
+    {
+        private final List<Bucket> buckets = new ArrayList<>();
+        private final PriorityQueue<MostCommonValue> mostCommon =
+                new PriorityQueue<>( MAX_MOST_COMMON_VALUES + 1, Comparator.comparingLong( mostCommonValue -> mostCommonValue.count ) );
+        private Bucket open;
+        private long depth = 1;
+        private long entries;
+        private long distinctValues;
+        private Value lowest;
+        private boolean unsupported;
+
+        private Builder()
+        {
+        }
+
+        /**
+         * Adds the next value of the index, which must be greater than all previously added values.
+         *
+         * @param value the value, which should not be mutated after being added.
+         * @param count the number of index entries with this value.
+         */
+        public void add( Value value, long count )
+        {
+            if ( unsupported )
+            {
+                return;
+            }
+            if ( lowest == null )
+            {
+                if ( !isSupported( value.valueGroup() ) )
+                {
+                    unsupported = true;
+                    return;
+                }
+                lowest = value;
+            }
+            else if ( value.valueGroup() != lowest.valueGroup() )
+            {
+                unsupported = true;
+                return;
+            }
+
+            entries += count;
+            distinctValues++;
+            if ( count > 1 )
+            {
+                mostCommon.add( new MostCommonValue( value, count ) );
+                if ( mostCommon.size() > MAX_MOST_COMMON_VALUES )
+                {
+                    mostCommon.poll();
+                }
+            }
+
+            if ( open == null )
+            {
+                open = new Bucket();
+            }
+            open.upper = value;
+            open.count += count;
+            open.distinctValues++;
+            if ( open.count >= depth )
+            {
+                buckets.add( open );
+                open = null;
+                if ( buckets.size() >= 2 * MAX_BUCKETS )
+                {
+                    mergePairsOfBuckets();
+                    depth *= 2;
+                }
+            }
+        }
+
+        /**
+         * Marks the index as not possible to build a histogram for, e.g. because it has multiple properties.
+         */
+        public void unsupported()
+        {
+            unsupported = true;
+        }
+
+        public IndexValueHistogram build()
+        {
+            if ( unsupported || entries == 0 )
+            {
+                return EMPTY;
+            }
+            if ( open != null )
+            {
+                buckets.add( open );
+                open = null;
+            }
+            while ( buckets.size() > MAX_BUCKETS )
+            {
+                mergePairsOfBuckets();
+            }
+
+            Value[] bounds = new Value[buckets.size() + 1];
+            long[] counts = new long[buckets.size()];
+            long[] distinct = new long[buckets.size()];
+            bounds[0] = lowest;
+            for ( int i = 0; i < buckets.size(); i++ )
+            {
+                Bucket bucket = buckets.get( i );
+                bounds[i + 1] = bucket.upper;
+                counts[i] = bucket.count;
+                distinct[i] = bucket.distinctValues;
+            }
+
+            // Only values that are more common than the average value are worth keeping track of
+            List<MostCommonValue> common = new ArrayList<>( mostCommon );
+            common.removeIf( mostCommonValue -> mostCommonValue.count * distinctValues <= entries );
+            common.sort( Comparator.comparingLong( ( MostCommonValue mostCommonValue ) -> mostCommonValue.count ).reversed() );
+            Value[] values = new Value[common.size()];
+            long[] valueCounts = new long[common.size()];
+            for ( int i = 0; i < common.size(); i++ )
+            {
+                values[i] = common.get( i ).value;
+                valueCounts[i] = common.get( i ).count;
+            }
+            return new IndexValueHistogram( entries, values, valueCounts, bounds, counts, distinct );
+        }
+
+        private void mergePairsOfBuckets()
+        {
+            List<Bucket> merged = new ArrayList<>( buckets.size() / 2 + 1 );
+            for ( int i = 0; i < buckets.size(); i += 2 )
+            {
+                Bucket bucket = buckets.get( i );
+                if ( i + 1 < buckets.size() )
+                {
+                    Bucket next = buckets.get( i + 1 );
+                    bucket.upper = next.upper;
+                    bucket.count += next.count;
+                    bucket.distinctValues += next.distinctValues;
+                }
+                merged.add( bucket );
+            }
+            buckets.clear();
+            buckets.addAll( merged );
+        }
+
+        private static boolean isSupported( ValueGroup group )
+        {
+            return group == ValueGroup.NUMBER || group == ValueGroup.TEXT || group == ValueGroup.BOOLEAN;
+        }
+    }
+
+    private static class Bucket
+    {
+        private Value upper;
+        private long count;
+        private long distinctValues;
+    }
+
+    private static class MostCommonValue
+    {
+        private final Value value;
+        private final long count;
+
+        MostCommonValue( Value value, long count )
+        {
+            this.value = value;
+            this.count = count;
+        }
+    }
+}
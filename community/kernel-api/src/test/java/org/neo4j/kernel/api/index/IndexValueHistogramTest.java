@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class IndexValueHistogramTest
+{
+    @Test
+    void shouldBeEmptyWithoutValues()
+    {
+        assertThat( IndexValueHistogram.builder().build() ).isSameAs( IndexValueHistogram.EMPTY );
+    }
+
+    @Test
+    void shouldBeEmptyForMixedValueGroups()
+    {
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder();
+        builder.add( intValue( 1 ), 1 );
+        builder.add( stringValue( "a" ), 1 );
+
+        assertThat( builder.build().isEmpty() ).isTrue();
+    }
+
+    @Test
+    void shouldBeEmptyWhenMarkedUnsupported()
+    {
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder();
+        builder.add( intValue( 1 ), 1 );
+        builder.unsupported();
+
+        assertThat( builder.build().isEmpty() ).isTrue();
+    }
+
+    @Test
+    void shouldLimitNumberOfBuckets()
+    {
+        IndexValueHistogram histogram = uniform( 10_000 );
+
+        assertThat( histogram.sampleSize() ).isEqualTo( 10_000 );
+        assertThat( histogram.bucketCounts().length ).isLessThanOrEqualTo( IndexValueHistogram.MAX_BUCKETS );
+        assertThat( histogram.bounds()[0] ).isEqualTo( longValue( 0 ) );
+        assertThat( histogram.bounds()[histogram.bounds().length - 1] ).isEqualTo( longValue( 9_999 ) );
+        assertThat( histogram.mostCommonValues() ).isEmpty();
+    }
+
+    @Test
+    void shouldEstimateRangesOfUniformValues()
+    {
+        IndexValueHistogram histogram = uniform( 10_000 );
+
+        assertThat( histogram.rangeSelectivity( null, false, longValue( 2_500 ), false ) ).isCloseTo( 0.25, within( 0.01 ) );
+        assertThat( histogram.rangeSelectivity( longValue( 1_000 ), true, longValue( 2_000 ), true ) ).isCloseTo( 0.1, within( 0.01 ) );
+        assertThat( histogram.rangeSelectivity( longValue( 9_000 ), true, null, false ) ).isCloseTo( 0.1, within( 0.01 ) );
+        assertThat( histogram.rangeSelectivity( longValue( 20_000 ), true, null, false ) ).isZero();
+        assertThat( histogram.rangeSelectivity( null, false, longValue( -1 ), true ) ).isZero();
+    }
+
+    @Test
+    void shouldTrackMostCommonValues()
+    {
+        // 1000 unique values and one value that covers half of the index
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            builder.add( longValue( i ), i == 500 ? 1_000 : 1 );
+        }
+        IndexValueHistogram histogram = builder.build();
+
+        assertThat( histogram.mostCommonValues() ).containsExactly( longValue( 500 ) );
+        assertThat( histogram.equalitySelectivity( longValue( 500 ) ) ).isCloseTo( 1_000 / 1_999d, within( 0.0001 ) );
+        assertThat( histogram.equalitySelectivity( longValue( 10 ) ) ).isCloseTo( 1 / 1_999d, within( 0.0001 ) );
+        assertThat( histogram.equalitySelectivity( longValue( 5_000 ) ) ).isZero();
+    }
+
+    @Test
+    void shouldEstimateSkewedRanges()
+    {
+        // Value i occurs i times, so the upper half of the values covers three quarters of the entries
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder();
+        for ( int i = 1; i <= 1_000; i++ )
+        {
+            builder.add( longValue( i ), i );
+        }
+        IndexValueHistogram histogram = builder.build();
+
+        assertThat( histogram.rangeSelectivity( longValue( 500 ), false, null, false ) ).isCloseTo( 0.75, within( 0.05 ) );
+    }
+
+    @Test
+    void shouldNotMatchValuesOfOtherGroups()
+    {
+        IndexValueHistogram histogram = uniform( 100 );
+
+        assertThat( histogram.equalitySelectivity( stringValue( "1" ) ) ).isZero();
+        assertThat( histogram.rangeSelectivity( stringValue( "1" ), true, null, false ) ).isZero();
+    }
+
+    private static IndexValueHistogram uniform( int count )
+    {
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder();
+        for ( int i = 0; i < count; i++ )
+        {
+            builder.add( longValue( i ), 1 );
+        }
+        return builder.build();
+    }
+}
@@ -456,7 +456,7 @@ public class Database extends LifecycleAdapter
                             lockService, internalLogProvider );
 
             // Schema indexes
-            IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( databasePageCache, databaseLayout, recoveryCleanupWorkCollector,
+            IndexStatisticsStore indexStatisticsStore = new IndexStatisticsStore( databasePageCache, fs, databaseLayout, recoveryCleanupWorkCollector,
                     readOnlyDatabaseChecker, pageCacheTracer );
             IndexingService indexingService = buildIndexingService( storageEngine, databaseSchemaState, indexStoreViewFactory, indexStatisticsStore,
                     pageCacheTracer, otherDatabaseMemoryTracker );
@@ -473,6 +473,7 @@ public class Database extends LifecycleAdapter
 
             databaseTransactionEventListeners = new DatabaseTransactionEventListeners( databaseFacade, transactionEventListeners, namedDatabaseId );
             life.add( databaseTransactionEventListeners );
+            databaseDependencies.satisfyDependency( databaseTransactionEventListeners );
             final DatabaseKernelModule kernelModule = buildKernel(
                     logFiles,
                     transactionLogModule.transactionAppender(),
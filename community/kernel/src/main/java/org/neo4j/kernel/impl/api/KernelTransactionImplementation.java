@@ -72,6 +72,7 @@ import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.DefaultPageCursorTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.exceptions.Status;
 import org.neo4j.kernel.api.procedure.GlobalProcedures;
@@ -179,6 +180,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private final AccessCapabilityFactory accessCapabilityFactory;
     private final ConstraintSemantics constraintSemantics;
     private final StorageLocks storageLocks;
+    private PageCursorTracer pageCursorTracer;
     private CursorContext cursorContext;
     private final DatabaseReadOnlyChecker readOnlyDatabaseChecker;
     private final SecurityAuthorizationHandler securityAuthorizationHandler;
@@ -317,7 +319,14 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     {
         assert memoryTracker.estimatedHeapMemory() == 0;
         assert memoryTracker.usedNativeMemory() == 0;
-        this.cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( TRANSACTION_TAG ), versionContextSupplier.createVersionContext() );
+        if ( this.pageCursorTracer == null )
+        {
+            this.pageCursorTracer = pageCacheTracer.createPageCursorTracer( TRANSACTION_TAG );
+        }
+        // Every use of this transaction gets its own cursor context, so that no one holding on to the context of a previous use
+        // sees the state of this one. Only the page cursor tracer is recycled: closing the context in #reset() reports and clears
+        // its counters.
+        this.cursorContext = new CursorContext( pageCursorTracer, versionContextSupplier.createVersionContext() );
         this.transactionalCursors.reset( cursorContext );
         this.accessCapability = accessCapabilityFactory.newAccessCapability( readOnlyDatabaseChecker );
         this.kernelTransactionMonitor = KernelTransaction.NO_MONITOR;
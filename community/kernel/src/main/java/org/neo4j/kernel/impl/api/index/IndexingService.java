@@ -86,7 +86,6 @@ import static org.neo4j.common.EntityType.RELATIONSHIP;
 import static org.neo4j.common.Subject.SYSTEM;
 import static org.neo4j.internal.helpers.collection.Iterables.asList;
 import static org.neo4j.internal.helpers.collection.Iterators.asResourceIterator;
-import static org.neo4j.internal.helpers.collection.Iterators.iterator;
 import static org.neo4j.internal.kernel.api.InternalIndexState.FAILED;
 import static org.neo4j.internal.kernel.api.InternalIndexState.ONLINE;
 import static org.neo4j.internal.kernel.api.InternalIndexState.POPULATING;
@@ -514,6 +513,20 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
 
     /**
      * Applies the given updates, which may contain updates for one or more indexes.
+     * <p>
+     * Can be called concurrently with updates for token indexes, which hand out updaters that can be used concurrently.
+     * This is safe in every state of a token index:
+     * <ul>
+     *     <li>Each call gets its updaters through its own {@link IndexUpdaterMap}, over the {@link IndexMap} that is current
+     *     when the call starts, so concurrent calls share no updater state here.</li>
+     *     <li>While the token index is populating, its updaters queue the updates in the {@link MultipleIndexPopulator},
+     *     whose queue of concurrent updates takes updates from any number of threads. The updates of one entity still
+     *     come in commit order, since the transactions changing it hold its lock until they are applied.</li>
+     *     <li>A drop of the token index in the same batch of transactions comes after the token index updates of the
+     *     transactions before it in the batch, since those are applied by the dropping thread itself before any index
+     *     schema change. A drop in another transaction can't overlap with the application of transactions that change
+     *     tokens, since those hold a shared lock that guards the token indexes from being dropped until they are applied.</li>
+     * </ul>
      *
      * @param updates {@link IndexEntryUpdate updates} to apply.
      * @throws UncheckedIOException potentially thrown from index updating.
@@ -819,7 +832,7 @@ public class IndexingService extends LifecycleAdapter implements IndexUpdateList
     public ResourceIterator<Path> snapshotIndexFiles() throws IOException
     {
         Collection<ResourceIterator<Path>> snapshots = new ArrayList<>();
-        snapshots.add( asResourceIterator( iterator( indexStatisticsStore.storeFile() ) ) );
+        snapshots.add( asResourceIterator( indexStatisticsStore.storeFiles().iterator() ) );
         for ( IndexProxy indexProxy : indexMapRef.getAllIndexProxies() )
         {
             snapshots.add( indexProxy.snapshotFiles() );
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.stats;
+
+import java.nio.ByteBuffer;
+
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.values.storable.BooleanValue;
+import org.neo4j.values.storable.FloatingPointValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Serialized form of an {@link IndexValueHistogram} in {@link IndexStatisticsValue}. An empty histogram serializes to no bytes at all.
+ * <pre>
+ * sampleSize: long
+ * mostCommonValues: short, then for each (value, count: long)
+ * buckets: short, then the lowest value, then for each bucket (upper value, count: long, distinctValues: long)
+ * value: type: byte, then long, double, boolean byte or UTF-8 string prefixed by its length as an int
+ * </pre>
+ */
+final class HistogramFormat
+{
+    private static final byte INTEGRAL = 1;
+    private static final byte FLOATING_POINT = 2;
+    private static final byte BOOLEAN = 3;
+    private static final byte TEXT = 4;
+
+    private HistogramFormat()
+    {
+    }
+
+    static byte[] serialize( IndexValueHistogram histogram )
+    {
+        if ( histogram.isEmpty() )
+        {
+            return new byte[0];
+        }
+        Value[] mostCommonValues = histogram.mostCommonValues();
+        Value[] bounds = histogram.bounds();
+        int size = Long.BYTES + Short.BYTES + mostCommonValues.length * Long.BYTES + Short.BYTES + (bounds.length - 1) * 2 * Long.BYTES;
+        for ( Value value : mostCommonValues )
+        {
+            size += valueSize( value );
+        }
+        for ( Value value : bounds )
+        {
+            size += valueSize( value );
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate( size );
+        buffer.putLong( histogram.sampleSize() );
+        buffer.putShort( (short) mostCommonValues.length );
+        for ( int i = 0; i < mostCommonValues.length; i++ )
+        {
+            putValue( buffer, mostCommonValues[i] );
+            buffer.putLong( histogram.mostCommonValueCounts()[i] );
+        }
+        buffer.putShort( (short) (bounds.length - 1) );
+        putValue( buffer, bounds[0] );
+        for ( int i = 1; i < bounds.length; i++ )
+        {
+            putValue( buffer, bounds[i] );
+            buffer.putLong( histogram.bucketCounts()[i - 1] );
+            buffer.putLong( histogram.bucketDistinctValues()[i - 1] );
+        }
+        return buffer.array();
+    }
+
+    static IndexValueHistogram deserialize( byte[] bytes )
+    {
+        if ( bytes.length == 0 )
+        {
+            return IndexValueHistogram.EMPTY;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap( bytes );
+        long sampleSize = buffer.getLong();
+        int numberOfMostCommonValues = buffer.getShort();
+        Value[] mostCommonValues = new Value[numberOfMostCommonValues];
+        long[] mostCommonValueCounts = new long[numberOfMostCommonValues];
+        for ( int i = 0; i < numberOfMostCommonValues; i++ )
+        {
+            mostCommonValues[i] = getValue( buffer );
+            mostCommonValueCounts[i] = buffer.getLong();
+        }
+        int numberOfBuckets = buffer.getShort();
+        Value[] bounds = new Value[numberOfBuckets + 1];
+        long[] bucketCounts = new long[numberOfBuckets];
+        long[] bucketDistinctValues = new long[numberOfBuckets];
+        bounds[0] = getValue( buffer );
+        for ( int i = 0; i < numberOfBuckets; i++ )
+        {
+            bounds[i + 1] = getValue( buffer );
+            bucketCounts[i] = buffer.getLong();
+            bucketDistinctValues[i] = buffer.getLong();
+        }
+        return new IndexValueHistogram( sampleSize, mostCommonValues, mostCommonValueCounts, bounds, bucketCounts, bucketDistinctValues );
+    }
+
+    private static int valueSize( Value value )
+    {
+        if ( value instanceof IntegralValue || value instanceof FloatingPointValue )
+        {
+            return Byte.BYTES + Long.BYTES;
+        }
+        if ( value instanceof BooleanValue )
+        {
+            return Byte.BYTES + Byte.BYTES;
+        }
+        if ( value instanceof TextValue )
+        {
+            return Byte.BYTES + Integer.BYTES + utf8( value ).length;
+        }
+        throw new IllegalArgumentException( "Histograms can not contain values of type " + value.getTypeName() );
+    }
+
+    private static void putValue( ByteBuffer buffer, Value value )
+    {
+        if ( value instanceof IntegralValue )
+        {
+            buffer.put( INTEGRAL );
+            buffer.putLong( ((IntegralValue) value).longValue() );
+        }
+        else if ( value instanceof FloatingPointValue )
+        {
+            buffer.put( FLOATING_POINT );
+            buffer.putDouble( ((FloatingPointValue) value).doubleValue() );
+        }
+        else if ( value instanceof BooleanValue )
+        {
+            buffer.put( BOOLEAN );
+            buffer.put( (byte) (((BooleanValue) value).booleanValue() ? 1 : 0) );
+        }
+        else
+        {
+            byte[] string = utf8( value );
+            buffer.put( TEXT );
+            buffer.putInt( string.length );
+            buffer.put( string );
+        }
+    }
+
+    private static byte[] utf8( Value value )
+    {
+        return ((TextValue) value).stringValue().getBytes( UTF_8 );
+    }
+
+    private static Value getValue( ByteBuffer buffer )
+    {
+        byte type = buffer.get();
+        switch ( type )
+        {
+        case INTEGRAL:
+            return Values.longValue( buffer.getLong() );
+        case FLOATING_POINT:
+            return Values.doubleValue( buffer.getDouble() );
+        case BOOLEAN:
+            return Values.booleanValue( buffer.get() != 0 );
+        case TEXT:
+            byte[] string = new byte[buffer.getInt()];
+            buffer.get( string );
+            return Values.utf8Value( string );
+        default:
+            throw new IllegalArgumentException( "Unknown histogram value type " + type );
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.stats;
+
+import org.neo4j.index.internal.gbptree.GBPTree;
+import org.neo4j.index.internal.gbptree.Layout;
+import org.neo4j.io.pagecache.PageCursor;
+
+/**
+ * {@link GBPTree} layout of the histogram file in {@link IndexStatisticsStore}, using {@link IndexStatisticsKey} and {@link IndexHistogramValue}.
+ * Values are of dynamic size since they hold the value histogram of the index.
+ */
+class IndexHistogramLayout extends Layout.Adapter<IndexStatisticsKey,IndexHistogramValue>
+{
+    IndexHistogramLayout()
+    {
+        super( false, 556_678, 0, 1 );
+    }
+
+    @Override
+    public IndexStatisticsKey newKey()
+    {
+        return new IndexStatisticsKey();
+    }
+
+    @Override
+    public IndexStatisticsKey copyKey( IndexStatisticsKey key, IndexStatisticsKey into )
+    {
+        into.setIndexId( key.getIndexId() );
+        return into;
+    }
+
+    @Override
+    public IndexHistogramValue newValue()
+    {
+        return new IndexHistogramValue();
+    }
+
+    @Override
+    public int keySize( IndexStatisticsKey key )
+    {
+        return Long.BYTES;
+    }
+
+    @Override
+    public int valueSize( IndexHistogramValue value )
+    {
+        return value.size();
+    }
+
+    @Override
+    public void writeKey( PageCursor cursor, IndexStatisticsKey key )
+    {
+        cursor.putLong( key.getIndexId() );
+    }
+
+    @Override
+    public void writeValue( PageCursor cursor, IndexHistogramValue value )
+    {
+        cursor.putLong( value.getSampleUniqueValues() );
+        cursor.putLong( value.getSampleSize() );
+        cursor.putBytes( value.getHistogram() );
+    }
+
+    @Override
+    public void readKey( PageCursor cursor, IndexStatisticsKey into, int keySize )
+    {
+        into.setIndexId( cursor.getLong() );
+    }
+
+    @Override
+    public void readValue( PageCursor cursor, IndexHistogramValue into, int valueSize )
+    {
+        if ( valueSize < IndexHistogramValue.SIZE_WITHOUT_HISTOGRAM )
+        {
+            cursor.setCursorException( "Index histogram value too small, size:" + valueSize );
+            return;
+        }
+        into.setSampleUniqueValues( cursor.getLong() );
+        into.setSampleSize( cursor.getLong() );
+        byte[] histogram = new byte[valueSize - IndexHistogramValue.SIZE_WITHOUT_HISTOGRAM];
+        cursor.getBytes( histogram );
+        into.setHistogram( histogram );
+    }
+
+    @Override
+    public int compare( IndexStatisticsKey o1, IndexStatisticsKey o2 )
+    {
+        return Long.compare( o1.getIndexId(), o2.getIndexId() );
+    }
+
+    @Override
+    public void initializeAsLowest( IndexStatisticsKey key )
+    {
+        key.setIndexId( Long.MIN_VALUE );
+    }
+
+    @Override
+    public void initializeAsHighest( IndexStatisticsKey key )
+    {
+        key.setIndexId( Long.MAX_VALUE );
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.stats;
+
+/**
+ * Value histogram of an index, as stored in the histogram file of {@link IndexStatisticsStore}. Holds the sample counts
+ * the histogram was built along with, so that a histogram which no longer belongs to the sample in the statistics file can be told apart.
+ */
+class IndexHistogramValue
+{
+    static final int SIZE_WITHOUT_HISTOGRAM = Long.BYTES * 2;
+    private static final byte[] NO_HISTOGRAM = new byte[0];
+
+    private long sampleUniqueValues;
+    private long sampleSize;
+    private byte[] histogram = NO_HISTOGRAM;
+
+    IndexHistogramValue()
+    {
+    }
+
+    IndexHistogramValue( long sampleUniqueValues, long sampleSize, byte[] histogram )
+    {
+        this.sampleUniqueValues = sampleUniqueValues;
+        this.sampleSize = sampleSize;
+        this.histogram = histogram;
+    }
+
+    long getSampleUniqueValues()
+    {
+        return sampleUniqueValues;
+    }
+
+    void setSampleUniqueValues( long sampleUniqueValues )
+    {
+        this.sampleUniqueValues = sampleUniqueValues;
+    }
+
+    long getSampleSize()
+    {
+        return sampleSize;
+    }
+
+    void setSampleSize( long sampleSize )
+    {
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * @return the histogram in the format of {@link HistogramFormat}.
+     */
+    byte[] getHistogram()
+    {
+        return histogram;
+    }
+
+    void setHistogram( byte[] histogram )
+    {
+        this.histogram = histogram;
+    }
+
+    int size()
+    {
+        return SIZE_WITHOUT_HISTOGRAM + histogram.length;
+    }
+}
@@ -32,15 +32,18 @@ import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.dbms.database.readonly.DatabaseReadOnlyChecker;
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.GBPTreeConsistencyCheckVisitor;
+import org.neo4j.index.internal.gbptree.MetadataMismatchException;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.index.internal.gbptree.TreeFileNotFoundException;
 import org.neo4j.index.internal.gbptree.Writer;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.impl.index.schema.ConsistencyCheckable;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 
@@ -51,46 +54,59 @@ import static org.eclipse.collections.api.factory.Sets.immutable;
  * These values aren't updated transactionally and so the data is just kept in memory and flushed to a {@link GBPTree} on every checkpoint.
  * Neither reads, writes nor checkpoints block each other.
  *
+ * Value histograms are kept in a file of their own next to the statistics file, created on the first checkpoint which has any
+ * histogram to store, so that the format of the statistics file stays the same. Since histograms can be recreated by sampling
+ * the indexes, a histogram file which can't be read is ignored, and replaced on the next checkpoint unless the store is read-only.
+ *
  * The store is accessible after {@link #init()} has been called.
  */
 public class IndexStatisticsStore extends LifecycleAdapter implements IndexStatisticsVisitor.Visitable, ConsistencyCheckable
 {
-    private static final ImmutableIndexStatistics EMPTY_STATISTICS = new ImmutableIndexStatistics( 0, 0, 0, 0 );
+    private static final ImmutableIndexStatistics EMPTY_STATISTICS = new ImmutableIndexStatistics( 0, 0, 0, 0, IndexValueHistogram.EMPTY );
 
     // Used in GBPTree.seek. Please don't use for writes
     private static final IndexStatisticsKey LOWEST_KEY = new IndexStatisticsKey( Long.MIN_VALUE );
     private static final IndexStatisticsKey HIGHEST_KEY = new IndexStatisticsKey( Long.MAX_VALUE );
     private static final String INIT_TAG = "Initialize IndexStatisticsStore";
+    private static final String HISTOGRAMS_FILE_SUFFIX = ".histograms";
 
     private final PageCache pageCache;
+    private final FileSystemAbstraction fileSystem;
     private final Path path;
+    private final Path histogramPath;
     private final RecoveryCleanupWorkCollector recoveryCleanupWorkCollector;
     private final String databaseName;
     private final PageCacheTracer pageCacheTracer;
     private final IndexStatisticsLayout layout;
+    private final IndexHistogramLayout histogramLayout;
     private final DatabaseReadOnlyChecker readOnlyChecker;
     private GBPTree<IndexStatisticsKey,IndexStatisticsValue> tree;
+    // Null until there's a histogram file which can be read, or one is created on checkpoint
+    private volatile GBPTree<IndexStatisticsKey,IndexHistogramValue> histogramTree;
     // Let IndexStatisticsValue be immutable in this map so that checkpoint doesn't have to coordinate with concurrent writers
     // It's assumed that the data in this map will be so small that everything can just be in it always.
     private final ConcurrentHashMap<Long,ImmutableIndexStatistics> cache = new ConcurrentHashMap<>();
 
-    public IndexStatisticsStore( PageCache pageCache, Path path, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
+    public IndexStatisticsStore( PageCache pageCache, FileSystemAbstraction fileSystem, Path path, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
             DatabaseReadOnlyChecker readOnlyChecker, String databaseName, PageCacheTracer pageCacheTracer )
     {
         this.pageCache = pageCache;
+        this.fileSystem = fileSystem;
         this.path = path;
+        this.histogramPath = path.resolveSibling( path.getFileName() + HISTOGRAMS_FILE_SUFFIX );
         this.recoveryCleanupWorkCollector = recoveryCleanupWorkCollector;
         this.databaseName = databaseName;
         this.pageCacheTracer = pageCacheTracer;
         this.layout = new IndexStatisticsLayout();
+        this.histogramLayout = new IndexHistogramLayout();
         this.readOnlyChecker = readOnlyChecker;
     }
 
-    public IndexStatisticsStore( PageCache pageCache, DatabaseLayout databaseLayout, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector,
-            DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer )
+    public IndexStatisticsStore( PageCache pageCache, FileSystemAbstraction fileSystem, DatabaseLayout databaseLayout,
+            RecoveryCleanupWorkCollector recoveryCleanupWorkCollector, DatabaseReadOnlyChecker readOnlyChecker, PageCacheTracer pageCacheTracer )
     {
-        this( pageCache, databaseLayout.indexStatisticsStore(), recoveryCleanupWorkCollector, readOnlyChecker, databaseLayout.getDatabaseName(),
-                pageCacheTracer );
+        this( pageCache, fileSystem, databaseLayout.indexStatisticsStore(), recoveryCleanupWorkCollector, readOnlyChecker,
+                databaseLayout.getDatabaseName(), pageCacheTracer );
     }
 
     @Override
@@ -106,21 +122,56 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
             throw new IllegalStateException(
                     "Index statistics store file could not be found, most likely this database needs to be recovered, file:" + path, e );
         }
+        openHistogramTree();
         try ( var cursorContext = new CursorContext( pageCacheTracer.createPageCursorTracer( INIT_TAG ) ) )
         {
-            scanTree( ( key, value ) -> cache.put( key.getIndexId(), new ImmutableIndexStatistics( value ) ), cursorContext );
+            scanTree( tree, ( key, value ) -> cache.put( key.getIndexId(), new ImmutableIndexStatistics( value ) ), cursorContext );
+            if ( histogramTree != null )
+            {
+                scanTree( histogramTree, ( key, value ) -> cache.computeIfPresent( key.getIndexId(), ( id, stats ) -> stats.withHistogram( value ) ),
+                        cursorContext );
+            }
+        }
+    }
+
+    private void openHistogramTree() throws IOException
+    {
+        if ( !fileSystem.fileExists( histogramPath ) )
+        {
+            // Created on the first checkpoint which has any histogram to store
+            return;
+        }
+        try
+        {
+            histogramTree = instantiateHistogramTree();
+        }
+        catch ( MetadataMismatchException e )
+        {
+            // Written in another format. Histograms are only an aid for the planner and are recreated by sampling,
+            // so rather go without them than fail to start, and replace the file on checkpoint if we're allowed to
+            if ( !readOnlyChecker.isReadOnly() )
+            {
+                fileSystem.deleteFileOrThrow( histogramPath );
+            }
         }
     }
 
+    private GBPTree<IndexStatisticsKey,IndexHistogramValue> instantiateHistogramTree()
+    {
+        return new GBPTree<>( pageCache, histogramPath, histogramLayout, GBPTree.NO_MONITOR, GBPTree.NO_HEADER_READER, GBPTree.NO_HEADER_WRITER,
+                recoveryCleanupWorkCollector, readOnlyChecker, pageCacheTracer, immutable.empty(), databaseName, "Statistics histograms store" );
+    }
+
     public IndexSample indexSample( long indexId )
     {
         ImmutableIndexStatistics value = cache.getOrDefault( indexId, EMPTY_STATISTICS );
-        return new IndexSample( value.indexSize, value.sampleUniqueValues, value.sampleSize, value.updatesCount );
+        return new IndexSample( value.indexSize, value.sampleUniqueValues, value.sampleSize, value.updatesCount, value.histogram );
     }
 
     public void replaceStats( long indexId, IndexSample sample )
     {
-        cache.put( indexId, new ImmutableIndexStatistics( sample.uniqueValues(), sample.sampleSize(), sample.updates(), sample.indexSize() ) );
+        cache.put( indexId, new ImmutableIndexStatistics( sample.uniqueValues(), sample.sampleSize(), sample.updates(), sample.indexSize(),
+                sample.histogram() ) );
     }
 
     public void removeIndex( long indexId )
@@ -131,7 +182,8 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     public void incrementIndexUpdates( long indexId, long delta )
     {
         cache.computeIfPresent( indexId, ( id, existing ) ->
-                new ImmutableIndexStatistics( existing.sampleUniqueValues, existing.sampleSize, existing.updatesCount + delta, existing.indexSize ) );
+                new ImmutableIndexStatistics( existing.sampleUniqueValues, existing.sampleSize, existing.updatesCount + delta, existing.indexSize,
+                        existing.histogram ) );
     }
 
     @Override
@@ -139,7 +191,7 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     {
         try
         {
-            scanTree( ( key, value ) -> visitor.visitIndexStatistics( key.getIndexId(),
+            scanTree( tree, ( key, value ) -> visitor.visitIndexStatistics( key.getIndexId(),
                     value.getSampleUniqueValues(), value.getSampleSize(), value.getUpdatesCount(), value.getIndexSize() ), cursorContext );
         }
         catch ( IOException e )
@@ -151,9 +203,25 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     public void checkpoint( CursorContext cursorContext ) throws IOException
     {
         // There's an assumption that there will never be concurrent calls to checkpoint. This is guarded outside.
-        clearTree( cursorContext );
+        clearTree( tree, cursorContext );
         writeCacheContentsIntoTree( cursorContext );
         tree.checkpoint( cursorContext );
+        checkpointHistograms( cursorContext );
+    }
+
+    private void checkpointHistograms( CursorContext cursorContext ) throws IOException
+    {
+        if ( histogramTree == null )
+        {
+            if ( readOnlyChecker.isReadOnly() || cache.values().stream().allMatch( stats -> stats.histogram.isEmpty() ) )
+            {
+                return;
+            }
+            histogramTree = instantiateHistogramTree();
+        }
+        clearTree( histogramTree, cursorContext );
+        writeCacheContentsIntoHistogramTree( cursorContext );
+        histogramTree.checkpoint( cursorContext );
     }
 
     @Override
@@ -166,7 +234,8 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
     {
         try
         {
-            return tree.consistencyCheck( visitor, cursorContext );
+            boolean consistent = tree.consistencyCheck( visitor, cursorContext );
+            return histogramTree == null ? consistent : histogramTree.consistencyCheck( visitor, cursorContext ) && consistent;
         }
         catch ( IOException e )
         {
@@ -174,27 +243,28 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         }
     }
 
-    private void scanTree( BiConsumer<IndexStatisticsKey,IndexStatisticsValue> consumer, CursorContext cursorContext ) throws IOException
+    private <VALUE> void scanTree( GBPTree<IndexStatisticsKey,VALUE> tree, BiConsumer<IndexStatisticsKey,VALUE> consumer, CursorContext cursorContext )
+            throws IOException
     {
-        try ( Seeker<IndexStatisticsKey,IndexStatisticsValue> seek = tree.seek( LOWEST_KEY, HIGHEST_KEY, cursorContext ) )
+        try ( Seeker<IndexStatisticsKey,VALUE> seek = tree.seek( LOWEST_KEY, HIGHEST_KEY, cursorContext ) )
         {
             while ( seek.next() )
             {
                 IndexStatisticsKey key = layout.copyKey( seek.key(), new IndexStatisticsKey() );
-                IndexStatisticsValue value = seek.value();
+                VALUE value = seek.value();
                 consumer.accept( key, value );
             }
         }
     }
 
-    private void clearTree( CursorContext cursorContext ) throws IOException
+    private <VALUE> void clearTree( GBPTree<IndexStatisticsKey,VALUE> tree, CursorContext cursorContext ) throws IOException
     {
         // Read all keys from the tree, we can't do this while having a writer since it will grab write lock on pages
         List<IndexStatisticsKey> keys = new ArrayList<>( cache.size() );
-        scanTree( ( key, value ) -> keys.add( key ), cursorContext );
+        scanTree( tree, ( key, value ) -> keys.add( key ), cursorContext );
 
         // Remove all those read keys
-        try ( Writer<IndexStatisticsKey,IndexStatisticsValue> writer = tree.unsafeWriter( cursorContext ) )
+        try ( Writer<IndexStatisticsKey,VALUE> writer = tree.unsafeWriter( cursorContext ) )
         {
             for ( IndexStatisticsKey key : keys )
             {
@@ -217,17 +287,52 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         }
     }
 
-    public Path storeFile()
+    private void writeCacheContentsIntoHistogramTree( CursorContext cursorContext ) throws IOException
+    {
+        try ( Writer<IndexStatisticsKey,IndexHistogramValue> writer = histogramTree.unsafeWriter( cursorContext ) )
+        {
+            for ( Map.Entry<Long,ImmutableIndexStatistics> entry : cache.entrySet() )
+            {
+                ImmutableIndexStatistics stats = entry.getValue();
+                if ( stats.histogram.isEmpty() )
+                {
+                    continue;
+                }
+                byte[] histogram = HistogramFormat.serialize( stats.histogram );
+                if ( Long.BYTES + IndexHistogramValue.SIZE_WITHOUT_HISTOGRAM + histogram.length > histogramTree.keyValueSizeCap() )
+                {
+                    // Rather lose the histogram, e.g. of an index of very long strings, than fail the checkpoint
+                    continue;
+                }
+                writer.put( new IndexStatisticsKey( entry.getKey() ), new IndexHistogramValue( stats.sampleUniqueValues, stats.sampleSize, histogram ) );
+            }
+        }
+    }
+
+    /**
+     * @return files of this store which exist, i.e. the statistics file and the histogram file if there is one.
+     */
+    public List<Path> storeFiles()
     {
-        return path;
+        return histogramTree == null ? List.of( path ) : List.of( path, histogramPath );
     }
 
     @Override
     public void shutdown() throws IOException
     {
-        if ( tree != null )
+        try
         {
-            tree.close();
+            if ( tree != null )
+            {
+                tree.close();
+            }
+        }
+        finally
+        {
+            if ( histogramTree != null )
+            {
+                histogramTree.close();
+            }
         }
     }
 
@@ -237,18 +342,33 @@ public class IndexStatisticsStore extends LifecycleAdapter implements IndexStati
         private final long sampleSize;
         private final long updatesCount;
         private final long indexSize;
+        private final IndexValueHistogram histogram;
 
-        ImmutableIndexStatistics( long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize )
+        ImmutableIndexStatistics( long sampleUniqueValues, long sampleSize, long updatesCount, long indexSize, IndexValueHistogram histogram )
         {
             this.sampleUniqueValues = sampleUniqueValues;
             this.sampleSize = sampleSize;
             this.updatesCount = updatesCount;
             this.indexSize = indexSize;
+            this.histogram = histogram;
         }
 
         ImmutableIndexStatistics( IndexStatisticsValue value )
         {
-            this( value.getSampleUniqueValues(), value.getSampleSize(), value.getUpdatesCount(), value.getIndexSize() );
+            this( value.getSampleUniqueValues(), value.getSampleSize(), value.getUpdatesCount(), value.getIndexSize(), IndexValueHistogram.EMPTY );
+        }
+
+        /**
+         * @return these statistics with the given histogram, unless it was built along with another sample than the one of these statistics,
+         * e.g. if the statistics file has been written by a version which doesn't store histograms since.
+         */
+        ImmutableIndexStatistics withHistogram( IndexHistogramValue value )
+        {
+            if ( value.getSampleUniqueValues() != sampleUniqueValues || value.getSampleSize() != sampleSize )
+            {
+                return this;
+            }
+            return new ImmutableIndexStatistics( sampleUniqueValues, sampleSize, updatesCount, indexSize, HistogramFormat.deserialize( value.getHistogram() ) );
         }
     }
 }
@@ -409,7 +409,8 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
         }
 
         // Merge the (sorted) scan updates from all the different threads in pairs until only one stream remain,
-        // and direct that stream towards the tree writer (which itself is only single threaded)
+        // and direct that stream towards the tree bulk loader (which itself is only single threaded), which can build
+        // the tree bottom-up since the stream is sorted and the tree is still empty at this point
         try ( var readBuffers = new CompositeBuffer();
               var singleBlockScopedBuffer = allocator.allocate( (int) kibiBytes( 8 ), memoryTracker ) )
         {
@@ -431,14 +432,19 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
             Comparator<KEY> samplingComparator = descriptor.isUnique() ? null : layout::compareValue;
             try ( var merger = new PartMerger<>( populationWorkScheduler, parts, layout, samplingComparator, cancellation, PartMerger.DEFAULT_BATCH_SIZE );
                   var allEntries = merger.startMerge();
-                  var writer = tree.writer( 1, cursorContext ) )
+                  var writer = tree.bulkLoader( 1, cursorContext ) )
             {
+                HistogramSampler<KEY> histogram = descriptor.isUnique() ? null : new HistogramSampler<>( layout );
                 while ( allEntries.next() && !cancellation.cancelled() )
                 {
                     writeToTree( writer, recordingConflictDetector, allEntries.key() );
+                    if ( histogram != null )
+                    {
+                        histogram.include( allEntries.key() );
+                    }
                     numberOfAppliedScanUpdates.incrementAndGet();
                 }
-                return descriptor.isUnique() ? null : allEntries.buildIndexSample();
+                return descriptor.isUnique() ? null : allEntries.buildIndexSample().withHistogram( histogram.build() );
             }
         }
     }
@@ -655,7 +661,8 @@ public abstract class BlockBasedIndexPopulator<KEY extends NativeIndexKey<KEY>>
                 nonUniqueIndexSample.indexSize(),
                 nonUniqueIndexSample.uniqueValues(),
                 nonUniqueIndexSample.sampleSize(),
-                numberOfIndexUpdatesSinceSample.get() );
+                numberOfIndexUpdatesSinceSample.get(),
+                nonUniqueIndexSample.histogram() );
     }
 
     /**
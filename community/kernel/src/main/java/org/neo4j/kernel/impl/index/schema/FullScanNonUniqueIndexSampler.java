@@ -55,6 +55,7 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>>
         highest.initialize( Long.MAX_VALUE );
         highest.initValuesAsHighest();
         KEY prev = layout.newKey();
+        HistogramSampler<KEY> histogram = new HistogramSampler<>( layout );
         try ( Seeker<KEY,NullValue> seek = gbpTree.seek( lowest, highest, cursorContext ) )
         {
             long sampledValues = 0;
@@ -64,6 +65,7 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>>
             if ( seek.next() )
             {
                 prev = layout.copyKey( seek.key(), prev );
+                histogram.include( seek.key() );
                 sampledValues++;
                 uniqueValues++;
 
@@ -76,10 +78,11 @@ class FullScanNonUniqueIndexSampler<KEY extends NativeIndexKey<KEY>>
                         layout.copyKey( seek.key(), prev );
                     }
                     // else this is a duplicate of the previous one
+                    histogram.include( seek.key() );
                     sampledValues++;
                 }
             }
-            return new IndexSample( sampledValues, uniqueValues, sampledValues );
+            return new IndexSample( sampledValues, uniqueValues, sampledValues, 0, histogram.build() );
         }
         catch ( IOException e )
         {
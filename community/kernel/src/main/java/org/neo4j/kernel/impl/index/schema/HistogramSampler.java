@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.index.schema;
+
+import org.neo4j.kernel.api.index.IndexValueHistogram;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Builds an {@link IndexValueHistogram} from the keys of a native index, visited in index order.
+ *
+ * @param <KEY> type of keys in the index.
+ */
+class HistogramSampler<KEY extends NativeIndexKey<KEY>>
+{
+    private final IndexLayout<KEY> layout;
+    private final IndexValueHistogram.Builder builder = IndexValueHistogram.builder();
+    private final KEY prev;
+    private long prevCount;
+
+    HistogramSampler( IndexLayout<KEY> layout )
+    {
+        this.layout = layout;
+        this.prev = layout.newKey();
+    }
+
+    void include( KEY key )
+    {
+        if ( prevCount > 0 && layout.compareValue( prev, key ) == 0 )
+        {
+            prevCount++;
+        }
+        else
+        {
+            addPrev();
+            layout.copyKey( key, prev );
+            prevCount = 1;
+        }
+    }
+
+    IndexValueHistogram build()
+    {
+        addPrev();
+        prevCount = 0;
+        return builder.build();
+    }
+
+    private void addPrev()
+    {
+        if ( prevCount > 0 )
+        {
+            Value[] values = prev.asValues();
+            if ( values.length == 1 )
+            {
+                builder.add( values[0], prevCount );
+            }
+            else
+            {
+                builder.unsupported();
+            }
+        }
+    }
+}
@@ -22,11 +22,15 @@ package org.neo4j.kernel.impl.index.schema;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
 import java.util.function.IntFunction;
 
 import org.neo4j.common.EntityType;
 import org.neo4j.configuration.Config;
 import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.RecoveryCleanupWorkCollector;
 import org.neo4j.index.internal.gbptree.Seeker;
 import org.neo4j.internal.helpers.collection.BoundedIterable;
@@ -48,6 +52,19 @@ public class TokenIndexAccessor extends TokenIndex implements IndexAccessor
 {
     private final EntityType entityType;
 
+    /**
+     * Idle updaters applying changes through {@link GBPTree#parallelWriter(CursorContext) parallel writers}, so that
+     * transactions committing concurrently can update this index concurrently. Updaters are put back here when closed.
+     */
+    private final Queue<TokenIndexUpdater> idleUpdaters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The {@link TokenScanWriteMonitor write log} follows one write session at a time, so when it's enabled
+     * only one updater at a time is handed out.
+     */
+    private final Semaphore writeLogSession = new Semaphore( 1 );
+    private final boolean writeLogEnabled;
+
     public TokenIndexAccessor( DatabaseIndexContext databaseIndexContext, DatabaseLayout directoryStructure, IndexFiles indexFiles, Config config,
             IndexDescriptor descriptor, RecoveryCleanupWorkCollector recoveryCleanupWorkCollector )
     {
@@ -56,20 +73,54 @@ public class TokenIndexAccessor extends TokenIndex implements IndexAccessor
         entityType = descriptor.schema().entityType();
         instantiateTree( recoveryCleanupWorkCollector, new NativeIndexHeaderWriter( ONLINE ) );
         instantiateUpdater( config, directoryStructure, entityType );
+        writeLogEnabled = writeMonitor != TokenIndex.EMPTY;
     }
 
+    /**
+     * Can be called concurrently, the returned updaters are backed by {@link GBPTree#parallelWriter(CursorContext) parallel writers}.
+     * Changes to token ranges are merges of bits, so updaters may apply them in any order as long as concurrent updaters
+     * don't change the same entity, which the locks held by committing transactions take care of.
+     */
     @Override
     public IndexUpdater newUpdater( IndexUpdateMode mode, CursorContext cursorContext )
     {
         assertTreeOpen();
+        if ( writeLogEnabled )
+        {
+            writeLogSession.acquireUninterruptibly();
+        }
+        TokenIndexUpdater updater = idleUpdaters.poll();
+        if ( updater == null )
+        {
+            updater = new TokenIndexUpdater( 1_000, writeMonitor, this::releaseUpdater );
+        }
+        boolean success = false;
         try
         {
-            return singleUpdater.initialize( index.writer( cursorContext ) );
+            updater.initialize( index.parallelWriter( cursorContext ) );
+            success = true;
+            return updater;
         }
         catch ( IOException e )
         {
             throw new UncheckedIOException( e );
         }
+        finally
+        {
+            if ( !success )
+            {
+                releaseUpdater( updater );
+            }
+        }
+    }
+
+    private void releaseUpdater( TokenIndexUpdater updater )
+    {
+        idleUpdaters.offer( updater );
+        if ( writeLogEnabled )
+        {
+            writeLogSession.release();
+        }
     }
 
     @Override
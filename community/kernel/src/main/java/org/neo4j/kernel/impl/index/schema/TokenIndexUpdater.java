@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.index.schema;
 
 import java.util.Arrays;
+import java.util.function.Consumer;
 
 import org.neo4j.index.internal.gbptree.GBPTree;
 import org.neo4j.index.internal.gbptree.ValueMerger;
@@ -68,9 +69,14 @@ class TokenIndexUpdater implements IndexUpdater
 
     private final TokenIndex.WriteMonitor monitor;
 
+    /**
+     * Notified after this updater has been {@link #close() closed}, e.g. to hand it back to a pool of idle updaters.
+     */
+    private final Consumer<TokenIndexUpdater> closeListener;
+
     /**
      * {@link Writer} acquired when acquiring this {@link TokenIndexUpdater},
-     * acquired from {@link GBPTree#writer(CursorContext)}.
+     * acquired from {@link GBPTree#writer(CursorContext)} or {@link GBPTree#parallelWriter(CursorContext)}.
      */
     private Writer<TokenScanKey,TokenScanValue> writer;
 
@@ -119,6 +125,14 @@ class TokenIndexUpdater implements IndexUpdater
 
     TokenIndexUpdater( int batchSize, TokenIndex.WriteMonitor monitor )
     {
+        this( batchSize, monitor, updater ->
+        {
+        } );
+    }
+
+    TokenIndexUpdater( int batchSize, TokenIndex.WriteMonitor monitor, Consumer<TokenIndexUpdater> closeListener )
+    {
+        this.closeListener = closeListener;
         this.pendingUpdates = new LogicalTokenUpdates[batchSize];
         this.addMerger = new AddMerger( monitor );
         this.removeMerger = ( existingKey, newKey, existingValue, newValue ) ->
@@ -305,8 +319,19 @@ class TokenIndexUpdater implements IndexUpdater
         }
         finally
         {
+            boolean wasOpen = !closed;
             closed = true;
-            IOUtils.closeAllUnchecked( writer );
+            try
+            {
+                IOUtils.closeAllUnchecked( writer );
+            }
+            finally
+            {
+                if ( wasOpen )
+                {
+                    closeListener.accept( this );
+                }
+            }
         }
     }
 
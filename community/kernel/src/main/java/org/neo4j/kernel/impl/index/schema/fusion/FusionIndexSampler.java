@@ -27,6 +27,7 @@ import org.neo4j.internal.kernel.api.exceptions.schema.IndexNotFoundKernelExcept
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.kernel.api.index.IndexSample;
 import org.neo4j.kernel.api.index.IndexSampler;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 
 import static org.neo4j.internal.helpers.Exceptions.throwIfInstanceOf;
 import static org.neo4j.internal.helpers.Exceptions.throwIfUnchecked;
@@ -72,13 +73,21 @@ public class FusionIndexSampler implements IndexSampler
         long indexSize = 0;
         long uniqueValues = 0;
         long sampleSize = 0;
+        IndexValueHistogram histogram = IndexValueHistogram.EMPTY;
+        int nonEmptySamples = 0;
         for ( IndexSample sample : samples )
         {
             indexSize += sample.indexSize();
             uniqueValues += sample.uniqueValues();
             sampleSize += sample.sampleSize();
+            if ( sample.sampleSize() > 0 )
+            {
+                histogram = sample.histogram();
+                nonEmptySamples++;
+            }
         }
-        return new IndexSample( indexSize, uniqueValues, sampleSize );
+        // Histograms of different parts cover different types of values and can't be combined
+        return new IndexSample( indexSize, uniqueValues, sampleSize, 0, nonEmptySamples == 1 ? histogram : IndexValueHistogram.EMPTY );
     }
 
     @Override
@@ -27,6 +27,7 @@ import org.neo4j.internal.kernel.api.RelTypeSupplier;
 import org.neo4j.internal.kernel.api.TokenSet;
 import org.neo4j.internal.kernel.api.security.AccessMode;
 import org.neo4j.kernel.api.AssertOpen;
+import org.neo4j.storageengine.api.PropertyPredicate;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.Reference;
 import org.neo4j.storageengine.api.StorageProperty;
@@ -279,6 +280,20 @@ public class DefaultPropertyCursor extends TraceableCursor<DefaultPropertyCursor
         return value;
     }
 
+    @Override
+    public boolean propertyValueMatches( PropertyPredicate predicate )
+    {
+        if ( txStateValue != null )
+        {
+            return predicate.test( txStateValue.value() );
+        }
+
+        boolean matches = storeCursor.propertyValueMatches( predicate );
+
+        assertOpen.assertOpen();
+        return matches;
+    }
+
     @Override
     public boolean isClosed()
     {
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+/**
+ * Computes the order in which a batch of entity references should be visited for page locality. Records are of fixed size and
+ * laid out by id, so visiting references in ascending order visits the store pages sequentially and each page only once.
+ */
+final class PageOrder
+{
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private PageOrder()
+    {
+    }
+
+    /**
+     * @param references entity references, in any order.
+     * @return positions into {@code references} such that the references they point to are in ascending order.
+     * Positions of equal references keep their relative order.
+     */
+    static int[] visitOrder( long[] references )
+    {
+        int[] order = new int[references.length];
+        boolean sorted = true;
+        for ( int i = 0; i < order.length; i++ )
+        {
+            order[i] = i;
+            sorted &= i == 0 || references[i - 1] <= references[i];
+        }
+        if ( !sorted )
+        {
+            mergeSort( references, order, new int[order.length], 0, order.length );
+        }
+        return order;
+    }
+
+    private static void mergeSort( long[] references, int[] order, int[] scratch, int from, int to )
+    {
+        if ( to - from <= INSERTION_SORT_THRESHOLD )
+        {
+            insertionSort( references, order, from, to );
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort( references, order, scratch, from, mid );
+        mergeSort( references, order, scratch, mid, to );
+        if ( references[order[mid - 1]] <= references[order[mid]] )
+        {
+            return;
+        }
+        System.arraycopy( order, from, scratch, from, to - from );
+        int left = from;
+        int right = mid;
+        for ( int i = from; i < to; i++ )
+        {
+            if ( right >= to || (left < mid && references[scratch[left]] <= references[scratch[right]]) )
+            {
+                order[i] = scratch[left++];
+            }
+            else
+            {
+                order[i] = scratch[right++];
+            }
+        }
+    }
+
+    private static void insertionSort( long[] references, int[] order, int from, int to )
+    {
+        for ( int i = from + 1; i < to; i++ )
+        {
+            int position = order[i];
+            long reference = references[position];
+            int j = i - 1;
+            while ( j >= from && references[order[j]] > reference )
+            {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = position;
+        }
+    }
+}
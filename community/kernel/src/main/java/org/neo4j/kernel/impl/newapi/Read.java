@@ -68,6 +68,8 @@ import org.neo4j.storageengine.api.RelationshipSelection;
 import org.neo4j.storageengine.api.StorageLocks;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.kernel.api.IndexQueryConstraints.unconstrained;
@@ -434,6 +436,73 @@ abstract class Read implements TxStateHolder,
         ((DefaultPropertyCursor) cursor).initRelationship( relationshipReference, reference, selection, this, ktx );
     }
 
+    @Override
+    public final void nodesProperties( long[] nodeReferences, int[] propertyKeys, NodeCursor nodeCursor, PropertyCursor propertyCursor,
+            Value[][] values )
+    {
+        ktx.assertOpen();
+        if ( propertyKeys.length == 0 )
+        {
+            return;
+        }
+        PropertySelection selection = PropertySelection.selection( propertyKeys );
+        for ( int position : PageOrder.visitOrder( nodeReferences ) )
+        {
+            clearRow( values, position );
+            ((DefaultNodeCursor) nodeCursor).single( nodeReferences[position], this );
+            if ( nodeCursor.next() )
+            {
+                nodeCursor.properties( propertyCursor, selection );
+                fillRow( propertyKeys, propertyCursor, values, position );
+            }
+        }
+    }
+
+    @Override
+    public final void relationshipsProperties( long[] relationshipReferences, int[] propertyKeys, RelationshipScanCursor relationshipCursor,
+            PropertyCursor propertyCursor, Value[][] values )
+    {
+        ktx.assertOpen();
+        if ( propertyKeys.length == 0 )
+        {
+            return;
+        }
+        PropertySelection selection = PropertySelection.selection( propertyKeys );
+        for ( int position : PageOrder.visitOrder( relationshipReferences ) )
+        {
+            clearRow( values, position );
+            ((DefaultRelationshipScanCursor) relationshipCursor).single( relationshipReferences[position], this );
+            if ( relationshipCursor.next() )
+            {
+                relationshipCursor.properties( propertyCursor, selection );
+                fillRow( propertyKeys, propertyCursor, values, position );
+            }
+        }
+    }
+
+    private static void clearRow( Value[][] values, int position )
+    {
+        for ( Value[] column : values )
+        {
+            column[position] = Values.NO_VALUE;
+        }
+    }
+
+    private static void fillRow( int[] propertyKeys, PropertyCursor propertyCursor, Value[][] values, int position )
+    {
+        while ( propertyCursor.next() )
+        {
+            int key = propertyCursor.propertyKey();
+            for ( int k = 0; k < propertyKeys.length; k++ )
+            {
+                if ( propertyKeys[k] == key )
+                {
+                    values[k][position] = propertyCursor.propertyValue();
+                }
+            }
+        }
+    }
+
     private void validateConstraints( IndexQueryConstraints constraints, DefaultIndexReadSession indexSession, PropertyIndexQuery[] query )
     {
         if ( constraints.needsValues() && !supportsValueCapability( indexSession.reference(), query ) )
@@ -63,6 +63,11 @@ public class DistinctSet<T extends Measurable> extends DefaultCloseListenable
         return wasAdded;
     }
 
+    public boolean contains( T element )
+    {
+        return distinctSet.contains( element );
+    }
+
     public void each( Procedure<? super T> procedure )
     {
         distinctSet.each( procedure );
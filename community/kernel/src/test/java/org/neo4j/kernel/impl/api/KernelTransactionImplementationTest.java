@@ -501,6 +501,28 @@ class KernelTransactionImplementationTest extends KernelTransactionTestBase
         assertEquals( reuseCount + 1, transaction.getReuseCount() );
     }
 
+    @ParameterizedTest
+    @MethodSource( "parameters" )
+    void shouldUseNewCursorContextAndCleanTracerOnReuse( String name, boolean isWriteTx, Consumer<KernelTransaction> transactionInitializer )
+            throws Exception
+    {
+        // GIVEN
+        KernelTransactionImplementation transaction = newTransaction( loginContext( isWriteTx ) );
+        CursorContext cursorContext = transaction.cursorContext();
+        cursorContext.getCursorTracer().beginPin( false, 1, mock( PageSwapper.class, RETURNS_MOCKS ) ).done();
+
+        // WHEN
+        transaction.close();
+        transaction.initialize( 1, BASE_TX_COMMIT_TIMESTAMP, KernelTransaction.Type.IMPLICIT,
+                loginContext( isWriteTx ).authorize( LoginContext.IdLookup.EMPTY, GraphDatabaseSettings.DEFAULT_DATABASE_NAME, CommunitySecurityLog.NULL_LOG ),
+                0L, 1L, EMBEDDED_CONNECTION );
+
+        // THEN
+        assertNotSame( cursorContext, transaction.cursorContext() );
+        assertSame( cursorContext.getCursorTracer(), transaction.cursorContext().getCursorTracer() );
+        assertEquals( 0, transaction.cursorContext().getCursorTracer().pins() );
+    }
+
     @Test
     void markForTerminationNotInitializedTransaction()
     {
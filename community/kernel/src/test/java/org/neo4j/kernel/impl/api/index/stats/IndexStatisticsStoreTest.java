@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerArray;
 
@@ -38,6 +39,7 @@ import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.kernel.api.exceptions.WriteOnReadOnlyAccessDbException;
 import org.neo4j.kernel.api.index.IndexSample;
+import org.neo4j.kernel.api.index.IndexValueHistogram;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.test.Race;
 import org.neo4j.test.RandomSupport;
@@ -45,6 +47,7 @@ import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
 import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.values.storable.Values;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -91,7 +94,7 @@ class IndexStatisticsStoreTest
     private IndexStatisticsStore openStore( PageCacheTracer pageCacheTracer, String fileName )
     {
         var statisticsStore =
-                new IndexStatisticsStore( pageCache, testDirectory.file( fileName ), immediate(), writable(), DEFAULT_DATABASE_NAME, pageCacheTracer );
+                new IndexStatisticsStore( pageCache, fs, testDirectory.file( fileName ), immediate(), writable(), DEFAULT_DATABASE_NAME, pageCacheTracer );
         return lifeSupport.add( statisticsStore );
     }
 
@@ -205,6 +208,167 @@ class IndexStatisticsStoreTest
         assertEquals( sample2, store.indexSample( indexId2 ) );
     }
 
+    @Test
+    void shouldStoreHistogramOnCheckpoint() throws IOException
+    {
+        // given
+        long indexId = 1;
+        IndexSample sample = sampleWithHistogram();
+        store.replaceStats( indexId, sample );
+
+        // when
+        restartStore();
+
+        // then
+        assertEquals( sample, store.indexSample( indexId ) );
+        assertThat( store.indexSample( indexId ).histogram().isEmpty() ).isFalse();
+    }
+
+    @Test
+    void shouldOnlyCreateHistogramFileOnceThereIsAHistogramToStore() throws IOException
+    {
+        // given
+        store.replaceStats( 1, new IndexSample( 500, 100, 200, 25 ) );
+
+        // when
+        store.checkpoint( CursorContext.NULL );
+
+        // then
+        assertThat( fs.fileExists( histogramFile() ) ).isFalse();
+        assertThat( store.storeFiles() ).containsExactly( testDirectory.file( "stats" ) );
+
+        // and when
+        store.replaceStats( 2, sampleWithHistogram() );
+        store.checkpoint( CursorContext.NULL );
+
+        // then
+        assertThat( fs.fileExists( histogramFile() ) ).isTrue();
+        assertThat( store.storeFiles() ).containsExactly( testDirectory.file( "stats" ), histogramFile() );
+    }
+
+    @Test
+    void shouldReplaceHistogramFileOfAnotherFormat() throws IOException
+    {
+        // given
+        long indexId = 1;
+        IndexSample sample = sampleWithHistogram();
+        writeHistogramFileOfAnotherFormat( indexId, sample );
+
+        // when
+        lifeSupport = new LifeSupport();
+        store = openStore( pageCacheTracer, "stats" );
+        lifeSupport.start();
+
+        // then the statistics are there, but not the histogram which couldn't be read
+        assertEquals( withoutHistogram( sample ), store.indexSample( indexId ) );
+        assertThat( fs.fileExists( histogramFile() ) ).isFalse();
+
+        // and when sampled again
+        store.replaceStats( indexId, sample );
+        restartStore();
+
+        // then
+        assertEquals( sample, store.indexSample( indexId ) );
+    }
+
+    @Test
+    void shouldStartReadOnlyWithoutHistogramsIfHistogramFileHasAnotherFormat() throws IOException
+    {
+        // given
+        long indexId = 1;
+        IndexSample sample = sampleWithHistogram();
+        writeHistogramFileOfAnotherFormat( indexId, sample );
+
+        // when
+        IndexStatisticsStore readOnlyStore = openReadOnlyStore();
+
+        // then
+        assertEquals( withoutHistogram( sample ), readOnlyStore.indexSample( indexId ) );
+        assertThat( fs.fileExists( histogramFile() ) ).isTrue();
+        assertThat( readOnlyStore.storeFiles() ).containsExactly( testDirectory.file( "stats" ) );
+    }
+
+    @Test
+    void shouldStartReadOnlyWithoutHistogramFile() throws IOException
+    {
+        // given statistics without histograms, e.g. written by a version which doesn't have them
+        long indexId = 1;
+        IndexSample sample = new IndexSample( 500, 100, 200, 25 );
+        store.replaceStats( indexId, sample );
+        store.checkpoint( CursorContext.NULL );
+        lifeSupport.shutdown();
+
+        // when
+        IndexStatisticsStore readOnlyStore = openReadOnlyStore();
+
+        // then
+        assertEquals( sample, readOnlyStore.indexSample( indexId ) );
+        assertThat( fs.fileExists( histogramFile() ) ).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreHistogramOfAnotherSample() throws IOException
+    {
+        // given a histogram stored along with a sample
+        long indexId = 1;
+        store.replaceStats( indexId, sampleWithHistogram() );
+        store.checkpoint( CursorContext.NULL );
+        Path oldHistograms = testDirectory.file( "old-histograms" );
+        fs.copyFile( histogramFile(), oldHistograms );
+
+        // when the index is sampled again and the old histogram is back, like after downgrading and upgrading again
+        IndexSample newSample = new IndexSample( 2_000, 50, 2_000, 0 );
+        store.replaceStats( indexId, newSample );
+        store.checkpoint( CursorContext.NULL );
+        lifeSupport.shutdown();
+        fs.copyFile( oldHistograms, histogramFile() );
+        lifeSupport = new LifeSupport();
+        store = openStore( pageCacheTracer, "stats" );
+        lifeSupport.start();
+
+        // then
+        assertEquals( newSample, store.indexSample( indexId ) );
+    }
+
+    private void writeHistogramFileOfAnotherFormat( long indexId, IndexSample sample ) throws IOException
+    {
+        store.replaceStats( indexId, sample );
+        store.checkpoint( CursorContext.NULL );
+        lifeSupport.shutdown();
+        // A statistics file is a tree of another layout than that of the histogram file
+        fs.copyFile( testDirectory.file( "stats" ), histogramFile() );
+    }
+
+    private IndexStatisticsStore openReadOnlyStore()
+    {
+        lifeSupport = new LifeSupport();
+        IndexStatisticsStore readOnlyStore = lifeSupport.add(
+                new IndexStatisticsStore( pageCache, fs, testDirectory.file( "stats" ), immediate(), readOnly(), DEFAULT_DATABASE_NAME,
+                        PageCacheTracer.NULL ) );
+        lifeSupport.start();
+        return readOnlyStore;
+    }
+
+    private Path histogramFile()
+    {
+        return testDirectory.file( "stats.histograms" );
+    }
+
+    private static IndexSample sampleWithHistogram()
+    {
+        IndexValueHistogram.Builder builder = IndexValueHistogram.builder();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            builder.add( Values.stringValue( "value" + (10_000 + i) ), i % 10 == 0 ? 20 : 1 );
+        }
+        return new IndexSample( 1_000, 1_000, 1_000, 0, builder.build() );
+    }
+
+    private static IndexSample withoutHistogram( IndexSample sample )
+    {
+        return new IndexSample( sample.indexSize(), sample.uniqueValues(), sample.sampleSize(), sample.updates() );
+    }
+
     private void restartStore() throws IOException
     {
         store.checkpoint( CursorContext.NULL );
@@ -284,7 +448,7 @@ class IndexStatisticsStoreTest
     void shouldNotStartWithoutFileIfReadOnly()
     {
         final IndexStatisticsStore indexStatisticsStore =
-                new IndexStatisticsStore( pageCache, testDirectory.file( "non-existing" ), immediate(), readOnly(), DEFAULT_DATABASE_NAME,
+                new IndexStatisticsStore( pageCache, fs, testDirectory.file( "non-existing" ), immediate(), readOnly(), DEFAULT_DATABASE_NAME,
                         PageCacheTracer.NULL );
         final Exception e = assertThrows( Exception.class, indexStatisticsStore::init );
         assertTrue( Exceptions.contains( e, t -> t instanceof WriteOnReadOnlyAccessDbException ) );
@@ -74,16 +74,6 @@ abstract class IndexAccessorTests<KEY,VALUE,LAYOUT extends Layout<KEY,VALUE>> ex
         // ... should be fine
     }
 
-    @Test
-    void requestForSecondUpdaterMustThrow() throws Exception
-    {
-        // given
-        try ( IndexUpdater ignored = accessor.newUpdater( ONLINE, NULL ) )
-        {
-            assertThrows( IllegalStateException.class, () -> accessor.newUpdater( ONLINE, NULL ) );
-        }
-    }
-
     @Test
     void dropShouldDeleteAndCloseIndex()
     {
@@ -115,6 +115,16 @@ abstract class NativeIndexAccessorTests<KEY extends NativeIndexKey<KEY>>
         assertThrows( IllegalStateException.class, () -> updater.process( simpleUpdate() ) );
     }
 
+    @Test
+    void requestForSecondUpdaterMustThrow() throws Exception
+    {
+        // given
+        try ( IndexUpdater ignored = accessor.newUpdater( ONLINE, NULL ) )
+        {
+            assertThrows( IllegalStateException.class, () -> accessor.newUpdater( ONLINE, NULL ) );
+        }
+    }
+
     @Test
     void shouldIndexAdd() throws Exception
     {
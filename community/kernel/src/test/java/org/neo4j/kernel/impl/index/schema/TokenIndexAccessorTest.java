@@ -39,6 +39,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.LongFunction;
 import java.util.stream.Stream;
 
 import org.neo4j.common.EntityType;
@@ -63,6 +64,7 @@ import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.TokenIndexReader;
 import org.neo4j.storageengine.api.IndexEntryUpdate;
 import org.neo4j.storageengine.api.TokenIndexEntryUpdate;
+import org.neo4j.test.Race;
 import org.neo4j.test.utils.TestDirectory;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -81,6 +83,7 @@ import static org.neo4j.kernel.impl.index.schema.TokenIndexUtility.TOKENS;
 import static org.neo4j.kernel.impl.index.schema.TokenIndexUtility.generateRandomTokens;
 import static org.neo4j.kernel.impl.index.schema.TokenIndexUtility.generateSomeRandomUpdates;
 import static org.neo4j.kernel.impl.index.schema.TokenIndexUtility.verifyUpdates;
+import static org.neo4j.test.Race.throwing;
 
 public class TokenIndexAccessorTest extends IndexAccessorTests<TokenScanKey,TokenScanValue,TokenScanLayout>
 {
@@ -121,7 +124,23 @@ public class TokenIndexAccessorTest extends IndexAccessorTests<TokenScanKey,Toke
     }
 
     @Test
-    void shouldAddWithUpdater() throws IndexEntryConflictException, IOException
+    void shouldAllowConcurrentUpdaters() throws Exception
+    {
+        // given
+        try ( IndexUpdater first = accessor.newUpdater( ONLINE, NULL );
+              IndexUpdater second = accessor.newUpdater( ONLINE, NULL ) )
+        {
+            // when
+            first.process( IndexEntryUpdate.change( 0, indexDescriptor, EMPTY_LONG_ARRAY, new long[]{1} ) );
+            second.process( IndexEntryUpdate.change( 1, indexDescriptor, EMPTY_LONG_ARRAY, new long[]{1} ) );
+        }
+
+        // then
+        assertReaderFindsExpected( 1, LongLists.immutable.of( 0, 1 ) );
+    }
+
+    @Test
+    void shouldAddWithUpdater()throws IndexEntryConflictException, IOException
     {
         // Give
         MutableLongObjectMap<long[]> entityTokens = LongObjectMaps.mutable.empty();
@@ -171,6 +190,48 @@ public class TokenIndexAccessorTest extends IndexAccessorTests<TokenScanKey,Toke
         verifyUpdates( entityTokens, layout, this::getTree );
     }
 
+    @Test
+    void concurrentUpdatersShouldAllHaveTheirChangesApplied() throws Throwable
+    {
+        // given
+        int threads = 4;
+        int entitiesPerThread = 5_000;
+        int entitiesPerTransaction = 10;
+        Race race = new Race();
+        race.addContestants( threads, thread -> throwing( () ->
+        {
+            // Each thread changes every n:th entity, like the locks of committing transactions would have it,
+            // so that concurrent updaters change the same token ranges
+            for ( int i = 0; i < entitiesPerThread; i += entitiesPerTransaction )
+            {
+                applyInTransaction( i, entitiesPerTransaction, threads, thread,
+                        entityId -> IndexEntryUpdate.change( entityId, indexDescriptor, EMPTY_LONG_ARRAY, new long[]{1, 2 + entityId % 3} ) );
+            }
+            for ( int i = 0; i < entitiesPerThread; i += entitiesPerTransaction )
+            {
+                applyInTransaction( i, entitiesPerTransaction, threads, thread, entityId -> entityId % 2 == 0
+                        ? IndexEntryUpdate.change( entityId, indexDescriptor, new long[]{1, 2 + entityId % 3}, new long[]{2 + entityId % 3} )
+                        : null );
+            }
+        } ), 1 );
+        race.addContestant( throwing( () -> accessor.force( NULL ) ), 20 );
+
+        // when
+        race.go();
+
+        // then
+        MutableLongObjectMap<MutableLongList> entitiesPerToken = LongObjectMaps.mutable.empty();
+        for ( long entityId = 0; entityId < (long) threads * entitiesPerThread; entityId++ )
+        {
+            if ( entityId % 2 != 0 )
+            {
+                entitiesPerToken.getIfAbsentPut( 1, LongLists.mutable::empty ).add( entityId );
+            }
+            entitiesPerToken.getIfAbsentPut( 2 + entityId % 3, LongLists.mutable::empty ).add( entityId );
+        }
+        verifyReaderSeesAllUpdates( entitiesPerToken );
+    }
+
     @Test
     void newValueReaderShouldThrow()
     {
@@ -449,6 +510,22 @@ public class TokenIndexAccessorTest extends IndexAccessorTests<TokenScanKey,Toke
         return entitiesPerToken;
     }
 
+    private void applyInTransaction( int from, int count, int threads, int thread, LongFunction<IndexEntryUpdate<?>> updateForEntity )
+            throws IndexEntryConflictException
+    {
+        try ( IndexUpdater updater = accessor.newUpdater( ONLINE, NULL ) )
+        {
+            for ( int i = from; i < from + count; i++ )
+            {
+                IndexEntryUpdate<?> update = updateForEntity.apply( (long) i * threads + thread );
+                if ( update != null )
+                {
+                    updater.process( update );
+                }
+            }
+        }
+    }
+
     private void addToIndex( int tokenId, long... entityIds ) throws IndexEntryConflictException
     {
         try ( IndexUpdater updater = accessor.newUpdater( ONLINE, NULL ) )
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.newapi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith( RandomExtension.class )
+class PageOrderTest
+{
+    @Inject
+    private RandomSupport random;
+
+    @Test
+    void shouldHandleEmptyBatch()
+    {
+        assertThat( PageOrder.visitOrder( new long[0] ) ).isEmpty();
+    }
+
+    @Test
+    void shouldKeepAlreadySortedBatch()
+    {
+        assertThat( PageOrder.visitOrder( new long[]{1, 3, 3, 7} ) ).containsExactly( 0, 1, 2, 3 );
+    }
+
+    @Test
+    void shouldOrderSmallBatch()
+    {
+        assertThat( PageOrder.visitOrder( new long[]{7, 1, 5, 3} ) ).containsExactly( 1, 3, 2, 0 );
+    }
+
+    @Test
+    void shouldKeepRelativeOrderOfDuplicates()
+    {
+        assertThat( PageOrder.visitOrder( new long[]{5, 2, 5, 2} ) ).containsExactly( 1, 3, 0, 2 );
+    }
+
+    @Test
+    void shouldOrderLargeRandomBatch()
+    {
+        long[] references = new long[random.nextInt( 100, 10_000 )];
+        for ( int i = 0; i < references.length; i++ )
+        {
+            references[i] = random.nextLong( 1_000 );
+        }
+
+        int[] order = PageOrder.visitOrder( references );
+
+        assertThat( order ).hasSize( references.length );
+        boolean[] seen = new boolean[references.length];
+        for ( int i = 0; i < order.length; i++ )
+        {
+            assertThat( seen[order[i]] ).isFalse();
+            seen[order[i]] = true;
+            if ( i > 0 )
+            {
+                long previous = references[order[i - 1]];
+                assertThat( previous ).isLessThanOrEqualTo( references[order[i]] );
+                if ( previous == references[order[i]] )
+                {
+                    assertThat( order[i - 1] ).isLessThan( order[i] );
+                }
+            }
+        }
+    }
+}
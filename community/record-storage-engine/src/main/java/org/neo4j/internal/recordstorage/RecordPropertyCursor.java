@@ -41,6 +41,7 @@ import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoadOverride;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.storageengine.api.LongReference;
+import org.neo4j.storageengine.api.PropertyPredicate;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.storageengine.api.Reference;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
@@ -292,6 +293,37 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
         }
     }
 
+    /**
+     * Numbers are compared as they are decoded from the property blocks, and other values are rejected by their type,
+     * so neither needs a value, nor a read of the dynamic records of strings and arrays.
+     */
+    @Override
+    public boolean propertyValueMatches( PropertyPredicate predicate )
+    {
+        PropertyType type = type();
+        if ( type == null )
+        {
+            return false;
+        }
+        switch ( type )
+        {
+        case BYTE:
+            return predicate.testLong( PropertyBlock.fetchByte( currentBlock() ) );
+        case SHORT:
+            return predicate.testLong( PropertyBlock.fetchShort( currentBlock() ) );
+        case INT:
+            return predicate.testLong( PropertyBlock.fetchInt( currentBlock() ) );
+        case LONG:
+            return predicate.testLong( fetchLong() );
+        case FLOAT:
+            return predicate.testDouble( Float.intBitsToFloat( PropertyBlock.fetchInt( currentBlock() ) ) );
+        case DOUBLE:
+            return predicate.testDouble( Double.longBitsToDouble( getBlocks()[block + 1] ) );
+        default:
+            return false;
+        }
+    }
+
     private Value readValue()
     {
         PropertyType type = type();
@@ -396,14 +428,19 @@ public class RecordPropertyCursor extends PropertyRecord implements StoragePrope
     }
 
     private LongValue readLong()
+    {
+        return Values.longValue( fetchLong() );
+    }
+
+    private long fetchLong()
     {
         if ( PropertyBlock.valueIsInlined( currentBlock() ) )
         {
-            return Values.longValue( PropertyBlock.fetchLong( currentBlock() ) >>> 1 );
+            return PropertyBlock.fetchLong( currentBlock() ) >>> 1;
         }
         else
         {
-            return Values.longValue( getBlocks()[block + 1] );
+            return getBlocks()[block + 1];
         }
     }
 
@@ -329,17 +329,19 @@ public class DynamicArrayStore extends AbstractDynamicStore
         {
             ByteBuffer headerBuffer = ByteBuffer.wrap( header, 1/*skip the type*/, header.length - 1 );
             int arrayLength = headerBuffer.getInt();
-            String[] result = new String[arrayLength];
+            int[] offsets = new int[arrayLength];
+            int[] lengths = new int[arrayLength];
 
             ByteBuffer dataBuffer = ByteBuffer.wrap( bArray );
             for ( int i = 0; i < arrayLength; i++ )
             {
                 int byteLength = dataBuffer.getInt();
-                byte[] stringByteArray = new byte[byteLength];
-                dataBuffer.get( stringByteArray );
-                result[i] = PropertyStore.decodeString( stringByteArray );
+                offsets[i] = dataBuffer.position();
+                lengths[i] = byteLength;
+                dataBuffer.position( dataBuffer.position() + byteLength );
             }
-            return Values.stringArray( result );
+            // Elements stay UTF-8 encoded until someone asks for them as strings
+            return Values.utf8StringArray( bArray, offsets, lengths );
         }
         else if ( typeId == PropertyType.GEOMETRY.intValue() )
         {
@@ -758,15 +758,22 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
             if ( typeId == PropertyType.STRING.intValue() )
             {
                 int arrayLength = buffer.getInt();
-                String[] result = new String[arrayLength];
+                // The buffer is reused by the cursor, so take one copy of the payload and keep the
+                // elements as UTF-8 in it rather than decoding each of them into a String up front
+                byte[] data = new byte[buffer.remaining()];
+                buffer.get( data );
+                ByteBuffer dataBuffer = ByteBuffer.wrap( data );
+                int[] offsets = new int[arrayLength];
+                int[] lengths = new int[arrayLength];
 
                 for ( int i = 0; i < arrayLength; i++ )
                 {
-                    int byteLength = buffer.getInt();
-                    result[i] = UTF8.decode( buffer.array(), buffer.position(), byteLength );
-                    buffer.position( buffer.position() + byteLength );
+                    int byteLength = dataBuffer.getInt();
+                    offsets[i] = dataBuffer.position();
+                    lengths[i] = byteLength;
+                    dataBuffer.position( dataBuffer.position() + byteLength );
                 }
-                return Values.stringArray( result );
+                return Values.utf8StringArray( data, offsets, lengths );
             }
             else if ( typeId == PropertyType.GEOMETRY.intValue() )
             {
@@ -21,11 +21,15 @@ package org.neo4j.internal.recordstorage;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.neo4j.common.Subject;
 import org.neo4j.internal.recordstorage.Command.NodeCommand;
 import org.neo4j.internal.schema.IndexDescriptor;
 import org.neo4j.internal.schema.IndexPrototype;
 import org.neo4j.internal.schema.IndexProviderDescriptor;
+import org.neo4j.internal.schema.IndexType;
 import org.neo4j.internal.schema.SchemaCache;
 import org.neo4j.internal.schema.SchemaDescriptor;
 import org.neo4j.internal.schema.SchemaRule;
@@ -48,6 +52,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.neo4j.common.EntityType.NODE;
+import static org.neo4j.internal.schema.SchemaDescriptors.forAnyEntityTokens;
 import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
 import static org.neo4j.io.pagecache.context.CursorContext.NULL;
 import static org.neo4j.kernel.impl.store.record.Record.NO_NEXT_PROPERTY;
@@ -82,6 +88,50 @@ class IndexTransactionApplierFactoryTest
         // THEN all assertions happen inside the UpdateListener and #close
     }
 
+    @Test
+    void shouldApplyTokenIndexUpdatesOfBatchBeforeDroppingTokenIndexInSameBatch() throws Exception
+    {
+        // GIVEN
+        IndexDescriptor tokenIndex = IndexPrototype.forSchema( forAnyEntityTokens( NODE ), new IndexProviderDescriptor( "token-lookup", "1.0" ) )
+                .withIndexType( IndexType.LOOKUP ).withName( "labels" ).materialise( 1 );
+        List<String> events = new ArrayList<>();
+        IndexUpdateListener indexUpdateListener = new IndexUpdateListener.Adapter()
+        {
+            @Override
+            public void applyUpdates( Iterable<IndexEntryUpdate<IndexDescriptor>> updates, CursorContext cursorContext )
+            {
+                updates.forEach( update -> events.add( "update " + update.indexKey().getName() + " " + update.getEntityId() ) );
+            }
+
+            @Override
+            public void dropIndex( IndexDescriptor index )
+            {
+                events.add( "drop " + index.getName() );
+            }
+        };
+        IndexTransactionApplierFactory applier = new IndexTransactionApplierFactory( indexUpdateListener );
+        SchemaCache schemaCache = mock( SchemaCache.class );
+        when( schemaCache.indexForSchemaAndType( any(), any() ) ).thenReturn( tokenIndex );
+        try ( var batchContext = new BatchContextImpl( indexUpdateListener, new IndexUpdatesWorkSync( indexUpdateListener ),
+                mock( NodeStore.class ), mock( PropertyStore.class ), mock( RecordStorageEngine.class ), schemaCache, NULL, INSTANCE,
+                mock( IdUpdateListener.class ), StoreCursors.NULL ) )
+        {
+            // WHEN a transaction changing labels is followed by one dropping the token index, in the same batch
+            try ( TransactionApplier txApplier = applier.startTx( new GroupOfCommands( StoreCursors.NULL ), batchContext ) )
+            {
+                txApplier.visitNodeCommand( node( 10 ) );
+            }
+            try ( TransactionApplier txApplier = applier.startTx( new GroupOfCommands( StoreCursors.NULL ), batchContext ) )
+            {
+                txApplier.visitSchemaRuleCommand(
+                        new Command.SchemaRuleCommand( asSchemaRecord( tokenIndex, true ), asSchemaRecord( tokenIndex, false ), tokenIndex ) );
+            }
+
+            // THEN the token index update has been applied by the dropping thread before the drop
+            assertEquals( List.of( "update labels 10", "drop labels" ), events );
+        }
+    }
+
     @Test
     void shouldRegisterIndexesToActivateIntoTheActivator() throws Exception
     {
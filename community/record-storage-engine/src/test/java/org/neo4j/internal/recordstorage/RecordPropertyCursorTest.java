@@ -51,13 +51,16 @@ import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.logging.NullLogProvider;
+import org.neo4j.storageengine.api.PropertyPredicate;
 import org.neo4j.storageengine.api.PropertySelection;
 import org.neo4j.test.RandomSupport;
 import org.neo4j.test.extension.EphemeralNeo4jLayoutExtension;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.RandomExtension;
 import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.values.storable.NumberValue;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -264,6 +267,29 @@ public class RecordPropertyCursorTest
         assertThat( valueMapping.isEmpty() ).isTrue();
     }
 
+    @Test
+    void shouldMatchPropertyPredicatesLikeMaterializedValues()
+    {
+        // given
+        Value[] values = createValues( 10, 20 );
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, values );
+        NumberValue operand = random.nextBoolean() ? Values.longValue( random.nextInt( -100, 100 ) ) : Values.doubleValue( random.nextDouble() );
+
+        // when
+        RecordPropertyCursor cursor = createCursor();
+        cursor.initNodeProperties( longReference( firstPropertyId ), ALL_PROPERTIES, owner.getId() );
+        while ( cursor.next() )
+        {
+            for ( PropertyPredicate.Comparison comparison : PropertyPredicate.Comparison.values() )
+            {
+                PropertyPredicate predicate = PropertyPredicate.compare( cursor.propertyKey(), comparison, operand );
+
+                // then
+                assertEquals( predicate.test( cursor.propertyValue() ), cursor.propertyValueMatches( predicate ) );
+            }
+        }
+    }
+
     protected RecordPropertyCursor createCursor()
     {
         return new RecordPropertyCursor( neoStores.getPropertyStore(), NULL, INSTANCE );
@@ -54,6 +54,7 @@ public interface IndexUpdateListener
 
     /**
      * Applies indexing updates from changes in underlying storage.
+     * Updates for token indexes may be applied by multiple threads concurrently, updates for other indexes come from one thread at a time.
      * @param updates stream of updates to apply.
      * @param cursorContext underlying page cursor context
      */
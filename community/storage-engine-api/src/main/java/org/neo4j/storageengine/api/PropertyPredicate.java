@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+import org.neo4j.values.storable.FloatingPointValue;
+import org.neo4j.values.storable.IntegralValue;
+import org.neo4j.values.storable.NumberValue;
+import org.neo4j.values.storable.NumberValues;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Compares the value of a property against a number. Storage engines can evaluate it on the stored representation of
+ * a property value, without materializing the value, see {@link StoragePropertyCursor#propertyValueMatches(PropertyPredicate)}.
+ * <p>
+ * Values that are not numbers never match, and neither does NaN, which means that a predicate only matches the values
+ * for which the corresponding Cypher comparison is {@code true}.
+ */
+public final class PropertyPredicate
+{
+    public enum Comparison
+    {
+        EQUAL
+                {
+                    @Override
+                    boolean accepts( int compared )
+                    {
+                        return compared == 0;
+                    }
+                },
+        LESS_THAN
+                {
+                    @Override
+                    boolean accepts( int compared )
+                    {
+                        return compared < 0;
+                    }
+                },
+        LESS_THAN_OR_EQUAL
+                {
+                    @Override
+                    boolean accepts( int compared )
+                    {
+                        return compared <= 0;
+                    }
+                },
+        GREATER_THAN
+                {
+                    @Override
+                    boolean accepts( int compared )
+                    {
+                        return compared > 0;
+                    }
+                },
+        GREATER_THAN_OR_EQUAL
+                {
+                    @Override
+                    boolean accepts( int compared )
+                    {
+                        return compared >= 0;
+                    }
+                };
+
+        /**
+         * @param compared the result of comparing a property value with the operand.
+         * @return whether that result satisfies this comparison.
+         */
+        abstract boolean accepts( int compared );
+    }
+
+    private final int propertyKey;
+    private final Comparison comparison;
+    private final NumberValue operand;
+    private final boolean integralOperand;
+    private final long longOperand;
+    private final double doubleOperand;
+
+    private PropertyPredicate( int propertyKey, Comparison comparison, NumberValue operand )
+    {
+        this.propertyKey = propertyKey;
+        this.comparison = comparison;
+        this.operand = operand;
+        this.integralOperand = operand instanceof IntegralValue;
+        this.longOperand = integralOperand ? operand.longValue() : 0;
+        this.doubleOperand = withoutNegativeZero( operand.doubleValue() );
+    }
+
+    /**
+     * @param propertyKey the property key whose value to compare.
+     * @param comparison how the value must compare to the operand, with the value on the left-hand side.
+     * @param operand the number to compare the value with.
+     * @return a predicate that matches property values for which {@code value <comparison> operand} holds.
+     */
+    public static PropertyPredicate compare( int propertyKey, Comparison comparison, NumberValue operand )
+    {
+        return new PropertyPredicate( propertyKey, comparison, operand );
+    }
+
+    public int propertyKey()
+    {
+        return propertyKey;
+    }
+
+    public Comparison comparison()
+    {
+        return comparison;
+    }
+
+    public NumberValue operand()
+    {
+        return operand;
+    }
+
+    /**
+     * @param value a materialized property value.
+     * @return whether the value matches this predicate.
+     */
+    public boolean test( Value value )
+    {
+        if ( value instanceof IntegralValue )
+        {
+            return testLong( ((IntegralValue) value).longValue() );
+        }
+        if ( value instanceof FloatingPointValue )
+        {
+            return testDouble( ((FloatingPointValue) value).doubleValue() );
+        }
+        return false;
+    }
+
+    /**
+     * @param value an integral property value.
+     * @return whether the value matches this predicate.
+     */
+    public boolean testLong( long value )
+    {
+        if ( integralOperand )
+        {
+            return comparison.accepts( Long.compare( value, longOperand ) );
+        }
+        return !Double.isNaN( doubleOperand ) && comparison.accepts( NumberValues.compareLongAgainstDouble( value, doubleOperand ) );
+    }
+
+    /**
+     * @param value a floating point property value.
+     * @return whether the value matches this predicate.
+     */
+    public boolean testDouble( double value )
+    {
+        if ( Double.isNaN( value ) )
+        {
+            return false;
+        }
+        if ( integralOperand )
+        {
+            return comparison.accepts( NumberValues.compareDoubleAgainstLong( withoutNegativeZero( value ), longOperand ) );
+        }
+        return !Double.isNaN( doubleOperand ) && comparison.accepts( Double.compare( withoutNegativeZero( value ), doubleOperand ) );
+    }
+
+    /**
+     * -0.0 and 0.0 are equal numbers, but {@link Double#compare(double, double)} orders them.
+     */
+    private static double withoutNegativeZero( double value )
+    {
+        return value == 0.0 ? 0.0 : value;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PropertyPredicate[" + propertyKey + " " + comparison + " " + operand + "]";
+    }
+}
@@ -85,6 +85,18 @@ public interface StoragePropertyCursor extends StorageCursor
      */
     Value propertyValue();
 
+    /**
+     * Tests the value of the property this cursor currently is placed at. Implementations can do so on the stored
+     * representation of the value, without materializing it.
+     *
+     * @param predicate the predicate to test the value with.
+     * @return whether the value matches the predicate.
+     */
+    default boolean propertyValueMatches( PropertyPredicate predicate )
+    {
+        return predicate.test( propertyValue() );
+    }
+
     /**
      * Seeks the given property key id and returns its value. This is a one-shot call and to get more properties from this
      * cursor it will have to be initialized again.
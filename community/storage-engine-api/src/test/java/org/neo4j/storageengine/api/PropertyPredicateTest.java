@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.storageengine.api.PropertyPredicate.Comparison.EQUAL;
+import static org.neo4j.storageengine.api.PropertyPredicate.Comparison.GREATER_THAN;
+import static org.neo4j.storageengine.api.PropertyPredicate.Comparison.LESS_THAN_OR_EQUAL;
+import static org.neo4j.storageengine.api.PropertyPredicate.compare;
+import static org.neo4j.values.storable.Values.doubleValue;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class PropertyPredicateTest
+{
+    @Test
+    void shouldCompareIntegralAndFloatingPointNumbers()
+    {
+        assertThat( compare( 0, GREATER_THAN, longValue( 5 ) ).testLong( 6 ) ).isTrue();
+        assertThat( compare( 0, GREATER_THAN, longValue( 5 ) ).testDouble( 5.5 ) ).isTrue();
+        assertThat( compare( 0, GREATER_THAN, doubleValue( 5.5 ) ).testLong( 5 ) ).isFalse();
+        assertThat( compare( 0, LESS_THAN_OR_EQUAL, doubleValue( 5.0 ) ).testLong( 5 ) ).isTrue();
+        assertThat( compare( 0, EQUAL, intValue( 1 ) ).test( doubleValue( 1.0 ) ) ).isTrue();
+        assertThat( compare( 0, EQUAL, doubleValue( 0.0 ) ).testDouble( -0.0 ) ).isTrue();
+    }
+
+    @Test
+    void shouldNeverMatchNaN()
+    {
+        for ( PropertyPredicate.Comparison comparison : PropertyPredicate.Comparison.values() )
+        {
+            assertThat( compare( 0, comparison, doubleValue( Double.NaN ) ).testLong( 1 ) ).isFalse();
+            assertThat( compare( 0, comparison, doubleValue( Double.NaN ) ).testDouble( Double.NaN ) ).isFalse();
+            assertThat( compare( 0, comparison, longValue( 1 ) ).testDouble( Double.NaN ) ).isFalse();
+        }
+    }
+
+    @Test
+    void shouldNeverMatchValuesThatAreNotNumbers()
+    {
+        for ( PropertyPredicate.Comparison comparison : PropertyPredicate.Comparison.values() )
+        {
+            assertThat( compare( 0, comparison, longValue( 1 ) ).test( stringValue( "1" ) ) ).isFalse();
+        }
+    }
+}
@@ -36,12 +36,22 @@ import org.neo4j.util.concurrent.AsyncApply;
 import org.neo4j.util.concurrent.Work;
 import org.neo4j.util.concurrent.WorkSync;
 
+/**
+ * Applies index updates of committing transactions. Updates to token indexes are applied directly by the committing thread,
+ * since those indexes can take updates from multiple threads concurrently, while updates to other indexes are combined
+ * with those of other committing threads and applied by one of them.
+ * <p>
+ * Applying a batch also applies its token index updates before returning, which is what makes it safe to apply a batch before
+ * an index schema change in the same batch of transactions, such as a drop of the token index.
+ */
 public class IndexUpdatesWorkSync
 {
+    private final IndexUpdateListener listener;
     private final WorkSync<IndexUpdateListener,IndexUpdatesWork> workSync;
 
     public IndexUpdatesWorkSync( IndexUpdateListener listener )
     {
+        this.listener = listener;
         this.workSync = new WorkSync<>( listener );
     }
 
@@ -80,16 +90,64 @@ public class IndexUpdatesWorkSync
         public void apply( CursorContext cursorContext ) throws ExecutionException
         {
             addSingleUpdates();
-            if ( !updates.isEmpty() )
+            List<Iterable<IndexEntryUpdate<IndexDescriptor>>> otherUpdates = applyTokenIndexUpdates( cursorContext );
+            if ( !otherUpdates.isEmpty() )
             {
-                workSync.apply( new IndexUpdatesWork( updates, cursorContext ) );
+                workSync.apply( new IndexUpdatesWork( otherUpdates, cursorContext ) );
             }
         }
 
         public AsyncApply applyAsync( CursorContext cursorContext )
         {
             addSingleUpdates();
-            return updates.isEmpty() ? AsyncApply.EMPTY : workSync.applyAsync( new IndexUpdatesWork( updates, cursorContext ) );
+            List<Iterable<IndexEntryUpdate<IndexDescriptor>>> otherUpdates;
+            try
+            {
+                otherUpdates = applyTokenIndexUpdates( cursorContext );
+            }
+            catch ( ExecutionException e )
+            {
+                return () ->
+                {
+                    throw e;
+                };
+            }
+            return otherUpdates.isEmpty() ? AsyncApply.EMPTY : workSync.applyAsync( new IndexUpdatesWork( otherUpdates, cursorContext ) );
+        }
+
+        /**
+         * Applies the token index updates of this batch in the calling thread.
+         *
+         * @return the updates of this batch which are for other indexes.
+         */
+        private List<Iterable<IndexEntryUpdate<IndexDescriptor>>> applyTokenIndexUpdates( CursorContext cursorContext ) throws ExecutionException
+        {
+            List<IndexEntryUpdate<IndexDescriptor>> tokenIndexUpdates = new ArrayList<>();
+            List<IndexEntryUpdate<IndexDescriptor>> otherUpdates = new ArrayList<>();
+            for ( Iterable<IndexEntryUpdate<IndexDescriptor>> indexUpdates : updates )
+            {
+                for ( IndexEntryUpdate<IndexDescriptor> update : indexUpdates )
+                {
+                    (update.indexKey().isTokenIndex() ? tokenIndexUpdates : otherUpdates).add( update );
+                }
+            }
+            if ( !tokenIndexUpdates.isEmpty() )
+            {
+                try
+                {
+                    listener.applyUpdates( tokenIndexUpdates, cursorContext );
+                }
+                catch ( IOException | KernelException | RuntimeException e )
+                {
+                    throw new ExecutionException( e );
+                }
+            }
+            List<Iterable<IndexEntryUpdate<IndexDescriptor>>> remainingUpdates = new ArrayList<>();
+            if ( !otherUpdates.isEmpty() )
+            {
+                remainingUpdates.add( otherUpdates );
+            }
+            return remainingUpdates;
         }
     }
 
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.storageengine.api.IndexEntryUpdate;
+import org.neo4j.storageengine.api.IndexUpdateListener;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.internal.schema.IndexPrototype.forSchema;
+import static org.neo4j.internal.schema.SchemaDescriptors.forLabel;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL;
+import static org.neo4j.values.storable.Values.intValue;
+
+class IndexUpdatesWorkSyncTest
+{
+    private static final IndexDescriptor TOKEN_INDEX = IndexDescriptor.INJECTED_NLI;
+    private static final IndexDescriptor VALUE_INDEX = forSchema( forLabel( 1, 2 ) ).withName( "values" ).materialise( 1 );
+
+    @Test
+    void shouldApplyTokenIndexUpdatesInCommittingThreadAndOtherUpdatesThroughWorkSync() throws Exception
+    {
+        // given
+        RecordingListener listener = new RecordingListener();
+        IndexUpdatesWorkSync workSync = new IndexUpdatesWorkSync( listener );
+        IndexEntryUpdate<IndexDescriptor> tokenUpdate = IndexEntryUpdate.change( 1, TOKEN_INDEX, new long[0], new long[]{1} );
+        IndexEntryUpdate<IndexDescriptor> valueUpdate = IndexEntryUpdate.add( 1, VALUE_INDEX, intValue( 1 ) );
+
+        // when
+        IndexUpdatesWorkSync.Batch batch = workSync.newBatch();
+        batch.add( List.of( tokenUpdate, valueUpdate ) );
+        batch.apply( NULL );
+
+        // then
+        assertThat( listener.applied ).containsExactly( List.of( tokenUpdate ), List.of( valueUpdate ) );
+    }
+
+    @Test
+    void shouldApplyTokenIndexUpdatesWhileOtherCommittingThreadAppliesUpdates() throws Exception
+    {
+        // given
+        CountDownLatch valueIndexUpdateApplying = new CountDownLatch( 1 );
+        CountDownLatch tokenIndexUpdateApplied = new CountDownLatch( 1 );
+        IndexUpdatesWorkSync workSync = new IndexUpdatesWorkSync( new IndexUpdateListener.Adapter()
+        {
+            @Override
+            public void applyUpdates( Iterable<IndexEntryUpdate<IndexDescriptor>> updates, CursorContext cursorContext )
+            {
+                for ( IndexEntryUpdate<IndexDescriptor> update : updates )
+                {
+                    if ( update.indexKey().isTokenIndex() )
+                    {
+                        tokenIndexUpdateApplied.countDown();
+                    }
+                    else
+                    {
+                        valueIndexUpdateApplying.countDown();
+                        awaitUninterruptibly( tokenIndexUpdateApplied );
+                    }
+                }
+            }
+        } );
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            IndexUpdatesWorkSync.Batch valueBatch = workSync.newBatch();
+            valueBatch.add( IndexEntryUpdate.add( 1, VALUE_INDEX, intValue( 1 ) ) );
+            Future<?> valueApply = executor.submit( () ->
+            {
+                valueBatch.apply( NULL );
+                return null;
+            } );
+            awaitUninterruptibly( valueIndexUpdateApplying );
+
+            // when another transaction commits while the first one holds the work sync
+            IndexUpdatesWorkSync.Batch tokenBatch = workSync.newBatch();
+            tokenBatch.add( IndexEntryUpdate.change( 2, TOKEN_INDEX, new long[0], new long[]{1} ) );
+            tokenBatch.apply( NULL );
+
+            // then
+            valueApply.get( 1, MINUTES );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitUninterruptibly( CountDownLatch latch )
+    {
+        try
+        {
+            assertThat( latch.await( 1, MINUTES ) ).isTrue();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        }
+    }
+
+    private static class RecordingListener extends IndexUpdateListener.Adapter
+    {
+        private final List<List<IndexEntryUpdate<IndexDescriptor>>> applied = new ArrayList<>();
+
+        @Override
+        public synchronized void applyUpdates( Iterable<IndexEntryUpdate<IndexDescriptor>> updates, CursorContext cursorContext )
+        {
+            List<IndexEntryUpdate<IndexDescriptor>> call = new ArrayList<>();
+            updates.forEach( call::add );
+            applied.add( call );
+        }
+    }
+}
@@ -260,6 +260,19 @@ public class StubRead implements Read
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public void nodesProperties( long[] nodeReferences, int[] propertyKeys, NodeCursor nodeCursor, PropertyCursor propertyCursor, Value[][] values )
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void relationshipsProperties( long[] relationshipReferences, int[] propertyKeys, RelationshipScanCursor relationshipCursor,
+            PropertyCursor propertyCursor, Value[][] values )
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public boolean nodeDeletedInTransaction( long node )
     {
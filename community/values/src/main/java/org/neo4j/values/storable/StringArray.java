@@ -19,6 +19,7 @@
  */
 package org.neo4j.values.storable;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import org.neo4j.hashing.HashFunction;
@@ -27,7 +28,9 @@ import org.neo4j.values.ValueMapper;
 
 import static java.lang.String.format;
 import static org.neo4j.memory.HeapEstimator.shallowSizeOfInstance;
+import static org.neo4j.memory.HeapEstimator.shallowSizeOfObjectArray;
 import static org.neo4j.memory.HeapEstimator.sizeOf;
+import static org.neo4j.memory.HeapEstimator.sizeOfLongArray;
 import static org.neo4j.memory.HeapEstimator.sizeOfObjectArray;
 import static org.neo4j.values.storable.NoValue.NO_VALUE;
 import static org.neo4j.values.utils.ValueMath.HASH_CONSTANT;
@@ -35,50 +38,103 @@ import static org.neo4j.values.utils.ValueMath.HASH_CONSTANT;
 public class StringArray extends TextArray
 {
     private static final long SHALLOW_SIZE = shallowSizeOfInstance( StringArray.class );
+    private static final long STRING_SHALLOW_SIZE = shallowSizeOfInstance( String.class );
 
-    private final String[] value;
+    private volatile String[] value;
+    /*
+     * When read from the store the array may instead be backed by the raw UTF-8 bytes of its elements,
+     * in which case the strings are only decoded if something asks for them. Writers that can take
+     * UTF-8 directly get the bytes as they are.
+     */
+    private final byte[] utf8;
+    private final int[] offsets;
+    private final int[] lengths;
+    /*
+     * Upper bound of the heap used by the decoded strings, should they be decoded. Part of the estimated heap usage
+     * of a UTF-8 backed array from the start, so that the estimate doesn't change when the strings get decoded.
+     */
+    private final long decodedSizeBound;
 
     StringArray( String[] value )
     {
         assert value != null;
         this.value = value;
+        this.utf8 = null;
+        this.offsets = null;
+        this.lengths = null;
+        this.decodedSizeBound = 0;
+    }
+
+    StringArray( byte[] utf8, int[] offsets, int[] lengths )
+    {
+        assert utf8 != null && offsets.length == lengths.length;
+        this.utf8 = utf8;
+        this.offsets = offsets;
+        this.lengths = lengths;
+        this.decodedSizeBound = decodedSizeBound( lengths );
+    }
+
+    private static long decodedSizeBound( int[] lengths )
+    {
+        long size = shallowSizeOfObjectArray( lengths.length );
+        for ( int length : lengths )
+        {
+            // A string never has more chars than its UTF-8 encoding has bytes, and each char takes at most two bytes
+            size += STRING_SHALLOW_SIZE + sizeOfLongArray( (int) ((2L * length + Long.BYTES - 1) / Long.BYTES) );
+        }
+        return size;
+    }
+
+    private String[] strings()
+    {
+        String[] strings = value;
+        if ( strings == null )
+        {
+            strings = new String[offsets.length];
+            for ( int i = 0; i < strings.length; i++ )
+            {
+                strings[i] = new String( utf8, offsets[i], lengths[i], StandardCharsets.UTF_8 );
+            }
+            value = strings;
+        }
+        return strings;
     }
 
     @Override
     public int length()
     {
-        return value.length;
+        return utf8 != null ? offsets.length : value.length;
     }
 
     @Override
     public String stringValue( int offset )
     {
-        return value[offset];
+        return strings()[offset];
     }
 
     @Override
     public boolean equals( Value other )
     {
-        return other.equals( value );
+        return other.equals( strings() );
     }
 
     @Override
     public boolean equals( char[] x )
     {
-        return PrimitiveArrayValues.equals( x, value );
+        return PrimitiveArrayValues.equals( x, strings() );
     }
 
     @Override
     public boolean equals( String[] x )
     {
-        return Arrays.equals( value, x );
+        return Arrays.equals( strings(), x );
     }
 
     @Override
     protected int computeHashToMemoize()
     {
         int result = 1;
-        for ( String element : value )
+        for ( String element : strings() )
         {
             result = HASH_CONSTANT * result + (element == null ? NO_VALUE.hashCode() : Values.stringValue( element ).hashCode());
         }
@@ -88,8 +144,9 @@ public class StringArray extends TextArray
     @Override
     public long updateHash( HashFunction hashFunction, long hash )
     {
-        hash = hashFunction.update( hash, value.length );
-        for ( String s : value )
+        String[] strings = strings();
+        hash = hashFunction.update( hash, strings.length );
+        for ( String s : strings )
         {
             hash = StringWrappingStringValue.updateHash( hashFunction, hash, s );
         }
@@ -99,31 +156,48 @@ public class StringArray extends TextArray
     @Override
     public <E extends Exception> void writeTo( ValueWriter<E> writer ) throws E
     {
-        PrimitiveArrayWriting.writeTo( writer, value );
+        if ( value == null )
+        {
+            writer.beginArray( offsets.length, ValueWriter.ArrayType.STRING );
+            for ( int i = 0; i < offsets.length; i++ )
+            {
+                writer.writeUTF8( utf8, offsets[i], lengths[i] );
+            }
+            writer.endArray();
+        }
+        else
+        {
+            PrimitiveArrayWriting.writeTo( writer, value );
+        }
     }
 
     @Override
     public String[] asObjectCopy()
     {
-        return Arrays.copyOf( value, value.length );
+        String[] strings = strings();
+        return Arrays.copyOf( strings, strings.length );
     }
 
     @Override
     @Deprecated
     public String[] asObject()
     {
-        return value;
+        return strings();
     }
 
     @Override
     public String prettyPrint()
     {
-        return Arrays.toString( value );
+        return Arrays.toString( strings() );
     }
 
     @Override
     public AnyValue value( int offset )
     {
+        if ( value == null )
+        {
+            return Values.utf8Value( utf8, offsets[offset], lengths[offset] );
+        }
         return Values.stringOrNoValue( stringValue( offset ) );
     }
 
@@ -136,7 +210,7 @@ public class StringArray extends TextArray
     @Override
     public String toString()
     {
-        return format( "%s%s", getTypeName(), Arrays.toString( value ) );
+        return format( "%s%s", getTypeName(), Arrays.toString( strings() ) );
     }
 
     @Override
@@ -148,6 +222,10 @@ public class StringArray extends TextArray
     @Override
     public long estimatedHeapUsage()
     {
+        if ( utf8 != null )
+        {
+            return SHALLOW_SIZE + sizeOf( utf8 ) + sizeOf( offsets ) + sizeOf( lengths ) + decodedSizeBound;
+        }
         int length = value.length;
         return SHALLOW_SIZE + (length == 0 ? 0 : sizeOfObjectArray( sizeOf( value[0] ), length ) ); // Use first element as probe
     }
@@ -162,8 +240,9 @@ public class StringArray extends TextArray
     public ArrayValue copyWithAppended( AnyValue added )
     {
         assert hasCompatibleType( added ) : "Incompatible types";
-        String[] newArray = Arrays.copyOf( value, value.length + 1 );
-        newArray[value.length] = ((TextValue) added).stringValue();
+        String[] strings = strings();
+        String[] newArray = Arrays.copyOf( strings, strings.length + 1 );
+        newArray[strings.length] = ((TextValue) added).stringValue();
         return new StringArray( newArray );
     }
 
@@ -171,8 +250,9 @@ public class StringArray extends TextArray
     public ArrayValue copyWithPrepended( AnyValue prepended )
     {
         assert hasCompatibleType( prepended ) : "Incompatible types";
-        String[] newArray = new String[value.length + 1];
-        System.arraycopy( value, 0, newArray, 1, value.length );
+        String[] strings = strings();
+        String[] newArray = new String[strings.length + 1];
+        System.arraycopy( strings, 0, newArray, 1, strings.length );
         newArray[0] = ((TextValue) prepended).stringValue();
         return new StringArray( newArray );
     }
@@ -289,6 +289,15 @@ public final class Values
         return new StringArray( value );
     }
 
+    /**
+     * Creates a string array backed by UTF-8 encoded elements, where element {@code i} is the {@code lengths[i]} bytes
+     * starting at {@code offsets[i]} in {@code bytes}. The elements are decoded lazily, if at all.
+     */
+    public static TextArray utf8StringArray( byte[] bytes, int[] offsets, int[] lengths )
+    {
+        return new StringArray( bytes, offsets, lengths );
+    }
+
     public static ByteArray byteArray( byte[] value )
     {
         return new ByteArray( value );
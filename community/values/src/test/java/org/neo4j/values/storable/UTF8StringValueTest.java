@@ -21,12 +21,16 @@ package org.neo4j.values.storable;
 
 import org.junit.jupiter.api.Test;
 
+import org.neo4j.memory.HeapEstimator;
+
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.neo4j.values.storable.StringsLibrary.STRINGS;
+import static org.neo4j.values.storable.Values.stringArray;
 import static org.neo4j.values.storable.Values.stringValue;
+import static org.neo4j.values.storable.Values.utf8StringArray;
 import static org.neo4j.values.storable.Values.utf8Value;
 import static org.neo4j.values.utils.AnyValueTestUtil.assertEqual;
 
@@ -99,6 +103,62 @@ class UTF8StringValueTest
         }
     }
 
+    @Test
+    void shouldHandleDifferentTypesOfStringsInArrays()
+    {
+        TextArray utf8 = utf8StringArrayOf( STRINGS );
+        TextArray strings = stringArray( STRINGS );
+        assertThat( utf8.length() ).isEqualTo( strings.length() );
+        for ( int i = 0; i < STRINGS.length; i++ )
+        {
+            assertEqual( strings.value( i ), utf8.value( i ) );
+        }
+
+        BufferValueWriter expected = new BufferValueWriter();
+        strings.writeTo( expected );
+        BufferValueWriter actual = new BufferValueWriter();
+        utf8.writeTo( actual );
+        assertThat( actual.buffer ).isEqualTo( expected.buffer );
+
+        assertEqual( strings, utf8 );
+        assertThat( utf8.asObjectCopy() ).isEqualTo( STRINGS );
+    }
+
+    @Test
+    void shouldEstimateSameHeapUsageOfStringArrayBeforeAndAfterDecoding()
+    {
+        TextArray utf8 = utf8StringArrayOf( STRINGS );
+        long estimateBeforeDecoding = utf8.estimatedHeapUsage();
+
+        utf8.stringValue( 0 );
+
+        assertThat( utf8.estimatedHeapUsage() ).isEqualTo( estimateBeforeDecoding );
+        assertThat( estimateBeforeDecoding ).isGreaterThanOrEqualTo( HeapEstimator.sizeOf( STRINGS ) );
+    }
+
+    private static TextArray utf8StringArrayOf( String[] strings )
+    {
+        byte[][] encoded = new byte[strings.length][];
+        int totalLength = 0;
+        for ( int i = 0; i < strings.length; i++ )
+        {
+            encoded[i] = strings[i].getBytes( UTF_8 );
+            totalLength += encoded[i].length;
+        }
+        byte[] bytes = new byte[totalLength];
+        int[] offsets = new int[strings.length];
+        int[] lengths = new int[strings.length];
+        int position = 0;
+        for ( int i = 0; i < encoded.length; i++ )
+        {
+            System.arraycopy( encoded[i], 0, bytes, position, encoded[i].length );
+            offsets[i] = position;
+            lengths[i] = encoded[i].length;
+            position += encoded[i].length;
+        }
+        return utf8StringArray( bytes, offsets, lengths );
+    }
+
     @Test
     void shouldCompareTo()
     {